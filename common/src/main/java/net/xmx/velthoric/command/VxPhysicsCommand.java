@@ -0,0 +1,79 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
+import net.xmx.velthoric.core.physics.world.VxSteppingMonitor;
+import net.xmx.velthoric.core.physics.world.VxSteppingPolicy;
+
+/**
+ * A command to inspect and configure the physics simulation of the current dimension.
+ * <p>
+ * {@code /vxphysics stepping} reports the stepping policy, the time dilation and the dropped time.
+ * {@code /vxphysics stepping set <tickRate> <collisionSteps> <maxCatchUpSteps>} changes the policy,
+ * and {@code /vxphysics stepping reset} restores the default.
+ *
+ * @author xI-Mx-Ix
+ */
+public class VxPhysicsCommand {
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("vxphysics")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stepping")
+                        .executes(VxPhysicsCommand::reportStepping)
+                        .then(Commands.literal("set")
+                                .then(Commands.argument("tickRate", IntegerArgumentType.integer(VxSteppingPolicy.MIN_TICK_RATE, VxSteppingPolicy.MAX_TICK_RATE))
+                                        .then(Commands.argument("collisionSteps", IntegerArgumentType.integer(1, VxSteppingPolicy.MAX_COLLISION_STEPS))
+                                                .then(Commands.argument("maxCatchUpSteps", IntegerArgumentType.integer(1, VxSteppingPolicy.MAX_CATCH_UP_STEPS))
+                                                        .executes(context -> applyStepping(context, new VxSteppingPolicy(
+                                                                IntegerArgumentType.getInteger(context, "tickRate"),
+                                                                IntegerArgumentType.getInteger(context, "collisionSteps"),
+                                                                IntegerArgumentType.getInteger(context, "maxCatchUpSteps"))))
+                                                )
+                                        )
+                                )
+                        )
+                        .then(Commands.literal("reset")
+                                .executes(context -> applyStepping(context, VxSteppingPolicy.DEFAULT))
+                        )
+                )
+        );
+    }
+
+    private static int reportStepping(CommandContext<CommandSourceStack> context) {
+        ResourceKey<Level> dimension = context.getSource().getLevel().dimension();
+        VxPhysicsWorld world = VxPhysicsWorld.get(dimension);
+        if (world == null) {
+            context.getSource().sendFailure(Component.literal("No physics world is running in " + dimension.location() + "."));
+            return 0;
+        }
+
+        VxSteppingPolicy policy = world.getSteppingPolicy();
+        VxSteppingMonitor monitor = world.getSteppingMonitor();
+        context.getSource().sendSuccess(() -> Component.literal(String.format(
+                "Physics in %s: %d Hz, %d collision step(s), up to %d catch-up step(s). Time dilation %.2f, %.1f s dropped in total.",
+                dimension.location(), policy.tickRate(), policy.collisionSteps(), policy.maxCatchUpSteps(),
+                monitor.getTimeDilation(), monitor.getTotalDroppedSeconds())), false);
+        return 1;
+    }
+
+    private static int applyStepping(CommandContext<CommandSourceStack> context, VxSteppingPolicy policy) {
+        ResourceKey<Level> dimension = context.getSource().getLevel().dimension();
+        VxPhysicsWorld.setSteppingPolicy(dimension, policy);
+        context.getSource().sendSuccess(() -> Component.literal(String.format(
+                "Set physics stepping in %s to %d Hz, %d collision step(s), up to %d catch-up step(s).",
+                dimension.location(), policy.tickRate(), policy.collisionSteps(), policy.maxCatchUpSteps())), true);
+        return 1;
+    }
+}
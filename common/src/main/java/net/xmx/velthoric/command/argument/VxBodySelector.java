@@ -16,6 +16,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
@@ -78,13 +79,20 @@ public class VxBodySelector {
         List<VxBody> allBodies = new ArrayList<>(world.getBodyManager().getAllBodies());
         List<VxBody> filteredBodies = new ArrayList<>();
 
-        for (VxBody body : allBodies) {
-            if (predicate.test(body)) {
-                filteredBodies.add(body);
+        // The predicates and the ordering read body slots by index, so compaction waits for the selection
+        Lock slotAccess = world.getBodyManager().getDataStore().getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            for (VxBody body : allBodies) {
+                if (predicate.test(body)) {
+                    filteredBodies.add(body);
+                }
             }
-        }
 
-        order.accept(source.getPosition(), filteredBodies);
+            order.accept(source.getPosition(), filteredBodies);
+        } finally {
+            slotAccess.unlock();
+        }
 
         if (filteredBodies.size() <= limit) {
             return filteredBodies;
@@ -6,6 +6,7 @@ package net.xmx.velthoric.command.test;
 
 import com.github.stephengold.joltjni.Quat;
 import com.github.stephengold.joltjni.RVec3;
+import com.github.stephengold.joltjni.enumerate.EActivation;
 import com.mojang.brigadier.arguments.FloatArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
@@ -23,6 +24,9 @@ import net.xmx.velthoric.math.VxTransform;
 import net.xmx.velthoric.core.body.server.VxServerBodyManager;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public final class SpawnBoxGridTest implements IVxTestCommand {
 
     @Override
@@ -57,43 +61,38 @@ public final class SpawnBoxGridTest implements IVxTestCommand {
         float boxSize = FloatArgumentType.getFloat(context, "boxSize");
         float spacing = FloatArgumentType.getFloat(context, "spacing");
 
-        int spawnedCount = 0;
+        VxPhysicsWorld physicsWorld = VxPhysicsWorld.get(serverLevel.dimension());
+        if (physicsWorld == null) return 0;
+
         float halfExtent = boxSize / 2.0f;
         com.github.stephengold.joltjni.Vec3 halfExtents = new com.github.stephengold.joltjni.Vec3(halfExtent, halfExtent, halfExtent);
         float step = boxSize + spacing;
 
+        List<VxTransform> transforms = new ArrayList<>(gridSizeX * gridSizeY * gridSizeZ);
         for (int i = 0; i < gridSizeX; i++) {
             for (int j = 0; j < gridSizeY; j++) {
                 for (int k = 0; k < gridSizeZ; k++) {
                     double x = initialPos.x + i * step;
                     double y = initialPos.y + j * step;
                     double z = initialPos.z + k * step;
-                    if (spawn(serverLevel, new Vec3(x, y, z), halfExtents) == 1) {
-                        spawnedCount++;
-                    }
+                    transforms.add(new VxTransform(new RVec3(x, y, z), Quat.sIdentity()));
                 }
             }
         }
 
-        int finalSpawnedCount = spawnedCount;
-        source.sendSuccess(() -> Component.literal(String.format(
-                "Successfully spawned %d boxes in a %dx%dx%d grid with spacing %.2f.",
-                finalSpawnedCount, gridSizeX, gridSizeY, gridSizeZ, spacing)), true);
-        return spawnedCount;
-    }
-
-    private int spawn(ServerLevel serverLevel, Vec3 spawnPosMc, com.github.stephengold.joltjni.Vec3 halfExtents) {
-        VxPhysicsWorld physicsWorld = VxPhysicsWorld.get(serverLevel.dimension());
-        if (physicsWorld == null) return 0;
-
+        // The whole grid is inserted into Jolt in batches rather than body by body
         VxServerBodyManager manager = physicsWorld.getBodyManager();
-        VxTransform transform = new VxTransform(new RVec3(spawnPosMc.x, spawnPosMc.y, spawnPosMc.z), Quat.sIdentity());
-
-        BoxRigidBody spawnedBody = manager.createRigidBody(
+        List<BoxRigidBody> spawned = manager.createBodies(
                 VxRegisteredBodies.BOX,
-                transform,
-                box -> box.setHalfExtents(halfExtents)
+                transforms,
+                EActivation.DontActivate,
+                (BoxRigidBody box) -> box.setHalfExtents(halfExtents)
         );
-        return spawnedBody != null ? 1 : 0;
+        int spawnedCount = spawned.size();
+
+        source.sendSuccess(() -> Component.literal(String.format(
+                "Successfully spawned %d boxes in a %dx%dx%d grid with spacing %.2f.",
+                spawnedCount, gridSizeX, gridSizeY, gridSizeZ, spacing)), true);
+        return spawnedCount;
     }
-}
\ No newline at end of file
+}
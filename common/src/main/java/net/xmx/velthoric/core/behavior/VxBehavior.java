@@ -28,9 +28,10 @@ import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
  *     <li>{@link #onDetached} — Called when a body loses this behavior. Clean up per-body data here.</li>
  * </ol>
  *
- * <b>Important:</b> Implementations should iterate the {@code dataStore.bodies[]} array themselves
- * and check {@code dataStore.behaviorBits[i]} using their {@link VxBehaviorId#getMask()} to filter
- * relevant bodies.
+ * <b>Important:</b> Implementations should iterate the packed index list returned by
+ * {@code dataStore.getBehaviorIndex(getId())} rather than scanning the {@code bodies[]} array up to capacity,
+ * and still validate each entry (e.g. {@code bodies[i] != null}, {@code behaviorBits[i]}) since the list
+ * is read without locking. {@link VxBehaviorManager#forEachWithBehavior} does both.
  *
  * @author xI-Mx-Ix
  */
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.behavior;
+
+import java.util.Arrays;
+
+/**
+ * A dense, packed list of data store indices for all bodies carrying a single behavior.
+ * <p>
+ * Tick loops iterate this list instead of scanning the data store from {@code 0} to its capacity,
+ * so their cost scales with the number of live bodies that actually have the behavior attached
+ * rather than with the high-water mark of the store.
+ * <p>
+ * <b>Layout:</b>
+ * <ul>
+ *     <li>{@code dense} holds the packed data store indices in slots {@code [0, size)}.</li>
+ *     <li>{@code slots} maps a data store index to its position in {@code dense} (or {@code -1}),
+ *     which makes both insertion and swap-removal O(1).</li>
+ * </ul>
+ * <p>
+ * <b>Concurrency:</b> Mutations are synchronized and performed by the thread that attaches or detaches behaviors.
+ * Readers on other threads (e.g. the physics thread) take {@link #elements()} followed by {@link #size()}
+ * without locking, and must clamp the size to the array length. A concurrent swap-removal may cause a body
+ * to be skipped or visited twice for a single tick, so readers must still validate each entry against
+ * the data store, exactly as the previous full scans did.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxBehaviorIndex {
+
+    /**
+     * The initial capacity of the packed list.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Packed data store indices. Only the first {@link #size} entries are valid.
+     */
+    private volatile int[] dense = new int[INITIAL_CAPACITY];
+
+    /**
+     * Reverse mapping from data store index to the slot in {@link #dense}, or {@code -1} if absent.
+     */
+    private int[] slots = new int[0];
+
+    /**
+     * The number of valid entries in {@link #dense}.
+     */
+    private volatile int size = 0;
+
+    /**
+     * Adds a data store index to the list if it is not already present.
+     *
+     * @param index The data store index.
+     * @return True if the index was added.
+     */
+    public synchronized boolean add(int index) {
+        if (index < 0) return false;
+        ensureSlotCapacity(index + 1);
+        if (slots[index] != -1) return false;
+
+        int[] d = dense;
+        int n = size;
+        if (n == d.length) {
+            d = Arrays.copyOf(d, d.length * 2);
+        }
+        d[n] = index;
+        slots[index] = n;
+        // Publish the (possibly grown) array before the new size
+        dense = d;
+        size = n + 1;
+        return true;
+    }
+
+    /**
+     * Removes a data store index from the list by swapping the last entry into its slot.
+     *
+     * @param index The data store index.
+     * @return True if the index was present and has been removed.
+     */
+    public synchronized boolean remove(int index) {
+        if (index < 0 || index >= slots.length) return false;
+        int slot = slots[index];
+        if (slot == -1) return false;
+
+        int[] d = dense;
+        int last = size - 1;
+        int moved = d[last];
+        d[slot] = moved;
+        slots[moved] = slot;
+        slots[index] = -1;
+        size = last;
+        return true;
+    }
+
+    /**
+     * Re-points an entry after the data store moved a body from one slot to another during compaction.
+     * The packed position of the entry is preserved, so concurrent readers never see a gap.
+     *
+     * @param from The previous data store index.
+     * @param to   The new data store index (must not be present).
+     * @return True if the index was present and has been relocated.
+     */
+    public synchronized boolean relocate(int from, int to) {
+        if (from < 0 || from >= slots.length || to < 0) return false;
+        int slot = slots[from];
+        if (slot == -1) return false;
+
+        ensureSlotCapacity(to + 1);
+        slots[to] = slot;
+        slots[from] = -1;
+        dense[slot] = to;
+        return true;
+    }
+
+    /**
+     * Releases reverse-mapping capacity above the given limit after the data store shrank.
+     * All indices at or above the limit must already have been removed or relocated.
+     *
+     * @param limit The new data store capacity.
+     */
+    public synchronized void trimTo(int limit) {
+        if (slots.length > limit) {
+            slots = Arrays.copyOf(slots, Math.max(limit, 0));
+        }
+        int[] d = dense;
+        if (d.length > INITIAL_CAPACITY && size <= d.length / 4) {
+            dense = Arrays.copyOf(d, Math.max(INITIAL_CAPACITY, d.length / 2));
+        }
+    }
+
+    /**
+     * Checks whether the given data store index is part of this list.
+     *
+     * @param index The data store index.
+     * @return True if present.
+     */
+    public synchronized boolean contains(int index) {
+        return index >= 0 && index < slots.length && slots[index] != -1;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        Arrays.fill(slots, -1);
+        size = 0;
+    }
+
+    /**
+     * Returns the backing array of packed indices for lock-free iteration.
+     * Read this before {@link #size()} and clamp the size to the array length.
+     *
+     * @return The packed index array.
+     */
+    public int[] elements() {
+        return dense;
+    }
+
+    /**
+     * @return The number of valid entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void ensureSlotCapacity(int required) {
+        if (slots.length >= required) return;
+        int oldLength = slots.length;
+        int newLength = Math.max(required, Math.max(INITIAL_CAPACITY, oldLength * 2));
+        slots = Arrays.copyOf(slots, newLength);
+        Arrays.fill(slots, oldLength, newLength, -1);
+    }
+}
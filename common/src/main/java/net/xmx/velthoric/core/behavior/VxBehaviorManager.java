@@ -11,6 +11,7 @@ import net.xmx.velthoric.core.body.VxBodyDataContainer;
 import net.xmx.velthoric.core.body.VxBodyDataStore;
 import net.xmx.velthoric.core.body.client.VxClientBodyDataStore;
 import net.xmx.velthoric.core.body.client.VxClientBodyManager;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.mounting.behavior.VxMountBehavior;
@@ -36,6 +37,9 @@ import java.util.List;
  *     <li>Iterating behaviors during tick phases (pre-physics, physics, server tick, client tick).</li>
  * </ul>
  * <p>
+ * All attachment changes are routed through the data store's behavior bit setters, which keep a dense
+ * per-behavior index list ({@link VxBehaviorIndex}) in sync so that tick loops only visit relevant bodies.
+ * <p>
  * The behaviors are iterated in registration order, which allows control over execution priority.
  *
  * @author xI-Mx-Ix
@@ -140,7 +144,7 @@ public final class VxBehaviorManager {
             return; // Already attached
         }
 
-        c.behaviorBits[index] |= mask;
+        dataStore.addBehaviorBits(index, mask);
         behavior.onAttached(index, body);
     }
 
@@ -165,6 +169,30 @@ public final class VxBehaviorManager {
         }
     }
 
+    /**
+     * Attaches a set of behaviors to a freshly registered body in one step.
+     * <p>
+     * All bits are set (and the body is added to each behavior's packed index) before any
+     * {@link VxBehavior#onAttached} callback runs, so callbacks observe the complete behavior set.
+     *
+     * @param body The body to attach the behaviors to.
+     * @param bits The behavior bitmask, typically the body type's default behaviors.
+     */
+    public void attachBehaviors(VxBody body, long bits) {
+        VxBodyDataStore dataStore = body.getDataStore();
+        if (dataStore == null || bits == 0) return;
+
+        int index = body.getDataStoreIndex();
+        if (index == -1 || index >= dataStore.current().capacity) return;
+
+        dataStore.addBehaviorBits(index, bits);
+        for (VxBehavior behavior : behaviors) {
+            if (behavior.getId().isSet(bits)) {
+                behavior.onAttached(index, body);
+            }
+        }
+    }
+
     /**
      * Detaches a behavior from a body by clearing the corresponding bit in the data store.
      *
@@ -185,7 +213,7 @@ public final class VxBehaviorManager {
         }
 
         behavior.onDetached(index, body);
-        c.behaviorBits[index] &= ~mask;
+        dataStore.removeBehaviorBits(index, mask);
     }
 
     /**
@@ -209,7 +237,7 @@ public final class VxBehaviorManager {
                 behavior.onDetached(index, body);
             }
         }
-        c.behaviorBits[index] = 0;
+        dataStore.removeBehaviorBits(index, bits);
     }
 
     /**
@@ -259,6 +287,51 @@ public final class VxBehaviorManager {
     // Tick Dispatch
     // ================================================================================
 
+    /**
+     * Receives the bodies visited by {@link #forEachWithBehavior}.
+     */
+    @FunctionalInterface
+    public interface BodyVisitor {
+        /**
+         * @param c     The container the index refers to.
+         * @param index The data store index of the body.
+         * @param body  The body, never null.
+         */
+        void visit(VxServerBodyDataContainer c, int index, VxBody body);
+    }
+
+    /**
+     * Visits every body of a store that carries the given behavior, walking the behavior's packed
+     * index list instead of the full store capacity.
+     * <p>
+     * The list is read without locking, so each entry is validated first: indices beyond the current
+     * container, empty slots and slots whose behavior bit has been cleared in the meantime are skipped.
+     *
+     * @param store      The server-side body data store.
+     * @param behaviorId The behavior to select bodies by.
+     * @param visitor    Called once per body carrying the behavior.
+     */
+    public static void forEachWithBehavior(VxServerBodyDataStore store, VxBehaviorId behaviorId, BodyVisitor visitor) {
+        VxServerBodyDataContainer c = store.serverCurrent();
+        final long mask = behaviorId.getMask();
+        final VxBody[] bodies = c.bodies;
+        final int capacity = c.getCapacity();
+
+        VxBehaviorIndex active = store.getBehaviorIndex(behaviorId);
+        final int[] indices = active.elements();
+        final int count = Math.min(active.size(), indices.length);
+
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            if (i >= capacity) continue;
+            VxBody body = bodies[i];
+            if (body == null) continue;
+            if ((c.behaviorBits[i] & mask) == 0) continue;
+
+            visitor.visit(c, i, body);
+        }
+    }
+
     /**
      * Dispatches the pre-physics tick event to all registered behaviors.
      *
@@ -5,21 +5,21 @@
 package net.xmx.velthoric.core.behavior.impl;
 
 import com.github.stephengold.joltjni.*;
-import com.github.stephengold.joltjni.enumerate.EMotionType;
 import com.github.stephengold.joltjni.readonly.*;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import net.xmx.velthoric.core.behavior.VxBehavior;
 import net.xmx.velthoric.core.behavior.VxBehaviorId;
+import net.xmx.velthoric.core.behavior.VxBehaviorManager;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
 import net.xmx.velthoric.core.body.server.VxServerBodyManager;
 import net.xmx.velthoric.core.body.tracking.VxSpatialManager;
+import net.xmx.velthoric.core.physics.VxBodyStateBatch;
+import net.xmx.velthoric.core.physics.VxNativeBufferPool;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import net.xmx.velthoric.init.VxMainClass;
 
-import java.nio.ByteBuffer;
-import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 
 /**
@@ -28,6 +28,8 @@ import java.nio.FloatBuffer;
  * This behavior utilizes batch JNI calls to minimize overhead when processing large numbers
  * of bodies. It extracts transformations, velocities, activity states, and vertex data
  * for soft bodies, updating the Structure of Arrays (SoA) layout directly.
+ * All native ID arrays and result buffers are drawn from the world's {@link VxNativeBufferPool},
+ * so the steady state performs no native allocation.
  *
  * @author xI-Mx-Ix
  */
@@ -39,65 +41,15 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
      */
     public static final VxBehaviorId ID = new VxBehaviorId(VxMainClass.MODID, "PhysicsSync");
 
-    /**
-     * Number of bodies processed in a single JNI batch operation.
-     */
-    private static final int BATCH_SIZE = 512;
-
     /**
      * Reusable vector for position calculations.
      */
     private final ThreadLocal<RVec3> tempPos = ThreadLocal.withInitial(RVec3::new);
 
-    /**
-     * Reusable array for collecting body IDs for batching.
-     */
-    private final ThreadLocal<BodyIdArray> batchBodyIds = ThreadLocal.withInitial(() -> new BodyIdArray(BATCH_SIZE));
-
     /**
      * Reusable list for tracking data store indices during batching.
      */
-    private final ThreadLocal<IntArrayList> batchDataIndices = ThreadLocal.withInitial(() -> new IntArrayList(BATCH_SIZE));
-
-    /**
-     * Buffer for batch position retrieval.
-     */
-    private final ThreadLocal<DoubleBuffer> posBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectDoubleBuffer(BATCH_SIZE * 3));
-
-    /**
-     * Buffer for batch rotation retrieval.
-     */
-    private final ThreadLocal<FloatBuffer> rotBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectFloatBuffer(BATCH_SIZE * 4));
-
-    /**
-     * Buffer for batch linear velocity retrieval.
-     */
-    private final ThreadLocal<FloatBuffer> linVelBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectFloatBuffer(BATCH_SIZE * 3));
-
-    /**
-     * Buffer for batch angular velocity retrieval.
-     */
-    private final ThreadLocal<FloatBuffer> angVelBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectFloatBuffer(BATCH_SIZE * 3));
-
-    /**
-     * Buffer for batch activity state retrieval.
-     */
-    private final ThreadLocal<ByteBuffer> activeBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectByteBuffer(BATCH_SIZE));
-
-    /**
-     * Buffer for batch added-state verification.
-     */
-    private final ThreadLocal<ByteBuffer> addedBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectByteBuffer(BATCH_SIZE));
-
-    /**
-     * Buffer for batch motion type retrieval.
-     */
-    private final ThreadLocal<ByteBuffer> motionTypeBuffer = ThreadLocal.withInitial(() -> Jolt.newDirectByteBuffer(BATCH_SIZE));
-
-    /**
-     * Cached buffer for soft body vertex extraction.
-     */
-    private final ThreadLocal<FloatBuffer> softBodyBufferCache = ThreadLocal.withInitial(() -> Jolt.newDirectFloatBuffer(1024));
+    private final ThreadLocal<IntArrayList> batchDataIndices = ThreadLocal.withInitial(() -> new IntArrayList(VxNativeBufferPool.BATCH_SIZE));
 
     /**
      * Default constructor.
@@ -137,42 +89,32 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
      * @param bodyInterface  The native batch interface.
      */
     private void postUpdateSync(long timestampNanos, VxPhysicsWorld world, VxServerBodyDataStore dataStore, BatchBodyInterface bodyInterface) {
-        VxServerBodyDataContainer c = dataStore.serverCurrent();
-        final VxBody[] bodies = c.bodies;
-        final int capacity = c.getCapacity();
-        long mask = getId().getMask();
-
-        BodyIdArray localBatchIds = batchBodyIds.get();
+        VxNativeBufferPool pool = world.getNativeBuffers();
+        BodyIdArray localBatchIds = pool.getBodyIdArray(VxNativeBufferPool.BATCH_SIZE);
+        // The collected indices double as the fill level of the current batch
         IntArrayList localIndices = batchDataIndices.get();
 
-        int currentBatchCount = 0;
-
-        for (int i = 0; i < capacity; ++i) {
-            if ((c.behaviorBits[i] & mask) == 0) continue;
-
-            VxBody obj = bodies[i];
-            if (obj == null) continue;
-
+        VxBehaviorManager.forEachWithBehavior(dataStore, ID, (c, i, obj) -> {
             int bodyId = obj.getBodyId();
-            if (bodyId == 0) continue;
+            if (bodyId == 0) return;
 
-            localBatchIds.set(currentBatchCount, bodyId);
+            localBatchIds.set(localIndices.size(), bodyId);
             localIndices.add(i);
-            currentBatchCount++;
 
-            if (currentBatchCount == BATCH_SIZE) {
-                processUpdateBatch(timestampNanos, world, dataStore, c, bodyInterface, localBatchIds, currentBatchCount);
-                currentBatchCount = 0;
+            if (localIndices.size() == VxNativeBufferPool.BATCH_SIZE) {
+                processUpdateBatch(timestampNanos, world, dataStore, c, bodyInterface, localBatchIds, VxNativeBufferPool.BATCH_SIZE);
                 localIndices.clear();
             }
-        }
+        });
 
-        if (currentBatchCount > 0) {
-            BodyIdArray tailIds = new BodyIdArray(currentBatchCount);
-            for (int j = 0; j < currentBatchCount; j++) {
+        int tailCount = localIndices.size();
+        if (tailCount > 0) {
+            // The multi-body lock covers the whole array, so the tail needs an array of its exact length
+            BodyIdArray tailIds = pool.getBodyIdArray(tailCount);
+            for (int j = 0; j < tailCount; j++) {
                 tailIds.set(j, localBatchIds.get(j));
             }
-            processUpdateBatch(timestampNanos, world, dataStore, c, bodyInterface, tailIds, currentBatchCount);
+            processUpdateBatch(timestampNanos, world, dataStore, dataStore.serverCurrent(), bodyInterface, tailIds, tailCount);
             localIndices.clear();
         }
     }
@@ -190,34 +132,10 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
      */
     private void processUpdateBatch(long timestampNanos, VxPhysicsWorld world, VxServerBodyDataStore dataStore, VxServerBodyDataContainer c, BatchBodyInterface bodyInterface, ConstBodyIdArray ids, int count) {
         IntArrayList indices = batchDataIndices.get();
+        VxNativeBufferPool pool = world.getNativeBuffers();
 
-        ByteBuffer addedStates = addedBuffer.get();
-        addedStates.clear();
-        bodyInterface.areAdded(ids, addedStates);
-
-        ByteBuffer activeStates = activeBuffer.get();
-        activeStates.clear();
-        bodyInterface.areActive(ids, activeStates);
-
-        DoubleBuffer positions = posBuffer.get();
-        positions.clear();
-        bodyInterface.getPositions(ids, positions);
-
-        FloatBuffer rotations = rotBuffer.get();
-        rotations.clear();
-        bodyInterface.getRotations(ids, rotations);
-
-        FloatBuffer linVels = linVelBuffer.get();
-        linVels.clear();
-        bodyInterface.getLinearVelocities(ids, linVels);
-
-        FloatBuffer angVels = angVelBuffer.get();
-        angVels.clear();
-        bodyInterface.getAngularVelocities(ids, angVels);
-
-        ByteBuffer motionTypes = motionTypeBuffer.get();
-        motionTypes.clear();
-        bodyInterface.getMotionTypes(ids, motionTypes);
+        VxBodyStateBatch batch = pool.getStateBatch();
+        batch.fetch(bodyInterface, ids);
 
         final VxBody[] bodies = c.bodies;
         ConstBodyLockInterfaceNoLock lockInterface = world.getPhysicsSystem().getBodyLockInterfaceNoLock();
@@ -227,7 +145,7 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
             ConstBody[] lockedBodies = multiLock.getBodies();
 
             for (int b = 0; b < count; b++) {
-                if (addedStates.get(b) == 0) continue;
+                if (!batch.isAdded(b)) continue;
 
                 int i = indices.getInt(b);
                 // Critical bounds check: ensure the index is valid for our cached container reference
@@ -235,70 +153,51 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
                 VxBody obj = bodies[i];
                 if (obj == null) continue;
 
-                boolean isJoltBodyActive = activeStates.get(b) != 0;
+                boolean isJoltBodyActive = batch.isActive(b);
                 boolean wasDataStoreBodyActive = c.isActive[i];
 
                 if (isJoltBodyActive || wasDataStoreBodyActive) {
 
-                    double nx = positions.get(b * 3);
-                    double ny = positions.get(b * 3 + 1);
-                    double nz = positions.get(b * 3 + 2);
-
                     if (isJoltBodyActive || isJoltBodyActive != wasDataStoreBodyActive) {
                         c.isTransformDirty[i] = true;
-                        synchronized (dataStore) {
-                            c.dirtyIndices.add(i);
-                        }
+                        c.dirtyIndices.mark(i);
                     }
 
-                    c.posX[i] = nx;
-                    c.posY[i] = ny;
-                    c.posZ[i] = nz;
-
-                    c.rotX[i] = rotations.get(b * 4);
-                    c.rotY[i] = rotations.get(b * 4 + 1);
-                    c.rotZ[i] = rotations.get(b * 4 + 2);
-                    c.rotW[i] = rotations.get(b * 4 + 3);
-
-                    c.velX[i] = linVels.get(b * 3);
-                    c.velY[i] = linVels.get(b * 3 + 1);
-                    c.velZ[i] = linVels.get(b * 3 + 2);
-
-                    c.angVelX[i] = angVels.get(b * 3);
-                    c.angVelY[i] = angVels.get(b * 3 + 1);
-                    c.angVelZ[i] = angVels.get(b * 3 + 2);
-
-                    c.motionType[i] = EMotionType.values()[motionTypes.get(b)];
+                    batch.copyState(b, c, i);
                     c.isActive[i] = isJoltBodyActive;
                     c.lastUpdateTimestamp[i] = timestampNanos;
 
-                    final long lastKey = c.chunkKey[i];
-                    final long currentKey = VxSpatialManager.calculateChunkKey(c.posX[i], c.posZ[i]);
-
-                    if (lastKey != currentKey) {
-                        manager.updateBodyTracking(obj, lastKey, currentKey);
-                    }
-
                     // Retrieve AABB from the batch-locked body reference
                     ConstBody body = lockedBodies[b];
                     if (body != null) {
-                        ConstAaBox bounds = body.getWorldSpaceBounds();
-                        Vec3 min = bounds.getMin();
-                        Vec3 max = bounds.getMax();
-
-                        c.aabbMinX[i] = min.getX();
-                        c.aabbMinY[i] = min.getY();
-                        c.aabbMinZ[i] = min.getZ();
-                        c.aabbMaxX[i] = max.getX();
-                        c.aabbMaxY[i] = max.getY();
-                        c.aabbMaxZ[i] = max.getZ();
+                        VxBodyStateBatch.copyBounds(body, c, i);
 
                         if (isJoltBodyActive && VxSoftPhysicsBehavior.ID.isSet(c.behaviorBits[i])) {
                             RVec3 pos = tempPos.get();
                             pos.set(c.posX[i], c.posY[i], c.posZ[i]);
-                            updateSoftBodyVertices(c, dataStore, body, pos, i);
+                            updateSoftBodyVertices(pool, c, body, pos, i);
                         }
                     }
+
+                    final long lastKey = c.chunkKey[i];
+                    final long currentKey = VxSpatialManager.calculateChunkKey(c.posX[i], c.posZ[i]);
+
+                    if (lastKey != currentKey) {
+                        manager.updateBodyTracking(obj, lastKey, currentKey);
+                    }
+
+                    // The state above is written first, so a save that consumed the last mark of this
+                    // body either sees this tick's state or has advanced the generation, and the chunk
+                    // is marked again here. Only saves advance the generation; they never touch the slot.
+                    if (c.persistenceGeneration[i] != manager.getBodyStorage().getSaveGeneration()) {
+                        manager.markPersistenceDirty(c, i, currentKey);
+                    }
+
+                    // Listeners such as the terrain tracker read isActive and the bounds of the slot when
+                    // they process the notification, so it is only sent once the whole state is written.
+                    if (isJoltBodyActive != wasDataStoreBodyActive) {
+                        manager.onBodyActivationChanged(obj);
+                    }
                 }
             }
         }
@@ -307,30 +206,38 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
     /**
      * Synchronizes soft body vertex data for deformable objects.
      *
-     * @param c              The data container.
-     * @param dataStore    The server data store.
+     * @param pool         The world's native buffer pool.
+     * @param c            The data container.
      * @param body         The native body.
      * @param bodyPosition The body's center of mass position.
      * @param dataIndex    The index in the SoA store.
      */
-    private void updateSoftBodyVertices(VxServerBodyDataContainer c, VxServerBodyDataStore dataStore, ConstBody body, RVec3Arg bodyPosition, int dataIndex) {
+    private void updateSoftBodyVertices(VxNativeBufferPool pool, VxServerBodyDataContainer c, ConstBody body, RVec3Arg bodyPosition, int dataIndex) {
         ConstSoftBodyMotionProperties motionProps = (ConstSoftBodyMotionProperties) body.getMotionProperties();
         int numVertices = motionProps.getSettings().countVertices();
         if (numVertices <= 0) return;
 
         int requiredFloats = numVertices * 3;
 
-        FloatBuffer buffer = softBodyBufferCache.get();
-        if (buffer.capacity() < requiredFloats) {
-            buffer = Jolt.newDirectFloatBuffer(Math.max(requiredFloats, buffer.capacity() * 2));
-            softBodyBufferCache.set(buffer);
+        FloatBuffer buffer = pool.borrowVertexBuffer(requiredFloats);
+        try {
+            motionProps.putVertexLocations(bodyPosition, buffer);
+            buffer.flip();
+            copyVertices(c, buffer, requiredFloats, dataIndex);
+        } finally {
+            pool.returnVertexBuffer(buffer);
         }
-        buffer.clear();
-        buffer.limit(requiredFloats);
-
-        motionProps.putVertexLocations(bodyPosition, buffer);
-        buffer.flip();
+    }
 
+    /**
+     * Copies extracted vertex positions into the data store and marks the body dirty if they changed.
+     *
+     * @param c              The data container.
+     * @param buffer         The extracted vertex positions.
+     * @param requiredFloats The number of floats to copy.
+     * @param dataIndex      The index in the SoA store.
+     */
+    private void copyVertices(VxServerBodyDataContainer c, FloatBuffer buffer, int requiredFloats, int dataIndex) {
         float[] existing = c.vertexData[dataIndex];
         boolean changed = false;
 
@@ -351,9 +258,7 @@ public class VxPhysicsSyncBehavior implements VxBehavior {
 
         if (changed) {
             c.isVertexDataDirty[dataIndex] = true;
-            synchronized (dataStore) {
-                c.dirtyIndices.add(dataIndex);
-            }
+            c.dirtyIndices.mark(dataIndex);
         }
     }
 }
\ No newline at end of file
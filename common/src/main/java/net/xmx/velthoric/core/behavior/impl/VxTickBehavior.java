@@ -7,9 +7,9 @@ package net.xmx.velthoric.core.behavior.impl;
 import net.minecraft.server.level.ServerLevel;
 import net.xmx.velthoric.core.behavior.VxBehavior;
 import net.xmx.velthoric.core.behavior.VxBehaviorId;
+import net.xmx.velthoric.core.behavior.VxBehaviorManager;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
-import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import net.xmx.velthoric.init.VxMainClass;
 
@@ -60,18 +60,7 @@ public class VxTickBehavior implements VxBehavior {
      */
     @Override
     public void onServerTick(ServerLevel level, VxServerBodyDataStore store) {
-        VxServerBodyDataContainer c = store.serverCurrent();
-        final long mask = ID.getMask();
-        final VxBody[] bodies = c.bodies;
-        final int capacity = c.getCapacity();
-
-        for (int i = 0; i < capacity; i++) {
-            VxBody obj = bodies[i];
-            if (obj == null) continue;
-            if ((c.behaviorBits[i] & mask) == 0) continue;
-
-            obj.onServerTick(level);
-        }
+        VxBehaviorManager.forEachWithBehavior(store, ID, (c, i, body) -> body.onServerTick(level));
     }
 
     /**
@@ -82,19 +71,11 @@ public class VxTickBehavior implements VxBehavior {
      */
     @Override
     public void onPrePhysicsTick(VxPhysicsWorld world, VxServerBodyDataStore store) {
-        VxServerBodyDataContainer c = store.serverCurrent();
-        final long mask = ID.getMask();
-        final VxBody[] bodies = c.bodies;
-        final int capacity = c.getCapacity();
-
-        for (int i = 0; i < capacity; i++) {
-            VxBody obj = bodies[i];
-            if (obj == null) continue;
-            if ((c.behaviorBits[i] & mask) == 0) continue;
-            if (!c.isActive[i]) continue;
-
-            obj.onPrePhysicsTick(world);
-        }
+        VxBehaviorManager.forEachWithBehavior(store, ID, (c, i, body) -> {
+            if (c.isActive[i]) {
+                body.onPrePhysicsTick(world);
+            }
+        });
     }
 
     /**
@@ -105,18 +86,10 @@ public class VxTickBehavior implements VxBehavior {
      */
     @Override
     public void onPhysicsTick(VxPhysicsWorld world, VxServerBodyDataStore store) {
-        VxServerBodyDataContainer c = store.serverCurrent();
-        final long mask = ID.getMask();
-        final VxBody[] bodies = c.bodies;
-        final int capacity = c.getCapacity();
-
-        for (int i = 0; i < capacity; i++) {
-            VxBody obj = bodies[i];
-            if (obj == null) continue;
-            if ((c.behaviorBits[i] & mask) == 0) continue;
-            if (!c.isActive[i]) continue;
-
-            obj.onPhysicsTick(world);
-        }
+        VxBehaviorManager.forEachWithBehavior(store, ID, (c, i, body) -> {
+            if (c.isActive[i]) {
+                body.onPhysicsTick(world);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Acts as a primary handle and management delegate for a physics object.
@@ -63,6 +64,11 @@ public class VxBody {
      */
     private int dataStoreIndex = -1;
 
+    /**
+     * The position of this body within its chunk cell of the spatial manager, or -1 if untracked.
+     */
+    private int spatialSlot = -1;
+
     /**
      * A session-unique integer ID used for optimized network packets.
      */
@@ -272,21 +278,21 @@ public class VxBody {
      * @param outTransform The transform object to populate.
      */
     public void getTransform(VxTransform outTransform) {
-        if (this.dataStore != null && this.dataStoreIndex != -1) {
-            VxBodyDataContainer c = this.dataStore.current();
-            if (this.dataStoreIndex < c.capacity) {
-                outTransform.getTranslation().set(
-                        c.posX[this.dataStoreIndex],
-                        c.posY[this.dataStoreIndex],
-                        c.posZ[this.dataStoreIndex]
-                );
-                outTransform.getRotation().set(
-                        c.rotX[this.dataStoreIndex],
-                        c.rotY[this.dataStoreIndex],
-                        c.rotZ[this.dataStoreIndex],
-                        c.rotW[this.dataStoreIndex]
-                );
+        VxBodyDataStore store = this.dataStore;
+        if (store == null) return;
+
+        // The index is only stable while compaction is held off
+        Lock slotAccess = store.getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            int index = this.dataStoreIndex;
+            VxBodyDataContainer c = store.current();
+            if (index != -1 && index < c.capacity) {
+                outTransform.getTranslation().set(c.posX[index], c.posY[index], c.posZ[index]);
+                outTransform.getRotation().set(c.rotX[index], c.rotY[index], c.rotZ[index], c.rotW[index]);
             }
+        } finally {
+            slotAccess.unlock();
         }
     }
 
@@ -408,6 +414,20 @@ public class VxBody {
         this.dataStoreIndex = dataStoreIndex;
     }
 
+    /**
+     * @return The position of this body within its chunk cell of the spatial manager, or -1 if untracked.
+     */
+    public int getSpatialSlot() {
+        return spatialSlot;
+    }
+
+    /**
+     * Sets the position of this body within its chunk cell. Maintained by the spatial manager only.
+     */
+    public void setSpatialSlot(int spatialSlot) {
+        this.spatialSlot = spatialSlot;
+    }
+
     /**
      * @return The data store that manages the physical state of this body.
      */
@@ -9,11 +9,15 @@ import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.xmx.velthoric.core.AbstractDataStore;
+import net.xmx.velthoric.core.behavior.VxBehaviorId;
+import net.xmx.velthoric.core.behavior.VxBehaviorIndex;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * The abstract base class for a Structure of Arrays (SoA) physics data store.
@@ -39,6 +43,16 @@ public abstract class VxBodyDataStore extends AbstractDataStore {
      */
     protected static final int INITIAL_CAPACITY = 1024;
 
+    /**
+     * Minimum number of free slots before a compaction cycle is started.
+     */
+    private static final int COMPACTION_MIN_HOLES = 256;
+
+    /**
+     * A compaction cycle starts once at least {@code 1 / COMPACTION_HOLE_RATIO} of the used range consists of holes.
+     */
+    private static final int COMPACTION_HOLE_RATIO = 4;
+
     // --- ID Management ---
 
     /**
@@ -56,6 +70,12 @@ public abstract class VxBodyDataStore extends AbstractDataStore {
      */
     protected final IntArrayList freeIndices = new IntArrayList();
 
+    /**
+     * Packed per-behavior index lists, addressed by {@link VxBehaviorId#getBit()}.
+     * Maintained through {@link #addBehaviorBits} and {@link #removeBehaviorBits}.
+     */
+    protected final VxBehaviorIndex[] behaviorIndices = new VxBehaviorIndex[64];
+
     /**
      * The number of active bodies.
      * Note: This count may include holes if accessed raw, but `uuidToIndex.size()` is the true active count.
@@ -67,6 +87,17 @@ public abstract class VxBodyDataStore extends AbstractDataStore {
      */
     protected int capacity = 0;
 
+    /**
+     * Whether a compaction cycle is in progress. Cycles run across several ticks until no holes remain.
+     */
+    private boolean compacting = false;
+
+    /**
+     * Excludes compaction from passes that address bodies by slot index on other threads.
+     * The passes share the read side; compaction only proceeds if it can take the write side without waiting.
+     */
+    private final ReentrantReadWriteLock relocationLock = new ReentrantReadWriteLock();
+
     /**
      * Structural double-buffered container for thread-safe resizing.
      */
@@ -78,6 +109,9 @@ public abstract class VxBodyDataStore extends AbstractDataStore {
     protected VxBodyDataStore() {
         // -1 indicates "no key found" for fastutil primitive maps
         uuidToIndex.defaultReturnValue(-1);
+        for (int i = 0; i < behaviorIndices.length; i++) {
+            behaviorIndices[i] = new VxBehaviorIndex();
+        }
     }
 
     public VxBodyDataContainer current() {
@@ -151,6 +185,7 @@ public abstract class VxBodyDataStore extends AbstractDataStore {
      */
     protected void resetIndex(int index) {
         VxBodyDataContainer c = currentContainer;
+        removeBehaviorBits(index, c.behaviorBits[index]);
         c.bodies[index] = null;
         c.posX[index] = c.posY[index] = c.posZ[index] = 0.0;
         c.rotX[index] = c.rotY[index] = c.rotZ[index] = 0f;
@@ -222,11 +257,250 @@ public abstract class VxBodyDataStore extends AbstractDataStore {
         indexToUuid.clear();
         freeIndices.clear();
         count = 0;
+        compacting = false;
+        for (VxBehaviorIndex behaviorIndex : behaviorIndices) {
+            behaviorIndex.clear();
+        }
 
         // Allocation will create a fresh container, effectively clearing data.
         allocate(INITIAL_CAPACITY);
     }
 
+    // --- Compaction ---
+
+    /**
+     * Performs one budgeted step of store compaction.
+     * <p>
+     * Freed slots are only ever reused, never released, so a load spike leaves the arrays sparse
+     * and every per-tick scan pays for the high-water mark. Once enough holes have accumulated,
+     * a compaction cycle moves live bodies from the top of the used range into the holes below it,
+     * most recently freed first (at most {@code maxMoves} per call), until the range is dense again,
+     * and then shrinks the arrays if most of the capacity is unused.
+     * <p>
+     * Relocation keeps {@code uuidToIndex}, {@code indexToUuid}, the behavior indices and the
+     * body's own index consistent; subclasses move their additional state in {@link #moveIndex(int, int)}.
+     * Callers must ensure that no body addition or removal is in progress during the call, and must
+     * not write slots on the calling thread concurrently. Passes on other threads hold the
+     * {@link #getSlotAccessLock() slot access lock}; while any of them runs, the step is skipped and
+     * compaction resumes on a later call.
+     *
+     * @param maxMoves The maximum number of bodies to relocate in this step.
+     * @return The number of bodies that were relocated.
+     */
+    public int compact(int maxMoves) {
+        // Never wait here: a reader may itself be waiting for a lock held by the compacting thread
+        if (!relocationLock.writeLock().tryLock()) {
+            return 0;
+        }
+        try {
+            return compactStep(maxMoves);
+        } finally {
+            relocationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the lock that keeps bodies at their slots while it is held.
+     * <p>
+     * Code that reads or writes slots by index on a thread other than the one running {@link #compact},
+     * or keeps indices across several reads (e.g. a network sync cycle or a chunk save), must hold this
+     * lock for the duration of that pass. It is shared, so such passes never block each other.
+     *
+     * @return The shared side of the relocation lock.
+     */
+    public Lock getSlotAccessLock() {
+        return relocationLock.readLock();
+    }
+
+    /**
+     * Performs the compaction step of {@link #compact} while the relocation lock is held exclusively.
+     */
+    private int compactStep(int maxMoves) {
+        if (!compacting) {
+            int holes = freeIndices.size();
+            boolean fragmented = holes >= COMPACTION_MIN_HOLES && holes * COMPACTION_HOLE_RATIO >= count;
+            if (!fragmented && getShrinkTarget() == capacity) {
+                return 0;
+            }
+            compacting = true;
+        }
+
+        int moved = 0;
+        trimTrailingHoles();
+        while (moved < maxMoves && !freeIndices.isEmpty()) {
+            int hole = freeIndices.removeInt(freeIndices.size() - 1);
+            if (hole >= count) {
+                // Already released by trimming the top of the range
+                continue;
+            }
+            // After trimming, the top of the range is always occupied
+            relocate(count - 1, hole);
+            moved++;
+            trimTrailingHoles();
+        }
+
+        // Drop holes that were released by trimming but are still on the stack
+        int kept = 0;
+        for (int i = 0; i < freeIndices.size(); i++) {
+            int hole = freeIndices.getInt(i);
+            if (hole < count) {
+                freeIndices.set(kept++, hole);
+            }
+        }
+        freeIndices.size(kept);
+        indexToUuid.size(count);
+
+        if (freeIndices.isEmpty()) {
+            compacting = false;
+            int target = getShrinkTarget();
+            if (target < capacity) {
+                allocate(target);
+                for (VxBehaviorIndex behaviorIndex : behaviorIndices) {
+                    behaviorIndex.trimTo(target);
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Lowers the high-water mark past any free slots at the top of the used range.
+     */
+    private void trimTrailingHoles() {
+        while (count > 0 && indexToUuid.get(count - 1) == null) {
+            count--;
+        }
+    }
+
+    /**
+     * Computes the capacity the arrays can shrink to. Halving stops while the used range
+     * would fill more than a quarter of it, so growth and shrinking cannot oscillate.
+     *
+     * @return The target capacity, or the current capacity if no shrinking is possible.
+     */
+    private int getShrinkTarget() {
+        int target = capacity;
+        while (target / 2 >= INITIAL_CAPACITY && count <= target / 4) {
+            target /= 2;
+        }
+        return target;
+    }
+
+    /**
+     * Moves a live body from one slot to a free slot and updates every mapping that refers to it.
+     * <p>
+     * Data is copied before the behavior indices are re-pointed and the source slot is cleared,
+     * so lock-free readers see the body either at its old or at its new slot (or skip it for one tick).
+     *
+     * @param from The current index of the body.
+     * @param to   The free index to move the body into.
+     */
+    private void relocate(int from, int to) {
+        VxBodyDataContainer c = currentContainer;
+        UUID id = indexToUuid.get(from);
+        long bits = c.behaviorBits[from];
+
+        moveIndex(from, to);
+
+        while (bits != 0) {
+            int bit = Long.numberOfTrailingZeros(bits);
+            behaviorIndices[bit].relocate(from, to);
+            bits &= bits - 1;
+        }
+
+        uuidToIndex.put(id, to);
+        indexToUuid.set(to, id);
+        indexToUuid.set(from, null);
+
+        VxBody body = c.bodies[to];
+        if (body != null) {
+            body.setDataStoreIndex(this, to);
+        }
+
+        // The behavior bits now belong to the target slot, so the reset must not touch the behavior indices
+        c.behaviorBits[from] = 0L;
+        resetIndex(from);
+    }
+
+    /**
+     * Copies all per-body data from one slot to another during compaction.
+     * <p>
+     * Subclasses must call {@code super.moveIndex(from, to)} and copy their own arrays. The source slot
+     * is reset afterwards via {@link #resetIndex(int)}, so any state that {@code resetIndex} would release
+     * (e.g. registrations owned by the slot) must be handed over to the target slot here.
+     *
+     * @param from The source index.
+     * @param to   The target index.
+     */
+    protected void moveIndex(int from, int to) {
+        VxBodyDataContainer c = currentContainer;
+        c.posX[to] = c.posX[from];
+        c.posY[to] = c.posY[from];
+        c.posZ[to] = c.posZ[from];
+        c.rotX[to] = c.rotX[from];
+        c.rotY[to] = c.rotY[from];
+        c.rotZ[to] = c.rotZ[from];
+        c.rotW[to] = c.rotW[from];
+        c.velX[to] = c.velX[from];
+        c.velY[to] = c.velY[from];
+        c.velZ[to] = c.velZ[from];
+        c.vertexData[to] = c.vertexData[from];
+        c.isActive[to] = c.isActive[from];
+        c.behaviorBits[to] = c.behaviorBits[from];
+        c.bodies[to] = c.bodies[from];
+    }
+
+    // --- Behavior Indices ---
+
+    /**
+     * Sets behavior bits on a body and adds it to the packed index of every newly set behavior.
+     *
+     * @param index The data store index of the body.
+     * @param mask  The behavior bits to set.
+     */
+    public void addBehaviorBits(int index, long mask) {
+        VxBodyDataContainer c = currentContainer;
+        if (index < 0 || index >= c.capacity) return;
+
+        long added = mask & ~c.behaviorBits[index];
+        c.behaviorBits[index] |= mask;
+        while (added != 0) {
+            int bit = Long.numberOfTrailingZeros(added);
+            behaviorIndices[bit].add(index);
+            added &= added - 1;
+        }
+    }
+
+    /**
+     * Clears behavior bits on a body and removes it from the packed index of every cleared behavior.
+     *
+     * @param index The data store index of the body.
+     * @param mask  The behavior bits to clear.
+     */
+    public void removeBehaviorBits(int index, long mask) {
+        VxBodyDataContainer c = currentContainer;
+        if (index < 0 || index >= c.capacity) return;
+
+        long removed = mask & c.behaviorBits[index];
+        c.behaviorBits[index] &= ~mask;
+        while (removed != 0) {
+            int bit = Long.numberOfTrailingZeros(removed);
+            behaviorIndices[bit].remove(index);
+            removed &= removed - 1;
+        }
+    }
+
+    /**
+     * Returns the packed list of data store indices for all bodies carrying the given behavior.
+     * Tick loops should iterate this instead of scanning up to {@link #getCapacity()}.
+     *
+     * @param behaviorId The behavior ID.
+     * @return The packed index list (never null).
+     */
+    public VxBehaviorIndex getBehaviorIndex(VxBehaviorId behaviorId) {
+        return behaviorIndices[behaviorId.getBit()];
+    }
+
     // --- Accessors ---
 
     /**
@@ -66,6 +66,11 @@ public class VxClientBodyDataContainer extends VxBodyDataContainer {
      */
     public final boolean[] state1_isActive;
 
+    /**
+     * Whether a full keyframe has been received, so that delta-encoded updates can be applied on top of state1.
+     */
+    public final boolean[] net_hasBaseline;
+
     /**
      * Vertex data at state0.
      */
@@ -91,6 +96,10 @@ public class VxClientBodyDataContainer extends VxBodyDataContainer {
      * High-precision culling position used for frustum checks.
      */
     public final RVec3[] lastKnownPosition;
+    /**
+     * The session-specific network ID of the body in each slot, or -1 if the slot is free.
+     */
+    public final int[] networkId;
 
     /**
      * Initializes a new client-side container with triple-buffering for interpolation.
@@ -135,6 +144,7 @@ public class VxClientBodyDataContainer extends VxBodyDataContainer {
 
         this.state0_isActive = new boolean[capacity];
         this.state1_isActive = new boolean[capacity];
+        this.net_hasBaseline = new boolean[capacity];
 
         this.state0_vertexData = new float[capacity][];
         this.state1_vertexData = new float[capacity][];
@@ -143,8 +153,10 @@ public class VxClientBodyDataContainer extends VxBodyDataContainer {
         this.render_isInitialized = new boolean[capacity];
         this.customData = new Object[capacity];
         this.lastKnownPosition = new RVec3[capacity];
+        this.networkId = new int[capacity];
         for (int i = 0; i < capacity; i++) {
             this.lastKnownPosition[i] = new RVec3();
+            this.networkId[i] = -1;
         }
     }
 }
\ No newline at end of file
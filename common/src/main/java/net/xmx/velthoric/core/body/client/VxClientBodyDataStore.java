@@ -61,6 +61,7 @@ public class VxClientBodyDataStore extends VxBodyDataStore {
     public int addBody(VxBody body, int networkId) {
         int index = super.reserveIndex(body);
         networkIdToIndex.put(networkId, index);
+        clientCurrentContainer.networkId[index] = networkId;
         return index;
     }
 
@@ -95,12 +96,14 @@ public class VxClientBodyDataStore extends VxBodyDataStore {
 
         c.state0_isActive[index] = false;
         c.state1_isActive[index] = false;
+        c.net_hasBaseline[index] = false;
 
         c.state0_vertexData[index] = null;
         c.state1_vertexData[index] = null;
 
         c.render_isInitialized[index] = false;
         c.prev_vertexData[index] = null;
+        c.networkId[index] = -1;
 
         c.customData[index] = null;
         if (c.lastKnownPosition != null && c.lastKnownPosition[index] != null) {
@@ -157,6 +160,7 @@ public class VxClientBodyDataStore extends VxBodyDataStore {
             System.arraycopy(old.state1_velZ, 0, next.state1_velZ, 0, copyLength);
             System.arraycopy(old.state1_isActive, 0, next.state1_isActive, 0, copyLength);
             System.arraycopy(old.state1_vertexData, 0, next.state1_vertexData, 0, copyLength);
+            System.arraycopy(old.net_hasBaseline, 0, next.net_hasBaseline, 0, copyLength);
 
             System.arraycopy(old.prev_posX, 0, next.prev_posX, 0, copyLength);
             System.arraycopy(old.prev_posY, 0, next.prev_posY, 0, copyLength);
@@ -169,6 +173,7 @@ public class VxClientBodyDataStore extends VxBodyDataStore {
 
             System.arraycopy(old.render_isInitialized, 0, next.render_isInitialized, 0, copyLength);
             System.arraycopy(old.customData, 0, next.customData, 0, copyLength);
+            System.arraycopy(old.networkId, 0, next.networkId, 0, copyLength);
             // lastKnownPosition is already initialized in new container constructor
             for (int i = 0; i < copyLength; i++) {
                 next.lastKnownPosition[i].set(old.lastKnownPosition[i]);
@@ -178,6 +183,66 @@ public class VxClientBodyDataStore extends VxBodyDataStore {
         this.clientCurrentContainer = next;
     }
 
+    /**
+     * Moves the client-specific state of a body to a new slot and re-points its network ID mapping.
+     *
+     * @param from The source index.
+     * @param to   The target index.
+     */
+    @Override
+    protected void moveIndex(int from, int to) {
+        super.moveIndex(from, to);
+        VxClientBodyDataContainer c = clientCurrentContainer;
+
+        c.state0_timestamp[to] = c.state0_timestamp[from];
+        c.state0_posX[to] = c.state0_posX[from];
+        c.state0_posY[to] = c.state0_posY[from];
+        c.state0_posZ[to] = c.state0_posZ[from];
+        c.state0_rotX[to] = c.state0_rotX[from];
+        c.state0_rotY[to] = c.state0_rotY[from];
+        c.state0_rotZ[to] = c.state0_rotZ[from];
+        c.state0_rotW[to] = c.state0_rotW[from];
+        c.state0_velX[to] = c.state0_velX[from];
+        c.state0_velY[to] = c.state0_velY[from];
+        c.state0_velZ[to] = c.state0_velZ[from];
+        c.state0_isActive[to] = c.state0_isActive[from];
+        c.state0_vertexData[to] = c.state0_vertexData[from];
+
+        c.state1_timestamp[to] = c.state1_timestamp[from];
+        c.state1_posX[to] = c.state1_posX[from];
+        c.state1_posY[to] = c.state1_posY[from];
+        c.state1_posZ[to] = c.state1_posZ[from];
+        c.state1_rotX[to] = c.state1_rotX[from];
+        c.state1_rotY[to] = c.state1_rotY[from];
+        c.state1_rotZ[to] = c.state1_rotZ[from];
+        c.state1_rotW[to] = c.state1_rotW[from];
+        c.state1_velX[to] = c.state1_velX[from];
+        c.state1_velY[to] = c.state1_velY[from];
+        c.state1_velZ[to] = c.state1_velZ[from];
+        c.state1_isActive[to] = c.state1_isActive[from];
+        c.state1_vertexData[to] = c.state1_vertexData[from];
+        c.net_hasBaseline[to] = c.net_hasBaseline[from];
+
+        c.prev_posX[to] = c.prev_posX[from];
+        c.prev_posY[to] = c.prev_posY[from];
+        c.prev_posZ[to] = c.prev_posZ[from];
+        c.prev_rotX[to] = c.prev_rotX[from];
+        c.prev_rotY[to] = c.prev_rotY[from];
+        c.prev_rotZ[to] = c.prev_rotZ[from];
+        c.prev_rotW[to] = c.prev_rotW[from];
+        c.prev_vertexData[to] = c.prev_vertexData[from];
+
+        c.render_isInitialized[to] = c.render_isInitialized[from];
+        c.customData[to] = c.customData[from];
+        c.lastKnownPosition[to].set(c.lastKnownPosition[from]);
+
+        int netId = c.networkId[from];
+        c.networkId[to] = netId;
+        if (netId != -1) {
+            networkIdToIndex.put(netId, to);
+        }
+    }
+
     @Override
     protected VxBodyDataContainer createContainer(int newCapacity) {
         return new VxClientBodyDataContainer(newCapacity);
@@ -218,6 +283,7 @@ public class VxClientBodyDataStore extends VxBodyDataStore {
         bytes += (long) capacity * 8 * 9;  // double[] positions (state0, state1, prev)
         bytes += (long) capacity * 4 * 25; // float[] (rotations, velocities, etc)
         bytes += capacity * 3L;            // boolean[]
+        bytes += (long) capacity * 4;      // network IDs
 
         return bytes;
     }
@@ -54,6 +54,11 @@ public class VxClientBodyManager extends VxAbstractBodyManager {
      */
     private static final VxClientBodyManager INSTANCE = new VxClientBodyManager();
 
+    /**
+     * Maximum number of bodies relocated per client tick while the data store is being compacted.
+     */
+    private static final int COMPACTION_MOVES_PER_TICK = 512;
+
     /**
      * The client-side clock used for interpolation and synchronization.
      */
@@ -408,6 +413,9 @@ public class VxClientBodyManager extends VxAbstractBodyManager {
         // Process synchronization tasks (sending C2S updates for dirty bodies)
         behaviorManager.onClientTick(this, store);
 
+        // Incrementally pack live bodies into low indices after load spikes
+        store.compact(COMPACTION_MOVES_PER_TICK);
+
         // Calculate and smooth clock offset
         synchronizeClock();
 
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.body.server;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed-capacity, lock-free set of dirty data store indices.
+ * <p>
+ * The set is a two-level bitset: one bit per index, plus a summary bit per 64-bit word that
+ * signals the word may contain marks. Marking is a single atomic OR on each level, so the physics
+ * thread never blocks. Draining atomically swaps each summary word and then each flagged data word
+ * with zero, so the network thread collects a consistent batch in O(dirty words) without locking,
+ * and any index marked concurrently is either part of this batch or remains set for the next one.
+ * <p>
+ * Every mark happens-before the drain that returns it, so plain writes made before {@link #mark(int)}
+ * (e.g. the dirty flags of the body) are visible to the draining thread.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxDirtyIndexSet {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int capacity;
+    private final long[] words;
+    private final long[] summary;
+
+    /**
+     * @param capacity The number of indices the set can hold, matching the container capacity.
+     */
+    public VxDirtyIndexSet(int capacity) {
+        this.capacity = capacity;
+        this.words = new long[(capacity + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+    }
+
+    /**
+     * Marks an index as dirty. Safe to call from any thread.
+     *
+     * @param index The data store index.
+     */
+    public void mark(int index) {
+        if (index < 0 || index >= capacity) return;
+        int word = index >>> 6;
+        // The data bit must be set before the summary bit, so a drain that sees the summary also sees the data
+        WORDS.getAndBitwiseOr(words, word, 1L << index);
+        WORDS.getAndBitwiseOr(summary, word >>> 6, 1L << word);
+    }
+
+    /**
+     * Removes the mark of an index. Safe to call from any thread.
+     *
+     * @param index The data store index.
+     * @return True if the index was marked.
+     */
+    public boolean clear(int index) {
+        if (index < 0 || index >= capacity) return false;
+        long bit = 1L << index;
+        // The summary bit is left in place; a drain simply finds the word empty
+        return ((long) WORDS.getAndBitwiseAnd(words, index >>> 6, ~bit) & bit) != 0;
+    }
+
+    /**
+     * Atomically removes all marks and appends the marked indices to a list in ascending order.
+     * Intended for a single draining thread.
+     *
+     * @param out The list to append the indices to.
+     * @return The number of indices appended.
+     */
+    public int drainTo(IntArrayList out) {
+        int drained = 0;
+        for (int s = 0; s < summary.length; s++) {
+            if ((long) WORDS.getVolatile(summary, s) == 0L) continue;
+            long flagged = (long) WORDS.getAndSet(summary, s, 0L);
+            while (flagged != 0L) {
+                int word = (s << 6) + Long.numberOfTrailingZeros(flagged);
+                flagged &= flagged - 1;
+
+                long bits = (long) WORDS.getAndSet(words, word, 0L);
+                while (bits != 0L) {
+                    out.add((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                    drained++;
+                }
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Copies the marks of another set into this one, dropping indices beyond this set's capacity.
+     * Used when the container is reallocated.
+     *
+     * @param other The set to copy from.
+     */
+    public void copyFrom(VxDirtyIndexSet other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int w = 0; w < length; w++) {
+            long bits = (long) WORDS.getVolatile(other.words, w);
+            if (w == words.length - 1 && (capacity & 63) != 0) {
+                // Mask out indices past the capacity in the last word
+                bits &= (1L << capacity) - 1;
+            }
+            if (bits == 0L) continue;
+            WORDS.getAndBitwiseOr(words, w, bits);
+            WORDS.getAndBitwiseOr(summary, w >>> 6, 1L << w);
+        }
+    }
+
+    /**
+     * @return The number of indices the set can hold.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
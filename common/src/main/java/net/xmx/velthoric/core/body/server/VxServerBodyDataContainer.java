@@ -6,8 +6,6 @@ package net.xmx.velthoric.core.body.server;
 
 import com.github.stephengold.joltjni.enumerate.EBodyType;
 import com.github.stephengold.joltjni.enumerate.EMotionType;
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
-import it.unimi.dsi.fastutil.ints.IntSet;
 import net.xmx.velthoric.core.body.VxBodyDataContainer;
 
 /**
@@ -85,14 +83,52 @@ public class VxServerBodyDataContainer extends VxBodyDataContainer {
      */
     public final boolean[] isCustomDataDirty;
     /**
-     * A set of all indices currently marked as dirty for the next network tick.
+     * The storage save generation in which the body last marked its chunk dirty. Limits chunk dirty
+     * marking to once per body and save; 0 if the body has not marked its chunk yet.
      */
-    public final IntSet dirtyIndices;
+    public final int[] persistenceGeneration;
+    /**
+     * A lock-free set of all indices currently marked as dirty for the next network tick.
+     */
+    public final VxDirtyIndexSet dirtyIndices;
     /**
      * Last system time (ms) when this body's network state was updated.
      */
     public final long[] lastUpdateTimestamp;
 
+    /**
+     * Fixed-point X position last written to the network (the delta baseline shared by all watchers).
+     */
+    public final long[] netBasePosX;
+    /**
+     * Fixed-point Y position last written to the network.
+     */
+    public final long[] netBasePosY;
+    /**
+     * Fixed-point Z position last written to the network.
+     */
+    public final long[] netBasePosZ;
+    /**
+     * Smallest-three packed rotation last written to the network.
+     */
+    public final long[] netBaseRotation;
+    /**
+     * Half-float packed velocity last written to the network.
+     */
+    public final long[] netBaseVelocity;
+    /**
+     * Activation state last written to the network.
+     */
+    public final boolean[] netBaseActive;
+    /**
+     * System time (ns) at which a full keyframe was last requested (e.g. a new player started tracking).
+     */
+    public final long[] netKeyframeRequested;
+    /**
+     * System time (ns) at which the last full keyframe was serialized.
+     */
+    public final long[] netKeyframeSent;
+
     /**
      * Initializes a new server-side container with specialized tracking arrays.
      * All arrays are pre-allocated and dirty tracking systems are initialized.
@@ -117,8 +153,17 @@ public class VxServerBodyDataContainer extends VxBodyDataContainer {
         this.isTransformDirty = new boolean[capacity];
         this.isVertexDataDirty = new boolean[capacity];
         this.isCustomDataDirty = new boolean[capacity];
-        this.dirtyIndices = new IntOpenHashSet(2048);
+        this.persistenceGeneration = new int[capacity];
+        this.dirtyIndices = new VxDirtyIndexSet(capacity);
         this.lastUpdateTimestamp = new long[capacity];
+        this.netBasePosX = new long[capacity];
+        this.netBasePosY = new long[capacity];
+        this.netBasePosZ = new long[capacity];
+        this.netBaseRotation = new long[capacity];
+        this.netBaseVelocity = new long[capacity];
+        this.netBaseActive = new boolean[capacity];
+        this.netKeyframeRequested = new long[capacity];
+        this.netKeyframeSent = new long[capacity];
 
         for (int i = 0; i < capacity; i++) {
             this.networkId[i] = -1;
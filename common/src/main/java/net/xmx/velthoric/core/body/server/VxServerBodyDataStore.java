@@ -72,6 +72,9 @@ public class VxServerBodyDataStore extends VxBodyDataStore {
         c.motionType[index] = EMotionType.Dynamic;
         c.bodyType[index] = type;
         c.chunkKey[index] = Long.MAX_VALUE; // Sentinel for "no chunk"
+        // Without a baseline, the first network update must be a full keyframe
+        c.netKeyframeRequested[index] = System.nanoTime();
+        c.netKeyframeSent[index] = Long.MIN_VALUE;
         return index;
     }
 
@@ -86,7 +89,7 @@ public class VxServerBodyDataStore extends VxBodyDataStore {
     public synchronized Integer removeBody(UUID id) {
         Integer index = super.removeBody(id);
         if (index != null) {
-            serverCurrentContainer.dirtyIndices.remove((int) index);
+            serverCurrentContainer.dirtyIndices.clear(index);
         }
         return index;
     }
@@ -119,8 +122,15 @@ public class VxServerBodyDataStore extends VxBodyDataStore {
         c.isTransformDirty[index] = false;
         c.isVertexDataDirty[index] = false;
         c.isCustomDataDirty[index] = false;
+        c.persistenceGeneration[index] = 0;
         c.lastUpdateTimestamp[index] = 0L;
-        c.dirtyIndices.remove(index);
+        c.netBasePosX[index] = c.netBasePosY[index] = c.netBasePosZ[index] = 0L;
+        c.netBaseRotation[index] = 0L;
+        c.netBaseVelocity[index] = 0L;
+        c.netBaseActive[index] = false;
+        c.netKeyframeRequested[index] = 0L;
+        c.netKeyframeSent[index] = 0L;
+        c.dirtyIndices.clear(index);
     }
 
     /**
@@ -153,13 +163,89 @@ public class VxServerBodyDataStore extends VxBodyDataStore {
             System.arraycopy(old.isTransformDirty, 0, next.isTransformDirty, 0, copyLength);
             System.arraycopy(old.isVertexDataDirty, 0, next.isVertexDataDirty, 0, copyLength);
             System.arraycopy(old.isCustomDataDirty, 0, next.isCustomDataDirty, 0, copyLength);
+            System.arraycopy(old.persistenceGeneration, 0, next.persistenceGeneration, 0, copyLength);
             System.arraycopy(old.lastUpdateTimestamp, 0, next.lastUpdateTimestamp, 0, copyLength);
-            next.dirtyIndices.addAll(old.dirtyIndices);
+            System.arraycopy(old.netBasePosX, 0, next.netBasePosX, 0, copyLength);
+            System.arraycopy(old.netBasePosY, 0, next.netBasePosY, 0, copyLength);
+            System.arraycopy(old.netBasePosZ, 0, next.netBasePosZ, 0, copyLength);
+            System.arraycopy(old.netBaseRotation, 0, next.netBaseRotation, 0, copyLength);
+            System.arraycopy(old.netBaseVelocity, 0, next.netBaseVelocity, 0, copyLength);
+            System.arraycopy(old.netBaseActive, 0, next.netBaseActive, 0, copyLength);
+            System.arraycopy(old.netKeyframeRequested, 0, next.netKeyframeRequested, 0, copyLength);
+            System.arraycopy(old.netKeyframeSent, 0, next.netKeyframeSent, 0, copyLength);
+            // When shrinking after compaction, only slots inside the new range can still be dirty
+            next.dirtyIndices.copyFrom(old.dirtyIndices);
         }
 
         this.serverCurrentContainer = next;
     }
 
+    /**
+     * Performs one budgeted compaction step while holding the store lock.
+     * <p>
+     * Must be called on the physics thread between steps, so no physics write to a slot can overlap
+     * a relocation. Passes on other threads that address bodies by slot index hold the
+     * {@link #getSlotAccessLock() slot access lock}; while any of them runs, the step is skipped
+     * and compaction resumes on a later call.
+     *
+     * @param maxMoves The maximum number of bodies to relocate.
+     * @return The number of bodies that were relocated.
+     */
+    @Override
+    public synchronized int compact(int maxMoves) {
+        return super.compact(maxMoves);
+    }
+
+    /**
+     * Moves the server-specific state of a body to a new slot.
+     * <p>
+     * The network ID travels with the body, so the {@code networkIdToUuid} mapping stays valid.
+     * A keyframe is requested for the new slot because the network thread may still be advancing
+     * the delta baseline of the old slot.
+     *
+     * @param from The source index.
+     * @param to   The target index.
+     */
+    @Override
+    protected void moveIndex(int from, int to) {
+        super.moveIndex(from, to);
+        VxServerBodyDataContainer c = serverCurrentContainer;
+
+        c.angVelX[to] = c.angVelX[from];
+        c.angVelY[to] = c.angVelY[from];
+        c.angVelZ[to] = c.angVelZ[from];
+        c.aabbMinX[to] = c.aabbMinX[from];
+        c.aabbMinY[to] = c.aabbMinY[from];
+        c.aabbMinZ[to] = c.aabbMinZ[from];
+        c.aabbMaxX[to] = c.aabbMaxX[from];
+        c.aabbMaxY[to] = c.aabbMaxY[from];
+        c.aabbMaxZ[to] = c.aabbMaxZ[from];
+        c.bodyType[to] = c.bodyType[from];
+        c.motionType[to] = c.motionType[from];
+        c.chunkKey[to] = c.chunkKey[from];
+        c.networkId[to] = c.networkId[from];
+        c.isTransformDirty[to] = c.isTransformDirty[from];
+        c.isVertexDataDirty[to] = c.isVertexDataDirty[from];
+        c.isCustomDataDirty[to] = c.isCustomDataDirty[from];
+        c.persistenceGeneration[to] = c.persistenceGeneration[from];
+        c.lastUpdateTimestamp[to] = c.lastUpdateTimestamp[from];
+        c.netBasePosX[to] = c.netBasePosX[from];
+        c.netBasePosY[to] = c.netBasePosY[from];
+        c.netBasePosZ[to] = c.netBasePosZ[from];
+        c.netBaseRotation[to] = c.netBaseRotation[from];
+        c.netBaseVelocity[to] = c.netBaseVelocity[from];
+        c.netBaseActive[to] = c.netBaseActive[from];
+        c.netKeyframeSent[to] = c.netKeyframeSent[from];
+        c.netKeyframeRequested[to] = System.nanoTime();
+
+        if (c.dirtyIndices.clear(from)) {
+            c.dirtyIndices.mark(to);
+        }
+
+        // The network ID is now owned by the target slot; prevent resetIndex from unregistering it
+        c.networkId[from] = -1;
+    }
+
     public VxServerBodyDataContainer serverCurrent() {
         return serverCurrentContainer;
     }
@@ -169,6 +255,24 @@ public class VxServerBodyDataStore extends VxBodyDataStore {
         return new VxServerBodyDataContainer(newCapacity);
     }
 
+    // --- Network Baselines ---
+
+    /**
+     * Requests that the next state update for the body at the given index is sent as a full keyframe.
+     * <p>
+     * Called whenever a player receives a spawn for the body, since that player has no delta baseline yet.
+     * Using a timestamp instead of a flag keeps the request race-free against the network thread,
+     * which only considers a request fulfilled if it was made before the keyframe was serialized.
+     *
+     * @param index The data store index of the body.
+     */
+    public void requestKeyframe(int index) {
+        VxServerBodyDataContainer c = serverCurrentContainer;
+        if (index >= 0 && index < c.capacity) {
+            c.netKeyframeRequested[index] = System.nanoTime();
+        }
+    }
+
     // --- Network ID Management ---
 
     /**
@@ -22,16 +22,18 @@ import net.xmx.velthoric.core.body.VxBodyType;
 import net.xmx.velthoric.core.body.tracking.VxSpatialManager;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.network.internal.VxNetworkDispatcher;
-import net.xmx.velthoric.core.persistence.impl.body.VxBodyCodec;
 import net.xmx.velthoric.core.persistence.impl.body.VxBodyStorage;
 import net.xmx.velthoric.core.persistence.impl.body.VxSerializedBodyData;
+import net.xmx.velthoric.core.persistence.impl.body.VxStoredBodyState;
 import net.xmx.velthoric.core.physics.VxJoltBridge;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
+import net.xmx.velthoric.core.terrain.VxTerrainSystem;
 import net.xmx.velthoric.init.VxMainClass;
 import net.xmx.velthoric.math.VxTransform;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 
 /**
@@ -99,6 +101,11 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      */
     private int nextNetworkId = 1;
 
+    /**
+     * Maximum number of bodies relocated per game tick while the data store is being compacted.
+     */
+    private static final int COMPACTION_MOVES_PER_TICK = 512;
+
     /**
      * Constructs a new manager for the specified physics world.
      *
@@ -168,6 +175,10 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      */
     public void onPhysicsTick(VxPhysicsWorld world) {
         behaviorManager.onPhysicsTick(this.world, this.dataStore);
+
+        // Incrementally pack live bodies into low indices after load spikes. This runs after the
+        // physics sync wrote this step's state, so no physics write can target a slot being moved.
+        dataStore.compact(COMPACTION_MOVES_PER_TICK);
     }
 
     /**
@@ -177,8 +188,15 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * @param level The Minecraft server level.
      */
     public void onGameTick(ServerLevel level) {
-        networkDispatcher.onGameTick();
-        behaviorManager.onServerTick(level, this.dataStore);
+        // Spawns and server-tick behaviors address bodies by slot, so compaction waits for them
+        Lock slotAccess = dataStore.getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            networkDispatcher.onGameTick();
+            behaviorManager.onServerTick(level, this.dataStore);
+        } finally {
+            slotAccess.unlock();
+        }
     }
 
     //================================================================================
@@ -260,6 +278,77 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * @param transform  The world-space transform for the body.
      */
     public void addConstructedBody(VxBody body, EActivation activation, VxTransform transform) {
+        // Hold the store lock so compaction cannot relocate the body while its index is in use
+        synchronized (dataStore) {
+            registerConstructedBody(body, transform);
+            networkDispatcher.onBodyAdded(body);
+            addToJolt(body, activation);
+        }
+    }
+
+    /**
+     * Creates many bodies of one type and inserts them into Jolt together.
+     * <p>
+     * The bodies are constructed and configured on the calling thread. Their registration and insertion
+     * run as one task on the physics thread through {@link #addConstructedBodies}, so the returned bodies
+     * are managed and simulated once that task has run.
+     *
+     * @param type         The registry type of the bodies.
+     * @param transforms   The initial transform of each body.
+     * @param activation   Whether the bodies should be active or sleeping upon creation.
+     * @param configurator A consumer to apply custom settings to each body before it is added.
+     * @return The created body instances.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends VxBody> List<T> createBodies(VxBodyType type, List<VxTransform> transforms, EActivation activation, Consumer<T> configurator) {
+        List<VxBody> bodies = new ArrayList<>(transforms.size());
+        List<VxTransform> bodyTransforms = new ArrayList<>(transforms.size());
+        for (VxTransform transform : transforms) {
+            VxBody body = type.create(world, UUID.randomUUID());
+            if (body == null) continue;
+            configurator.accept((T) body);
+            bodies.add(body);
+            bodyTransforms.add(transform);
+        }
+        if (!bodies.isEmpty()) {
+            world.execute(() -> addConstructedBodies(bodies, bodyTransforms, activation));
+        }
+        return (List<T>) Collections.unmodifiableList(bodies);
+    }
+
+    /**
+     * Finalizes the creation of many bodies under a single acquisition of the store lock.
+     * <p>
+     * Rigid bodies are inserted into Jolt in batches through
+     * {@link VxJoltBridge#createAndAddJoltRigidBodies}, soft bodies one at a time.
+     * Must be called on the physics thread.
+     *
+     * @param bodies     The body instances to add.
+     * @param transforms The world-space transform of each body, in the same order.
+     * @param activation The initial activation state for the Jolt simulation.
+     */
+    public void addConstructedBodies(List<VxBody> bodies, List<VxTransform> transforms, EActivation activation) {
+        synchronized (dataStore) {
+            List<VxBody> rigidBodies = new ArrayList<>(bodies.size());
+            for (int i = 0; i < bodies.size(); i++) {
+                VxBody body = bodies.get(i);
+                registerConstructedBody(body, transforms.get(i));
+                networkDispatcher.onBodyAdded(body);
+
+                if (body.getType().isRigid()) {
+                    rigidBodies.add(body);
+                } else {
+                    addToJolt(body, activation);
+                }
+            }
+            VxJoltBridge.INSTANCE.createAndAddJoltRigidBodies(rigidBodies, this, activation);
+        }
+    }
+
+    /**
+     * Registers a constructed body and writes its initial transform to the data store.
+     */
+    private void registerConstructedBody(VxBody body, VxTransform transform) {
         addInternal(body);
         VxServerBodyDataContainer c = dataStore.serverCurrent();
         int index = body.getDataStoreIndex();
@@ -272,15 +361,26 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
             c.rotY[index] = transform.getRotation().getY();
             c.rotZ[index] = transform.getRotation().getZ();
             c.rotW[index] = transform.getRotation().getW();
+            markPersistenceDirty(c, index, c.chunkKey[index]);
         }
+    }
 
-        // Retrieve properties from DataStore that were potentially modified by the configurator
+    /**
+     * Creates the Jolt body of a registered body and adds it to the simulation.
+     * <p>
+     * The velocities and motion type are retrieved from the data store, where the configurator or the
+     * stored state may have modified them.
+     *
+     * @param body       The registered body.
+     * @param activation The initial activation state for the Jolt simulation.
+     */
+    private void addToJolt(VxBody body, EActivation activation) {
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        int index = body.getDataStoreIndex();
         Vec3 linearVelocity = new Vec3(c.velX[index], c.velY[index], c.velZ[index]);
         Vec3 angularVelocity = new Vec3(c.angVelX[index], c.angVelY[index], c.angVelZ[index]);
         EMotionType motionType = c.motionType[index];
 
-        networkDispatcher.onBodyAdded(body);
-
         // Dispatch Jolt creation based on body type's provider (no instanceof needed)
         if (body.getType().isRigid()) {
             VxJoltBridge.INSTANCE.createAndAddJoltRigidBody(body, this, linearVelocity, angularVelocity, activation, motionType);
@@ -300,48 +400,119 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      */
     @Nullable
     public VxBody addSerializedBody(VxSerializedBodyData data) {
-        if (managedBodies.containsKey(data.id())) {
-            return managedBodies.get(data.id());
+        // Hold the store lock so compaction cannot relocate the body while its index is in use
+        synchronized (dataStore) {
+            // The payload is a slice of the loaded chunk buffer and must be released on every path.
+            try {
+                return addSerializedBodyLocked(data);
+            } finally {
+                data.bodyData().release();
+            }
         }
+    }
 
+    /**
+     * Reconstitutes all bodies loaded for a chunk under a single acquisition of the store lock.
+     * <p>
+     * The records come from {@link VxBodyStorage#loadChunk}, which already decoded their kinematic state
+     * on the I/O thread, so this step only registers the bodies and inserts them into Jolt.
+     * Rigid bodies are inserted in batches through {@link VxJoltBridge#createAndAddJoltRigidBodies},
+     * grouped by their activation state; soft bodies are inserted one at a time.
+     * Every record's payload is released, including those of bodies that fail to load.
+     *
+     * @param dataList The serialized bodies of the chunk.
+     */
+    public void addSerializedBodies(List<VxSerializedBodyData> dataList) {
+        synchronized (dataStore) {
+            List<VxBody> awakeBodies = new ArrayList<>();
+            List<VxBody> sleepingBodies = new ArrayList<>();
+
+            for (VxSerializedBodyData data : dataList) {
+                try {
+                    if (managedBodies.containsKey(data.id())) continue;
+
+                    VxBody body = restoreSerializedBody(data);
+                    if (body == null) continue;
+
+                    EActivation activation = storedActivation(body);
+                    if (!body.getType().isRigid()) {
+                        addToJolt(body, activation);
+                    } else if (activation == EActivation.Activate) {
+                        awakeBodies.add(body);
+                    } else {
+                        sleepingBodies.add(body);
+                    }
+                } catch (Exception e) {
+                    VxMainClass.LOGGER.error("Failed to load body {} from storage", data.id(), e);
+                } finally {
+                    data.bodyData().release();
+                }
+            }
+
+            VxJoltBridge.INSTANCE.createAndAddJoltRigidBodies(awakeBodies, this, EActivation.Activate);
+            VxJoltBridge.INSTANCE.createAndAddJoltRigidBodies(sleepingBodies, this, EActivation.DontActivate);
+        }
+    }
+
+    @Nullable
+    private VxBody addSerializedBodyLocked(VxSerializedBodyData data) {
+        VxBody existing = managedBodies.get(data.id());
+        if (existing != null) {
+            return existing;
+        }
+
+        VxBody body = restoreSerializedBody(data);
+        if (body != null) {
+            addToJolt(body, storedActivation(body));
+        }
+        return body;
+    }
+
+    /**
+     * Creates and registers a body from its serialized data, without adding it to Jolt.
+     *
+     * @return The registered body, or null if it could not be created.
+     */
+    @Nullable
+    private VxBody restoreSerializedBody(VxSerializedBodyData data) {
         VxBody body = VxBodyRegistry.getInstance().create(data.typeId(), world, data.id());
         if (body == null) {
             VxMainClass.LOGGER.error("Failed to create body of type {} with ID {} from storage.", data.typeId(), data.id());
             return null;
         }
 
-        addInternal(body);
-
-        // Deserialize internal state (transform, velocity, vertices, user data) into the body and DataStore.
-        // This must occur after addInternal so the body has a valid DataStore index.
-        VxBodyCodec.readInternalPersistenceData(body, data.bodyData());
-        data.bodyData().release();
+        // The stored state is applied before spatial tracking, so the body is filed under its stored chunk.
+        VxStoredBodyState state = data.state();
+        addInternal(body, state);
 
-        VxServerBodyDataContainer c = dataStore.serverCurrent();
-        int index = body.getDataStoreIndex();
-        if (index == -1) {
+        if (body.getDataStoreIndex() == -1) {
             return null; // Should technically be unreachable if addInternal succeeded
         }
 
-        // Extract restored kinematics from DataStore
-        Vec3 linearVelocity = new Vec3(c.velX[index], c.velY[index], c.velZ[index]);
-        Vec3 angularVelocity = new Vec3(c.angVelX[index], c.angVelY[index], c.angVelZ[index]);
-        EMotionType motionType = c.motionType[index];
-
-        // Determine if the body should be awake based on its velocity
-        boolean shouldActivate = linearVelocity.lengthSq() > 0.0001f || angularVelocity.lengthSq() > 0.0001f;
-        EActivation activation = shouldActivate ? EActivation.Activate : EActivation.DontActivate;
+        // A body whose state could not be decoded keeps its defaults and skips its type-specific data.
+        if (state != null) {
+            if (state.vertices() != null) {
+                updateSoftBodyVertices(body, state.vertices());
+            }
+            body.getType().getPersistenceHandler().read(body, data.bodyData());
+        }
 
         networkDispatcher.onBodyAdded(body);
-
-        if (body.getType().isRigid()) {
-            VxJoltBridge.INSTANCE.createAndAddJoltRigidBody(body, this, linearVelocity, angularVelocity, activation, motionType);
-        } else if (body.getType().isSoft()) {
-            VxJoltBridge.INSTANCE.createAndAddJoltSoftBody(body, this, linearVelocity, angularVelocity, activation);
-        }
         return body;
     }
 
+    /**
+     * Determines if a restored body should be awake based on its stored velocity.
+     */
+    private EActivation storedActivation(VxBody body) {
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        int index = body.getDataStoreIndex();
+        float linearSq = c.velX[index] * c.velX[index] + c.velY[index] * c.velY[index] + c.velZ[index] * c.velZ[index];
+        float angularSq = c.angVelX[index] * c.angVelX[index] + c.angVelY[index] * c.angVelY[index] + c.angVelZ[index] * c.angVelZ[index];
+        boolean shouldActivate = linearSq > 0.0001f || angularSq > 0.0001f;
+        return shouldActivate ? EActivation.Activate : EActivation.DontActivate;
+    }
+
     /**
      * Initiates the removal of a body identified by its unique identifier.
      * <p>
@@ -388,50 +559,59 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * @param reason The context explaining why the removal is occurring.
      */
     private void processBodyRemoval(VxBody body, VxRemovalReason reason) {
-        // 1. Remove from primary registry
-        managedBodies.remove(body.getPhysicsId());
+        // Hold the store lock so compaction cannot relocate the body while its index is in use
+        synchronized (dataStore) {
+            // 1. Remove from primary registry
+            managedBodies.remove(body.getPhysicsId());
 
-        // 2. Notify subsystems
-        networkDispatcher.onBodyRemoved(body);
+            // 2. Notify subsystems
+            networkDispatcher.onBodyRemoved(body);
 
-        // 3. Update spatial tracking
-        // If UNLOAD, the chunk system typically initiates this call, so we skip
-        // modifying the tracking map to avoid concurrent modification issues during iteration.
-        VxServerBodyDataContainer c = dataStore.serverCurrent();
-        int index = body.getDataStoreIndex();
-        if (reason != VxRemovalReason.UNLOAD && index != -1) {
-            spatialManager.remove(c.chunkKey[index], body);
-        }
+            // 3. Update spatial tracking
+            // If UNLOAD, the chunk system typically initiates this call, so we skip
+            // modifying the tracking map to avoid concurrent modification issues during iteration.
+            VxServerBodyDataContainer c = dataStore.serverCurrent();
+            int index = body.getDataStoreIndex();
+            if (reason != VxRemovalReason.UNLOAD && index != -1) {
+                spatialManager.remove(c.chunkKey[index], body);
+                // The body disappears from its chunk's stored data, and so do its constraints.
+                markPersistenceDirty(c, index, c.chunkKey[index]);
+                world.getConstraintManager().markBodyChunkDirty(body.getPhysicsId(), c.chunkKey[index]);
+            }
 
-        // 4. Trigger body-specific cleanup hooks
-        body.onBodyRemoved(world, reason);
+            // 4. Trigger body-specific cleanup hooks
+            body.onBodyRemoved(world, reason);
 
-        // 5. Detach all behaviors
-        behaviorManager.detachAllBehaviors(body);
+            // 5. Detach all behaviors
+            behaviorManager.detachAllBehaviors(body);
 
-        // 6. Cleanup Constraints
-        world.getConstraintManager().removeConstraintsForBody(body.getPhysicsId());
+            // 6. Cleanup Constraints
+            world.getConstraintManager().removeConstraintsForBody(body.getPhysicsId());
 
-        // 6. Destroy Native Jolt Body
-        // This stops the actual physics simulation for this object.
-        VxJoltBridge.INSTANCE.destroyJoltBody(world, body.getBodyId());
+            // 6. Destroy Native Jolt Body
+            // This stops the actual physics simulation for this object.
+            VxJoltBridge.INSTANCE.destroyJoltBody(world, body.getBodyId());
 
-        // 7. Cleanup DataStore and ID Pools
-        int netId = body.getNetworkId();
-        if (netId != -1) {
-            dataStore.unregisterNetworkId(netId);
-            freeNetworkIds.add(netId);
-        }
+            // 7. Cleanup DataStore and ID Pools
+            int netId = body.getNetworkId();
+            if (netId != -1) {
+                dataStore.unregisterNetworkId(netId);
+                freeNetworkIds.add(netId);
+            }
 
-        dataStore.removeBody(body.getPhysicsId());
+            dataStore.removeBody(body.getPhysicsId());
+
+            if (body.getBodyId() != 0) {
+                joltBodyIdToVxBodyMap.remove(body.getBodyId());
+            }
 
-        if (body.getBodyId() != 0) {
-            joltBodyIdToVxBodyMap.remove(body.getBodyId());
+            // Invalidate indices in the body object to prevent accidental reuse
+            body.setDataStoreIndex(dataStore, -1);
+            body.setNetworkId(-1);
         }
 
-        // Invalidate indices in the body object to prevent accidental reuse
-        body.setDataStoreIndex(dataStore, -1);
-        body.setNetworkId(-1);
+        // The tracker sees the invalidated index and releases the body's terrain
+        notifyTerrainTracker(body);
     }
 
     /**
@@ -443,6 +623,17 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * @param body The body to register.
      */
     private void addInternal(VxBody body) {
+        addInternal(body, null);
+    }
+
+    /**
+     * Registers a body, first applying a stored state to its new slot so that spatial tracking
+     * and behaviors see the stored transform.
+     *
+     * @param body  The body to register.
+     * @param state The stored state, or null to keep the slot defaults.
+     */
+    private void addInternal(VxBody body, @Nullable VxStoredBodyState state) {
         if (body == null) return;
         managedBodies.computeIfAbsent(body.getPhysicsId(), id -> {
             EBodyType type = body.getType().isSoft() ? EBodyType.SoftBody : EBodyType.RigidBody;
@@ -452,6 +643,9 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
             body.setDataStoreIndex(dataStore, index);
 
             VxServerBodyDataContainer c = dataStore.serverCurrent();
+            if (state != null) {
+                state.applyTo(c, index);
+            }
 
             // Assign Network ID (recycle if available, else increment)
             int networkId = freeNetworkIds.isEmpty() ? nextNetworkId++ : freeNetworkIds.pop();
@@ -462,19 +656,14 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
             c.isActive[index] = true;
 
             // --- Behavior Attachment ---
-            // Apply all default behaviors from the body type's bitmask
-            c.behaviorBits[index] = body.getType().getDefaultBehaviors();
-            // Notify each behavior of attachment
-            for (var behavior : behaviorManager.getBehaviors()) {
-                if (behavior.getId().isSet(c.behaviorBits[index])) {
-                    behavior.onAttached(index, body);
-                }
-            }
+            // Apply all default behaviors from the body type's bitmask and notify each behavior of attachment
+            behaviorManager.attachBehaviors(body, body.getType().getDefaultBehaviors());
 
             // Initialize spatial tracking
             long chunkKey = VxSpatialManager.calculateChunkKey(c.posX[index], c.posZ[index]);
             c.chunkKey[index] = chunkKey;
             spatialManager.add(chunkKey, body);
+            notifyTerrainTracker(body);
 
             return body;
         });
@@ -494,13 +683,38 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
         int index = body.getDataStoreIndex();
         if (index != -1) {
             c.chunkKey[index] = toKey;
+            markPersistenceDirty(c, index, fromKey);
+            markPersistenceDirty(c, index, toKey);
         }
+        world.getConstraintManager().markBodyChunkDirty(body.getPhysicsId(), fromKey);
+        world.getConstraintManager().markBodyChunkDirty(body.getPhysicsId(), toKey);
 
         // Update spatial manager
         spatialManager.move(body, fromKey, toKey);
 
         // Notify the network dispatcher about the movement for client-side tracking updates.
         networkDispatcher.onBodyMoved(body, new ChunkPos(fromKey), new ChunkPos(toKey));
+        notifyTerrainTracker(body);
+    }
+
+    /**
+     * Called by the physics synchronization when a body woke up or fell asleep,
+     * so the terrain tracker starts or stops following it.
+     *
+     * @param body The body whose activation state changed.
+     */
+    public void onBodyActivationChanged(VxBody body) {
+        notifyTerrainTracker(body);
+    }
+
+    /**
+     * Reports a body to the terrain tracker. The terrain system does not exist yet while the world is constructed.
+     */
+    private void notifyTerrainTracker(VxBody body) {
+        VxTerrainSystem terrainSystem = world.getTerrainSystem();
+        if (terrainSystem != null) {
+            terrainSystem.onBodyChanged(body);
+        }
     }
 
     /**
@@ -542,10 +756,16 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * @param out            The transform object to populate.
      */
     public void getTransform(int dataStoreIndex, VxTransform out) {
-        VxServerBodyDataContainer c = dataStore.serverCurrent();
-        if (dataStoreIndex >= 0 && dataStoreIndex < c.getCapacity()) {
-            out.getTranslation().set(c.posX[dataStoreIndex], c.posY[dataStoreIndex], c.posZ[dataStoreIndex]);
-            out.getRotation().set(c.rotX[dataStoreIndex], c.rotY[dataStoreIndex], c.rotZ[dataStoreIndex], c.rotW[dataStoreIndex]);
+        Lock slotAccess = dataStore.getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            VxServerBodyDataContainer c = dataStore.serverCurrent();
+            if (dataStoreIndex >= 0 && dataStoreIndex < c.getCapacity()) {
+                out.getTranslation().set(c.posX[dataStoreIndex], c.posY[dataStoreIndex], c.posZ[dataStoreIndex]);
+                out.getRotation().set(c.rotX[dataStoreIndex], c.rotY[dataStoreIndex], c.rotZ[dataStoreIndex], c.rotW[dataStoreIndex]);
+            }
+        } finally {
+            slotAccess.unlock();
         }
     }
 
@@ -555,9 +775,32 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * @param body The body whose data changed.
      */
     public void markCustomDataDirty(VxBody body) {
-        VxServerBodyDataContainer c = dataStore.serverCurrent();
-        if (body.getDataStoreIndex() != -1) {
-            c.isCustomDataDirty[body.getDataStoreIndex()] = true;
+        Lock slotAccess = dataStore.getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            VxServerBodyDataContainer c = dataStore.serverCurrent();
+            int index = body.getDataStoreIndex();
+            if (index != -1) {
+                c.isCustomDataDirty[index] = true;
+                markPersistenceDirty(c, index, c.chunkKey[index]);
+            }
+        } finally {
+            slotAccess.unlock();
+        }
+    }
+
+    /**
+     * Marks the chunk of a persistent body as changed, so the next save of that chunk serializes it.
+     * Bodies without the {@link VxPersistenceBehavior} are never stored and are ignored.
+     *
+     * @param c        The current data container.
+     * @param index    The index of the body.
+     * @param chunkKey The chunk to mark.
+     */
+    public void markPersistenceDirty(VxServerBodyDataContainer c, int index, long chunkKey) {
+        if ((c.behaviorBits[index] & VxPersistenceBehavior.ID.getMask()) != 0) {
+            c.persistenceGeneration[index] = bodyStorage.getSaveGeneration();
+            bodyStorage.markDirty(chunkKey);
         }
     }
 
@@ -613,6 +856,7 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
         VxServerBodyDataContainer c = dataStore.serverCurrent();
         c.vertexData[index] = vertices;
         c.isVertexDataDirty[index] = true;
+        markPersistenceDirty(c, index, c.chunkKey[index]);
 
         // Apply immediately to Jolt
         VxJoltBridge.INSTANCE.setSoftBodyVertices(world, body, vertices);
@@ -622,27 +866,41 @@ public class VxServerBodyManager extends VxAbstractBodyManager {
      * Serializes all physics bodies within a given chunk and queues them for storage.
      * Only bodies that have the {@link VxPersistenceBehavior#ID} behavior attached are included.
      * Uses the optimized chunk-based batching system.
+     * <p>
+     * Chunks that have not been marked dirty since their last save are skipped, so the cost of
+     * an autosave follows the amount of change rather than the number of persisted bodies.
      *
      * @param pos The position of the chunk to save.
      */
     public void saveBodiesInChunk(ChunkPos pos) {
-        List<VxBody> bodiesInChunk = new ArrayList<>();
+        // Consume the mark before reading any body state; a concurrent change marks the chunk again.
+        if (!bodyStorage.consumeDirty(pos.toLong())) {
+            return;
+        }
 
-        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        List<VxBody> bodiesInChunk = new ArrayList<>();
         long persistenceMask = VxPersistenceBehavior.ID.getMask();
 
-        spatialManager.forEachInChunk(pos.toLong(), body -> {
-            int index = body.getDataStoreIndex();
-            // Bounds check for race condition during container resize
-            if (index != -1 && index < c.getCapacity()) {
-                if ((c.behaviorBits[index] & persistenceMask) != 0) {
-                    bodiesInChunk.add(body);
+        // Collection and serialization read the slots by index, so compaction waits for both
+        Lock slotAccess = dataStore.getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            VxServerBodyDataContainer c = dataStore.serverCurrent();
+            spatialManager.forEachInChunk(pos.toLong(), body -> {
+                int index = body.getDataStoreIndex();
+                // Bounds check for race condition during container resize
+                if (index != -1 && index < c.getCapacity()) {
+                    if ((c.behaviorBits[index] & persistenceMask) != 0) {
+                        bodiesInChunk.add(body);
+                    }
                 }
-            }
-        });
+            });
 
-        // Even if empty, we call save to ensure any previously existing data on disk is cleared
-        bodyStorage.saveChunk(pos, bodiesInChunk);
+            // Even if empty, we call save to ensure any previously existing data on disk is cleared
+            bodyStorage.saveChunk(pos, bodiesInChunk);
+        } finally {
+            slotAccess.unlock();
+        }
     }
 
     /**
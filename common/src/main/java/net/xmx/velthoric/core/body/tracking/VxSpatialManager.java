@@ -4,13 +4,14 @@
  */
 package net.xmx.velthoric.core.body.tracking;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.ChunkPos;
 import net.xmx.velthoric.core.body.VxBody;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
@@ -19,19 +20,38 @@ import java.util.function.Consumer;
  * Manages the spatial partitioning of physics bodies into chunks.
  * This class is responsible for tracking which objects reside in which chunk,
  * facilitating efficient proximity queries and handling chunk-based operations.
- * 
- * This manager is independent of the physics engine and data store, 
+ *
+ * This manager is independent of the physics engine and data store,
  * operating purely on long-encoded chunk keys and body references.
+ * <p>
+ * <b>Layout:</b> Each chunk owns a cell, a dense array of its bodies. Every body remembers its slot
+ * in that array ({@link VxBody#getSpatialSlot()}), so removal swaps the last body into the freed
+ * slot in O(1) instead of searching the cell.
+ * <p>
+ * <b>Locking:</b> Cells are spread over {@link #STRIPE_COUNT} independently locked stripes by the
+ * hash of their chunk key, so operations on different chunks rarely contend. A move between two
+ * stripes holds both locks, always acquired in stripe order. Actions passed to
+ * {@link #forEachInChunk} run under the stripe lock and must not call back into this manager.
  *
  * @author xI-Mx-Ix
  */
 public class VxSpatialManager {
 
     /**
-     * A spatial map that groups objects by the chunk they are in for efficient proximity queries.
-     * The list is a simple ArrayList, as all access is externally synchronized on the map itself.
+     * The number of lock stripes. Must be a power of two.
+     */
+    private static final int STRIPE_COUNT = 64;
+
+    /**
+     * The stripes, each mapping chunk keys to the cells it owns. A stripe is its own lock.
      */
-    private final Long2ObjectMap<List<VxBody>> bodiesByChunk = new Long2ObjectOpenHashMap<>();
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public VxSpatialManager() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
 
     /**
      * Starts tracking a body by adding it to the specified chunk bucket.
@@ -40,8 +60,9 @@ public class VxSpatialManager {
      * @param body     The body to start tracking.
      */
     public void add(long chunkKey, VxBody body) {
-        synchronized (bodiesByChunk) {
-            bodiesByChunk.computeIfAbsent(chunkKey, k -> new ArrayList<>()).add(body);
+        Stripe stripe = stripeFor(chunkKey);
+        synchronized (stripe) {
+            stripe.add(chunkKey, body);
         }
     }
 
@@ -54,14 +75,9 @@ public class VxSpatialManager {
     public void remove(long chunkKey, VxBody body) {
         if (chunkKey == Long.MAX_VALUE) return;
 
-        synchronized (bodiesByChunk) {
-            List<VxBody> list = bodiesByChunk.get(chunkKey);
-            if (list != null) {
-                list.remove(body);
-                if (list.isEmpty()) {
-                    bodiesByChunk.remove(chunkKey);
-                }
-            }
+        Stripe stripe = stripeFor(chunkKey);
+        synchronized (stripe) {
+            stripe.remove(chunkKey, body);
         }
     }
 
@@ -76,19 +92,31 @@ public class VxSpatialManager {
     public void move(VxBody body, long fromKey, long toKey) {
         if (fromKey == toKey) return;
 
-        synchronized (bodiesByChunk) {
-            // Remove from the old chunk's list.
-            if (fromKey != Long.MAX_VALUE) {
-                List<VxBody> fromList = bodiesByChunk.get(fromKey);
-                if (fromList != null) {
-                    fromList.remove(body);
-                    if (fromList.isEmpty()) {
-                        bodiesByChunk.remove(fromKey);
-                    }
-                }
+        Stripe to = stripeFor(toKey);
+        if (fromKey == Long.MAX_VALUE) {
+            synchronized (to) {
+                to.add(toKey, body);
+            }
+            return;
+        }
+
+        Stripe from = stripeFor(fromKey);
+        if (from == to) {
+            synchronized (from) {
+                from.remove(fromKey, body);
+                from.add(toKey, body);
+            }
+            return;
+        }
+
+        // Acquire both stripes in a global order, so concurrent moves in opposite directions cannot deadlock
+        Stripe first = from.index < to.index ? from : to;
+        Stripe second = first == from ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                from.remove(fromKey, body);
+                to.add(toKey, body);
             }
-            // Add to the new chunk's list.
-            bodiesByChunk.computeIfAbsent(toKey, k -> new ArrayList<>()).add(body);
         }
     }
 
@@ -99,11 +127,12 @@ public class VxSpatialManager {
      * @param action   The action to perform on each body.
      */
     public void forEachInChunk(long chunkKey, Consumer<VxBody> action) {
-        synchronized (bodiesByChunk) {
-            List<VxBody> bodies = bodiesByChunk.get(chunkKey);
-            if (bodies != null && !bodies.isEmpty()) {
-                for (VxBody body : bodies) {
-                    action.accept(body);
+        Stripe stripe = stripeFor(chunkKey);
+        synchronized (stripe) {
+            Cell cell = stripe.cells.get(chunkKey);
+            if (cell != null) {
+                for (int i = 0; i < cell.size; i++) {
+                    action.accept(cell.bodies[i]);
                 }
             }
         }
@@ -116,10 +145,19 @@ public class VxSpatialManager {
      * @return The list of bodies that were in the chunk, or an empty list if none.
      */
     public List<VxBody> removeAllInChunk(long chunkKey) {
-        synchronized (bodiesByChunk) {
-            List<VxBody> removed = bodiesByChunk.remove(chunkKey);
-            return removed != null ? removed : Collections.emptyList();
+        Stripe stripe = stripeFor(chunkKey);
+        Cell removed;
+        synchronized (stripe) {
+            removed = stripe.cells.remove(chunkKey);
+            if (removed == null) {
+                return Collections.emptyList();
+            }
+            for (int i = 0; i < removed.size; i++) {
+                removed.bodies[i].setSpatialSlot(-1);
+            }
         }
+        // The cell is detached, so its array can be handed out without copying
+        return ObjectArrayList.wrap(removed.bodies, removed.size);
     }
 
     /**
@@ -135,4 +173,78 @@ public class VxSpatialManager {
                 SectionPos.posToSectionCoord(z)
         );
     }
-}
\ No newline at end of file
+
+    private Stripe stripeFor(long chunkKey) {
+        return stripes[(int) HashCommon.mix(chunkKey) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * A lock stripe owning the cells of the chunks that hash to it.
+     */
+    private static final class Stripe {
+        private final Long2ObjectOpenHashMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+        private final int index;
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+
+        private void add(long chunkKey, VxBody body) {
+            Cell cell = cells.get(chunkKey);
+            if (cell == null) {
+                cell = new Cell();
+                cells.put(chunkKey, cell);
+            }
+            cell.add(body);
+        }
+
+        private void remove(long chunkKey, VxBody body) {
+            Cell cell = cells.get(chunkKey);
+            if (cell != null && cell.remove(body) && cell.size == 0) {
+                cells.remove(chunkKey);
+            }
+        }
+    }
+
+    /**
+     * The dense body array of a single chunk. Each body stores its slot in the array.
+     */
+    private static final class Cell {
+        private VxBody[] bodies = new VxBody[4];
+        private int size;
+
+        private void add(VxBody body) {
+            if (size == bodies.length) {
+                bodies = Arrays.copyOf(bodies, size * 2);
+            }
+            body.setSpatialSlot(size);
+            bodies[size++] = body;
+        }
+
+        private boolean remove(VxBody body) {
+            int slot = body.getSpatialSlot();
+            if (slot < 0 || slot >= size || bodies[slot] != body) {
+                // The slot is stale (e.g. the body was tracked under another key), so fall back to a search
+                slot = -1;
+                for (int i = 0; i < size; i++) {
+                    if (bodies[i] == body) {
+                        slot = i;
+                        break;
+                    }
+                }
+                if (slot == -1) return false;
+            }
+
+            // Swap the last body into the freed slot
+            int last = --size;
+            if (slot != last) {
+                VxBody moved = bodies[last];
+                bodies[slot] = moved;
+                moved.setSpatialSlot(slot);
+            }
+            bodies[last] = null;
+            body.setSpatialSlot(-1);
+            return true;
+        }
+    }
+}
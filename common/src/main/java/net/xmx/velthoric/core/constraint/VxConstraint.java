@@ -6,12 +6,10 @@ package net.xmx.velthoric.core.constraint;
 
 import com.github.stephengold.joltjni.*;
 import com.github.stephengold.joltjni.enumerate.EConstraintSubType;
-import com.github.stephengold.joltjni.enumerate.EStreamType;
-import com.github.stephengold.joltjni.std.StringStream;
 import net.xmx.velthoric.core.constraint.manager.VxConstraintManager;
+import net.xmx.velthoric.core.persistence.impl.constraint.VxConstraintSettingsCodec;
 import org.jetbrains.annotations.Nullable;
 
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 /**
@@ -46,7 +44,7 @@ public class VxConstraint {
     /**
      * The serialized configuration data for this constraint.
      * <p>
-     * Contains the binary representation of the Jolt {@code TwoBodyConstraintSettings},
+     * Contains the {@link VxConstraintSettingsCodec} encoding of the Jolt {@code TwoBodyConstraintSettings},
      * including pivot points, axes, limits, and motor settings.
      * This array is used to reconstruct the native constraint object when loading.
      */
@@ -78,6 +76,13 @@ public class VxConstraint {
      */
     private boolean persistent = true;
 
+    /**
+     * Whether the stored form of this constraint differs from what its chunk last saved:
+     * true for newly created constraints and after the settings data was updated,
+     * false for constraints read unchanged from storage.
+     */
+    private transient volatile boolean settingsDirty;
+
     /**
      * Constructs a new constraint instance from provided settings.
      * The settings are serialized immediately for storage.
@@ -93,6 +98,7 @@ public class VxConstraint {
         this.body2Id = body2Id;
         this.subType = getSubTypeFromSettings(settings);
         this.settingsData = serializeSettings(settings);
+        this.settingsDirty = true;
     }
 
     /**
@@ -195,21 +201,29 @@ public class VxConstraint {
      */
     public void updateSettingsData(TwoBodyConstraintSettings newSettings) {
         this.settingsData = serializeSettings(newSettings);
+        this.settingsDirty = true;
+    }
+
+    /**
+     * Returns and clears whether this constraint changed since it was created or loaded,
+     * i.e. whether the chunk it is stored in needs to be saved again.
+     *
+     * @return true if the constraint was new or its settings changed.
+     */
+    public boolean consumeSettingsDirty() {
+        boolean dirty = settingsDirty;
+        settingsDirty = false;
+        return dirty;
     }
 
     /**
-     * Serializes constraint settings into a byte array using Jolt's object stream.
+     * Serializes constraint settings into a byte array using {@link VxConstraintSettingsCodec}.
      *
      * @param settings The settings to serialize.
      * @return A byte array containing the serialized data.
      */
     private byte[] serializeSettings(TwoBodyConstraintSettings settings) {
-        try (StringStream stringStream = new StringStream()) {
-            if (ObjectStreamOut.sWriteObject(stringStream, EStreamType.Text, settings)) {
-                return stringStream.str().getBytes(StandardCharsets.ISO_8859_1);
-            }
-        }
-        throw new IllegalStateException("Failed to serialize constraint settings.");
+        return VxConstraintSettingsCodec.encode(settings, subType);
     }
 
     /**
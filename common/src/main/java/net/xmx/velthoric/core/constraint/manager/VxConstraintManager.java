@@ -6,22 +6,24 @@ package net.xmx.velthoric.core.constraint.manager;
 
 import com.github.stephengold.joltjni.*;
 import com.github.stephengold.joltjni.enumerate.EConstraintSpace;
-import com.github.stephengold.joltjni.std.StringStream;
 import net.minecraft.world.level.ChunkPos;
 import net.xmx.velthoric.core.body.server.VxServerBodyManager;
 import net.xmx.velthoric.init.VxMainClass;
 import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.tracking.VxSpatialManager;
 import net.xmx.velthoric.core.constraint.VxConstraint;
+import net.xmx.velthoric.core.persistence.impl.constraint.VxConstraintSettingsCodec;
 import net.xmx.velthoric.core.persistence.impl.constraint.VxConstraintStorage;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import org.jetbrains.annotations.Nullable;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Manages the lifecycle of physics constraints within a physics world.
@@ -43,6 +45,14 @@ public class VxConstraintManager {
     private final VxDependencyDataSystem dataSystem;
     private final Map<UUID, VxConstraint> activeConstraints = new ConcurrentHashMap<>();
 
+    /**
+     * Index from body UUID to the IDs of the active constraints attached to it.
+     * Combined with the per-chunk body index of the {@link VxSpatialManager}, it resolves the
+     * constraints of a chunk or a body without scanning every active constraint. Because chunk
+     * membership is derived from the bodies, a body migrating between chunks needs no update here.
+     */
+    private final Map<UUID, Set<UUID>> bodyToActiveConstraints = new ConcurrentHashMap<>();
+
     public VxConstraintManager(VxServerBodyManager bodyManager) {
         this.bodyManager = bodyManager;
         this.world = bodyManager.getPhysicsWorld();
@@ -64,6 +74,7 @@ public class VxConstraintManager {
         VxMainClass.LOGGER.debug("Physics constraint persistence flushed for world {}.", world.getDimensionKey().location());
 
         activeConstraints.clear();
+        bodyToActiveConstraints.clear();
         dataSystem.clear();
         constraintStorage.shutdown();
     }
@@ -77,14 +88,8 @@ public class VxConstraintManager {
      * @param pos The position of the chunk being unloaded.
      */
     public void onChunkUnload(ChunkPos pos) {
-        List<VxConstraint> constraintsToUnload = new ArrayList<>();
-
         // Identify active constraints belonging to this chunk
-        for (VxConstraint constraint : activeConstraints.values()) {
-            if (isConstraintInChunk(constraint, pos)) {
-                constraintsToUnload.add(constraint);
-            }
-        }
+        List<VxConstraint> constraintsToUnload = collectConstraintsInChunk(pos, false);
 
         if (constraintsToUnload.isEmpty()) {
             return;
@@ -205,24 +210,30 @@ public class VxConstraintManager {
         world.getPhysicsSystem().addConstraint(joltConstraint);
         constraint.setJoltConstraint(joltConstraint);
         activeConstraints.put(constraint.getConstraintId(), constraint);
+        indexConstraint(constraint);
+
+        // New or re-encoded constraints differ from their chunk's stored data; unchanged loads do not.
+        if (constraint.consumeSettingsDirty()) {
+            markConstraintChunkDirty(constraint);
+        }
     }
 
     /**
-     * Deserializes constraint settings from a VxConstraint's byte data using Jolt's object stream.
+     * Deserializes constraint settings from a VxConstraint's byte data.
+     * Settings still stored in the legacy text format are re-encoded in the binary
+     * format, so they are written compactly the next time their chunk is saved.
      *
      * @param constraint The constraint containing the data and subtype.
      * @return The deserialized TwoBodyConstraintSettings object, or null on failure.
      */
     @Nullable
     private TwoBodyConstraintSettings deserializeSettings(VxConstraint constraint) {
-        String settingsString = new String(constraint.getSettingsData(), StandardCharsets.ISO_8859_1);
-        try (StringStream stringStream = new StringStream(settingsString);
-             TwoBodyConstraintSettingsRef settingsRef = new TwoBodyConstraintSettingsRef()) {
-            if (ObjectStreamIn.sReadObject(stringStream, settingsRef)) {
-                return settingsRef.getPtr();
-            }
-            return null;
+        byte[] data = constraint.getSettingsData();
+        TwoBodyConstraintSettings settings = VxConstraintSettingsCodec.decode(data);
+        if (settings != null && VxConstraintSettingsCodec.isLegacy(data)) {
+            constraint.updateSettingsData(settings);
         }
+        return settings;
     }
 
     /**
@@ -257,6 +268,9 @@ public class VxConstraintManager {
         VxConstraint constraint = activeConstraints.remove(constraintId);
 
         if (constraint != null) {
+            markConstraintChunkDirty(constraint);
+            unindexConstraint(constraint);
+
             // Remove from dependency tracking system
             dataSystem.removeConstraintReference(constraint);
 
@@ -274,10 +288,18 @@ public class VxConstraintManager {
         }
     }
 
+    /**
+     * Removes all active and pending constraints attached to a body.
+     *
+     * @param bodyId The UUID of the body.
+     */
     public void removeConstraintsForBody(UUID bodyId) {
-        activeConstraints.values().stream()
-                .filter(c -> c.getBody1Id().equals(bodyId) || c.getBody2Id().equals(bodyId))
-                .forEach(c -> removeConstraint(c.getConstraintId()));
+        Set<UUID> constraintIds = bodyToActiveConstraints.get(bodyId);
+        if (constraintIds != null) {
+            for (UUID constraintId : Set.copyOf(constraintIds)) {
+                removeConstraint(constraintId);
+            }
+        }
         dataSystem.removeForBody(bodyId);
     }
 
@@ -304,38 +326,122 @@ public class VxConstraintManager {
     }
 
     /**
-     * Helper method to determine if a constraint belongs to a given chunk based on its primary body.
+     * Collects the active constraints anchored in a chunk.
+     * <p>
+     * A constraint belongs to the chunk of its primary body: the first body, or the second if the
+     * first is the world. Only the bodies of the chunk and their attached constraints are visited.
+     *
+     * @param pos            The position of the chunk.
+     * @param persistentOnly Whether to skip constraints not marked as persistent.
+     * @return The constraints of the chunk.
+     */
+    private List<VxConstraint> collectConstraintsInChunk(ChunkPos pos, boolean persistentOnly) {
+        List<VxConstraint> result = new ArrayList<>();
+        bodyManager.getSpatialManager().forEachInChunk(pos.toLong(), body -> {
+            UUID bodyId = body.getPhysicsId();
+            Set<UUID> constraintIds = bodyToActiveConstraints.get(bodyId);
+            if (constraintIds == null) return;
+
+            for (UUID constraintId : constraintIds) {
+                VxConstraint constraint = activeConstraints.get(constraintId);
+                if (constraint == null || (persistentOnly && !constraint.isPersistent())) continue;
+                if (getPrimaryBodyId(constraint).equals(bodyId)) {
+                    result.add(constraint);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the body that determines which chunk a constraint is stored in.
      */
-    private boolean isConstraintInChunk(VxConstraint constraint, ChunkPos pos) {
-        UUID bodyId = !constraint.getBody1Id().equals(WORLD_BODY_ID) ? constraint.getBody1Id() : constraint.getBody2Id();
-        if (bodyId.equals(WORLD_BODY_ID)) return false;
+    private static UUID getPrimaryBodyId(VxConstraint constraint) {
+        return !constraint.getBody1Id().equals(WORLD_BODY_ID) ? constraint.getBody1Id() : constraint.getBody2Id();
+    }
+
+    private void indexConstraint(VxConstraint constraint) {
+        addToIndex(constraint.getBody1Id(), constraint.getConstraintId());
+        addToIndex(constraint.getBody2Id(), constraint.getConstraintId());
+    }
 
-        VxBody body = bodyManager.getVxBody(bodyId);
+    private void unindexConstraint(VxConstraint constraint) {
+        removeFromIndex(constraint.getBody1Id(), constraint.getConstraintId());
+        removeFromIndex(constraint.getBody2Id(), constraint.getConstraintId());
+    }
+
+    private void addToIndex(UUID bodyId, UUID constraintId) {
+        if (bodyId.equals(WORLD_BODY_ID)) return;
+        // compute() keeps the add atomic with a concurrent removal of the emptied set.
+        bodyToActiveConstraints.compute(bodyId, (k, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(constraintId);
+            return set;
+        });
+    }
+
+    private void removeFromIndex(UUID bodyId, UUID constraintId) {
+        if (bodyId.equals(WORLD_BODY_ID)) return;
+        bodyToActiveConstraints.computeIfPresent(bodyId, (k, set) -> {
+            set.remove(constraintId);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Marks the chunk a constraint is stored in as changed. Non-persistent constraints are never
+     * stored, and a constraint whose primary body is not loaded is covered by the caller that
+     * removed the body (see {@link #markBodyChunkDirty(UUID, long)}).
+     */
+    private void markConstraintChunkDirty(VxConstraint constraint) {
+        if (!constraint.isPersistent()) return;
+
+        UUID primaryId = getPrimaryBodyId(constraint);
+        if (primaryId.equals(WORLD_BODY_ID)) return;
+
+        VxBody body = bodyManager.getVxBody(primaryId);
         if (body != null) {
-            int index = body.getDataStoreIndex();
-            return index != -1 && bodyManager.getDataStore().serverCurrent().chunkKey[index] == pos.toLong();
+            Lock slotAccess = bodyManager.getDataStore().getSlotAccessLock();
+            slotAccess.lock();
+            try {
+                int index = body.getDataStoreIndex();
+                if (index != -1) {
+                    constraintStorage.markDirty(bodyManager.getDataStore().serverCurrent().chunkKey[index]);
+                }
+            } finally {
+                slotAccess.unlock();
+            }
+        }
+    }
+
+    /**
+     * Marks a chunk as changed if the given body has active constraints. Called by the body manager
+     * when a body leaves a chunk, by moving or by being removed, as its constraints are stored with it.
+     *
+     * @param bodyId   The UUID of the body.
+     * @param chunkKey The long-encoded chunk position.
+     */
+    public void markBodyChunkDirty(UUID bodyId, long chunkKey) {
+        if (bodyToActiveConstraints.containsKey(bodyId)) {
+            constraintStorage.markDirty(chunkKey);
         }
-        return false;
     }
 
     /**
      * Saves all constraints associated with a given chunk.
      * <p>
      * The determination of which constraints belong to which chunk is based on the logic
-     * in {@link #isConstraintInChunk(VxConstraint, ChunkPos)}.
-     * Only constraints marked as persistent via {@link VxConstraint#isPersistent()} are saved.
+     * in {@link #collectConstraintsInChunk(ChunkPos, boolean)}.
+     * Only constraints marked as persistent via {@link VxConstraint#isPersistent()} are saved,
+     * and only if the chunk was marked dirty since its last save.
      *
      * @param pos The position of the chunk.
      */
     public void saveConstraintsInChunk(ChunkPos pos) {
-        List<VxConstraint> constraintsToSave = new ArrayList<>();
-        for (VxConstraint constraint : activeConstraints.values()) {
-            // Check both spatial location and the persistence flag before adding to the save list.
-            if (constraint.isPersistent() && isConstraintInChunk(constraint, pos)) {
-                constraintsToSave.add(constraint);
-            }
+        if (!constraintStorage.consumeDirty(pos.toLong())) {
+            return;
         }
-        constraintStorage.saveChunk(pos, constraintsToSave);
+        constraintStorage.saveChunk(pos, collectConstraintsInChunk(pos, true));
     }
 
     public void flushPersistence(boolean block) {
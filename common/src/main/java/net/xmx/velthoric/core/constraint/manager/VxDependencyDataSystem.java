@@ -39,12 +39,8 @@ public class VxDependencyDataSystem {
         pendingConstraints.put(constraintId, constraint);
 
         // Register dependencies only for non-world bodies.
-        if (!constraint.getBody1Id().equals(VxConstraintManager.WORLD_BODY_ID)) {
-            bodyToConstraintMap.computeIfAbsent(constraint.getBody1Id(), k -> ConcurrentHashMap.newKeySet()).add(constraintId);
-        }
-        if (!constraint.getBody2Id().equals(VxConstraintManager.WORLD_BODY_ID)) {
-            bodyToConstraintMap.computeIfAbsent(constraint.getBody2Id(), k -> ConcurrentHashMap.newKeySet()).add(constraintId);
-        }
+        addDependencyToMap(constraint.getBody1Id(), constraintId);
+        addDependencyToMap(constraint.getBody2Id(), constraintId);
 
         // Check if dependencies are already met.
         onDependencyLoaded(constraint.getBody1Id());
@@ -71,7 +67,8 @@ public class VxDependencyDataSystem {
         for (UUID constraintId : Set.copyOf(affectedConstraints)) {
             VxConstraint constraint = pendingConstraints.get(constraintId);
             if (constraint == null) {
-                cleanup(constraintId);
+                // Stale reference; the other body's entry is dropped the same way when it loads.
+                removeDependencyFromMap(bodyId, constraintId);
                 continue;
             }
 
@@ -85,7 +82,7 @@ public class VxDependencyDataSystem {
 
             if (body1Ready && body2Ready) {
                 if (pendingConstraints.remove(constraintId) != null) {
-                    cleanup(constraintId);
+                    removeDependencies(constraint);
                     constraintManager.activateConstraint(constraint);
                 }
             }
@@ -99,9 +96,11 @@ public class VxDependencyDataSystem {
     public void removeForBody(UUID bodyId) {
         Set<UUID> affectedConstraints = bodyToConstraintMap.remove(bodyId);
         if (affectedConstraints != null) {
-            for (UUID constraintId : Set.copyOf(affectedConstraints)) {
-                pendingConstraints.remove(constraintId);
-                cleanup(constraintId);
+            for (UUID constraintId : affectedConstraints) {
+                VxConstraint constraint = pendingConstraints.remove(constraintId);
+                if (constraint != null) {
+                    removeDependencies(constraint);
+                }
             }
         }
     }
@@ -111,10 +110,11 @@ public class VxDependencyDataSystem {
     }
 
     /**
-     * Removes a constraint's ID from all dependency mappings.
+     * Removes a constraint's ID from the dependency sets of both of its bodies.
      */
-    private void cleanup(UUID constraintId) {
-        bodyToConstraintMap.values().forEach(set -> set.remove(constraintId));
+    private void removeDependencies(VxConstraint constraint) {
+        removeDependencyFromMap(constraint.getBody1Id(), constraint.getConstraintId());
+        removeDependencyFromMap(constraint.getBody2Id(), constraint.getConstraintId());
     }
 
     public void clear() {
@@ -139,10 +139,22 @@ public class VxDependencyDataSystem {
         // 1. Remove from the pending queue if it exists there
         pendingConstraints.remove(constraintId);
 
-        // 2. Efficiently remove from dependency maps using the known body IDs.
-        // This is O(1) compared to the O(N) iteration of the generic cleanup() method.
-        removeDependencyFromMap(constraint.getBody1Id(), constraintId);
-        removeDependencyFromMap(constraint.getBody2Id(), constraintId);
+        // 2. Remove from dependency maps using the known body IDs.
+        removeDependencies(constraint);
+    }
+
+    /**
+     * Helper to register a constraint ID in a body's dependency set.
+     * Uses compute() so the add cannot race with the removal of an emptied set.
+     */
+    private void addDependencyToMap(UUID bodyId, UUID constraintId) {
+        if (bodyId.equals(VxConstraintManager.WORLD_BODY_ID)) return;
+
+        bodyToConstraintMap.compute(bodyId, (k, dependencies) -> {
+            if (dependencies == null) dependencies = ConcurrentHashMap.newKeySet();
+            dependencies.add(constraintId);
+            return dependencies;
+        });
     }
 
     /**
@@ -151,14 +163,10 @@ public class VxDependencyDataSystem {
     private void removeDependencyFromMap(UUID bodyId, UUID constraintId) {
         if (bodyId.equals(VxConstraintManager.WORLD_BODY_ID)) return;
 
-        Set<UUID> dependencies = bodyToConstraintMap.get(bodyId);
-        if (dependencies != null) {
+        // Remove the entry entirely if no constraints depend on this body anymore
+        bodyToConstraintMap.computeIfPresent(bodyId, (k, dependencies) -> {
             dependencies.remove(constraintId);
-
-            // Optimization: Remove the entry entirely if no constraints depend on this body anymore
-            if (dependencies.isEmpty()) {
-                bodyToConstraintMap.remove(bodyId);
-            }
-        }
+            return dependencies.isEmpty() ? null : dependencies;
+        });
     }
 }
\ No newline at end of file
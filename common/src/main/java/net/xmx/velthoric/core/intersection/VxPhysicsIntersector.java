@@ -73,7 +73,11 @@ public class VxPhysicsIntersector {
         PhysicsSystem physicsSystem = physicsWorld.getPhysicsSystem();
         ConstBroadPhaseQuery broadPhaseQuery = physicsSystem.getBroadPhaseQuery();
 
-        try (AllHitCollideShapeBodyCollector collector = new AllHitCollideShapeBodyCollector()) {
+        // The collector is pooled per thread and only reset between queries.
+        AllHitCollideShapeBodyCollector collector = VxQueryContext.get().bodyCollector;
+        collector.reset();
+
+        try {
             // Perform colliding with the provided arguments.
             broadPhaseQuery.collidePoint(point, collector, bplFilter, olFilter);
             return collector.getHits();
@@ -209,7 +213,11 @@ public class VxPhysicsIntersector {
         PhysicsSystem physicsSystem = physicsWorld.getPhysicsSystem();
         ConstBroadPhaseQuery broadPhaseQuery = physicsSystem.getBroadPhaseQuery();
 
-        try (AllHitCollideShapeBodyCollector collector = new AllHitCollideShapeBodyCollector()) {
+        // The collector is pooled per thread and only reset between queries.
+        AllHitCollideShapeBodyCollector collector = VxQueryContext.get().bodyCollector;
+        collector.reset();
+
+        try {
             // Perform colliding with the provided arguments.
             broadPhaseQuery.collideSphere(center, radius, collector, bplFilter, olFilter);
             return collector.getHits();
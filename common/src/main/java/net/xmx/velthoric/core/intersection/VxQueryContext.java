@@ -0,0 +1,56 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.intersection;
+
+import com.github.stephengold.joltjni.*;
+
+/**
+ * A thread-local container for the native settings, collectors and temporaries used by physics queries.
+ * <p>
+ * Collectors are reset and the ray is re-aimed before each use instead of being allocated per call. A context belongs to its
+ * thread and is not reentrant: a query must not be issued from inside the filter callbacks of another
+ * query on the same thread.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxQueryContext {
+
+    /**
+     * The number of hits whose bodies are locked together when reading surface normals,
+     * and the number of queries one worker processes per batch slice.
+     */
+    public static final int LOCK_BATCH_SIZE = 64;
+
+    /**
+     * The Jolt ID of no body. Padding entries of {@link #lockIds} are skipped by the multi-body lock.
+     */
+    public static final int INVALID_BODY_ID = 0xFFFFFFFF;
+
+    private static final ThreadLocal<VxQueryContext> CONTEXT = ThreadLocal.withInitial(VxQueryContext::new);
+
+    public final RayCastSettings rayCastSettings = new RayCastSettings();
+    public final RRayCast rayCast = new RRayCast();
+    public final ClosestHitCastRayCollector closestRayCollector = new ClosestHitCastRayCollector();
+    public final AllHitCastRayCollector allRayCollector = new AllHitCastRayCollector();
+    public final ShapeCastSettings shapeCastSettings = new ShapeCastSettings();
+    public final ClosestHitCastShapeCollector closestShapeCollector = new ClosestHitCastShapeCollector();
+    public final AllHitCollideShapeBodyCollector bodyCollector = new AllHitCollideShapeBodyCollector();
+    public final BodyIdArray lockIds = new BodyIdArray(LOCK_BATCH_SIZE);
+    public final RVec3 rvec3_1 = new RVec3();
+    public final Vec3 vec3_1 = new Vec3();
+    public final Vec3 vec3_2 = new Vec3();
+    public final Quat quat_1 = new Quat();
+    public final AaBox aabox_1 = new AaBox();
+
+    private VxQueryContext() {
+    }
+
+    /**
+     * @return The query context of the calling thread.
+     */
+    public static VxQueryContext get() {
+        return CONTEXT.get();
+    }
+}
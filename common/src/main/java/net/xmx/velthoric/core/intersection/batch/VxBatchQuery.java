@@ -0,0 +1,312 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.intersection.batch;
+
+import com.github.stephengold.joltjni.*;
+import com.github.stephengold.joltjni.readonly.ConstBody;
+import com.github.stephengold.joltjni.readonly.ConstBroadPhaseQuery;
+import com.github.stephengold.joltjni.readonly.ConstNarrowPhaseQuery;
+import net.xmx.velthoric.core.intersection.VxQueryContext;
+import net.xmx.velthoric.core.intersection.raycast.VxRaycastFilters;
+import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
+import net.xmx.velthoric.init.VxMainClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executes batches of rays, shape casts and overlap volumes against the physics world.
+ * <p>
+ * A batch is split into slices of {@link VxQueryContext#LOCK_BATCH_SIZE} queries. Each slice runs on one
+ * thread with that thread's pooled {@link VxQueryContext}, so no native collector or settings object is
+ * allocated per query. Surface normals of a slice are read afterwards under a single multi-body lock instead
+ * of one lock per hit. Slices beyond the first are fanned out to the common fork-join pool while the calling
+ * thread processes the first one, and every method returns only once the whole batch has completed.
+ * <p>
+ * Queries are read-only and may run concurrently with other queries, but the filters passed in are shared
+ * by all worker threads and must therefore be thread-safe.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxBatchQuery {
+
+    /**
+     * The value stored in the hit body ID of a query that hit nothing.
+     */
+    public static final int NO_HIT = VxQueryContext.INVALID_BODY_ID;
+
+    private static final int SLICE_SIZE = VxQueryContext.LOCK_BATCH_SIZE;
+    private static final Executor EXECUTOR = ForkJoinPool.commonPool();
+    private static final Vec3 UNIT_SCALE = new Vec3(1f, 1f, 1f);
+
+    private static final BroadPhaseLayerFilter DEFAULT_BROAD_PHASE_LAYER_FILTER = new BroadPhaseLayerFilter();
+    private static final ObjectLayerFilter DEFAULT_OBJECT_LAYER_FILTER = new ObjectLayerFilter();
+    private static final ShapeFilter DEFAULT_SHAPE_FILTER = new ShapeFilter();
+
+    private VxBatchQuery() {
+    }
+
+    /**
+     * Casts all rays of the batch, ignoring terrain bodies, and stores the closest hit of each ray.
+     *
+     * @param physicsWorld The physics world.
+     * @param batch        The rays to cast.
+     */
+    public static void castRays(VxPhysicsWorld physicsWorld, VxRayBatch batch) {
+        castRays(physicsWorld, batch, VxRaycastFilters.BROADPHASE_ALL, VxRaycastFilters.IGNORE_TERRAIN, VxRaycastFilters.BODY_ALL);
+    }
+
+    /**
+     * Casts all rays of the batch and stores the closest hit of each ray.
+     *
+     * @param physicsWorld          The physics world.
+     * @param batch                 The rays to cast.
+     * @param broadPhaseLayerFilter The filter determining which broad-phase layers to hit.
+     * @param objectLayerFilter     The filter determining which object layers to hit.
+     * @param bodyFilter            The filter determining which bodies to hit.
+     */
+    public static void castRays(VxPhysicsWorld physicsWorld, VxRayBatch batch, BroadPhaseLayerFilter broadPhaseLayerFilter,
+                                ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter) {
+        int count = batch.size();
+        for (int i = 0; i < count; i++) {
+            batch.hitBodyId[i] = NO_HIT;
+        }
+
+        PhysicsSystem system = getSystem(physicsWorld);
+        if (system == null || count == 0) return;
+
+        forEachSlice(count, (start, end) -> castRaySlice(system, batch, start, end, broadPhaseLayerFilter, objectLayerFilter, bodyFilter));
+    }
+
+    /**
+     * Casts all shapes of the batch, ignoring terrain bodies, and stores the closest hit of each cast.
+     *
+     * @param physicsWorld The physics world.
+     * @param batch        The shape casts to perform.
+     */
+    public static void castShapes(VxPhysicsWorld physicsWorld, VxShapeCastBatch batch) {
+        castShapes(physicsWorld, batch, VxRaycastFilters.BROADPHASE_ALL, VxRaycastFilters.IGNORE_TERRAIN, VxRaycastFilters.BODY_ALL, DEFAULT_SHAPE_FILTER);
+    }
+
+    /**
+     * Casts all shapes of the batch and stores the closest hit of each cast.
+     *
+     * @param physicsWorld          The physics world.
+     * @param batch                 The shape casts to perform.
+     * @param broadPhaseLayerFilter The filter determining which broad-phase layers to hit.
+     * @param objectLayerFilter     The filter determining which object layers to hit.
+     * @param bodyFilter            The filter determining which bodies to hit.
+     * @param shapeFilter           The filter determining which shapes to hit.
+     */
+    public static void castShapes(VxPhysicsWorld physicsWorld, VxShapeCastBatch batch, BroadPhaseLayerFilter broadPhaseLayerFilter,
+                                  ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+        int count = batch.size();
+        for (int i = 0; i < count; i++) {
+            batch.hitBodyId[i] = NO_HIT;
+        }
+
+        PhysicsSystem system = getSystem(physicsWorld);
+        if (system == null || count == 0) return;
+
+        forEachSlice(count, (start, end) -> castShapeSlice(system, batch, start, end, broadPhaseLayerFilter, objectLayerFilter, bodyFilter, shapeFilter));
+    }
+
+    /**
+     * Collides all volumes of the batch with the broad phase using default filters, colliding with all possible objects.
+     *
+     * @param physicsWorld The physics world.
+     * @param batch        The volumes to test.
+     */
+    public static void collide(VxPhysicsWorld physicsWorld, VxOverlapBatch batch) {
+        collide(physicsWorld, batch, DEFAULT_BROAD_PHASE_LAYER_FILTER, DEFAULT_OBJECT_LAYER_FILTER);
+    }
+
+    /**
+     * Collides all volumes of the batch with the broad phase and stores the IDs of the overlapping bodies.
+     *
+     * @param physicsWorld The physics world.
+     * @param batch        The volumes to test.
+     * @param bplFilter    A custom filter for broad-phase layers.
+     * @param olFilter     A custom filter for object layers.
+     */
+    public static void collide(VxPhysicsWorld physicsWorld, VxOverlapBatch batch, BroadPhaseLayerFilter bplFilter, ObjectLayerFilter olFilter) {
+        int count = batch.size();
+        PhysicsSystem system = getSystem(physicsWorld);
+        if (system == null || count == 0) return;
+
+        forEachSlice(count, (start, end) -> collideSlice(system, batch, start, end, bplFilter, olFilter));
+    }
+
+    private static PhysicsSystem getSystem(VxPhysicsWorld physicsWorld) {
+        if (physicsWorld == null || !physicsWorld.isRunning()) {
+            return null;
+        }
+        return physicsWorld.getPhysicsSystem();
+    }
+
+    private static void castRaySlice(PhysicsSystem system, VxRayBatch batch, int start, int end,
+                                     BroadPhaseLayerFilter bplFilter, ObjectLayerFilter olFilter, BodyFilter bodyFilter) {
+        VxQueryContext ctx = VxQueryContext.get();
+        ConstNarrowPhaseQuery query = system.getNarrowPhaseQuery();
+        ClosestHitCastRayCollector collector = ctx.closestRayCollector;
+        BodyIdArray lockIds = ctx.lockIds;
+        RRayCast ray = ctx.rayCast;
+        int hits = 0;
+
+        // Pass 1: run the queries and keep only primitive results.
+        for (int i = start; i < end; i++) {
+            ctx.rvec3_1.set(batch.originX[i], batch.originY[i], batch.originZ[i]);
+            ctx.vec3_1.set(batch.rayX[i], batch.rayY[i], batch.rayZ[i]);
+            ray.setOrigin(ctx.rvec3_1);
+            ray.setDirection(ctx.vec3_1);
+            collector.reset();
+
+            query.castRay(ray, ctx.rayCastSettings, collector, bplFilter, olFilter, bodyFilter);
+
+            if (collector.hadHit()) {
+                RayCastResult hit = collector.getHit();
+                int bodyId = hit.getBodyId();
+                float fraction = hit.getFraction();
+
+                batch.hitBodyId[i] = bodyId;
+                batch.hitFraction[i] = fraction;
+                batch.hitSubShapeId[i] = hit.getSubShapeId2();
+                batch.hitX[i] = batch.originX[i] + batch.rayX[i] * (double) fraction;
+                batch.hitY[i] = batch.originY[i] + batch.rayY[i] * (double) fraction;
+                batch.hitZ[i] = batch.originZ[i] + batch.rayZ[i] * (double) fraction;
+                lockIds.set(i - start, bodyId);
+                hits++;
+            } else {
+                lockIds.set(i - start, NO_HIT);
+            }
+        }
+
+        if (hits == 0) return;
+        for (int k = end - start; k < SLICE_SIZE; k++) {
+            lockIds.set(k, NO_HIT);
+        }
+
+        // Pass 2: resolve all surface normals of the slice under one lock.
+        try (BodyLockMultiRead lock = new BodyLockMultiRead(system.getBodyLockInterface(), lockIds)) {
+            ConstBody[] bodies = lock.getBodies();
+            for (int i = start; i < end; i++) {
+                if (batch.hitBodyId[i] == NO_HIT) continue;
+
+                ConstBody body = bodies[i - start];
+                if (body == null || !body.isInBroadPhase()) {
+                    // Fallback if body was removed during query (rare race condition)
+                    batch.normalX[i] = 0f;
+                    batch.normalY[i] = 1f;
+                    batch.normalZ[i] = 0f;
+                    continue;
+                }
+
+                ctx.rvec3_1.set(batch.hitX[i], batch.hitY[i], batch.hitZ[i]);
+                Vec3 normal = body.getWorldSpaceSurfaceNormal(batch.hitSubShapeId[i], ctx.rvec3_1);
+                batch.normalX[i] = normal.getX();
+                batch.normalY[i] = normal.getY();
+                batch.normalZ[i] = normal.getZ();
+            }
+        }
+    }
+
+    private static void castShapeSlice(PhysicsSystem system, VxShapeCastBatch batch, int start, int end,
+                                       BroadPhaseLayerFilter bplFilter, ObjectLayerFilter olFilter,
+                                       BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+        VxQueryContext ctx = VxQueryContext.get();
+        ConstNarrowPhaseQuery query = system.getNarrowPhaseQuery();
+        ClosestHitCastShapeCollector collector = ctx.closestShapeCollector;
+
+        for (int i = start; i < end; i++) {
+            ctx.rvec3_1.set(batch.startX[i], batch.startY[i], batch.startZ[i]);
+            ctx.quat_1.set(batch.rotX[i], batch.rotY[i], batch.rotZ[i], batch.rotW[i]);
+            ctx.vec3_1.set(batch.sweepX[i], batch.sweepY[i], batch.sweepZ[i]);
+            collector.reset();
+
+            try (RMat44 comStart = RMat44.sRotationTranslation(ctx.quat_1, ctx.rvec3_1);
+                 RShapeCast cast = new RShapeCast(batch.shapes[i], UNIT_SCALE, comStart, ctx.vec3_1)) {
+                // Contact points are reported relative to the start position to keep float precision.
+                query.castShape(cast, ctx.shapeCastSettings, ctx.rvec3_1, collector, bplFilter, olFilter, bodyFilter, shapeFilter);
+            }
+
+            if (!collector.hadHit()) continue;
+
+            // The penetration axis points from the cast shape into the hit body, so the
+            // negated axis is the surface normal and no body lock is needed to read it.
+            ShapeCastResult hit = collector.getHit();
+            Vec3 contact = hit.getContactPointOn2();
+            Vec3 axis = hit.getPenetrationAxis();
+            float length = axis.length();
+            float scale = length > 1.0e-6f ? -1f / length : 0f;
+
+            batch.hitBodyId[i] = hit.getBodyId2();
+            batch.hitFraction[i] = hit.getFraction();
+            batch.hitX[i] = batch.startX[i] + contact.getX();
+            batch.hitY[i] = batch.startY[i] + contact.getY();
+            batch.hitZ[i] = batch.startZ[i] + contact.getZ();
+            batch.normalX[i] = axis.getX() * scale;
+            batch.normalY[i] = scale == 0f ? 1f : axis.getY() * scale;
+            batch.normalZ[i] = axis.getZ() * scale;
+        }
+    }
+
+    private static void collideSlice(PhysicsSystem system, VxOverlapBatch batch, int start, int end,
+                                     BroadPhaseLayerFilter bplFilter, ObjectLayerFilter olFilter) {
+        VxQueryContext ctx = VxQueryContext.get();
+        ConstBroadPhaseQuery query = system.getBroadPhaseQuery();
+        AllHitCollideShapeBodyCollector collector = ctx.bodyCollector;
+
+        for (int i = start; i < end; i++) {
+            collector.reset();
+            if (batch.kinds[i] == VxOverlapBatch.SPHERE) {
+                ctx.vec3_1.set(batch.x[i], batch.y[i], batch.z[i]);
+                query.collideSphere(ctx.vec3_1, batch.extentX[i], collector, bplFilter, olFilter);
+            } else {
+                ctx.vec3_1.set(batch.x[i], batch.y[i], batch.z[i]);
+                ctx.vec3_2.set(batch.extentX[i], batch.extentY[i], batch.extentZ[i]);
+                ctx.aabox_1.setMin(ctx.vec3_1);
+                ctx.aabox_1.setMax(ctx.vec3_2);
+                query.collideAaBox(ctx.aabox_1, collector, bplFilter, olFilter);
+            }
+            batch.hits[i] = collector.getHits();
+        }
+    }
+
+    /**
+     * Runs the task over consecutive slices of the range [0, count). The calling thread processes
+     * the first slice itself and then waits for the rest.
+     */
+    private static void forEachSlice(int count, SliceTask task) {
+        if (count <= SLICE_SIZE) {
+            runSlice(task, 0, count);
+            return;
+        }
+
+        int slices = (count + SLICE_SIZE - 1) / SLICE_SIZE;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[slices - 1];
+        for (int s = 1; s < slices; s++) {
+            int start = s * SLICE_SIZE;
+            int end = Math.min(start + SLICE_SIZE, count);
+            futures[s - 1] = CompletableFuture.runAsync(() -> runSlice(task, start, end), EXECUTOR);
+        }
+
+        runSlice(task, 0, SLICE_SIZE);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static void runSlice(SliceTask task, int start, int end) {
+        try {
+            task.run(start, end);
+        } catch (Exception e) {
+            VxMainClass.LOGGER.error("Jolt batch query failed for slice [{}, {})", start, end, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SliceTask {
+        void run(int start, int end);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.intersection.batch;
+
+import java.util.Arrays;
+
+/**
+ * A reusable batch of broad-phase overlap volumes (spheres and axis-aligned boxes) and the bodies they overlap.
+ * <p>
+ * Volumes are added with {@link #addSphere} or {@link #addBox}, executed by {@link VxBatchQuery#collide},
+ * and the overlapping body IDs read from {@link #hits} by the index the add method returned.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxOverlapBatch {
+
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
+
+    static final byte SPHERE = 0;
+    static final byte BOX = 1;
+
+    private int size;
+
+    // --- Input ---
+    byte[] kinds;
+    /**
+     * The sphere center, or the box minimum.
+     */
+    public float[] x, y, z;
+    /**
+     * The sphere radius in {@code extentX}, or the box maximum.
+     */
+    public float[] extentX, extentY, extentZ;
+
+    // --- Output ---
+    /**
+     * The Jolt body IDs overlapping each volume. Never null after the query; empty if nothing overlaps.
+     */
+    public int[][] hits;
+
+    public VxOverlapBatch() {
+        this(16);
+    }
+
+    /**
+     * @param initialCapacity The number of volumes to allocate space for.
+     */
+    public VxOverlapBatch(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Adds a sphere to the batch.
+     *
+     * @return The index of the volume, used to read its result.
+     */
+    public int addSphere(float cx, float cy, float cz, float radius) {
+        int i = next(SPHERE);
+        x[i] = cx;
+        y[i] = cy;
+        z[i] = cz;
+        extentX[i] = radius;
+        return i;
+    }
+
+    /**
+     * Adds an axis-aligned box to the batch.
+     *
+     * @return The index of the volume, used to read its result.
+     */
+    public int addBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int i = next(BOX);
+        x[i] = minX;
+        y[i] = minY;
+        z[i] = minZ;
+        extentX[i] = maxX;
+        extentY[i] = maxY;
+        extentZ[i] = maxZ;
+        return i;
+    }
+
+    private int next(byte kind) {
+        if (size == kinds.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        kinds[i] = kind;
+        hits[i] = EMPTY_INT_ARRAY;
+        return i;
+    }
+
+    /**
+     * @return The number of volumes in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all volumes and their results, keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(hits, 0, size, null);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        kinds = kinds == null ? new byte[capacity] : Arrays.copyOf(kinds, capacity);
+        x = VxRayBatch.grow(x, capacity);
+        y = VxRayBatch.grow(y, capacity);
+        z = VxRayBatch.grow(z, capacity);
+        extentX = VxRayBatch.grow(extentX, capacity);
+        extentY = VxRayBatch.grow(extentY, capacity);
+        extentZ = VxRayBatch.grow(extentZ, capacity);
+        hits = hits == null ? new int[capacity][] : Arrays.copyOf(hits, capacity);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.intersection.batch;
+
+import java.util.Arrays;
+
+/**
+ * A reusable batch of rays and their closest hits, stored as a Structure of Arrays.
+ * <p>
+ * Rays are added with {@link #add}, executed by {@link VxBatchQuery#castRays}, and their results read
+ * from the public arrays by the index {@link #add} returned. Calling {@link #clear()} keeps the arrays,
+ * so a batch refilled every tick does not allocate once it has grown to its working size.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxRayBatch {
+
+    private int size;
+
+    // --- Input ---
+    public double[] originX, originY, originZ;
+    /**
+     * The ray vectors: the normalized direction scaled by the maximum distance.
+     */
+    public float[] rayX, rayY, rayZ;
+
+    // --- Output ---
+    /**
+     * The Jolt body ID of the closest hit, or {@link VxBatchQuery#NO_HIT}.
+     */
+    public int[] hitBodyId;
+    public float[] hitFraction;
+    public double[] hitX, hitY, hitZ;
+    public float[] normalX, normalY, normalZ;
+
+    /**
+     * The sub-shape of each hit, needed to resolve its surface normal.
+     */
+    int[] hitSubShapeId;
+
+    public VxRayBatch() {
+        this(16);
+    }
+
+    /**
+     * @param initialCapacity The number of rays to allocate space for.
+     */
+    public VxRayBatch(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Adds a ray to the batch.
+     *
+     * @param ox          The ray origin X.
+     * @param oy          The ray origin Y.
+     * @param oz          The ray origin Z.
+     * @param dx          The normalized direction X.
+     * @param dy          The normalized direction Y.
+     * @param dz          The normalized direction Z.
+     * @param maxDistance The maximum length of the ray.
+     * @return The index of the ray, used to read its result.
+     */
+    public int add(double ox, double oy, double oz, float dx, float dy, float dz, float maxDistance) {
+        if (size == originX.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        originX[i] = ox;
+        originY[i] = oy;
+        originZ[i] = oz;
+        rayX[i] = dx * maxDistance;
+        rayY[i] = dy * maxDistance;
+        rayZ[i] = dz * maxDistance;
+        hitBodyId[i] = VxBatchQuery.NO_HIT;
+        return i;
+    }
+
+    /**
+     * @param i The index of the ray.
+     * @return True if the ray hit a body.
+     */
+    public boolean hasHit(int i) {
+        return hitBodyId[i] != VxBatchQuery.NO_HIT;
+    }
+
+    /**
+     * @return The number of rays in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all rays, keeping the allocated arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        originX = grow(originX, capacity);
+        originY = grow(originY, capacity);
+        originZ = grow(originZ, capacity);
+        rayX = grow(rayX, capacity);
+        rayY = grow(rayY, capacity);
+        rayZ = grow(rayZ, capacity);
+        hitBodyId = grow(hitBodyId, capacity);
+        hitFraction = grow(hitFraction, capacity);
+        hitX = grow(hitX, capacity);
+        hitY = grow(hitY, capacity);
+        hitZ = grow(hitZ, capacity);
+        normalX = grow(normalX, capacity);
+        normalY = grow(normalY, capacity);
+        normalZ = grow(normalZ, capacity);
+        hitSubShapeId = grow(hitSubShapeId, capacity);
+    }
+
+    static double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    static int[] grow(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.intersection.batch;
+
+import com.github.stephengold.joltjni.readonly.ConstShape;
+
+import java.util.Arrays;
+
+/**
+ * A reusable batch of shape casts and their closest hits, stored as a Structure of Arrays.
+ * <p>
+ * Each cast sweeps a shape from its start transform along a vector. Casts are added with {@link #add},
+ * executed by {@link VxBatchQuery#castShapes}, and their results read from the public arrays by the index
+ * {@link #add} returned. The batch references the shapes but does not own them; they must stay alive
+ * until the query has completed.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxShapeCastBatch {
+
+    private int size;
+
+    // --- Input ---
+    ConstShape[] shapes;
+    /**
+     * The start position of the shape's center of mass.
+     */
+    public double[] startX, startY, startZ;
+    public float[] rotX, rotY, rotZ, rotW;
+    /**
+     * The sweep vectors: the normalized direction scaled by the maximum distance.
+     */
+    public float[] sweepX, sweepY, sweepZ;
+
+    // --- Output ---
+    /**
+     * The Jolt body ID of the closest hit, or {@link VxBatchQuery#NO_HIT}.
+     */
+    public int[] hitBodyId;
+    public float[] hitFraction;
+    /**
+     * The contact point on the hit body.
+     */
+    public double[] hitX, hitY, hitZ;
+    /**
+     * The surface normal of the hit body, pointing towards the cast shape.
+     */
+    public float[] normalX, normalY, normalZ;
+
+    public VxShapeCastBatch() {
+        this(16);
+    }
+
+    /**
+     * @param initialCapacity The number of casts to allocate space for.
+     */
+    public VxShapeCastBatch(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Adds a shape cast to the batch.
+     *
+     * @param shape       The shape to sweep.
+     * @param x           The start X of the center of mass.
+     * @param y           The start Y of the center of mass.
+     * @param z           The start Z of the center of mass.
+     * @param qx          The rotation X.
+     * @param qy          The rotation Y.
+     * @param qz          The rotation Z.
+     * @param qw          The rotation W.
+     * @param dx          The normalized sweep direction X.
+     * @param dy          The normalized sweep direction Y.
+     * @param dz          The normalized sweep direction Z.
+     * @param maxDistance The maximum sweep distance.
+     * @return The index of the cast, used to read its result.
+     */
+    public int add(ConstShape shape, double x, double y, double z, float qx, float qy, float qz, float qw,
+                   float dx, float dy, float dz, float maxDistance) {
+        if (size == startX.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        shapes[i] = shape;
+        startX[i] = x;
+        startY[i] = y;
+        startZ[i] = z;
+        rotX[i] = qx;
+        rotY[i] = qy;
+        rotZ[i] = qz;
+        rotW[i] = qw;
+        sweepX[i] = dx * maxDistance;
+        sweepY[i] = dy * maxDistance;
+        sweepZ[i] = dz * maxDistance;
+        hitBodyId[i] = VxBatchQuery.NO_HIT;
+        return i;
+    }
+
+    /**
+     * @param i The index of the cast.
+     * @return True if the cast hit a body.
+     */
+    public boolean hasHit(int i) {
+        return hitBodyId[i] != VxBatchQuery.NO_HIT;
+    }
+
+    /**
+     * @return The number of casts in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all casts and drops the shape references, keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(shapes, 0, size, null);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        shapes = shapes == null ? new ConstShape[capacity] : Arrays.copyOf(shapes, capacity);
+        startX = VxRayBatch.grow(startX, capacity);
+        startY = VxRayBatch.grow(startY, capacity);
+        startZ = VxRayBatch.grow(startZ, capacity);
+        rotX = VxRayBatch.grow(rotX, capacity);
+        rotY = VxRayBatch.grow(rotY, capacity);
+        rotZ = VxRayBatch.grow(rotZ, capacity);
+        rotW = VxRayBatch.grow(rotW, capacity);
+        sweepX = VxRayBatch.grow(sweepX, capacity);
+        sweepY = VxRayBatch.grow(sweepY, capacity);
+        sweepZ = VxRayBatch.grow(sweepZ, capacity);
+        hitBodyId = VxRayBatch.grow(hitBodyId, capacity);
+        hitFraction = VxRayBatch.grow(hitFraction, capacity);
+        hitX = VxRayBatch.grow(hitX, capacity);
+        hitY = VxRayBatch.grow(hitY, capacity);
+        hitZ = VxRayBatch.grow(hitZ, capacity);
+        normalX = VxRayBatch.grow(normalX, capacity);
+        normalY = VxRayBatch.grow(normalY, capacity);
+        normalZ = VxRayBatch.grow(normalZ, capacity);
+    }
+}
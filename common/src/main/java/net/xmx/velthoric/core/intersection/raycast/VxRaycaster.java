@@ -6,6 +6,8 @@ package net.xmx.velthoric.core.intersection.raycast;
 
 import com.github.stephengold.joltjni.*;
 import com.github.stephengold.joltjni.operator.Op;
+import com.github.stephengold.joltjni.readonly.ConstBody;
+import net.xmx.velthoric.core.intersection.VxQueryContext;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import net.xmx.velthoric.init.VxMainClass;
 
@@ -111,15 +113,20 @@ public final class VxRaycaster {
         PhysicsSystem system = physicsWorld.getPhysicsSystem();
         if (system == null) return Optional.empty();
 
-        // Use try-with-resources for JNI objects that must be closed locally.
-        try (RRayCast ray = new RRayCast(origin, directionAndDist);
-             RayCastSettings settings = new RayCastSettings();
-             ClosestHitCastRayCollector collector = new ClosestHitCastRayCollector()) {
+        // The ray, settings and collector are pooled per thread.
+        VxQueryContext ctx = VxQueryContext.get();
+        ClosestHitCastRayCollector collector = ctx.closestRayCollector;
+        collector.reset();
+        RRayCast ray = ctx.rayCast;
+        ray.setOrigin(origin);
+        ray.setDirection(directionAndDist);
+
+        try {
 
             // Execute the query
             system.getNarrowPhaseQuery().castRay(
                     ray,
-                    settings,
+                    ctx.rayCastSettings,
                     collector,
                     broadPhaseLayerFilter,
                     objectLayerFilter,
@@ -243,15 +250,19 @@ public final class VxRaycaster {
         PhysicsSystem system = physicsWorld.getPhysicsSystem();
         if (system == null) return Collections.emptyList();
 
-        // Use try-with-resources for JNI objects that must be closed locally.
-        try (RRayCast ray = new RRayCast(origin, directionAndDist);
-             RayCastSettings settings = new RayCastSettings();
-             AllHitCastRayCollector collector = new AllHitCastRayCollector()) {
+        VxQueryContext ctx = VxQueryContext.get();
+        AllHitCastRayCollector collector = ctx.allRayCollector;
+        collector.reset();
+        RRayCast ray = ctx.rayCast;
+        ray.setOrigin(origin);
+        ray.setDirection(directionAndDist);
+
+        try {
 
             // Execute the query
             system.getNarrowPhaseQuery().castRay(
                     ray,
-                    settings,
+                    ctx.rayCastSettings,
                     collector,
                     broadPhaseLayerFilter,
                     objectLayerFilter,
@@ -263,25 +274,39 @@ public final class VxRaycaster {
 
             if (size != 0) {
                 List<VxHitResult> results = new ArrayList<>(size);
+                BodyIdArray lockIds = ctx.lockIds;
+
+                // Resolve normals in groups, locking each group of hit bodies once instead of once per hit.
+                for (int groupStart = 0; groupStart < size; groupStart += VxQueryContext.LOCK_BATCH_SIZE) {
+                    int groupEnd = Math.min(groupStart + VxQueryContext.LOCK_BATCH_SIZE, size);
+                    for (int k = 0; k < VxQueryContext.LOCK_BATCH_SIZE; k++) {
+                        int h = groupStart + k;
+                        lockIds.set(k, h < groupEnd ? hits.get(h).getBodyId() : VxQueryContext.INVALID_BODY_ID);
+                    }
+
+                    try (BodyLockMultiRead lock = new BodyLockMultiRead(system.getBodyLockInterface(), lockIds)) {
+                        ConstBody[] bodies = lock.getBodies();
 
-                for (RayCastResult hit : hits) {
-                    // Retrieve data
-                    int bodyId = hit.getBodyId();
-                    float fraction = hit.getFraction();
-                    RVec3 hitPos = ray.getPointOnRay(fraction);
-
-                    // We need to lock the body briefly to get the exact world normal
-                    Vec3 normal;
-                    try (BodyLockRead lock = new BodyLockRead(system.getBodyLockInterface(), bodyId)) {
-                        if (lock.succeededAndIsInBroadPhase()) {
-                            normal = lock.getBody().getWorldSpaceSurfaceNormal(hit.getSubShapeId2(), hitPos);
-                        } else {
-                            // Fallback if body was removed during query (rare race condition)
-                            normal = new Vec3(0, 1, 0);
+                        for (int h = groupStart; h < groupEnd; h++) {
+                            RayCastResult hit = hits.get(h);
+
+                            // Retrieve data
+                            int bodyId = hit.getBodyId();
+                            float fraction = hit.getFraction();
+                            RVec3 hitPos = ray.getPointOnRay(fraction);
+
+                            Vec3 normal;
+                            ConstBody body = bodies[h - groupStart];
+                            if (body != null && body.isInBroadPhase()) {
+                                normal = body.getWorldSpaceSurfaceNormal(hit.getSubShapeId2(), hitPos);
+                            } else {
+                                // Fallback if body was removed during query (rare race condition)
+                                normal = new Vec3(0, 1, 0);
+                            }
+
+                            results.add(new VxHitResult(bodyId, hitPos, normal, fraction));
                         }
                     }
-
-                    results.add(new VxHitResult(bodyId, hitPos, normal, fraction));
                 }
 
                 return results;
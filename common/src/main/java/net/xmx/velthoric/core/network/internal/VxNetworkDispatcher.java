@@ -22,6 +22,8 @@ import net.xmx.velthoric.core.body.server.VxServerBodyManager;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.network.internal.packet.S2CRemoveBodyBatchPacket;
 import net.xmx.velthoric.core.network.internal.packet.S2CSpawnBodyBatchPacket;
+import net.xmx.velthoric.core.network.internal.packet.S2CUpdateBodyStateBatchPacket;
+import net.xmx.velthoric.core.network.internal.packet.S2CUpdateVerticesBatchPacket;
 import net.xmx.velthoric.init.VxMainClass;
 import net.xmx.velthoric.network.IVxNetPacket;
 import net.xmx.velthoric.network.VxNetworking;
@@ -33,15 +35,19 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
 
 /**
  * The central controller for physics body network synchronization.
  * <p>
  * <b>Scalability Architecture:</b>
  * 1. <b>Grouping:</b> Dirty bodies are grouped by the chunk they reside in.
- * 2. <b>Serialization:</b> Data for each chunk is serialized into a raw binary stream once.
- * 3. <b>Compression:</b> The binary stream is compressed once per chunk using Zstd via {@link VxPacketFactory}.
- * 4. <b>Broadcasting:</b> The resulting compressed payload is sent to all players watching that chunk.
+ * 2. <b>Scheduling:</b> {@link VxNetworkScheduler} lowers the update rate of chunks far from or behind their
+ *    watchers, orders the due chunks nearest first and enforces per-player bandwidth budgets.
+ *    Chunks that are deferred stay dirty for the next cycle.
+ * 3. <b>Serialization:</b> Data for each chunk is serialized into a raw binary stream once.
+ * 4. <b>Compression:</b> The binary stream is compressed once per chunk using Zstd via {@link VxPacketFactory}.
+ * 5. <b>Broadcasting:</b> The resulting compressed payload is sent to all players watching that chunk.
  * <p>
  * This architecture shifts the O(Players * Bodies) complexity to O(Chunks + Players),
  * drastically reducing CPU and GC overhead. The implementation uses Netty's PooledByteBuf
@@ -71,6 +77,11 @@ public class VxNetworkDispatcher {
      */
     private final VxPacketFactory packetFactory;
 
+    /**
+     * Distance-based update rate and bandwidth scheduler for state updates.
+     */
+    private final VxNetworkScheduler scheduler;
+
     /**
      * Frequency of the network synchronization thread in milliseconds.
      */
@@ -140,6 +151,16 @@ public class VxNetworkDispatcher {
      */
     private final ObjectArrayList<IntArrayList> listPool = new ObjectArrayList<>();
 
+    /**
+     * Reusable list of recipients for a single broadcast, used only by the network thread.
+     */
+    private final ObjectArrayList<ServerPlayer> broadcastRecipients = new ObjectArrayList<>();
+
+    /**
+     * Indices of bodies whose state update was deferred by the scheduler in the current cycle.
+     */
+    private final IntArrayList deferredIndices = new IntArrayList(1024);
+
     /**
      * Constructs a new dispatcher and initializes network tuning parameters from config.
      *
@@ -151,6 +172,7 @@ public class VxNetworkDispatcher {
         this.manager = manager;
         this.dataStore = manager.getDataStore();
         this.packetFactory = new VxPacketFactory(manager);
+        this.scheduler = new VxNetworkScheduler(NETWORK_THREAD_TICK_RATE_MS);
     }
 
     /**
@@ -195,11 +217,19 @@ public class VxNetworkDispatcher {
             try {
                 long start = System.nanoTime();
 
-                // Phase 1: Identification & Grouping
-                prepareUpdateBatches();
-
-                // Phase 2: Serialization & Compression (the expensive part)
-                List<BroadcastTask> broadcastTasks = serializeBatches();
+                // The grouped slot indices are used until serialization ends, so compaction waits for both phases
+                Lock slotAccess = dataStore.getSlotAccessLock();
+                List<BroadcastTask> broadcastTasks;
+                slotAccess.lock();
+                try {
+                    // Phase 1: Identification & Grouping
+                    prepareUpdateBatches();
+
+                    // Phase 2: Serialization & Compression (the expensive part)
+                    broadcastTasks = serializeBatches();
+                } finally {
+                    slotAccess.unlock();
+                }
 
                 // Phase 3: Dispatching (directly on network thread using our own chunk→player tracking)
                 if (!broadcastTasks.isEmpty()) {
@@ -209,7 +239,12 @@ public class VxNetworkDispatcher {
                 // Sync custom data
                 VxSyncBehavior behavior = this.manager.getBehaviorManager().getBehavior(VxSyncBehavior.ID);
                 if (behavior != null) {
-                    behavior.broadcastS2CUpdates(this.manager, this);
+                    slotAccess.lock();
+                    try {
+                        behavior.broadcastS2CUpdates(this.manager, this);
+                    } finally {
+                        slotAccess.unlock();
+                    }
                 }
 
                 // Clean up grouping buffers and return them to the pool
@@ -233,18 +268,11 @@ public class VxNetworkDispatcher {
     private void prepareUpdateBatches() {
         dirtyIndicesSnapshot.clear();
 
-        // Atomically retrieve dirty indices to minimize lock duration
+        // Atomically drain the dirty indices without blocking the physics thread
         VxServerBodyDataContainer c = dataStore.serverCurrent();
-        synchronized (dataStore) {
-            if (c.dirtyIndices.isEmpty()) return;
-            IntIterator it = c.dirtyIndices.iterator();
-            while (it.hasNext()) {
-                dirtyIndicesSnapshot.add(it.nextInt());
-            }
-            c.dirtyIndices.clear();
-        }
+        if (c.dirtyIndices.drainTo(dirtyIndicesSnapshot) == 0) return;
 
-        // Group indices by chunk outside the lock
+        // Group indices by chunk
         for (int i = 0; i < dirtyIndicesSnapshot.size(); i++) {
             int idx = dirtyIndicesSnapshot.getInt(i);
             if (idx >= c.getCapacity() || c.networkId[idx] == -1) continue;
@@ -298,46 +326,107 @@ public class VxNetworkDispatcher {
     /**
      * Iterates over grouped dirty bodies and creates compressed binary packets for each chunk.
      * Delegates entirely to the VxPacketFactory for zero-allocation creation.
+     * <p>
+     * State updates pass through the {@link VxNetworkScheduler} first: chunks that are not due or that
+     * exceed a watcher's bandwidth budget are marked dirty again and reconsidered in the next cycle.
+     * Chunks without watchers are skipped, since new watchers receive a keyframe anyway.
      *
      * @return A list of tasks containing the chunk coordinate and its corresponding pre-built packet.
      */
     private List<BroadcastTask> serializeBatches() {
         List<BroadcastTask> tasks = new ArrayList<>(dirtyBodiesByChunk.size() + dirtyVerticesByChunk.size());
+        scheduler.beginCycle(System.nanoTime());
 
+        // Offer every watched dirty chunk to the scheduler
         for (Long2ObjectMap.Entry<IntArrayList> entry : dirtyBodiesByChunk.long2ObjectEntrySet()) {
-            tasks.add(new BroadcastTask(entry.getLongKey(), packetFactory.createStatePacket(entry.getLongKey(), entry.getValue(), level)));
+            try {
+                collectChunkWatchers(entry.getLongKey(), broadcastRecipients);
+                if (!broadcastRecipients.isEmpty() && !scheduler.offer(entry.getLongKey(), broadcastRecipients)) {
+                    deferredIndices.addAll(entry.getValue());
+                }
+            } finally {
+                broadcastRecipients.clear();
+            }
+        }
+
+        // Serialize the due chunks in priority order while the watchers have budget left
+        int candidates = scheduler.prioritize();
+        for (int rank = 0; rank < candidates; rank++) {
+            long chunkKey = scheduler.getChunk(rank);
+            IntArrayList indices = dirtyBodiesByChunk.get(chunkKey);
+            try {
+                collectChunkWatchers(chunkKey, broadcastRecipients);
+                if (!scheduler.hasBudget(rank, broadcastRecipients)) {
+                    deferredIndices.addAll(indices);
+                    continue;
+                }
+
+                S2CUpdateBodyStateBatchPacket packet = packetFactory.createStatePacket(chunkKey, indices, level);
+                scheduler.markSent(chunkKey);
+                // Null means every dirty body in the chunk quantized to its current baseline
+                if (packet != null) {
+                    scheduler.charge(broadcastRecipients, packet.getPayloadSize());
+                    tasks.add(new BroadcastTask(chunkKey, packet));
+                }
+            } finally {
+                broadcastRecipients.clear();
+            }
+        }
+
+        if (!deferredIndices.isEmpty()) {
+            deferTransformUpdates();
         }
 
         for (Long2ObjectMap.Entry<IntArrayList> entry : dirtyVerticesByChunk.long2ObjectEntrySet()) {
-            tasks.add(new BroadcastTask(entry.getLongKey(), packetFactory.createVertexPacket(entry.getLongKey(), entry.getValue())));
+            S2CUpdateVerticesBatchPacket packet = packetFactory.createVertexPacket(entry.getLongKey(), entry.getValue());
+            try {
+                collectChunkWatchers(entry.getLongKey(), broadcastRecipients);
+                scheduler.charge(broadcastRecipients, packet.getPayloadSize());
+            } finally {
+                broadcastRecipients.clear();
+            }
+            tasks.add(new BroadcastTask(entry.getLongKey(), packet));
         }
 
         return tasks;
     }
 
+    /**
+     * Marks the bodies deferred by the scheduler as dirty again, so they are picked up by the next cycle.
+     */
+    private void deferTransformUpdates() {
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        for (int i = 0; i < deferredIndices.size(); i++) {
+            int idx = deferredIndices.getInt(i);
+            // Slots freed or vacated by compaction in the meantime are dropped
+            if (idx < c.getCapacity() && c.networkId[idx] != -1) {
+                c.isTransformDirty[idx] = true;
+                c.dirtyIndices.mark(idx);
+            }
+        }
+        deferredIndices.clear();
+    }
+
     /**
      * Sends pre-built packets to all players watching the respective chunks.
      * Runs directly on the network thread using the internal {@link #chunkWatchers} map
-     * to avoid blocking on the server main thread. {@link VxNetworking#sendToPlayer} is
+     * to avoid blocking on the server main thread. {@link VxNetworking#sendToPlayers} is
      * thread-safe (Netty pipeline), so no main-thread dispatch is needed.
+     * Each packet is encoded once and shared by all watchers of its chunk.
      *
      * @param tasks The broadcast tasks generated by the network thread.
      */
     private void dispatchBroadcasts(List<BroadcastTask> tasks) {
         for (BroadcastTask task : tasks) {
-            Set<UUID> watchers = chunkWatchers.get(task.chunkPos);
-
-            if (watchers != null && !watchers.isEmpty()) {
-                for (UUID uuid : watchers) {
-                    ServerPlayer player = knownPlayers.get(uuid);
-                    if (player != null) {
-                        VxNetworking.sendToPlayer(player, task.packet);
-                    }
-                }
+            try {
+                collectChunkWatchers(task.chunkPos, broadcastRecipients);
+                VxNetworking.sendToPlayers(broadcastRecipients, task.packet);
+            } finally {
+                broadcastRecipients.clear();
+                // Always release the pooled buffer after processing the task,
+                // even if no players were watching the chunk.
+                task.packet.release();
             }
-            // Always release the pooled buffer after processing the task,
-            // even if no players were watching the chunk.
-            task.packet.release();
         }
     }
 
@@ -567,6 +656,8 @@ public class VxNetworkDispatcher {
                     // Only spawn if the player has received the chunk
                     if (chunkMap.getPlayers(bodyChunk, false).contains(player)) {
                         VxSpawnData.writeRaw(spawnBuf, body, System.nanoTime());
+                        // The new tracker has no delta baseline, so the next state update must be a keyframe
+                        dataStore.requestKeyframe(index);
                         count++;
 
                         // Check payload limit
@@ -648,6 +739,7 @@ public class VxNetworkDispatcher {
         pendingSpawns.remove(uuid);
         pendingRemovals.remove(uuid);
         knownPlayers.remove(uuid);
+        scheduler.onPlayerDisconnect(uuid);
         // Use reverse index for efficient cleanup — only touch chunks the player was watching
         Set<Long> watchedChunks = playerToChunks.remove(uuid);
         if (watchedChunks != null) {
@@ -690,6 +782,24 @@ public class VxNetworkDispatcher {
         }
     }
 
+    /**
+     * Adds all known players currently watching the given chunk to a list.
+     *
+     * @param chunkKey The packed chunk position.
+     * @param out      The list to add the watching players to.
+     */
+    public void collectChunkWatchers(long chunkKey, List<ServerPlayer> out) {
+        Set<UUID> watchers = chunkWatchers.get(chunkKey);
+        if (watchers == null || watchers.isEmpty()) return;
+
+        for (UUID uuid : watchers) {
+            ServerPlayer player = knownPlayers.get(uuid);
+            if (player != null) {
+                out.add(player);
+            }
+        }
+    }
+
     /**
      * Internal record for tracking broadcast requirements.
      */
@@ -0,0 +1,291 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.network.internal;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which dirty chunks receive a state update in the current network cycle, and in which order.
+ * <p>
+ * <b>Level of Detail:</b> State updates are delta-encoded against a baseline shared by all watchers of a chunk,
+ * so a chunk is always sent to all of its watchers or to none of them. The update rate of a chunk is therefore
+ * decided by its most interested watcher: the horizontal distance to the chunk center, in chunks, is scaled up
+ * for chunks outside the player's view direction (up to twice the distance for chunks directly behind), and
+ * every doubling of that effective distance beyond {@link #FULL_RATE_DISTANCE} halves the update rate, down to
+ * one update every {@code 2^MAX_TIER} cycles. Chunks that are not yet due stay dirty and are reconsidered in the
+ * next cycle, so their next update carries the accumulated change.
+ * <p>
+ * <b>Priority:</b> Due chunks are sent nearest first. The score is the effective distance divided by how many
+ * intervals the chunk has already waited, so distant chunks that keep getting deferred eventually move up.
+ * <p>
+ * <b>Bandwidth:</b> Every player has a token bucket of {@code velthoric.network.playerBandwidth} bytes per
+ * second (system property, default 512 KiB/s). Each packet is charged to all of its recipients. A chunk outside
+ * the full-rate tier is deferred while any of its watchers has an exhausted bucket; chunks in the full-rate tier
+ * are always sent, so bodies right next to a player never freeze.
+ * <p>
+ * All methods except {@link #onPlayerDisconnect(UUID)} must be called from the network thread.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxNetworkScheduler {
+
+    /**
+     * Effective distance in chunks up to which chunks are updated every cycle.
+     */
+    public static final float FULL_RATE_DISTANCE = 2.0f;
+
+    /**
+     * The lowest update rate is one update every {@code 2^MAX_TIER} cycles.
+     */
+    public static final int MAX_TIER = 3;
+
+    /**
+     * The per-player bandwidth budget in bytes per second.
+     */
+    private static final int PLAYER_BANDWIDTH = Math.max(1024, Integer.getInteger("velthoric.network.playerBandwidth", 512 * 1024));
+
+    /**
+     * The largest burst a player may accumulate, as a fraction of a second of budget.
+     */
+    private static final double BURST_SECONDS = 0.25;
+
+    /**
+     * The cosine of the half-angle of the view cone in which chunks are not penalized (about 60 degrees).
+     */
+    private static final float VIEW_CONE_COS = 0.5f;
+
+    /**
+     * Entries of chunks that have not been sent for this long are pruned.
+     */
+    private static final long STALE_NANOS = 10_000_000_000L;
+
+    private final long cycleNanos;
+
+    /**
+     * The time of the last state update per chunk.
+     */
+    private final Long2LongMap lastSentNanos = new Long2LongOpenHashMap();
+
+    /**
+     * Bandwidth buckets per player. Concurrent, since players are removed from the game thread.
+     */
+    private final Map<UUID, Budget> budgets = new ConcurrentHashMap<>();
+
+    // Candidates of the current cycle (parallel arrays, sorted through the rank permutation)
+    private long[] candidateChunks = new long[256];
+    private float[] candidateScores = new float[256];
+    private int[] candidateTiers = new int[256];
+    private int[] ranks = new int[256];
+    private int candidateCount = 0;
+
+    private long now;
+    private long lastPruneNanos;
+
+    /**
+     * @param cycleMillis The period of the network thread, which is the interval of the full-rate tier.
+     */
+    public VxNetworkScheduler(int cycleMillis) {
+        this.cycleNanos = cycleMillis * 1_000_000L;
+    }
+
+    /**
+     * Starts a new cycle: refills the bandwidth buckets and clears the candidates of the previous cycle.
+     *
+     * @param now The current time from {@link System#nanoTime()}.
+     */
+    public void beginCycle(long now) {
+        this.now = now;
+        this.candidateCount = 0;
+        for (Budget budget : budgets.values()) {
+            budget.refill(now);
+        }
+        if (now - lastPruneNanos > STALE_NANOS) {
+            lastSentNanos.long2LongEntrySet().removeIf(e -> now - e.getLongValue() > STALE_NANOS);
+            lastPruneNanos = now;
+        }
+    }
+
+    /**
+     * Offers a dirty chunk for this cycle.
+     *
+     * @param chunkKey The packed chunk position.
+     * @param watchers The players watching the chunk. Must not be empty.
+     * @return True if the chunk is due and was added as a candidate, false if it should stay dirty for a later cycle.
+     */
+    public boolean offer(long chunkKey, List<ServerPlayer> watchers) {
+        float distance = Float.MAX_VALUE;
+        for (int i = 0; i < watchers.size(); i++) {
+            distance = Math.min(distance, getEffectiveDistance(chunkKey, watchers.get(i)));
+        }
+
+        int tier = getTier(distance);
+        long interval = cycleNanos << tier;
+        long lastSent = lastSentNanos.getOrDefault(chunkKey, Long.MIN_VALUE);
+        // A chunk without a recent update counts as having waited exactly one interval
+        long waited = lastSent == Long.MIN_VALUE ? interval : now - lastSent;
+        // Half a cycle of tolerance absorbs the jitter of the network thread's sleep
+        if (waited < interval - cycleNanos / 2) {
+            return false;
+        }
+
+        ensureCapacity(candidateCount + 1);
+        candidateChunks[candidateCount] = chunkKey;
+        candidateTiers[candidateCount] = tier;
+        candidateScores[candidateCount] = distance / Math.max(1.0f, (float) ((double) waited / interval));
+        ranks[candidateCount] = candidateCount;
+        candidateCount++;
+        return true;
+    }
+
+    /**
+     * Sorts the candidates of this cycle by priority.
+     *
+     * @return The number of candidates.
+     */
+    public int prioritize() {
+        final float[] scores = candidateScores;
+        IntArrays.quickSort(ranks, 0, candidateCount, (a, b) -> Float.compare(scores[a], scores[b]));
+        return candidateCount;
+    }
+
+    /**
+     * @param rank The position in priority order, from 0 to the value returned by {@link #prioritize()}.
+     * @return The packed position of the candidate chunk at that rank.
+     */
+    public long getChunk(int rank) {
+        return candidateChunks[ranks[rank]];
+    }
+
+    /**
+     * Checks whether the candidate at the given rank may be sent within the watchers' bandwidth budgets.
+     *
+     * @param rank     The position in priority order.
+     * @param watchers The players watching the chunk.
+     * @return True if the chunk should be sent now, false if it should stay dirty.
+     */
+    public boolean hasBudget(int rank, List<ServerPlayer> watchers) {
+        if (candidateTiers[ranks[rank]] == 0) {
+            return true;
+        }
+        for (int i = 0; i < watchers.size(); i++) {
+            Budget budget = budgets.get(watchers.get(i).getUUID());
+            if (budget != null && budget.tokens <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records that a state update for a chunk was sent.
+     *
+     * @param chunkKey The packed chunk position.
+     */
+    public void markSent(long chunkKey) {
+        lastSentNanos.put(chunkKey, now);
+    }
+
+    /**
+     * Charges a packet to the bandwidth budget of each recipient.
+     *
+     * @param recipients The players receiving the packet.
+     * @param bytes      The payload size of the packet.
+     */
+    public void charge(List<ServerPlayer> recipients, int bytes) {
+        for (int i = 0; i < recipients.size(); i++) {
+            budgets.computeIfAbsent(recipients.get(i).getUUID(), k -> new Budget(now)).tokens -= bytes;
+        }
+    }
+
+    /**
+     * Forgets the bandwidth budget of a player. Safe to call from any thread.
+     *
+     * @param uuid The UUID of the disconnected player.
+     */
+    public void onPlayerDisconnect(UUID uuid) {
+        budgets.remove(uuid);
+    }
+
+    /**
+     * Calculates the distance from a player to a chunk center in chunks, scaled by the angle
+     * between the player's horizontal view direction and the chunk.
+     */
+    private static float getEffectiveDistance(long chunkKey, ServerPlayer player) {
+        double dx = ((int) chunkKey << 4) + 8.0 - player.getX();
+        double dz = ((int) (chunkKey >>> 32) << 4) + 8.0 - player.getZ();
+        double distance = Math.sqrt(dx * dx + dz * dz);
+        float chunks = (float) (distance / 16.0);
+        if (chunks < 1.0f) {
+            // The player's own chunk and its surroundings are always in view
+            return chunks;
+        }
+
+        Vec3 look = player.getLookAngle();
+        double lookLength = Math.sqrt(look.x * look.x + look.z * look.z);
+        if (lookLength < 1.0e-4) {
+            // Looking straight up or down, so every direction is equally visible
+            return chunks;
+        }
+
+        float cos = (float) ((look.x * dx + look.z * dz) / (lookLength * distance));
+        if (cos >= VIEW_CONE_COS) {
+            return chunks;
+        }
+        // Scales linearly from 1 at the edge of the view cone to 2 directly behind the player
+        return chunks * (1.0f + (VIEW_CONE_COS - cos) / (1.0f + VIEW_CONE_COS));
+    }
+
+    /**
+     * Maps an effective distance to an update tier. Tier {@code n} is updated every {@code 2^n} cycles.
+     */
+    private static int getTier(float distance) {
+        if (distance <= FULL_RATE_DISTANCE) {
+            return 0;
+        }
+        int tier = Mth.ceillog2(Mth.ceil(distance / FULL_RATE_DISTANCE));
+        return Math.min(tier, MAX_TIER);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= candidateChunks.length) return;
+        int newCapacity = Math.max(required, candidateChunks.length * 2);
+        candidateChunks = Arrays.copyOf(candidateChunks, newCapacity);
+        candidateScores = Arrays.copyOf(candidateScores, newCapacity);
+        candidateTiers = Arrays.copyOf(candidateTiers, newCapacity);
+        ranks = Arrays.copyOf(ranks, newCapacity);
+    }
+
+    /**
+     * A token bucket holding the bytes a player may still receive. May go negative after a large packet,
+     * in which case the debt is paid off before any further budgeted update is sent.
+     */
+    private static final class Budget {
+        private static final double MAX_TOKENS = PLAYER_BANDWIDTH * BURST_SECONDS;
+
+        private double tokens = MAX_TOKENS;
+        private long lastRefillNanos;
+
+        private Budget(long now) {
+            this.lastRefillNanos = now;
+        }
+
+        private void refill(long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(MAX_TOKENS, tokens + elapsedSeconds * PLAYER_BANDWIDTH);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import net.xmx.velthoric.core.body.server.VxServerBodyManager;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
 import net.xmx.velthoric.core.network.internal.packet.S2CUpdateBodyStateBatchPacket;
 import net.xmx.velthoric.core.network.internal.packet.S2CUpdateVerticesBatchPacket;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
 
@@ -46,9 +47,10 @@ public class VxPacketFactory {
     private static final int ZSTD_COMPRESSION_LEVEL = 3;
 
     /**
-     * The physics body manager containing the global body list.
+     * Interval after which a moving body is re-sent as a full keyframe even if no player requested one.
+     * This bounds the lifetime of any client-side divergence (e.g. an update skipped during a resize).
      */
-    private final VxServerBodyManager manager;
+    private static final long KEYFRAME_REFRESH_NANOS = 2_000_000_000L;
 
     /**
      * The raw data store containing Structure-of-Arrays (SoA) physics data.
@@ -61,74 +63,158 @@ public class VxPacketFactory {
      * @param manager The physics body manager.
      */
     public VxPacketFactory(VxServerBodyManager manager) {
-        this.manager = manager;
-        this.dataStore = manager.getDataStore();
+        this(manager.getDataStore());
     }
 
     /**
-     * Creates a compressed state update packet for a specific chunk using direct buffers.
+     * Constructs the packet factory directly on top of a data store.
+     * Used by headless tooling (e.g. the benchmark module) that has no physics world.
+     *
+     * @param dataStore The server body data store.
+     */
+    public VxPacketFactory(VxServerBodyDataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    /**
+     * Creates a compressed, delta-encoded state update packet for a specific chunk using direct buffers.
      * <p>
      * This method:
      * 1. Acquires a pooled direct ByteBuf.
-     * 2. Writes the raw physics state (pos, rot, vel) into the buffer.
-     * 3. Compresses the buffer into a new pooled direct ByteBuf using Zstd.
-     * 4. Releases the raw buffer.
-     * 5. Returns a packet containing the compressed buffer.
+     * 2. Quantizes each body's state and compares it against the body's network baseline
+     *    (the state last written to the chunk's watchers).
+     * 3. Writes only the fields that changed, or a full keyframe if one was requested.
+     * 4. Compresses the buffer into a new pooled direct ByteBuf using Zstd.
+     * 5. Releases the raw buffer.
+     * <p>
+     * The baseline is shared by all watchers of a chunk, which keeps the encode-once broadcast intact.
+     * Since the connection is reliable and ordered, a baseline counts as acknowledged once it has been
+     * written. Players that start tracking a body afterwards request a keyframe via
+     * {@link VxServerBodyDataStore#requestKeyframe(int)} and ignore deltas until it arrives.
      *
      * @param chunkPosLong The chunk position key.
      * @param indices      The indices of the bodies to serialize.
      * @param serverLevel  The server level (used for calculating relative coordinates).
-     * @return The constructed packet containing the compressed buffer.
+     * @return The constructed packet containing the compressed buffer, or null if no body changed.
      */
+    @Nullable
     public S2CUpdateBodyStateBatchPacket createStatePacket(long chunkPosLong, IntArrayList indices, net.minecraft.server.level.ServerLevel serverLevel) {
+        return createStatePacket(chunkPosLong, indices, serverLevel.getMinBuildHeight());
+    }
+
+    /**
+     * Creates a compressed, delta-encoded state update packet for a specific chunk.
+     *
+     * @param chunkPosLong   The chunk position key.
+     * @param indices        The indices of the bodies to serialize.
+     * @param minBuildHeight The minimum build height of the level (the Y origin of relative coordinates).
+     * @return The constructed packet containing the compressed buffer, or null if no body changed.
+     * @see #createStatePacket(long, IntArrayList, net.minecraft.server.level.ServerLevel)
+     */
+    @Nullable
+    public S2CUpdateBodyStateBatchPacket createStatePacket(long chunkPosLong, IntArrayList indices, int minBuildHeight) {
         // Allocate a direct buffer from the pool.
-        // Size estimation: Header (24 bytes) + per body (~64 bytes).
+        // Size estimation: Header (20 bytes) + per body (~24 bytes for a full keyframe).
         // We estimate conservatively to avoid resizing, but ByteBuf grows automatically if needed.
-        int estimatedSize = 24 + (indices.size() * 64);
+        int estimatedSize = 20 + (indices.size() * 24);
         ByteBuf rawBuf = ALLOCATOR.directBuffer(estimatedSize);
 
         try {
             ChunkPos chunkPos = new ChunkPos(chunkPosLong);
-            double chunkBaseX = chunkPos.getMinBlockX();
-            double chunkBaseY = serverLevel.getMinBuildHeight();
-            double chunkBaseZ = chunkPos.getMinBlockZ();
+            long chunkBaseX = (long) chunkPos.getMinBlockX() * VxStateQuantizer.POSITION_SCALE;
+            long chunkBaseY = (long) minBuildHeight * VxStateQuantizer.POSITION_SCALE;
+            long chunkBaseZ = (long) chunkPos.getMinBlockZ() * VxStateQuantizer.POSITION_SCALE;
 
-            // Write Header
-            rawBuf.writeInt(indices.size());
-            rawBuf.writeLong(System.nanoTime());
+            // Captured before any keyframe request is read, so requests made during serialization stay pending.
+            long now = System.nanoTime();
+
+            // Write Header (the count is patched once we know how many bodies actually changed)
+            int countIndex = rawBuf.writerIndex();
+            rawBuf.writeInt(0);
+            rawBuf.writeLong(now);
             rawBuf.writeLong(chunkPosLong);
 
             // Local container reference for thread-safe access
             VxServerBodyDataContainer c = dataStore.serverCurrent();
+            int written = 0;
 
             // Write Body Data (Structure of Arrays -> Stream)
             // We iterate over the indices and write primitives directly to off-heap memory.
             for (int i = 0; i < indices.size(); i++) {
                 int idx = indices.getInt(i);
+                if (idx >= c.getCapacity()) continue;
 
-                rawBuf.writeInt(c.networkId[idx]);
-                
-                // Relative positions are sent as floats to save bandwidth (double -> float precision loss is acceptable for rendering relative to chunk)
-                rawBuf.writeFloat((float) (c.posX[idx] - chunkBaseX));
-                rawBuf.writeFloat((float) (c.posY[idx] - chunkBaseY));
-                rawBuf.writeFloat((float) (c.posZ[idx] - chunkBaseZ));
-                
-                // Rotations (quaternion)
-                rawBuf.writeFloat(c.rotX[idx]);
-                rawBuf.writeFloat(c.rotY[idx]);
-                rawBuf.writeFloat(c.rotZ[idx]);
-                rawBuf.writeFloat(c.rotW[idx]);
+                boolean keyframe = c.netKeyframeRequested[idx] >= c.netKeyframeSent[idx]
+                        || now - c.netKeyframeSent[idx] > KEYFRAME_REFRESH_NANOS;
 
+                long qx = VxStateQuantizer.quantizePosition(c.posX[idx]);
+                long qy = VxStateQuantizer.quantizePosition(c.posY[idx]);
+                long qz = VxStateQuantizer.quantizePosition(c.posZ[idx]);
+                long rot = VxStateQuantizer.packQuaternion(c.rotX[idx], c.rotY[idx], c.rotZ[idx], c.rotW[idx]);
                 boolean active = c.isActive[idx];
-                rawBuf.writeBoolean(active);
-                
-                // Only send velocity if the body is active/awake
-                if (active) {
-                    rawBuf.writeFloat(c.velX[idx]);
-                    rawBuf.writeFloat(c.velY[idx]);
-                    rawBuf.writeFloat(c.velZ[idx]);
+                // Velocity is only relevant for extrapolation of awake bodies
+                long vel = active ? VxStateQuantizer.packVelocity(c.velX[idx], c.velY[idx], c.velZ[idx]) : c.netBaseVelocity[idx];
+
+                int flags = active ? VxStateQuantizer.FLAG_ACTIVE : 0;
+                if (keyframe) {
+                    flags |= VxStateQuantizer.FLAG_KEYFRAME | VxStateQuantizer.FLAG_POSITION | VxStateQuantizer.FLAG_ROTATION;
+                    if (active) flags |= VxStateQuantizer.FLAG_VELOCITY;
+                } else {
+                    if (qx != c.netBasePosX[idx] || qy != c.netBasePosY[idx] || qz != c.netBasePosZ[idx]) {
+                        flags |= VxStateQuantizer.FLAG_POSITION;
+                    }
+                    if (rot != c.netBaseRotation[idx]) {
+                        flags |= VxStateQuantizer.FLAG_ROTATION;
+                    }
+                    if (vel != c.netBaseVelocity[idx]) {
+                        flags |= VxStateQuantizer.FLAG_VELOCITY;
+                    }
+                    // Nothing observable changed at this precision, so the body is omitted entirely
+                    if ((flags & ~VxStateQuantizer.FLAG_ACTIVE) == 0 && active == c.netBaseActive[idx]) {
+                        continue;
+                    }
+                }
+
+                VxStateQuantizer.writeVarInt(rawBuf, c.networkId[idx]);
+                rawBuf.writeByte(flags);
+
+                if ((flags & VxStateQuantizer.FLAG_POSITION) != 0) {
+                    if (keyframe) {
+                        // Fixed-point positions relative to the chunk origin
+                        VxStateQuantizer.writeSignedVarLong(rawBuf, qx - chunkBaseX);
+                        VxStateQuantizer.writeSignedVarLong(rawBuf, qy - chunkBaseY);
+                        VxStateQuantizer.writeSignedVarLong(rawBuf, qz - chunkBaseZ);
+                    } else {
+                        // Fixed-point deltas relative to the baseline
+                        VxStateQuantizer.writeSignedVarLong(rawBuf, qx - c.netBasePosX[idx]);
+                        VxStateQuantizer.writeSignedVarLong(rawBuf, qy - c.netBasePosY[idx]);
+                        VxStateQuantizer.writeSignedVarLong(rawBuf, qz - c.netBasePosZ[idx]);
+                    }
+                }
+                if ((flags & VxStateQuantizer.FLAG_ROTATION) != 0) {
+                    VxStateQuantizer.writeQuaternion(rawBuf, rot);
+                }
+                if ((flags & VxStateQuantizer.FLAG_VELOCITY) != 0) {
+                    VxStateQuantizer.writeVelocity(rawBuf, vel);
                 }
+
+                // Advance the baseline to what the watchers now hold
+                c.netBasePosX[idx] = qx;
+                c.netBasePosY[idx] = qy;
+                c.netBasePosZ[idx] = qz;
+                c.netBaseRotation[idx] = rot;
+                c.netBaseVelocity[idx] = vel;
+                c.netBaseActive[idx] = active;
+                if (keyframe) {
+                    c.netKeyframeSent[idx] = now;
+                }
+                written++;
+            }
+
+            if (written == 0) {
+                return null;
             }
+            rawBuf.setInt(countIndex, written);
 
             // Compress directly from rawBuf to a new compressedBuf using Zstd
             return new S2CUpdateBodyStateBatchPacket(compressDirect(rawBuf));
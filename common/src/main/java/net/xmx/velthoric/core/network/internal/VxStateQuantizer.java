@@ -0,0 +1,305 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.network.internal;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Static helpers for the quantized body state wire format.
+ * <p>
+ * The encoding used by {@link VxPacketFactory} and
+ * {@link net.xmx.velthoric.core.network.internal.packet.S2CUpdateBodyStateBatchPacket} is built from:
+ * <ul>
+ *     <li><b>Fixed-point positions:</b> World coordinates are quantized to {@code 1 / POSITION_SCALE} blocks.
+ *     Because the scale is a power of two, every quantized value is exactly representable as a double,
+ *     which lets the client reconstruct its baseline from its stored state without drift.</li>
+ *     <li><b>Smallest-three quaternions:</b> The largest component is dropped and reconstructed from the
+ *     unit-length constraint. The remaining three are stored with 15 bits each plus a 2-bit index (47 bits).</li>
+ *     <li><b>Half-float velocities:</b> Linear velocities are sent as IEEE 754 binary16 values.</li>
+ *     <li><b>Zig-zag VarLongs:</b> Position deltas are small signed numbers, which zig-zag encoding maps to short VarLongs.</li>
+ * </ul>
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxStateQuantizer {
+
+    /**
+     * Number of fixed-point steps per block. 1024 yields roughly millimetre precision.
+     */
+    public static final int POSITION_SCALE = 1024;
+
+    /**
+     * The body is sent as a full keyframe (chunk-relative positions instead of deltas).
+     */
+    public static final int FLAG_KEYFRAME = 1;
+
+    /**
+     * A position payload follows.
+     */
+    public static final int FLAG_POSITION = 1 << 1;
+
+    /**
+     * A packed rotation payload follows.
+     */
+    public static final int FLAG_ROTATION = 1 << 2;
+
+    /**
+     * A half-float velocity payload follows.
+     */
+    public static final int FLAG_VELOCITY = 1 << 3;
+
+    /**
+     * The body is awake in the physics simulation.
+     */
+    public static final int FLAG_ACTIVE = 1 << 4;
+
+    /**
+     * Number of bits used for each of the three stored quaternion components on the wire.
+     */
+    private static final int QUAT_COMPONENT_BITS = 15;
+
+    /**
+     * The largest magnitude any non-dropped component of a unit quaternion can have (1 / sqrt(2)).
+     */
+    private static final float QUAT_COMPONENT_RANGE = 0.70710678f;
+
+    private VxStateQuantizer() {
+    }
+
+    // --- Positions ---
+
+    /**
+     * Quantizes a world coordinate to fixed-point.
+     *
+     * @param value The world coordinate in blocks.
+     * @return The fixed-point value.
+     */
+    public static long quantizePosition(double value) {
+        return Math.round(value * POSITION_SCALE);
+    }
+
+    /**
+     * Converts a fixed-point value back into a world coordinate.
+     *
+     * @param quantized The fixed-point value.
+     * @return The world coordinate in blocks.
+     */
+    public static double dequantizePosition(long quantized) {
+        return (double) quantized / POSITION_SCALE;
+    }
+
+    // --- Rotations ---
+
+    /**
+     * Packs a unit quaternion using the smallest-three scheme with {@link #QUAT_COMPONENT_BITS} bits per component.
+     *
+     * @return The packed 47-bit representation.
+     */
+    public static long packQuaternion(float x, float y, float z, float w) {
+        return packQuaternion(x, y, z, w, QUAT_COMPONENT_BITS);
+    }
+
+    /**
+     * Packs a unit quaternion using the smallest-three scheme.
+     * <p>
+     * The quaternion is sign-flipped so that the dropped component is always positive,
+     * which is valid because {@code q} and {@code -q} describe the same rotation.
+     * The index of the dropped component occupies the two bits above the stored components.
+     *
+     * @param bits The number of bits per stored component, at most 20.
+     * @return The packed {@code 3 * bits + 2}-bit representation.
+     */
+    public static long packQuaternion(float x, float y, float z, float w, int bits) {
+        float ax = Math.abs(x), ay = Math.abs(y), az = Math.abs(z), aw = Math.abs(w);
+
+        int largest = 0;
+        float max = ax;
+        if (ay > max) { largest = 1; max = ay; }
+        if (az > max) { largest = 2; max = az; }
+        if (aw > max) { largest = 3; }
+
+        float a, b, c, dropped;
+        switch (largest) {
+            case 0 -> { dropped = x; a = y; b = z; c = w; }
+            case 1 -> { dropped = y; a = x; b = z; c = w; }
+            case 2 -> { dropped = z; a = x; b = y; c = w; }
+            default -> { dropped = w; a = x; b = y; c = z; }
+        }
+
+        if (dropped < 0) {
+            a = -a;
+            b = -b;
+            c = -c;
+        }
+
+        return ((long) largest << (bits * 3))
+                | ((long) quantizeComponent(a, bits) << (bits * 2))
+                | ((long) quantizeComponent(b, bits) << bits)
+                | quantizeComponent(c, bits);
+    }
+
+    /**
+     * Unpacks a smallest-three quaternion directly into target arrays to avoid allocations.
+     *
+     * @param packed The packed representation produced by {@link #packQuaternion(float, float, float, float)}.
+     * @param outX   Destination array for the X component.
+     * @param outY   Destination array for the Y component.
+     * @param outZ   Destination array for the Z component.
+     * @param outW   Destination array for the W component.
+     * @param index  The index to write to.
+     */
+    public static void unpackQuaternion(long packed, float[] outX, float[] outY, float[] outZ, float[] outW, int index) {
+        int bits = QUAT_COMPONENT_BITS;
+        int largest = (int) (packed >>> (bits * 3)) & 3;
+        float a = storedComponent(packed, bits, 0);
+        float b = storedComponent(packed, bits, 1);
+        float c = storedComponent(packed, bits, 2);
+        float d = (float) Math.sqrt(Math.max(0.0f, 1.0f - a * a - b * b - c * c));
+
+        switch (largest) {
+            case 0 -> { outX[index] = d; outY[index] = a; outZ[index] = b; outW[index] = c; }
+            case 1 -> { outX[index] = a; outY[index] = d; outZ[index] = b; outW[index] = c; }
+            case 2 -> { outX[index] = a; outY[index] = b; outZ[index] = d; outW[index] = c; }
+            default -> { outX[index] = a; outY[index] = b; outZ[index] = c; outW[index] = d; }
+        }
+    }
+
+    /**
+     * Reads a single component of a packed smallest-three quaternion, without allocating.
+     *
+     * @param packed    The packed representation produced by {@link #packQuaternion(float, float, float, float, int)}.
+     * @param bits      The number of bits per stored component used when packing.
+     * @param component The component to read: 0 = X, 1 = Y, 2 = Z, 3 = W.
+     * @return The component value.
+     */
+    public static float unpackQuaternionComponent(long packed, int bits, int component) {
+        int largest = (int) (packed >>> (bits * 3)) & 3;
+        if (component != largest) {
+            // The stored components keep the order of the quaternion with the dropped one left out
+            return storedComponent(packed, bits, component < largest ? component : component - 1);
+        }
+        float a = storedComponent(packed, bits, 0);
+        float b = storedComponent(packed, bits, 1);
+        float c = storedComponent(packed, bits, 2);
+        return (float) Math.sqrt(Math.max(0.0f, 1.0f - a * a - b * b - c * c));
+    }
+
+    /**
+     * Writes a packed quaternion as 6 bytes.
+     */
+    public static void writeQuaternion(ByteBuf buf, long packed) {
+        buf.writeShort((int) (packed >>> 32));
+        buf.writeInt((int) packed);
+    }
+
+    /**
+     * Reads a packed quaternion written by {@link #writeQuaternion}.
+     */
+    public static long readQuaternion(ByteBuf buf) {
+        long high = buf.readUnsignedShort();
+        long low = buf.readUnsignedInt();
+        return (high << 32) | low;
+    }
+
+    private static float storedComponent(long packed, int bits, int slot) {
+        int mask = (1 << bits) - 1;
+        return dequantizeComponent((int) (packed >>> (bits * (2 - slot))) & mask, bits);
+    }
+
+    private static int quantizeComponent(float value, int bits) {
+        int mask = (1 << bits) - 1;
+        float normalized = (value / QUAT_COMPONENT_RANGE + 1.0f) * 0.5f;
+        int q = Math.round(normalized * mask);
+        return Math.max(0, Math.min(mask, q));
+    }
+
+    private static float dequantizeComponent(int q, int bits) {
+        return ((float) q / ((1 << bits) - 1) * 2.0f - 1.0f) * QUAT_COMPONENT_RANGE;
+    }
+
+    // --- Velocities ---
+
+    /**
+     * Packs a velocity vector into three half-floats stored in the low 48 bits of a long.
+     *
+     * @return The packed velocity.
+     */
+    public static long packVelocity(float x, float y, float z) {
+        return ((long) (Float.floatToFloat16(x) & 0xFFFF) << 32)
+                | ((long) (Float.floatToFloat16(y) & 0xFFFF) << 16)
+                | (Float.floatToFloat16(z) & 0xFFFF);
+    }
+
+    /**
+     * Writes a packed velocity as three 16-bit values.
+     */
+    public static void writeVelocity(ByteBuf buf, long packed) {
+        buf.writeShort((int) (packed >>> 32));
+        buf.writeShort((int) (packed >>> 16));
+        buf.writeShort((int) packed);
+    }
+
+    /**
+     * Reads a single half-float velocity component.
+     */
+    public static float readVelocityComponent(ByteBuf buf) {
+        return Float.float16ToFloat(buf.readShort());
+    }
+
+    // --- Variable-length integers ---
+
+    /**
+     * Writes a signed long as a zig-zag encoded VarLong.
+     */
+    public static void writeSignedVarLong(ByteBuf buf, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0L) {
+            buf.writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf.writeByte((int) v);
+    }
+
+    /**
+     * Reads a zig-zag encoded VarLong written by {@link #writeSignedVarLong}.
+     */
+    public static long readSignedVarLong(ByteBuf buf) {
+        long v = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.readByte();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 70);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Writes an unsigned int as a VarInt.
+     */
+    public static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & -128) != 0) {
+            buf.writeByte(value & 127 | 128);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+
+    /**
+     * Reads a VarInt written by {@link #writeVarInt}.
+     */
+    public static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 35);
+        return value;
+    }
+}
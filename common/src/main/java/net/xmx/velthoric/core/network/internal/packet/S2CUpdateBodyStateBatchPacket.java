@@ -14,6 +14,7 @@ import net.xmx.velthoric.network.VxByteBuf;
 import net.xmx.velthoric.core.body.client.VxClientBodyDataContainer;
 import net.xmx.velthoric.core.body.client.VxClientBodyDataStore;
 import net.xmx.velthoric.core.body.client.VxClientBodyManager;
+import net.xmx.velthoric.core.network.internal.VxStateQuantizer;
 
 import java.nio.ByteBuffer;
 
@@ -27,6 +28,11 @@ import java.nio.ByteBuffer;
  * <p>
  * This eliminates the creation of thousands of temporary objects (float[], Packet objects, wrappers) per tick.
  * <p>
+ * <b>Delta Encoding:</b> Each entry carries a flag byte followed only by the fields that changed since the
+ * baseline, using the quantized formats defined in {@link VxStateQuantizer}. Keyframes carry chunk-relative
+ * fixed-point positions; all other entries carry fixed-point deltas. Deltas for bodies that have not yet
+ * received a keyframe are skipped.
+ * <p>
  * <b>Adaptive Delay:</b> The packet handler feeds arrival timestamps to the interpolator
  * to enable dynamic delay calculation based on actual network conditions.
  *
@@ -141,9 +147,9 @@ public class S2CUpdateBodyStateBatchPacket implements IVxNetPacket {
                 long chunkPosLong = db.readLong();
 
                 ChunkPos cp = new ChunkPos(chunkPosLong);
-                double baseX = cp.getMinBlockX();
-                double baseY = context.getPlayer().level().getMinBuildHeight();
-                double baseZ = cp.getMinBlockZ();
+                long baseX = (long) cp.getMinBlockX() * VxStateQuantizer.POSITION_SCALE;
+                long baseY = (long) context.getPlayer().level().getMinBuildHeight() * VxStateQuantizer.POSITION_SCALE;
+                long baseZ = (long) cp.getMinBlockZ() * VxStateQuantizer.POSITION_SCALE;
 
                 // Feed clock sync sample
                 long clientNow = manager.getClock().getGameTimeNanos();
@@ -155,34 +161,22 @@ public class S2CUpdateBodyStateBatchPacket implements IVxNetPacket {
                 // 4. Update Data Store (Zero Object Allocation)
                 VxClientBodyDataContainer c = store.clientCurrent();
                 for (int i = 0; i < count; i++) {
-                    int netId = db.readInt();
+                    int netId = VxStateQuantizer.readVarInt(db);
+                    int flags = db.readUnsignedByte();
                     Integer idx = store.getIndexForNetworkId(netId);
 
-                    // If the body is not tracked locally (e.g., desync or unloaded), skip the data stream
-                    // to maintain correct buffer offsets for subsequent bodies.
-                    if (idx == null) {
-                        db.skipBytes(12); // Position (3 floats * 4 bytes)
-                        db.skipBytes(16); // Rotation (4 floats * 4 bytes)
+                    boolean keyframe = (flags & VxStateQuantizer.FLAG_KEYFRAME) != 0;
 
-                        boolean isActive = db.readBoolean(); // Must read the activity flag
-                        if (isActive) {
-                            db.skipBytes(12); // Velocity (3 floats * 4 bytes)
-                        }
+                    // If the body is not tracked locally (e.g., desync or unloaded), the bounds check fails
+                    // during a container resize, or no keyframe has established a baseline yet,
+                    // skip the data stream to maintain correct buffer offsets for subsequent bodies.
+                    if (idx == null || idx >= c.getCapacity() || (!keyframe && !c.net_hasBaseline[idx])) {
+                        skipBody(db, flags);
                         continue;
                     }
 
                     int index = idx; // Unbox index once
 
-                    // Bounds check for race condition during container resize
-                    if (index >= c.getCapacity()) {
-                        db.skipBytes(12); // Position
-                        db.skipBytes(16); // Rotation
-                        if (db.readBoolean()) { // isActive
-                            db.skipBytes(12); // Velocity
-                        }
-                        continue;
-                    }
-
                     // Cycle history states (current -> old)
                     c.state0_timestamp[index] = c.state1_timestamp[index];
                     c.state0_posX[index] = c.state1_posX[index];
@@ -194,23 +188,41 @@ public class S2CUpdateBodyStateBatchPacket implements IVxNetPacket {
                     c.state0_rotW[index] = c.state1_rotW[index];
                     c.state0_isActive[index] = c.state1_isActive[index];
 
-                    // Read New State into state1
+                    // Read New State into state1. Omitted fields keep their baseline value.
                     c.state1_timestamp[index] = timestamp;
-                    c.state1_posX[index] = baseX + db.readFloat();
-                    c.state1_posY[index] = baseY + db.readFloat();
-                    c.state1_posZ[index] = baseZ + db.readFloat();
-                    c.state1_rotX[index] = db.readFloat();
-                    c.state1_rotY[index] = db.readFloat();
-                    c.state1_rotZ[index] = db.readFloat();
-                    c.state1_rotW[index] = db.readFloat();
-
-                    boolean active = db.readBoolean();
+
+                    if ((flags & VxStateQuantizer.FLAG_POSITION) != 0) {
+                        long dx = VxStateQuantizer.readSignedVarLong(db);
+                        long dy = VxStateQuantizer.readSignedVarLong(db);
+                        long dz = VxStateQuantizer.readSignedVarLong(db);
+                        if (keyframe) {
+                            c.state1_posX[index] = VxStateQuantizer.dequantizePosition(baseX + dx);
+                            c.state1_posY[index] = VxStateQuantizer.dequantizePosition(baseY + dy);
+                            c.state1_posZ[index] = VxStateQuantizer.dequantizePosition(baseZ + dz);
+                        } else {
+                            // state1 holds exact fixed-point values since the last keyframe
+                            c.state1_posX[index] = VxStateQuantizer.dequantizePosition(VxStateQuantizer.quantizePosition(c.state1_posX[index]) + dx);
+                            c.state1_posY[index] = VxStateQuantizer.dequantizePosition(VxStateQuantizer.quantizePosition(c.state1_posY[index]) + dy);
+                            c.state1_posZ[index] = VxStateQuantizer.dequantizePosition(VxStateQuantizer.quantizePosition(c.state1_posZ[index]) + dz);
+                        }
+                    }
+
+                    if ((flags & VxStateQuantizer.FLAG_ROTATION) != 0) {
+                        long packed = VxStateQuantizer.readQuaternion(db);
+                        VxStateQuantizer.unpackQuaternion(packed, c.state1_rotX, c.state1_rotY, c.state1_rotZ, c.state1_rotW, index);
+                    }
+
+                    boolean active = (flags & VxStateQuantizer.FLAG_ACTIVE) != 0;
                     c.state1_isActive[index] = active;
 
-                    if (active) {
-                        c.state1_velX[index] = db.readFloat();
-                        c.state1_velY[index] = db.readFloat();
-                        c.state1_velZ[index] = db.readFloat();
+                    if ((flags & VxStateQuantizer.FLAG_VELOCITY) != 0) {
+                        c.state1_velX[index] = VxStateQuantizer.readVelocityComponent(db);
+                        c.state1_velY[index] = VxStateQuantizer.readVelocityComponent(db);
+                        c.state1_velZ[index] = VxStateQuantizer.readVelocityComponent(db);
+                    }
+
+                    if (keyframe) {
+                        c.net_hasBaseline[index] = true;
                     }
 
                     // Update culling position for renderer frustum checks
@@ -224,6 +236,33 @@ public class S2CUpdateBodyStateBatchPacket implements IVxNetPacket {
         });
     }
 
+    /**
+     * Skips the payload of a single body entry according to its field flags.
+     *
+     * @param db    The decompressed buffer.
+     * @param flags The field flags of the entry.
+     */
+    private static void skipBody(ByteBuf db, int flags) {
+        if ((flags & VxStateQuantizer.FLAG_POSITION) != 0) {
+            VxStateQuantizer.readSignedVarLong(db);
+            VxStateQuantizer.readSignedVarLong(db);
+            VxStateQuantizer.readSignedVarLong(db);
+        }
+        if ((flags & VxStateQuantizer.FLAG_ROTATION) != 0) {
+            db.skipBytes(6); // Packed smallest-three quaternion
+        }
+        if ((flags & VxStateQuantizer.FLAG_VELOCITY) != 0) {
+            db.skipBytes(6); // Velocity (3 half-floats * 2 bytes)
+        }
+    }
+
+    /**
+     * @return The size of the compressed payload in bytes, as it will be written to the network.
+     */
+    public int getPayloadSize() {
+        return this.data.writerIndex();
+    }
+
     /**
      * Releases the compressed payload buffer.
      */
@@ -117,6 +117,13 @@ public class S2CUpdateVerticesBatchPacket implements IVxNetPacket {
         });
     }
 
+    /**
+     * @return The size of the compressed payload in bytes, as it will be written to the network.
+     */
+    public int getPayloadSize() {
+        return this.data.writerIndex();
+    }
+
     /**
      * Releases the compressed payload buffer.
      */
@@ -9,11 +9,13 @@ import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.server.level.ServerPlayer;
 import net.xmx.velthoric.core.behavior.VxBehavior;
 import net.xmx.velthoric.core.behavior.VxBehaviorId;
+import net.xmx.velthoric.core.behavior.VxBehaviorManager;
 import net.xmx.velthoric.core.body.client.VxClientBodyDataStore;
 import net.xmx.velthoric.init.VxMainClass;
 import net.xmx.velthoric.core.body.client.VxClientBodyManager;
@@ -27,7 +29,9 @@ import net.xmx.velthoric.core.network.synchronization.packet.S2CSynchronizedData
 import net.xmx.velthoric.network.VxByteBuf;
 import net.xmx.velthoric.network.VxNetworking;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -234,23 +238,26 @@ public class VxSyncBehavior implements VxBehavior {
         VxServerBodyDataStore dataStore = bodyManager.getDataStore();
         IntArrayList dirtyIndices = new IntArrayList();
 
-        // 1. Collect indices of bodies with server-side dirty flags
+        // 1. Collect indices of bodies with server-side dirty flags.
+        // Only bodies carrying this behavior are visited instead of the full store capacity.
         VxServerBodyDataContainer c = dataStore.serverCurrent();
         synchronized (dataStore) {
-            for (int i = 0; i < dataStore.getCapacity(); i++) {
-                if (c.isCustomDataDirty[i]) {
+            VxBehaviorManager.forEachWithBehavior(dataStore, ID, (container, i, body) -> {
+                if (container.isCustomDataDirty[i]) {
                     dirtyIndices.add(i);
-                    c.isCustomDataDirty[i] = false;
+                    container.isCustomDataDirty[i] = false;
                 }
-            }
+            });
         }
 
         if (dirtyIndices.isEmpty()) return;
 
-        Map<ServerPlayer, Map<Integer, byte[]>> playerUpdateMap = new Object2ObjectOpenHashMap<>();
+        // Trackers of a body are exactly the watchers of its chunk, so batching per chunk lets every
+        // batch be encoded once and shared by all of its recipients.
+        Long2ObjectMap<Map<Integer, byte[]>> chunkUpdateMap = new Long2ObjectOpenHashMap<>();
         VxByteBuf serializationBuffer = THREAD_LOCAL_BUF.get();
 
-        // 2. Serialize updates once per body and identify interested players
+        // 2. Serialize updates once per body and group them by chunk
         for (int index : dirtyIndices) {
             UUID id = dataStore.getIdForIndex(index);
             if (id == null) continue;
@@ -263,21 +270,21 @@ public class VxSyncBehavior implements VxBehavior {
                 byte[] payload = new byte[serializationBuffer.readableBytes()];
                 serializationBuffer.readBytes(payload);
 
-                int netId = body.getNetworkId();
-                dispatcher.forEachTrackerForBody(netId, player ->
-                    playerUpdateMap.computeIfAbsent(player, p -> new Object2ObjectArrayMap<>())
-                            .put(netId, payload)
-                );
+                chunkUpdateMap.computeIfAbsent(c.chunkKey[index], k -> new Object2ObjectArrayMap<>())
+                        .put(body.getNetworkId(), payload);
             }
         }
 
-        // 3. Dispatch batch packets to players directly from the network thread.
-        if (!playerUpdateMap.isEmpty()) {
-            playerUpdateMap.forEach((player, data) -> {
-                if (!data.isEmpty()) {
-                    VxNetworking.sendToPlayer(player, new S2CSynchronizedDataBatchPacket(data));
+        // 3. Broadcast one batch per chunk to its watchers directly from the network thread.
+        if (!chunkUpdateMap.isEmpty()) {
+            List<ServerPlayer> recipients = new ArrayList<>();
+            for (Long2ObjectMap.Entry<Map<Integer, byte[]>> entry : chunkUpdateMap.long2ObjectEntrySet()) {
+                recipients.clear();
+                dispatcher.collectChunkWatchers(entry.getLongKey(), recipients);
+                if (!recipients.isEmpty()) {
+                    VxNetworking.sendToPlayers(recipients, new S2CSynchronizedDataBatchPacket(entry.getValue()));
                 }
-            });
+            }
         }
     }
 }
\ No newline at end of file
@@ -8,6 +8,11 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.util.IllegalReferenceCountException;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.dimension.DimensionType;
@@ -36,8 +41,15 @@ import java.util.concurrent.ConcurrentHashMap;
  * <b>Performance features:</b>
  * <ul>
  *     <li><b>Netty Pooled Buffers:</b> Uses pooled memory for serialization to minimize GC pressure.</li>
- *     <li><b>Async I/O:</b> Writes are offloaded to a dedicated worker thread via {@link VxIOProcessor}.</li>
- *     <li><b>Batching:</b> Objects are grouped by chunk, reducing the number of file entries significantly.</li>
+ *     <li><b>Async I/O:</b> Reads and writes are offloaded to {@link VxIOProcessor} lanes. Each region file is
+ *     bound to one lane, so its operations stay ordered while different regions are processed in parallel.
+ *     The lane count is set with {@code -Dvelthoric.persistence.ioThreads} (default 2).</li>
+ *     <li><b>Batching:</b> Objects are grouped by chunk, reducing the number of file entries significantly,
+ *     and a flush writes all pending chunks of one region file in a single pass.</li>
+ *     <li><b>Dirty Tracking:</b> Owners mark changed chunks via {@link #markDirty(long)}, so saves skip unchanged chunks.</li>
+ *     <li><b>Prefetching:</b> {@link #prefetchChunk} reads and decodes a chunk ahead of its load, and the following
+ *     {@link #loadChunk} completes from the prefetched result.</li>
+ *     <li><b>Compact &amp; Verified:</b> Region entries are Zstd compressed and checksummed by {@link VxRegionFile}.</li>
  * </ul>
  *
  * @param <T> The runtime object type (e.g., VxBody).
@@ -46,8 +58,21 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public abstract class VxChunkBasedStorage<T, D> {
 
+    /**
+     * The number of I/O lanes per storage.
+     */
+    private static final int IO_THREADS = Math.max(1, Integer.getInteger("velthoric.persistence.ioThreads", 2));
+
+    /**
+     * The maximum number of prefetched chunks held per storage. The oldest prefetch is dropped beyond it.
+     */
+    private static final int PREFETCH_LIMIT = Math.max(0, Integer.getInteger("velthoric.persistence.prefetchLimit", 256));
+
     protected final Path storagePath;
-    protected final VxRegionFileCache regionCache;
+    /**
+     * One region file cache per I/O lane, indexed by lane. A cache is only used by its own lane.
+     */
+    protected final VxRegionFileCache[] regionCaches;
     protected final VxIOProcessor ioProcessor;
 
     /**
@@ -56,18 +81,57 @@ public abstract class VxChunkBasedStorage<T, D> {
      */
     protected final ConcurrentHashMap<Long, ByteBuf> pendingWrites = new ConcurrentHashMap<>();
 
+    /**
+     * Keys of chunks whose objects changed since the chunk was last serialized.
+     * Clean chunks already match their stored data and are skipped by saves. Guarded by itself.
+     */
+    private final LongOpenHashSet dirtyChunks = new LongOpenHashSet();
+
+    /**
+     * Incremented whenever a dirty mark is consumed. Writers that only mark once per change compare
+     * the generation of their last mark against it to know when they have to mark again.
+     */
+    private volatile int saveGeneration = 1;
+
+    /**
+     * Loads started by {@link #prefetchChunk} that no {@link #loadChunk} has taken yet, oldest first.
+     * Guarded by itself.
+     */
+    private final Long2ObjectLinkedOpenHashMap<CompletableFuture<List<D>>> prefetched = new Long2ObjectLinkedOpenHashMap<>();
+
     public VxChunkBasedStorage(ServerLevel level, String folderName, String extension) {
         Path worldRoot = level.getServer().getWorldPath(LevelResource.ROOT);
         Path dimensionRoot = DimensionType.getStorageFolder(level.dimension(), worldRoot);
         this.storagePath = dimensionRoot.resolve("velthoric").resolve(folderName);
-        this.regionCache = new VxRegionFileCache(storagePath, extension);
-        this.ioProcessor = new VxIOProcessor("IO-" + folderName);
+        this.ioProcessor = new VxIOProcessor("IO-" + folderName, IO_THREADS);
+        this.regionCaches = new VxRegionFileCache[IO_THREADS];
+        for (int i = 0; i < IO_THREADS; i++) {
+            regionCaches[i] = new VxRegionFileCache(storagePath, extension,
+                    Math.max(8, VxRegionFileCache.MAX_OPEN_FILES / IO_THREADS));
+        }
     }
 
     public void shutdown() {
+        synchronized (prefetched) {
+            prefetched.values().forEach(this::discard);
+            prefetched.clear();
+        }
         flush(true).join();
         ioProcessor.close();
-        regionCache.closeAll();
+        for (VxRegionFileCache cache : regionCaches) {
+            cache.closeAll();
+        }
+    }
+
+    /**
+     * Returns the I/O lane responsible for the region file containing a chunk.
+     *
+     * @param pos The chunk position.
+     * @return The lane index.
+     */
+    private int laneOf(ChunkPos pos) {
+        long regionKey = ChunkPos.asLong(pos.getRegionX(), pos.getRegionZ());
+        return (int) (HashCommon.mix(regionKey) & Integer.MAX_VALUE) % IO_THREADS;
     }
 
     /**
@@ -77,11 +141,53 @@ public abstract class VxChunkBasedStorage<T, D> {
      * data consistency (Read-Your-Writes). If data is pending in the write queue,
      * it is used directly; otherwise, the data is read from the region file.
      *
+     * If the chunk was prefetched, the prefetched result is returned instead of reading it again.
+     *
      * @param pos The chunk position.
      * @return A future containing the list of deserialized data objects.
      */
     public CompletableFuture<List<D>> loadChunk(ChunkPos pos) {
+        CompletableFuture<List<D>> prefetch;
+        synchronized (prefetched) {
+            prefetch = prefetched.remove(pos.toLong());
+        }
+        return prefetch != null ? prefetch : readChunkAsync(pos);
+    }
+
+    /**
+     * Starts loading and decoding a chunk ahead of the {@link #loadChunk} call that will need it.
+     * <p>
+     * The prefetched result is dropped when the chunk is saved before it is loaded, or when more than
+     * {@code velthoric.persistence.prefetchLimit} chunks are prefetched.
+     *
+     * @param pos The chunk position.
+     * @return True if a new prefetch was started, false if the chunk is already prefetched or prefetching is disabled.
+     */
+    public boolean prefetchChunk(ChunkPos pos) {
+        if (PREFETCH_LIMIT == 0 || ioProcessor.isShutdown()) return false;
+
+        long key = pos.toLong();
+        synchronized (prefetched) {
+            if (prefetched.containsKey(key)) return false;
+
+            prefetched.putAndMoveToLast(key, readChunkAsync(pos));
+            while (prefetched.size() > PREFETCH_LIMIT) {
+                discard(prefetched.removeFirst());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Releases the results of a prefetch that will not be used, once it completes.
+     */
+    private void discard(CompletableFuture<List<D>> prefetch) {
+        prefetch.thenAccept(list -> list.forEach(this::releaseData));
+    }
+
+    private CompletableFuture<List<D>> readChunkAsync(ChunkPos pos) {
         long key = pos.toLong();
+        int lane = laneOf(pos);
 
         // Check the pending writes map on the calling thread to capture the latest state.
         ByteBuf pendingBuf = pendingWrites.get(key);
@@ -103,7 +209,7 @@ public abstract class VxChunkBasedStorage<T, D> {
                 } finally {
                     asyncSlice.release();
                 }
-            }, ioProcessor.getExecutor());
+            }, ioProcessor.getExecutor(lane));
         }
 
         // If no pending data exists, proceed to read from disk on the I/O thread.
@@ -118,7 +224,7 @@ public abstract class VxChunkBasedStorage<T, D> {
 
             try {
                 // Do not create the file if it doesn't exist (lazy loading).
-                VxRegionFile regionFile = regionCache.getRegionFile(pos, false);
+                VxRegionFile regionFile = regionCaches[lane].getRegionFile(pos, false);
                 if (regionFile == null) {
                     return Collections.emptyList();
                 }
@@ -135,7 +241,47 @@ public abstract class VxChunkBasedStorage<T, D> {
                 VxMainClass.LOGGER.error("Failed to load chunk data at {}", pos, e);
             }
             return Collections.emptyList();
-        }, ioProcessor.getExecutor());
+        }, ioProcessor.getExecutor(lane));
+    }
+
+    /**
+     * Marks a chunk as changed, so the next save of that chunk serializes it.
+     * Safe to call from any thread.
+     *
+     * @param chunkKey The long-encoded chunk position.
+     */
+    public void markDirty(long chunkKey) {
+        synchronized (dirtyChunks) {
+            dirtyChunks.add(chunkKey);
+        }
+    }
+
+    /**
+     * Clears the dirty mark of a chunk. Callers must clear the mark <i>before</i> reading the state
+     * they serialize, so a change racing with the save marks the chunk again instead of being lost.
+     *
+     * @param chunkKey The long-encoded chunk position.
+     * @return True if the chunk was dirty and must be saved.
+     */
+    public boolean consumeDirty(long chunkKey) {
+        synchronized (dirtyChunks) {
+            if (!dirtyChunks.remove(chunkKey)) {
+                return false;
+            }
+            saveGeneration++;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the current save generation. A mark made in an older generation may already have been
+     * consumed by a save, so the object has to mark its chunk again on its next change.
+     * Safe to call from any thread.
+     *
+     * @return The number of consumed dirty marks, plus one.
+     */
+    public int getSaveGeneration() {
+        return saveGeneration;
     }
 
     /**
@@ -152,6 +298,14 @@ public abstract class VxChunkBasedStorage<T, D> {
         long key = pos.toLong();
         ByteBuf newBuffer;
 
+        // A prefetched result predates this state and must not be loaded.
+        synchronized (prefetched) {
+            CompletableFuture<List<D>> stale = prefetched.remove(key);
+            if (stale != null) {
+                discard(stale);
+            }
+        }
+
         if (objects.isEmpty()) {
             // Use the shared EMPTY_BUFFER to signify deletion or an empty chunk.
             newBuffer = Unpooled.EMPTY_BUFFER;
@@ -160,15 +314,13 @@ public abstract class VxChunkBasedStorage<T, D> {
             boolean success = false;
             try {
                 VxByteBuf vxBuf = new VxByteBuf(newBuffer);
-                vxBuf.writeInt(objects.size());
-
-                for (T obj : objects) {
-                    writeSingle(obj, vxBuf);
-                }
+                writeChunk(objects, vxBuf);
                 success = true;
             } catch (Exception e) {
                 VxMainClass.LOGGER.error("Failed to serialize chunk {}", pos, e);
                 newBuffer.release();
+                // Keep the chunk dirty so the next save retries it.
+                markDirty(key);
                 return;
             } finally {
                 // If serialization failed, release the allocated buffer.
@@ -191,9 +343,9 @@ public abstract class VxChunkBasedStorage<T, D> {
     /**
      * Flushes all pending buffers to disk asynchronously.
      * <p>
-     * This method iterates over the pending writes and schedules I/O tasks.
-     * It uses reference counting to ensure buffers remain valid during the asynchronous operation.
-     * The map entry is only removed after the write completes, and only if the entry has not
+     * Pending chunks are grouped by region file, and each group is written in one pass on the lane of its file.
+     * Reference counting ensures buffers remain valid during the asynchronous operation.
+     * A map entry is only removed after the write completes, and only if the entry has not
      * been updated by a subsequent save operation in the meantime.
      *
      * @param sync If true, the method blocks until all write operations are completed.
@@ -206,9 +358,8 @@ public abstract class VxChunkBasedStorage<T, D> {
             return CompletableFuture.completedFuture(null);
         }
 
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-
-        // Create a snapshot of keys to iterate over the currently pending tasks
+        // Group a snapshot of the pending chunks by region file.
+        Long2ObjectOpenHashMap<RegionBatch> batches = new Long2ObjectOpenHashMap<>();
         for (Long chunkKey : pendingWrites.keySet()) {
             ByteBuf buffer = pendingWrites.get(chunkKey);
 
@@ -231,36 +382,28 @@ public abstract class VxChunkBasedStorage<T, D> {
             }
 
             ChunkPos pos = new ChunkPos(chunkKey);
+            long regionKey = ChunkPos.asLong(pos.getRegionX(), pos.getRegionZ());
+            batches.computeIfAbsent(regionKey, k -> new RegionBatch()).add(chunkKey, pos, buffer);
+        }
 
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (RegionBatch batch : batches.values()) {
+            int lane = laneOf(batch.positions.get(0));
             try {
-                CompletableFuture<Void> writeTask = CompletableFuture.runAsync(() -> {
-                    try {
-                        writeToDisk(pos, buffer);
-                    } finally {
-                        // Conditional Removal:
-                        // Remove the entry from the map only if it still maps to the specific buffer we just wrote.
-                        // If the map contains a different buffer, a new save occurred during the write,
-                        // and we must leave the new data pending.
-                        if (pendingWrites.remove(chunkKey, buffer)) {
-                            // If we successfully removed it, we are responsible for releasing the map's reference.
-                            if (buffer != Unpooled.EMPTY_BUFFER) {
-                                buffer.release();
-                            }
-                        }
-
-                        // Release the reference acquired by retain() at the start of the loop.
-                        if (buffer != Unpooled.EMPTY_BUFFER) {
-                            buffer.release();
-                        }
-                    }
-                }, ioProcessor.getExecutor());
+                futures.add(CompletableFuture.runAsync(() -> writeBatch(lane, batch), ioProcessor.getExecutor(lane)));
+            } catch (Exception e) {
+                // If submission fails (e.g. executor shut down concurrently), release our local references.
+                batch.release();
+            }
+        }
 
-                futures.add(writeTask);
+        // Each lane is single-threaded, so its sync runs after all writes submitted to it above and
+        // commits their location table updates in one durable step per region file.
+        for (int lane = 0; lane < regionCaches.length; lane++) {
+            try {
+                futures.add(CompletableFuture.runAsync(regionCaches[lane]::syncAll, ioProcessor.getExecutor(lane)));
             } catch (Exception e) {
-                // If submission fails (e.g. executor shut down concurrently), release our local reference.
-                if (buffer != Unpooled.EMPTY_BUFFER) {
-                    buffer.release();
-                }
+                VxMainClass.LOGGER.error("Failed to schedule region file sync", e);
             }
         }
 
@@ -276,29 +419,65 @@ public abstract class VxChunkBasedStorage<T, D> {
     }
 
     /**
-     * Writes the buffer data to the region file system.
+     * Writes the pending chunks of one region file and releases the batch.
      * Handles both writing valid data and clearing sectors for empty data.
      *
-     * @param pos    The position of the chunk.
-     * @param buffer The buffer containing the serialized data.
+     * @param lane  The lane the batch runs on.
+     * @param batch The chunks of the region file.
      */
-    private void writeToDisk(ChunkPos pos, ByteBuf buffer) {
+    private void writeBatch(int lane, RegionBatch batch) {
         try {
-            boolean isDeletion = !buffer.isReadable(); // Checks for EMPTY_BUFFER or 0 readable bytes
-
             // Retrieve the region file. Only create a new file if we are writing actual data.
-            VxRegionFile regionFile = regionCache.getRegionFile(pos, !isDeletion);
-
+            boolean hasData = false;
+            for (ByteBuf buffer : batch.buffers) {
+                hasData |= buffer.isReadable();
+            }
+            VxRegionFile regionFile = regionCaches[lane].getRegionFile(batch.positions.get(0), hasData);
             if (regionFile != null) {
-                if (!isDeletion) {
-                    regionFile.write(pos, buffer);
-                } else {
-                    // Write an empty buffer to the file to mark the chunk sector as free/deleted.
-                    regionFile.write(pos, Unpooled.EMPTY_BUFFER);
-                }
+                regionFile.write(batch.positions, batch.buffers);
             }
         } catch (IOException e) {
-            VxMainClass.LOGGER.error("Failed to flush chunk {}", pos, e);
+            VxMainClass.LOGGER.error("Failed to flush chunks {}", batch.positions, e);
+        } finally {
+            for (int i = 0; i < batch.buffers.size(); i++) {
+                ByteBuf buffer = batch.buffers.get(i);
+                // Conditional Removal:
+                // Remove the entry from the map only if it still maps to the specific buffer we just wrote.
+                // If the map contains a different buffer, a new save occurred during the write,
+                // and we must leave the new data pending.
+                if (pendingWrites.remove(batch.keys.getLong(i), buffer)) {
+                    // If we successfully removed it, we are responsible for releasing the map's reference.
+                    if (buffer != Unpooled.EMPTY_BUFFER) {
+                        buffer.release();
+                    }
+                }
+            }
+            // Release the references acquired by retain() when the batch was built.
+            batch.release();
+        }
+    }
+
+    /**
+     * The pending chunks of one region file, collected by {@link #flush(boolean)}.
+     * Each non-empty buffer holds one reference owned by the batch.
+     */
+    private static final class RegionBatch {
+        final LongArrayList keys = new LongArrayList();
+        final List<ChunkPos> positions = new ArrayList<>();
+        final List<ByteBuf> buffers = new ArrayList<>();
+
+        void add(long key, ChunkPos pos, ByteBuf buffer) {
+            keys.add(key);
+            positions.add(pos);
+            buffers.add(buffer);
+        }
+
+        void release() {
+            for (ByteBuf buffer : buffers) {
+                if (buffer != Unpooled.EMPTY_BUFFER) {
+                    buffer.release();
+                }
+            }
         }
     }
 
@@ -312,22 +491,72 @@ public abstract class VxChunkBasedStorage<T, D> {
         List<D> results = new ArrayList<>();
 
         try {
-            int count = vxBuf.readInt();
-            for (int i = 0; i < count; i++) {
-                D data = readSingle(vxBuf);
-                if (data != null) {
-                    results.add(data);
-                }
-            }
+            readChunk(vxBuf, results);
         } catch (Exception e) {
             VxMainClass.LOGGER.error("Error deserializing chunk data", e);
         }
         return results;
     }
 
-    // --- Abstract implementation hooks ---
+    // --- Implementation hooks ---
+
+    /**
+     * Writes the payload of one chunk. The default layout is the object count followed by
+     * each object; implementations may override it to share data between the objects of a chunk.
+     *
+     * @param objects The objects of the chunk, never empty.
+     * @param buffer  The destination buffer.
+     */
+    protected void writeChunk(Collection<T> objects, VxByteBuf buffer) {
+        buffer.writeInt(objects.size());
+        for (T obj : objects) {
+            writeSingle(obj, buffer);
+        }
+    }
+
+    /**
+     * Reads the payload of one chunk written by {@link #writeChunk}.
+     *
+     * @param buffer The source buffer.
+     * @param out    The list receiving the decoded objects; entries added before a failure are kept.
+     */
+    protected void readChunk(VxByteBuf buffer, List<D> out) {
+        int count = buffer.readInt();
+        for (int i = 0; i < count; i++) {
+            D data = readSingle(buffer);
+            if (data != null) {
+                out.add(data);
+            }
+        }
+    }
+
+    /**
+     * Releases the resources held by a decoded object that is dropped without being loaded,
+     * such as a discarded prefetch. The default does nothing.
+     *
+     * @param data The decoded object.
+     */
+    protected void releaseData(D data) {
+    }
 
-    protected abstract void writeSingle(T object, VxByteBuf buffer);
+    /**
+     * Writes one object in the default chunk layout. Storages that override both {@link #writeChunk}
+     * and {@link #readChunk} never reach this method.
+     *
+     * @param object The object to write.
+     * @param buffer The destination buffer.
+     */
+    protected void writeSingle(T object, VxByteBuf buffer) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not use the per-object chunk layout");
+    }
 
-    protected abstract D readSingle(VxByteBuf buffer);
+    /**
+     * Reads one object written by {@link #writeSingle}.
+     *
+     * @param buffer The source buffer.
+     * @return The decoded object, or null if it is skipped.
+     */
+    protected D readSingle(VxByteBuf buffer) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not use the per-object chunk layout");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.persistence;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Prefetches the stored bodies and constraints of chunks that moving players are about to load.
+ * <p>
+ * Every few ticks the horizontal velocity of each player is estimated from their position change.
+ * The position a player will reach within the lookahead is extrapolated from it, and the chunks that
+ * will enter the player's view distance on the way are prefetched, nearest first, through
+ * {@link VxChunkBasedStorage#prefetchChunk}. Reading and decoding then happen on the I/O lanes while the
+ * player is still travelling, and the entity load of the chunk only has to create the bodies.
+ * <p>
+ * Configuration:
+ * <ul>
+ *     <li>{@code -Dvelthoric.persistence.prefetch=false} disables prefetching.</li>
+ *     <li>{@code -Dvelthoric.persistence.prefetchLookaheadTicks} sets how far ahead the movement is extrapolated (default 60).</li>
+ * </ul>
+ * This class is only used on the server thread.
+ *
+ * @author xI-Mx-Ix
+ */
+public class VxChunkPrefetcher {
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("velthoric.persistence.prefetch"));
+
+    /**
+     * The number of ticks between two velocity samples and prefetch passes.
+     */
+    private static final int INTERVAL_TICKS = 5;
+
+    private static final int LOOKAHEAD_TICKS = Integer.getInteger("velthoric.persistence.prefetchLookaheadTicks", 60);
+
+    /**
+     * The maximum distance in chunks the view area is extrapolated ahead of a player.
+     */
+    private static final int MAX_LOOKAHEAD_CHUNKS = 12;
+
+    /**
+     * The maximum number of new prefetches started per player and pass.
+     */
+    private static final int PREFETCHES_PER_PASS = 32;
+
+    /**
+     * Players slower than this (blocks per tick) are treated as standing still; walking is about 0.2.
+     */
+    private static final double MIN_SPEED = 0.1;
+
+    /**
+     * Players faster than this (blocks per tick) between two samples are assumed to have teleported.
+     */
+    private static final double TELEPORT_SPEED = 8.0;
+
+    private final VxPhysicsWorld world;
+    private final Map<UUID, Track> tracks = new HashMap<>();
+    private int tickCounter;
+
+    public VxChunkPrefetcher(VxPhysicsWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Samples player movement and starts prefetches. Called once per server tick.
+     *
+     * @param level The level of the physics world.
+     */
+    public void onGameTick(ServerLevel level) {
+        if (!ENABLED || ++tickCounter % INTERVAL_TICKS != 0) return;
+
+        int viewDistance = level.getServer().getPlayerList().getViewDistance();
+        Set<UUID> present = new HashSet<>();
+
+        for (ServerPlayer player : level.players()) {
+            present.add(player.getUUID());
+            Track track = tracks.get(player.getUUID());
+            if (track == null) {
+                tracks.put(player.getUUID(), new Track(player.getX(), player.getZ()));
+                continue;
+            }
+
+            double vx = (player.getX() - track.lastX) / INTERVAL_TICKS;
+            double vz = (player.getZ() - track.lastZ) / INTERVAL_TICKS;
+            track.lastX = player.getX();
+            track.lastZ = player.getZ();
+
+            if (vx * vx + vz * vz > TELEPORT_SPEED * TELEPORT_SPEED) {
+                track.velX = 0;
+                track.velZ = 0;
+                continue;
+            }
+
+            // Smooth the estimate so single jittery samples do not swing the prefetch direction
+            track.velX = (track.velX + vx) * 0.5;
+            track.velZ = (track.velZ + vz) * 0.5;
+            prefetchAhead(level, player.chunkPosition(), track, viewDistance);
+        }
+
+        tracks.keySet().retainAll(present);
+    }
+
+    /**
+     * Prefetches the chunks that enter the view area between the player's current chunk and the extrapolated one.
+     * Candidates are visited ring by ring around the current chunk, so the nearest chunks are prefetched first.
+     */
+    private void prefetchAhead(ServerLevel level, ChunkPos center, Track track, int viewDistance) {
+        double speed = Math.sqrt(track.velX * track.velX + track.velZ * track.velZ);
+        if (speed < MIN_SPEED) return;
+
+        int shift = (int) Math.min(MAX_LOOKAHEAD_CHUNKS, Math.ceil(speed * LOOKAHEAD_TICKS / 16.0));
+        int targetX = center.x + (int) Math.round(track.velX / speed * shift);
+        int targetZ = center.z + (int) Math.round(track.velZ / speed * shift);
+
+        VxChunkBasedStorage<?, ?> bodyStorage = world.getBodyManager().getBodyStorage();
+        VxChunkBasedStorage<?, ?> constraintStorage = world.getConstraintManager().getConstraintStorage();
+
+        int started = 0;
+        for (int ring = viewDistance + 1; ring <= viewDistance + shift; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                // Only the border of the ring: all dz for the outer columns, the two ends otherwise
+                int step = (dx == -ring || dx == ring) ? 1 : 2 * ring;
+                for (int dz = -ring; dz <= ring; dz += step) {
+                    int x = center.x + dx;
+                    int z = center.z + dz;
+                    if (Math.max(Math.abs(x - targetX), Math.abs(z - targetZ)) > viewDistance) continue;
+                    if (level.areEntitiesLoaded(ChunkPos.asLong(x, z))) continue;
+
+                    ChunkPos pos = new ChunkPos(x, z);
+                    boolean prefetched = bodyStorage.prefetchChunk(pos);
+                    prefetched |= constraintStorage.prefetchChunk(pos);
+                    if (prefetched && ++started >= PREFETCHES_PER_PASS) return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The movement estimate of one player.
+     */
+    private static final class Track {
+        double lastX;
+        double lastZ;
+        double velX;
+        double velZ;
+
+        Track(double x, double z) {
+            this.lastX = x;
+            this.lastZ = z;
+        }
+    }
+}
@@ -14,14 +14,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A dedicated, single-threaded processor for handling asynchronous Disk I/O operations.
+ * A dedicated processor for handling asynchronous Disk I/O operations.
  * <p>
- * This class wraps an {@link ExecutorService} to ensure that all physical file system interactions
- * for a specific storage domain (e.g., Bodies or Constraints) occur sequentially on a separate thread.
- * This prevents I/O blocking on the main game thread or the physics simulation thread.
+ * This class wraps a fixed number of single-threaded {@link ExecutorService} lanes. Work that must stay ordered,
+ * such as all reads and writes of one region file, is always submitted to the same lane and runs sequentially,
+ * while independent work on other lanes proceeds in parallel. This prevents I/O blocking on the main game thread
+ * or the physics simulation thread.
  * <p>
  * <b>Threading Model:</b>
- * The underlying thread is configured as a Daemon thread with slightly lower priority,
+ * The underlying threads are configured as Daemon threads with slightly lower priority,
  * ensuring it does not prevent the JVM from shutting down and has minimal impact on
  * real-time tick performance.
  *
@@ -29,17 +30,28 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class VxIOProcessor implements AutoCloseable {
 
-    private final ExecutorService executor;
+    private final ExecutorService[] lanes;
     private final String workerName;
 
     /**
-     * Constructs a new I/O processor.
+     * Constructs a new I/O processor with a single lane.
      *
      * @param name The logical name of the worker (e.g., "Body-IO"), used for thread naming.
      */
     public VxIOProcessor(String name) {
+        this(name, 1);
+    }
+
+    /**
+     * Constructs a new I/O processor.
+     *
+     * @param name      The logical name of the worker (e.g., "Body-IO"), used for thread naming.
+     * @param laneCount The number of independent worker threads.
+     */
+    public VxIOProcessor(String name, int laneCount) {
         this.workerName = name;
-        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        ThreadFactory threadFactory = new ThreadFactory() {
             private final AtomicInteger threadId = new AtomicInteger(1);
 
             @Override
@@ -54,19 +66,31 @@ public class VxIOProcessor implements AutoCloseable {
                 t.setPriority(Thread.NORM_PRIORITY - 1);
                 return t;
             }
-        });
+        };
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
     }
 
     /**
-     * Retrieves the underlying executor service.
+     * @return The number of lanes.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Retrieves the executor service of a lane.
      * <p>
      * This allows clients (like {@link VxChunkBasedStorage}) to submit complex tasks,
      * such as {@link java.util.concurrent.CompletableFuture} chains, directly to the worker.
+     * Tasks submitted to the same lane run in submission order.
      *
-     * @return The backing single-threaded executor.
+     * @param lane The lane index, in {@code [0, getLaneCount())}.
+     * @return The backing single-threaded executor of the lane.
      */
-    public ExecutorService getExecutor() {
-        return executor;
+    public ExecutorService getExecutor(int lane) {
+        return lanes[lane];
     }
 
     /**
@@ -75,43 +99,56 @@ public class VxIOProcessor implements AutoCloseable {
      * @return {@code true} if the processor is shut down, {@code false} otherwise.
      */
     public boolean isShutdown() {
-        return executor.isShutdown();
+        return lanes[0].isShutdown();
     }
 
     /**
-     * Submits a simple runnable task to the I/O thread.
+     * Submits a simple runnable task to an I/O lane.
      *
+     * @param lane The lane index.
      * @param task The task to execute.
      */
-    public void execute(Runnable task) {
-        if (!executor.isShutdown()) {
-            executor.execute(task);
+    public void execute(int lane, Runnable task) {
+        if (!lanes[lane].isShutdown()) {
+            lanes[lane].execute(task);
         } else {
             VxMainClass.LOGGER.warn("Attempted to execute I/O task on shut down processor: {}", workerName);
         }
     }
 
     /**
-     * Initiates a graceful shutdown of the I/O worker.
+     * Initiates a graceful shutdown of all I/O lanes.
      * <p>
-     * This method waits up to 5 seconds for currently running tasks to complete before
+     * This method waits up to 5 seconds in total for currently running tasks to complete before
      * forcing a shutdown. This ensures that in-progress file writes have a chance to finish.
      */
     @Override
     public void close() {
-        if (executor.isShutdown()) return;
+        if (lanes[0].isShutdown()) return;
 
-        executor.shutdown();
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
         try {
             // Wait a reasonable amount of time for pending writes to flush
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                VxMainClass.LOGGER.warn("I/O Processor {} did not terminate in time, forcing shutdown.", workerName);
-                executor.shutdownNow();
+            for (ExecutorService lane : lanes) {
+                if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    VxMainClass.LOGGER.warn("I/O Processor {} did not terminate in time, forcing shutdown.", workerName);
+                    shutdownNow();
+                    return;
+                }
             }
         } catch (InterruptedException e) {
             VxMainClass.LOGGER.error("Interrupted while shutting down I/O Processor {}", workerName, e);
-            executor.shutdownNow();
+            shutdownNow();
             Thread.currentThread().interrupt();
         }
     }
+
+    private void shutdownNow() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
 }
\ No newline at end of file
@@ -5,17 +5,22 @@
 package net.xmx.velthoric.core.persistence.impl.body;
 
 import com.github.stephengold.joltjni.enumerate.EMotionType;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufAllocator;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.resources.ResourceLocation;
 import net.xmx.velthoric.core.behavior.impl.VxSoftPhysicsBehavior;
 import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.VxBodyType;
+import net.xmx.velthoric.core.body.registry.VxBodyRegistry;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
+import net.xmx.velthoric.core.network.internal.VxStateQuantizer;
 import net.xmx.velthoric.init.VxMainClass;
 import net.xmx.velthoric.network.VxByteBuf;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -24,70 +29,166 @@ import java.util.UUID;
  * custom data) into a byte representation for storage, and vice versa. Deserialization
  * produces a {@link VxSerializedBodyData} record, which acts as an intermediary
  * data-transfer object for reconstructing the body.
+ * <p>
+ * Bodies are encoded per chunk. The type IDs of a chunk are written once into a palette
+ * and each body refers to its type by palette index. Bodies are written straight into the
+ * destination buffer, and on load each body's payload is a retained slice of the chunk buffer,
+ * so neither direction copies the payload. Chunks written before the palette layout existed
+ * are still read.
+ * <p>
+ * Loading decodes the kinematic state of each body into a {@link VxStoredBodyState} on the calling
+ * (I/O) thread, so that only the type-specific data is left to read when the body is created.
  *
  * @author xI-Mx-Ix
  */
 public final class VxBodyCodec {
 
+    /**
+     * Marks a palette-format chunk. Legacy chunks start with their non-negative body count instead.
+     */
+    private static final int CHUNK_FORMAT_MAGIC = 0xB0D10001;
+
+    /**
+     * Chunk flag: rotations and velocities use the compact encoding.
+     */
+    private static final int FLAG_COMPACT_KINEMATICS = 1;
+
+    /**
+     * Bits per stored component of a compact rotation; with the 2-bit index the rotation fits in 7 bytes.
+     */
+    private static final int QUAT_COMPONENT_BITS = 16;
+
+    private static final EMotionType[] MOTION_TYPES = EMotionType.values();
+
     private VxBodyCodec() {
     }
 
     /**
-     * Serializes a {@link VxBody} and its current physics state into a buffer.
+     * Serializes all bodies of a chunk into a buffer.
      * <p>
      * <b>Format:</b>
      * <ul>
-     *     <li>UUID (16 bytes)</li>
-     *     <li>Type ID (UTF String)</li>
-     *     <li>Data Length (4 bytes)</li>
-     *     <li>Body Data (Variable payload)</li>
+     *     <li>Format Magic (4 bytes)</li>
+     *     <li>Flags (1 byte)</li>
+     *     <li>Palette Size (VarInt), followed by each Type ID (UTF String)</li>
+     *     <li>Body Count (4 bytes)</li>
+     *     <li>Per body: UUID (16 bytes), Palette Index (VarInt), Data Length (4 bytes), Body Data (Variable payload)</li>
      * </ul>
      *
-     * @param body The physics body to serialize.
-     * @param buf  The buffer to write the serialized data into.
+     * @param bodies  The bodies of the chunk.
+     * @param buf     The buffer to write the serialized data into.
+     * @param compact Whether to use the compact encoding for rotations and velocities.
      */
-    public static void serialize(VxBody body, VxByteBuf buf) {
-        buf.writeUUID(body.getPhysicsId());
-        buf.writeUtf(body.getType().getTypeId().toString());
-
-        // We use a temporary buffer to capture the variable-length internal data.
-        // This ensures we can calculate the exact size and prefix it, allowing the
-        // deserializer to distinguish where this body ends and the next one begins.
-        ByteBuf tempBuf = ByteBufAllocator.DEFAULT.ioBuffer();
-        try {
-            VxByteBuf tempVxBuf = new VxByteBuf(tempBuf);
-            writeInternalPersistenceData(body, tempVxBuf);
+    public static void serializeChunk(Collection<VxBody> bodies, VxByteBuf buf, boolean compact) {
+        Object2IntOpenHashMap<ResourceLocation> paletteIndices = new Object2IntOpenHashMap<>();
+        paletteIndices.defaultReturnValue(-1);
+        List<ResourceLocation> palette = new ArrayList<>();
+        for (VxBody body : bodies) {
+            ResourceLocation typeId = body.getType().getTypeId();
+            if (paletteIndices.putIfAbsent(typeId, palette.size()) == -1) {
+                palette.add(typeId);
+            }
+        }
+
+        buf.writeInt(CHUNK_FORMAT_MAGIC);
+        buf.writeByte(compact ? FLAG_COMPACT_KINEMATICS : 0);
+        buf.writeVarInt(palette.size());
+        for (ResourceLocation typeId : palette) {
+            buf.writeUtf(typeId.toString());
+        }
 
-            int length = tempBuf.readableBytes();
+        // The count is patched at the end, as bodies without a valid state are skipped.
+        int countIndex = buf.writerIndex();
+        buf.writeInt(0);
+        int count = 0;
+
+        for (VxBody body : bodies) {
+            int bodyStart = buf.writerIndex();
+            UUID id = body.getPhysicsId();
+            buf.writeLong(id.getMostSignificantBits());
+            buf.writeLong(id.getLeastSignificantBits());
+            buf.writeVarInt(paletteIndices.getInt(body.getType().getTypeId()));
+
+            // Reserve the length prefix and encode the payload in place, then patch the prefix.
+            int lengthIndex = buf.writerIndex();
+            buf.writeInt(0);
+            writeInternalPersistenceData(body, buf, compact);
+
+            int length = buf.writerIndex() - lengthIndex - 4;
             if (length == 0) {
-                return; // Do not write invalid/empty bodies
+                buf.writerIndex(bodyStart); // Do not write invalid/empty bodies
+                continue;
             }
+            buf.setInt(lengthIndex, length);
+            count++;
+        }
 
-            // Write length prefix
-            buf.writeInt(length);
-            // Write the actual payload
-            buf.writeBytes(tempBuf);
-        } finally {
-            tempBuf.release();
+        buf.setInt(countIndex, count);
+    }
+
+    /**
+     * Deserializes all bodies of a chunk written by {@link #serializeChunk} or by the legacy per-body format.
+     * Each record's {@code bodyData} is a retained slice of {@code buf}, positioned after the kinematic state,
+     * and must be released by the consumer.
+     *
+     * @param buf The buffer to read the serialized data from.
+     * @param out The list receiving the records; records decoded before a failure are kept.
+     */
+    public static void deserializeChunk(VxByteBuf buf, List<VxSerializedBodyData> out) {
+        int header = buf.readInt();
+        if (header != CHUNK_FORMAT_MAGIC) {
+            // Legacy layout: the header is the body count.
+            for (int i = 0; i < header; i++) {
+                VxSerializedBodyData data = deserializeLegacy(buf);
+                if (data != null) {
+                    out.add(data);
+                }
+            }
+            return;
+        }
+
+        boolean compact = (buf.readByte() & FLAG_COMPACT_KINEMATICS) != 0;
+        int paletteSize = buf.readVarInt();
+        ResourceLocation[] palette = new ResourceLocation[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i] = ResourceLocation.tryParse(buf.readUtf());
+        }
+
+        int count = buf.readInt();
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(buf.readLong(), buf.readLong());
+            int typeIndex = buf.readVarInt();
+            int dataLength = buf.readInt();
+
+            // Safety check to prevent reading past buffer bounds
+            if (typeIndex < 0 || typeIndex >= paletteSize || dataLength < 0 || buf.readableBytes() < dataLength) {
+                VxMainClass.LOGGER.error("Malformed body data for ID {}: type index {}, {} bytes declared, {} remain.", id, typeIndex, dataLength, buf.readableBytes());
+                return;
+            }
+
+            // The slice shares the chunk buffer's memory and advances the reader index past this body.
+            VxByteBuf bodyData = new VxByteBuf(buf.readRetainedSlice(dataLength));
+            out.add(decodeBody(palette[typeIndex], id, bodyData, compact));
         }
     }
 
     /**
-     * Deserializes physics body data from a buffer into a {@link VxSerializedBodyData} record.
-     * This record contains the ID, Type, and a buffer slice of the remaining data
-     * (the payload written by {@link VxBodyCodec#writeInternalPersistenceData(VxBody, VxByteBuf)}).
+     * Deserializes one body in the legacy per-body layout: UUID, Type ID string, Data Length, Body Data.
      *
      * @param buf The buffer to read the serialized data from.
-     * @return A {@link VxSerializedBodyData} record, or null if deserialization fails.
+     * @return A {@link VxSerializedBodyData} record, or null if deserialization fails or the record is empty.
      */
     @Nullable
-    public static VxSerializedBodyData deserialize(VxByteBuf buf) {
+    private static VxSerializedBodyData deserializeLegacy(VxByteBuf buf) {
         try {
             UUID id = buf.readUUID();
             ResourceLocation typeId = ResourceLocation.tryParse(buf.readUtf());
 
             // Read the length of the internal data block
             int dataLength = buf.readInt();
+            if (dataLength == 0) {
+                return null; // Written for a body without a valid state
+            }
 
             // Safety check to prevent reading past buffer bounds
             if (buf.readableBytes() < dataLength) {
@@ -95,12 +196,8 @@ public final class VxBodyCodec {
                 return null;
             }
 
-            // Slice exactly the amount of data belonging to this body.
-            // readBytes() creates a slice and advances the reader index of 'buf' by 'dataLength'.
-            // This leaves the buffer positioned correctly for the next body in the chunk.
-            VxByteBuf bodyData = new VxByteBuf(buf.readBytes(dataLength));
-
-            return new VxSerializedBodyData(typeId, id, bodyData);
+            VxByteBuf bodyData = new VxByteBuf(buf.readRetainedSlice(dataLength));
+            return decodeBody(typeId, id, bodyData, false);
         } catch (Exception e) {
             VxMainClass.LOGGER.error("Failed to deserialize physics body from data", e);
             return null;
@@ -110,34 +207,49 @@ public final class VxBodyCodec {
     /**
      * Serializes the internal state of the body for persistent storage.
      *
-     * @param body The body to serialize.
-     * @param buf  The buffer to write into.
+     * @param body    The body to serialize.
+     * @param buf     The buffer to write into.
+     * @param compact Whether to use the compact encoding for rotations and velocities.
      */
-    public static void writeInternalPersistenceData(VxBody body, VxByteBuf buf) {
-        if (body.getPhysicsWorld() == null || body.getDataStoreIndex() == -1) return;
-        VxServerBodyDataStore store = body.getPhysicsWorld().getBodyManager().getDataStore();
+    public static void writeInternalPersistenceData(VxBody body, VxByteBuf buf, boolean compact) {
+        // Resolve the store through the body itself, so the state can be written without a live world
+        if (body.getDataStoreIndex() == -1 || !(body.getDataStore() instanceof VxServerBodyDataStore store)) return;
         VxServerBodyDataContainer c = store.serverCurrent();
         int idx = body.getDataStoreIndex();
 
+        // Positions stay double precision in both encodings.
         buf.writeDouble(c.posX[idx]);
         buf.writeDouble(c.posY[idx]);
         buf.writeDouble(c.posZ[idx]);
-        buf.writeFloat(c.rotX[idx]);
-        buf.writeFloat(c.rotY[idx]);
-        buf.writeFloat(c.rotZ[idx]);
-        buf.writeFloat(c.rotW[idx]);
-        buf.writeFloat(c.velX[idx]);
-        buf.writeFloat(c.velY[idx]);
-        buf.writeFloat(c.velZ[idx]);
-        buf.writeFloat(c.angVelX[idx]);
-        buf.writeFloat(c.angVelY[idx]);
-        buf.writeFloat(c.angVelZ[idx]);
+
+        if (compact) {
+            long rotation = VxStateQuantizer.packQuaternion(c.rotX[idx], c.rotY[idx], c.rotZ[idx], c.rotW[idx], QUAT_COMPONENT_BITS);
+            buf.writeMedium((int) (rotation >>> 32));
+            buf.writeInt((int) rotation);
+            buf.writeShort(Float.floatToFloat16(c.velX[idx]));
+            buf.writeShort(Float.floatToFloat16(c.velY[idx]));
+            buf.writeShort(Float.floatToFloat16(c.velZ[idx]));
+            buf.writeShort(Float.floatToFloat16(c.angVelX[idx]));
+            buf.writeShort(Float.floatToFloat16(c.angVelY[idx]));
+            buf.writeShort(Float.floatToFloat16(c.angVelZ[idx]));
+        } else {
+            buf.writeFloat(c.rotX[idx]);
+            buf.writeFloat(c.rotY[idx]);
+            buf.writeFloat(c.rotZ[idx]);
+            buf.writeFloat(c.rotW[idx]);
+            buf.writeFloat(c.velX[idx]);
+            buf.writeFloat(c.velY[idx]);
+            buf.writeFloat(c.velZ[idx]);
+            buf.writeFloat(c.angVelX[idx]);
+            buf.writeFloat(c.angVelY[idx]);
+            buf.writeFloat(c.angVelZ[idx]);
+        }
 
         EMotionType motionType = c.motionType[idx];
         buf.writeByte(motionType != null ? motionType.ordinal() : EMotionType.Static.ordinal());
 
         if (VxSoftPhysicsBehavior.ID.isSet(c.behaviorBits[idx])) {
-            float[] vertices = body.getPhysicsWorld().getBodyManager().retrieveSoftBodyVertices(body);
+            float[] vertices = body.getPhysicsWorld() != null ? body.getPhysicsWorld().getBodyManager().retrieveSoftBodyVertices(body) : null;
             if (vertices != null) {
                 buf.writeInt(vertices.length);
                 for (float val : vertices) buf.writeFloat(val);
@@ -150,60 +262,89 @@ public final class VxBodyCodec {
     }
 
     /**
-     * Deserializes and restores the internal state of the body from storage.
+     * Decodes the kinematic state at the start of a body payload and wraps the rest as the record's data.
+     * The payload is released if decoding throws.
+     */
+    private static VxSerializedBodyData decodeBody(@Nullable ResourceLocation typeId, UUID id, VxByteBuf bodyData, boolean compact) {
+        try {
+            VxBodyType type = typeId != null ? VxBodyRegistry.getInstance().getRegistrationData(typeId) : null;
+            // Unknown types are reported when the body is created; their state layout is unknown.
+            VxStoredBodyState state = type != null ? readState(id, type.isSoft(), bodyData, compact) : null;
+            return new VxSerializedBodyData(typeId, id, state, bodyData);
+        } catch (RuntimeException e) {
+            bodyData.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the kinematic state written by {@link #writeInternalPersistenceData}, leaving the buffer
+     * positioned at the type-specific persistence data.
      *
-     * @param body The body to deserialize into.
-     * @param buf  The buffer to read from.
+     * @param id      The ID of the body, for logging.
+     * @param soft    Whether the body is a soft body and has stored vertices.
+     * @param buf     The buffer to read from.
+     * @param compact Whether the data uses the compact encoding for rotations and velocities.
+     * @return The state, or null if the buffer is truncated.
      */
-    public static void readInternalPersistenceData(VxBody body, VxByteBuf buf) {
-        if (buf.readableBytes() < 40) { // px, py, pz (24) + rx, ry, rz, rw (16) = 40
-            VxMainClass.LOGGER.warn("Skipping body state deserialization for ID {}: buffer has only {} readable bytes.", body.getPhysicsId(), buf.readableBytes());
-            return;
+    @Nullable
+    public static VxStoredBodyState readState(UUID id, boolean soft, VxByteBuf buf, boolean compact) {
+        // px, py, pz (24) + rotation (16, or 7 compact)
+        int transformBytes = compact ? 31 : 40;
+        if (buf.readableBytes() < transformBytes) {
+            VxMainClass.LOGGER.warn("Skipping body state deserialization for ID {}: buffer has only {} readable bytes.", id, buf.readableBytes());
+            return null;
         }
 
         double px = buf.readDouble(), py = buf.readDouble(), pz = buf.readDouble();
-        float rx = buf.readFloat(), ry = buf.readFloat(), rz = buf.readFloat(), rw = buf.readFloat();
-
-        if (buf.readableBytes() < 25) { // Check before reading velocities and motion
-            VxMainClass.LOGGER.warn("Partially read body state for ID {}: buffer truncated.", body.getPhysicsId());
-            return;
+        float rx, ry, rz, rw;
+        if (compact) {
+            long rotation = ((long) buf.readUnsignedMedium() << 32) | buf.readUnsignedInt();
+            rx = VxStateQuantizer.unpackQuaternionComponent(rotation, QUAT_COMPONENT_BITS, 0);
+            ry = VxStateQuantizer.unpackQuaternionComponent(rotation, QUAT_COMPONENT_BITS, 1);
+            rz = VxStateQuantizer.unpackQuaternionComponent(rotation, QUAT_COMPONENT_BITS, 2);
+            rw = VxStateQuantizer.unpackQuaternionComponent(rotation, QUAT_COMPONENT_BITS, 3);
+        } else {
+            rx = buf.readFloat();
+            ry = buf.readFloat();
+            rz = buf.readFloat();
+            rw = buf.readFloat();
         }
 
-        float vx = buf.readFloat(), vy = buf.readFloat(), vz = buf.readFloat();
-        float avx = buf.readFloat(), avy = buf.readFloat(), avz = buf.readFloat();
-        int motionOrdinal = buf.readByte();
+        // Velocities (24, or 12 compact) + motion (1)
+        if (buf.readableBytes() < (compact ? 13 : 25)) {
+            VxMainClass.LOGGER.warn("Partially read body state for ID {}: buffer truncated.", id);
+            return null;
+        }
 
-        if (body.getPhysicsWorld() != null && body.getDataStoreIndex() != -1) {
-            VxServerBodyDataStore store = body.getPhysicsWorld().getBodyManager().getDataStore();
-            VxServerBodyDataContainer c = store.serverCurrent();
-            int idx = body.getDataStoreIndex();
-            c.posX[idx] = px;
-            c.posY[idx] = py;
-            c.posZ[idx] = pz;
-            c.rotX[idx] = rx;
-            c.rotY[idx] = ry;
-            c.rotZ[idx] = rz;
-            c.rotW[idx] = rw;
-            c.velX[idx] = vx;
-            c.velY[idx] = vy;
-            c.velZ[idx] = vz;
-            c.angVelX[idx] = avx;
-            c.angVelY[idx] = avy;
-            c.angVelZ[idx] = avz;
-            c.motionType[idx] = EMotionType.values()[Math.max(0, Math.min(motionOrdinal, EMotionType.values().length - 1))];
+        float vx, vy, vz, avx, avy, avz;
+        if (compact) {
+            vx = Float.float16ToFloat(buf.readShort());
+            vy = Float.float16ToFloat(buf.readShort());
+            vz = Float.float16ToFloat(buf.readShort());
+            avx = Float.float16ToFloat(buf.readShort());
+            avy = Float.float16ToFloat(buf.readShort());
+            avz = Float.float16ToFloat(buf.readShort());
+        } else {
+            vx = buf.readFloat();
+            vy = buf.readFloat();
+            vz = buf.readFloat();
+            avx = buf.readFloat();
+            avy = buf.readFloat();
+            avz = buf.readFloat();
         }
+        int motionOrdinal = buf.readByte();
+        EMotionType motionType = MOTION_TYPES[Math.max(0, Math.min(motionOrdinal, MOTION_TYPES.length - 1))];
 
-        if (body.getType().isSoft()) {
+        float[] vertices = null;
+        if (soft) {
             int vertexCount = buf.readInt();
             if (vertexCount > 0) {
-                float[] vertices = new float[vertexCount];
+                vertices = new float[vertexCount];
                 for (int i = 0; i < vertexCount; i++) vertices[i] = buf.readFloat();
-                if (body.getPhysicsWorld() != null) {
-                    body.getPhysicsWorld().getBodyManager().updateSoftBodyVertices(body, vertices);
-                }
             }
         }
 
-        body.getType().getPersistenceHandler().read(body, buf);
+        return new VxStoredBodyState(px, py, pz, rx, ry, rz, rw, vx, vy, vz, avx, avy, avz, motionType, vertices);
     }
-}
\ No newline at end of file
+}
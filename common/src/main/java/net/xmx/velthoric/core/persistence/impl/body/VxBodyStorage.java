@@ -9,24 +9,39 @@ import net.xmx.velthoric.network.VxByteBuf;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.persistence.VxChunkBasedStorage;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Storage implementation for physics bodies using the generic region system.
+ * Chunks are written in the palette layout of {@link VxBodyCodec#serializeChunk}.
  *
  * @author xI-Mx-Ix
  */
 public class VxBodyStorage extends VxChunkBasedStorage<VxBody, VxSerializedBodyData> {
 
+    /**
+     * Whether rotations and velocities are stored in the compact encoding
+     * (smallest-three quaternion, half-precision velocities). Positions always keep double precision.
+     */
+    private static final boolean COMPACT_KINEMATICS = Boolean.getBoolean("velthoric.persistence.compactKinematics");
+
     public VxBodyStorage(ServerLevel level) {
         super(level, "bodies", "vxb");
     }
 
     @Override
-    protected void writeSingle(VxBody body, VxByteBuf buffer) {
-        VxBodyCodec.serialize(body, buffer);
+    protected void writeChunk(Collection<VxBody> bodies, VxByteBuf buffer) {
+        VxBodyCodec.serializeChunk(bodies, buffer, COMPACT_KINEMATICS);
+    }
+
+    @Override
+    protected void readChunk(VxByteBuf buffer, List<VxSerializedBodyData> out) {
+        VxBodyCodec.deserializeChunk(buffer, out);
     }
 
     @Override
-    protected VxSerializedBodyData readSingle(VxByteBuf buffer) {
-        return VxBodyCodec.deserialize(buffer);
+    protected void releaseData(VxSerializedBodyData data) {
+        data.bodyData().release();
     }
-}
\ No newline at end of file
+}
@@ -6,22 +6,25 @@ package net.xmx.velthoric.core.persistence.impl.body;
 
 import net.minecraft.resources.ResourceLocation;
 import net.xmx.velthoric.network.VxByteBuf;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
 /**
  * Serialized snapshot of a physics body used for persistence or syncing.
- * This record holds the identification information and a data buffer containing
- * the internal state of the body (transform, velocity, vertices, etc.).
+ * This record holds the identification information, the decoded kinematic state, and a data buffer
+ * containing the type-specific persistence data of the body.
  *
- * @param typeId    body type identifier
- * @param id        unique instance ID
- * @param bodyData  the buffer containing the body's internal persistence data
+ * @param typeId   body type identifier
+ * @param id       unique instance ID
+ * @param state    the decoded kinematic state, or null if it could not be decoded
+ * @param bodyData the buffer containing the body's type-specific persistence data
  *
  * @author xI-Mx-Ix
  */
 public record VxSerializedBodyData(
         ResourceLocation typeId,
         UUID id,
+        @Nullable VxStoredBodyState state,
         VxByteBuf bodyData
-) {}
\ No newline at end of file
+) {}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.persistence.impl.body;
+
+import com.github.stephengold.joltjni.enumerate.EMotionType;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The stored kinematic state of a body, decoded on the I/O thread ahead of the body's creation.
+ * <p>
+ * Type-specific persistence data is not part of this record; it stays in the
+ * {@link VxSerializedBodyData#bodyData()} buffer, because persistence handlers may only run on a live body.
+ *
+ * @param posX        position X
+ * @param posY        position Y
+ * @param posZ        position Z
+ * @param rotX        rotation X
+ * @param rotY        rotation Y
+ * @param rotZ        rotation Z
+ * @param rotW        rotation W
+ * @param velX        linear velocity X
+ * @param velY        linear velocity Y
+ * @param velZ        linear velocity Z
+ * @param angVelX     angular velocity X
+ * @param angVelY     angular velocity Y
+ * @param angVelZ     angular velocity Z
+ * @param motionType  the motion type
+ * @param vertices    the soft body vertices, or null for rigid bodies and soft bodies stored without vertices
+ *
+ * @author xI-Mx-Ix
+ */
+public record VxStoredBodyState(
+        double posX, double posY, double posZ,
+        float rotX, float rotY, float rotZ, float rotW,
+        float velX, float velY, float velZ,
+        float angVelX, float angVelY, float angVelZ,
+        EMotionType motionType,
+        float @Nullable [] vertices
+) {
+
+    /**
+     * Writes the state into a body's slot of the data store.
+     *
+     * @param c     The current data container.
+     * @param index The index of the body.
+     */
+    public void applyTo(VxServerBodyDataContainer c, int index) {
+        c.posX[index] = posX;
+        c.posY[index] = posY;
+        c.posZ[index] = posZ;
+        c.rotX[index] = rotX;
+        c.rotY[index] = rotY;
+        c.rotZ[index] = rotZ;
+        c.rotW[index] = rotW;
+        c.velX[index] = velX;
+        c.velY[index] = velY;
+        c.velZ[index] = velZ;
+        c.angVelX[index] = angVelX;
+        c.angVelY[index] = angVelY;
+        c.angVelZ[index] = angVelZ;
+        c.motionType[index] = motionType;
+    }
+}
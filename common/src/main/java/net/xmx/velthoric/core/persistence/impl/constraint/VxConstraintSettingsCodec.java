@@ -0,0 +1,347 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.persistence.impl.constraint;
+
+import com.github.stephengold.joltjni.*;
+import com.github.stephengold.joltjni.enumerate.*;
+import com.github.stephengold.joltjni.std.StringStream;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Converts Jolt {@link TwoBodyConstraintSettings} to and from the compact byte form stored in a
+ * {@link net.xmx.velthoric.core.constraint.VxConstraint}.
+ * <p>
+ * The point, fixed, distance, hinge and swing-twist constraints are written field by field in a
+ * versioned little-endian layout:
+ * <pre>
+ * [magic:u8][version:u8][subType:u8][base settings][type-specific settings]
+ * </pre>
+ * All other types, whose settings reference external objects such as paths or other constraints,
+ * fall back to Jolt's textual object stream. Blobs in that text format, which every constraint used
+ * before the binary layout existed, are detected by their stream header and still read.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxConstraintSettingsCodec {
+
+    /**
+     * The first byte of a binary blob. Jolt text streams always start with the ASCII header "TOS".
+     */
+    private static final byte MAGIC = (byte) 0xC5;
+    private static final byte VERSION = 1;
+
+    /**
+     * Upper bound of the encoded size of any binary type; swing-twist, the largest, needs about 200 bytes.
+     */
+    private static final int MAX_ENCODED_SIZE = 256;
+
+    private static final EConstraintSpace[] SPACES = EConstraintSpace.values();
+    private static final EConstraintSubType[] SUB_TYPES = EConstraintSubType.values();
+    private static final ESpringMode[] SPRING_MODES = ESpringMode.values();
+    private static final ESwingType[] SWING_TYPES = ESwingType.values();
+
+    private VxConstraintSettingsCodec() {}
+
+    /**
+     * Encodes constraint settings, using the binary layout when the type supports it.
+     *
+     * @param settings The settings to encode.
+     * @param subType  The subtype of the settings.
+     * @return The encoded settings.
+     * @throws IllegalStateException if the text fallback fails.
+     */
+    public static byte[] encode(TwoBodyConstraintSettings settings, EConstraintSubType subType) {
+        if (!isBinarySupported(subType)) {
+            return encodeText(settings);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(MAX_ENCODED_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(MAGIC).put(VERSION).put((byte) subType.ordinal());
+        writeBase(buf, settings);
+
+        switch (subType) {
+            case Point -> {
+                PointConstraintSettings s = (PointConstraintSettings) settings;
+                buf.put((byte) s.getSpace().ordinal());
+                writeRVec3(buf, s.getPoint1());
+                writeRVec3(buf, s.getPoint2());
+            }
+            case Fixed -> {
+                FixedConstraintSettings s = (FixedConstraintSettings) settings;
+                buf.put((byte) s.getSpace().ordinal());
+                buf.put((byte) (s.getAutoDetectPoint() ? 1 : 0));
+                writeRVec3(buf, s.getPoint1());
+                writeVec3(buf, s.getAxisX1());
+                writeVec3(buf, s.getAxisY1());
+                writeRVec3(buf, s.getPoint2());
+                writeVec3(buf, s.getAxisX2());
+                writeVec3(buf, s.getAxisY2());
+            }
+            case Distance -> {
+                DistanceConstraintSettings s = (DistanceConstraintSettings) settings;
+                buf.put((byte) s.getSpace().ordinal());
+                writeRVec3(buf, s.getPoint1());
+                writeRVec3(buf, s.getPoint2());
+                buf.putFloat(s.getMinDistance());
+                buf.putFloat(s.getMaxDistance());
+                writeSpring(buf, s.getLimitsSpringSettings());
+            }
+            case Hinge -> {
+                HingeConstraintSettings s = (HingeConstraintSettings) settings;
+                buf.put((byte) s.getSpace().ordinal());
+                writeRVec3(buf, s.getPoint1());
+                writeVec3(buf, s.getHingeAxis1());
+                writeVec3(buf, s.getNormalAxis1());
+                writeRVec3(buf, s.getPoint2());
+                writeVec3(buf, s.getHingeAxis2());
+                writeVec3(buf, s.getNormalAxis2());
+                buf.putFloat(s.getLimitsMin());
+                buf.putFloat(s.getLimitsMax());
+                writeSpring(buf, s.getLimitsSpringSettings());
+                buf.putFloat(s.getMaxFrictionTorque());
+                writeMotor(buf, s.getMotorSettings());
+            }
+            case SwingTwist -> {
+                SwingTwistConstraintSettings s = (SwingTwistConstraintSettings) settings;
+                buf.put((byte) s.getSpace().ordinal());
+                writeRVec3(buf, s.getPosition1());
+                writeVec3(buf, s.getTwistAxis1());
+                writeVec3(buf, s.getPlaneAxis1());
+                writeRVec3(buf, s.getPosition2());
+                writeVec3(buf, s.getTwistAxis2());
+                writeVec3(buf, s.getPlaneAxis2());
+                buf.put((byte) s.getSwingType().ordinal());
+                buf.putFloat(s.getNormalHalfConeAngle());
+                buf.putFloat(s.getPlaneHalfConeAngle());
+                buf.putFloat(s.getTwistMinAngle());
+                buf.putFloat(s.getTwistMaxAngle());
+                buf.putFloat(s.getMaxFrictionTorque());
+                writeMotor(buf, s.getSwingMotorSettings());
+                writeMotor(buf, s.getTwistMotorSettings());
+            }
+            default -> throw new IllegalStateException("No binary layout for " + subType);
+        }
+
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    /**
+     * Decodes constraint settings in either the binary layout or the legacy text format.
+     *
+     * @param data The encoded settings.
+     * @return A new settings object owned by the caller, or null if the data is malformed.
+     */
+    @Nullable
+    public static TwoBodyConstraintSettings decode(byte[] data) {
+        if (!isBinary(data)) {
+            return decodeText(data);
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(1);
+        if (buf.get() != VERSION) {
+            return null;
+        }
+
+        try {
+            EConstraintSubType subType = SUB_TYPES[buf.get()];
+            TwoBodyConstraintSettings settings = switch (subType) {
+                case Point -> {
+                    PointConstraintSettings s = new PointConstraintSettings();
+                    readBase(buf, s);
+                    s.setSpace(SPACES[buf.get()]);
+                    s.setPoint1(readRVec3(buf));
+                    s.setPoint2(readRVec3(buf));
+                    yield s;
+                }
+                case Fixed -> {
+                    FixedConstraintSettings s = new FixedConstraintSettings();
+                    readBase(buf, s);
+                    s.setSpace(SPACES[buf.get()]);
+                    s.setAutoDetectPoint(buf.get() != 0);
+                    s.setPoint1(readRVec3(buf));
+                    s.setAxisX1(readVec3(buf));
+                    s.setAxisY1(readVec3(buf));
+                    s.setPoint2(readRVec3(buf));
+                    s.setAxisX2(readVec3(buf));
+                    s.setAxisY2(readVec3(buf));
+                    yield s;
+                }
+                case Distance -> {
+                    DistanceConstraintSettings s = new DistanceConstraintSettings();
+                    readBase(buf, s);
+                    s.setSpace(SPACES[buf.get()]);
+                    s.setPoint1(readRVec3(buf));
+                    s.setPoint2(readRVec3(buf));
+                    s.setMinDistance(buf.getFloat());
+                    s.setMaxDistance(buf.getFloat());
+                    readSpring(buf, s.getLimitsSpringSettings());
+                    yield s;
+                }
+                case Hinge -> {
+                    HingeConstraintSettings s = new HingeConstraintSettings();
+                    readBase(buf, s);
+                    s.setSpace(SPACES[buf.get()]);
+                    s.setPoint1(readRVec3(buf));
+                    s.setHingeAxis1(readVec3(buf));
+                    s.setNormalAxis1(readVec3(buf));
+                    s.setPoint2(readRVec3(buf));
+                    s.setHingeAxis2(readVec3(buf));
+                    s.setNormalAxis2(readVec3(buf));
+                    s.setLimitsMin(buf.getFloat());
+                    s.setLimitsMax(buf.getFloat());
+                    readSpring(buf, s.getLimitsSpringSettings());
+                    s.setMaxFrictionTorque(buf.getFloat());
+                    readMotor(buf, s.getMotorSettings());
+                    yield s;
+                }
+                case SwingTwist -> {
+                    SwingTwistConstraintSettings s = new SwingTwistConstraintSettings();
+                    readBase(buf, s);
+                    s.setSpace(SPACES[buf.get()]);
+                    s.setPosition1(readRVec3(buf));
+                    s.setTwistAxis1(readVec3(buf));
+                    s.setPlaneAxis1(readVec3(buf));
+                    s.setPosition2(readRVec3(buf));
+                    s.setTwistAxis2(readVec3(buf));
+                    s.setPlaneAxis2(readVec3(buf));
+                    s.setSwingType(SWING_TYPES[buf.get()]);
+                    s.setNormalHalfConeAngle(buf.getFloat());
+                    s.setPlaneHalfConeAngle(buf.getFloat());
+                    s.setTwistMinAngle(buf.getFloat());
+                    s.setTwistMaxAngle(buf.getFloat());
+                    s.setMaxFrictionTorque(buf.getFloat());
+                    readMotor(buf, s.getSwingMotorSettings());
+                    readMotor(buf, s.getTwistMotorSettings());
+                    yield s;
+                }
+                default -> null;
+            };
+            return settings;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param data The encoded settings.
+     * @return True if the data is in the legacy text format and should be re-encoded.
+     */
+    public static boolean isLegacy(byte[] data) {
+        return !isBinary(data);
+    }
+
+    private static boolean isBinary(byte[] data) {
+        return data.length >= 3 && data[0] == MAGIC;
+    }
+
+    private static boolean isBinarySupported(EConstraintSubType subType) {
+        return switch (subType) {
+            case Point, Fixed, Distance, Hinge, SwingTwist -> true;
+            default -> false;
+        };
+    }
+
+    private static byte[] encodeText(TwoBodyConstraintSettings settings) {
+        try (StringStream stringStream = new StringStream()) {
+            if (ObjectStreamOut.sWriteObject(stringStream, EStreamType.Text, settings)) {
+                return stringStream.str().getBytes(StandardCharsets.ISO_8859_1);
+            }
+        }
+        throw new IllegalStateException("Failed to serialize constraint settings.");
+    }
+
+    @Nullable
+    private static TwoBodyConstraintSettings decodeText(byte[] data) {
+        String settingsString = new String(data, StandardCharsets.ISO_8859_1);
+        try (StringStream stringStream = new StringStream(settingsString);
+             TwoBodyConstraintSettingsRef settingsRef = new TwoBodyConstraintSettingsRef()) {
+            if (ObjectStreamIn.sReadObject(stringStream, settingsRef)) {
+                return settingsRef.getPtr();
+            }
+            return null;
+        }
+    }
+
+    private static void writeBase(ByteBuffer buf, ConstraintSettings s) {
+        buf.put((byte) (s.getEnabled() ? 1 : 0));
+        buf.putInt(s.getConstraintPriority());
+        buf.putInt(s.getNumVelocityStepsOverride());
+        buf.putInt(s.getNumPositionStepsOverride());
+        buf.putFloat(s.getDrawConstraintSize());
+        buf.putLong(s.getUserData());
+    }
+
+    private static void readBase(ByteBuffer buf, ConstraintSettings s) {
+        s.setEnabled(buf.get() != 0);
+        s.setConstraintPriority(buf.getInt());
+        s.setNumVelocityStepsOverride(buf.getInt());
+        s.setNumPositionStepsOverride(buf.getInt());
+        s.setDrawConstraintSize(buf.getFloat());
+        s.setUserData(buf.getLong());
+    }
+
+    private static void writeSpring(ByteBuffer buf, SpringSettings s) {
+        ESpringMode mode = s.getMode();
+        buf.put((byte) mode.ordinal());
+        // Frequency and stiffness share storage in Jolt; only the one selected by the mode is meaningful.
+        buf.putFloat(mode == ESpringMode.FrequencyAndDamping ? s.getFrequency() : s.getStiffness());
+        buf.putFloat(s.getDamping());
+    }
+
+    private static void readSpring(ByteBuffer buf, SpringSettings s) {
+        ESpringMode mode = SPRING_MODES[buf.get()];
+        float value = buf.getFloat();
+        s.setMode(mode);
+        if (mode == ESpringMode.FrequencyAndDamping) {
+            s.setFrequency(value);
+        } else {
+            s.setStiffness(value);
+        }
+        s.setDamping(buf.getFloat());
+    }
+
+    private static void writeMotor(ByteBuffer buf, MotorSettings s) {
+        writeSpring(buf, s.getSpringSettings());
+        buf.putFloat(s.getMinForceLimit());
+        buf.putFloat(s.getMaxForceLimit());
+        buf.putFloat(s.getMinTorqueLimit());
+        buf.putFloat(s.getMaxTorqueLimit());
+    }
+
+    private static void readMotor(ByteBuffer buf, MotorSettings s) {
+        readSpring(buf, s.getSpringSettings());
+        s.setMinForceLimit(buf.getFloat());
+        s.setMaxForceLimit(buf.getFloat());
+        s.setMinTorqueLimit(buf.getFloat());
+        s.setMaxTorqueLimit(buf.getFloat());
+    }
+
+    private static void writeRVec3(ByteBuffer buf, RVec3 v) {
+        buf.putDouble(v.xx());
+        buf.putDouble(v.yy());
+        buf.putDouble(v.zz());
+    }
+
+    private static RVec3 readRVec3(ByteBuffer buf) {
+        return new RVec3(buf.getDouble(), buf.getDouble(), buf.getDouble());
+    }
+
+    private static void writeVec3(ByteBuffer buf, Vec3 v) {
+        buf.putFloat(v.getX());
+        buf.putFloat(v.getY());
+        buf.putFloat(v.getZ());
+    }
+
+    private static Vec3 readVec3(ByteBuffer buf) {
+        return new Vec3(buf.getFloat(), buf.getFloat(), buf.getFloat());
+    }
+}
@@ -4,45 +4,67 @@
  */
 package net.xmx.velthoric.core.persistence.region;
 
+import com.github.luben.zstd.Zstd;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.world.level.ChunkPos;
 import net.xmx.velthoric.init.VxMainClass;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
 
 /**
  * Manages a single region file containing physics data for a 32x32 chunk area.
  * <p>
- * <b>Extended File Format Specification:</b>
- * Unlike the standard Minecraft Anvil format (which uses a 4KB header with packed 4-byte entries),
- * this implementation uses an <b>8KB header</b> to support larger data blobs per chunk.
+ * <b>File Format Specification (Version 2):</b>
  * <ul>
- *     <li><b>Header:</b> The first 8192 bytes (2 sectors) contain the location table.</li>
- *     <li><b>Capacity:</b> 1024 entries (32x32 chunks).</li>
- *     <li><b>Entry Format (8 bytes):</b>
+ *     <li><b>Header:</b> The first 3 sectors (12288 bytes).
  *         <ul>
- *             <li>Bytes 0-3: <b>Sector Offset</b> (Integer) - The index of the start sector.</li>
- *             <li>Bytes 4-7: <b>Sector Count</b> (Integer) - The number of 4KB sectors reserved.</li>
+ *             <li>Bytes 0-3: <b>Magic</b> ({@code "VXRF"}).</li>
+ *             <li>Bytes 4-7: <b>Format Version</b> (Integer).</li>
+ *             <li>Bytes 8-15: Reserved.</li>
+ *             <li>Bytes 16-8207: <b>Location Table</b> with 1024 entries (32x32 chunks) of 8 bytes each:
+ *             <b>Sector Offset</b> (Integer) followed by <b>Sector Count</b> (Integer).</li>
  *         </ul>
  *     </li>
- *     <li><b>Sectors:</b> Data is stored in 4KB aligned blocks. Sector 0 and 1 are reserved for the header.</li>
+ *     <li><b>Entry Record:</b> Each chunk is stored in 4KB aligned sectors as
+ *     {@code [Stored Length (4)] [Compression (1)] [Raw Length (4)] [CRC32C (4)] [Payload]}.
+ *     The payload is Zstd compressed unless compression would not make it smaller.
+ *     The checksum covers the stored payload.</li>
  * </ul>
  * <p>
  * <b>Features:</b>
  * <ul>
- *     <li><b>No Size Limit:</b> Supports chunks significantly larger than 1MB (up to Terabytes theoretically).</li>
+ *     <li><b>Corruption Detection:</b> Entries with an invalid location, length or checksum are logged and skipped.</li>
+ *     <li><b>Crash Safety:</b> Entries are never overwritten in place. Location table updates are only written
+ *     in {@link #sync()}, after the new data has been forced to disk, and replaced sectors are only reused afterwards.
+ *     A crash therefore leaves each chunk either at its previous or at its new version.</li>
+ *     <li><b>Migration:</b> Files in the legacy layout (8KB location table, uncompressed entries) are converted
+ *     to the current format when they are opened.</li>
  *     <li><b>Auto-Pruning:</b> If all data is deleted from the file, the file is automatically closed and deleted from the disk.</li>
- *     <li><b>Space Management:</b> Uses a BitSet to track used sectors and fill gaps (fragmentation handling).</li>
+ *     <li><b>Space Management:</b> Free sectors are tracked as extents by {@link VxSectorAllocator},
+ *     which reuses the smallest gap that fits (fragmentation handling).</li>
+ *     <li><b>Batched Writes:</b> {@link #write(List, List)} encodes all entries outside the lock into one
+ *     pooled direct buffer and writes them to a single contiguous extent with one positional write.</li>
+ *     <li><b>Memory-Mapped Reads:</b> With {@code -Dvelthoric.persistence.mmapRegions=true}, entries are read
+ *     from a read-only mapping of the file instead of through the channel. Mappings are only released by the
+ *     garbage collector, which can delay deleting pruned files on Windows.</li>
  * </ul>
  * <p>
- * This class is thread-safe for reading and writing.
+ * This class is thread-safe. Reads share a read lock and may run concurrently; writes, syncs and closing
+ * take the write lock. Locking is per file, so different region files never contend.
  *
  * @author xI-Mx-Ix
  */
@@ -54,41 +76,117 @@ public class VxRegionFile implements AutoCloseable {
     private static final int SECTOR_SIZE = 4096;
 
     /**
-     * The size of the header table in bytes.
-     * 1024 chunks * 8 bytes per entry = 8192 bytes.
+     * Identifies files written in the versioned format ("VXRF").
      */
-    private static final int HEADER_SIZE = 8192;
+    private static final int MAGIC = 0x56585246;
+
+    /**
+     * The current version of the file format.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * The offset of the location table within the header.
+     */
+    private static final int TABLE_OFFSET = 16;
+
+    /**
+     * The number of chunk entries in the location table.
+     */
+    private static final int ENTRY_COUNT = 1024;
 
     /**
      * The number of sectors occupied by the header.
-     * 8192 / 4096 = 2 sectors.
+     * 16 bytes of file header + 8192 bytes of location table fit into 3 sectors.
+     */
+    private static final int HEADER_SECTOR_COUNT = 3;
+
+    /**
+     * The size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = HEADER_SECTOR_COUNT * SECTOR_SIZE;
+
+    /**
+     * The size of the legacy header (location table only, without magic and version).
+     */
+    private static final int LEGACY_HEADER_SIZE = 8192;
+
+    /**
+     * The size of the per-entry record header (stored length, compression, raw length, checksum).
+     */
+    private static final int RECORD_HEADER_SIZE = 13;
+
+    /**
+     * The payload is stored as-is.
+     */
+    private static final byte COMPRESSION_NONE = 0;
+
+    /**
+     * The payload is a single Zstd frame.
+     */
+    private static final byte COMPRESSION_ZSTD = 1;
+
+    /**
+     * The Zstd level used for chunk payloads. Favors throughput on the I/O thread.
+     */
+    private static final int COMPRESSION_LEVEL = 3;
+
+    /**
+     * Whether entries are read through a memory mapping of the file.
      */
-    private static final int HEADER_SECTOR_COUNT = 2;
+    private static final boolean MMAP_READS = Boolean.getBoolean("velthoric.persistence.mmapRegions");
 
     private final Path path;
-    private FileChannel fileChannel;
+    private volatile FileChannel fileChannel;
+
+    /**
+     * Guards the location table, the allocator and the file contents.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The read-only mapping used by {@link #MMAP_READS}, or null until the first mapped read.
+     * Replaced by a larger mapping when an entry lies beyond it.
+     */
+    private volatile MappedByteBuffer mapping;
+    private final Object mappingLock = new Object();
 
     /**
      * In-memory cache of chunk sector offsets.
      * Index = (x & 31) + (z & 31) * 32.
      */
-    private final int[] chunkOffsets = new int[1024];
+    private final int[] chunkOffsets = new int[ENTRY_COUNT];
 
     /**
      * In-memory cache of chunk sector counts.
      */
-    private final int[] chunkSectorCounts = new int[1024];
+    private final int[] chunkSectorCounts = new int[ENTRY_COUNT];
+
+    /**
+     * Tracks the free sectors of the file. Used to find space for new writes.
+     */
+    private VxSectorAllocator allocator = new VxSectorAllocator(HEADER_SECTOR_COUNT);
 
     /**
-     * Tracks which sectors in the file are currently occupied.
-     * Used to find free space for new writes.
+     * Whether the in-memory location table differs from the one on disk.
      */
-    private final BitSet usedSectors = new BitSet();
+    private boolean headerDirty = false;
+
+    /**
+     * Sector ranges (offset, count pairs) that were replaced since the last {@link #sync()}.
+     * They stay reserved until the location table no longer references them on disk.
+     */
+    private final IntArrayList pendingFreeSectors = new IntArrayList();
+
+    /**
+     * Reusable direct buffer for encoding the header in {@link #sync()}.
+     */
+    private final ByteBuffer headerBuffer = ByteBuffer.allocateDirect(HEADER_SIZE);
 
     /**
      * Constructs a new region file handler.
      * <p>
-     * If the file exists, the header is read and parsed.
+     * If the file exists, the header is read and parsed, migrating legacy files if necessary.
      * If the file does not exist, a new file with a blank header is created.
      *
      * @param path The path to the physical file.
@@ -103,23 +201,25 @@ public class VxRegionFile implements AutoCloseable {
             Files.createDirectories(path.getParent());
         }
 
-        this.fileChannel = FileChannel.open(path,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.READ,
-                StandardOpenOption.WRITE);
+        this.fileChannel = openChannel(path);
 
-        if (exists) {
-            if (fileChannel.size() < HEADER_SIZE) {
-                // File exists but is corrupt/too small -> Reset header
-                writeHeader();
-            } else {
-                readHeader();
-            }
+        if (exists && fileChannel.size() >= LEGACY_HEADER_SIZE && readMagic() != MAGIC) {
+            migrateLegacyFile();
+        } else if (exists && fileChannel.size() >= HEADER_SIZE) {
+            readHeader();
         } else {
+            // New file, or file exists but is corrupt/too small -> Reset header
             writeHeader();
         }
     }
 
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
     /**
      * Checks if the underlying file channel is open.
      *
@@ -129,29 +229,69 @@ public class VxRegionFile implements AutoCloseable {
         return fileChannel != null && fileChannel.isOpen();
     }
 
+    private int readMagic() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        fileChannel.read(buffer, 0);
+        buffer.flip();
+        return buffer.remaining() == 4 ? buffer.getInt() : 0;
+    }
+
     /**
-     * Reads the header table from the beginning of the file.
+     * Reads the header from the beginning of the file.
      * Populates the internal offset/count arrays and the used sectors bitmap.
+     * Entries pointing outside the file or into the header are discarded.
      *
-     * @throws IOException If an I/O error occurs.
+     * @throws IOException If an I/O error occurs or the file was written by a newer format version.
      */
     private void readHeader() throws IOException {
         ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
         fileChannel.read(header, 0);
         header.flip();
 
-        for (int i = 0; i < 1024; i++) {
+        header.getInt(); // Magic
+        int version = header.getInt();
+        if (version > FORMAT_VERSION) {
+            throw new IOException("Region file " + path + " uses unsupported format version " + version);
+        }
+
+        long fileSectorCount = (fileChannel.size() + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        header.position(TABLE_OFFSET);
+
+        // Entries sorted by offset, encoded as (offset << 32) | index
+        LongArrayList entries = new LongArrayList();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
             int offset = header.getInt();
             int count = header.getInt();
 
+            if (offset == 0 || count == 0) continue;
+
+            if (offset < HEADER_SECTOR_COUNT || count < 0 || (long) offset + count > fileSectorCount) {
+                VxMainClass.LOGGER.warn("Discarding invalid region entry {} in {} (offset {}, sectors {})", i, path, offset, count);
+                headerDirty = true;
+                continue;
+            }
+
             chunkOffsets[i] = offset;
             chunkSectorCounts[i] = count;
-
-            if (offset != 0 && count != 0) {
-                for (int s = 0; s < count; s++) {
-                    usedSectors.set(offset + s);
-                }
+            entries.add(((long) offset << 32) | i);
+        }
+        entries.unstableSort(null);
+
+        allocator = new VxSectorAllocator(HEADER_SECTOR_COUNT);
+        int usedEnd = HEADER_SECTOR_COUNT;
+        for (int k = 0; k < entries.size(); k++) {
+            int i = (int) entries.getLong(k);
+            int offset = chunkOffsets[i];
+            if (offset < usedEnd) {
+                // Two entries claim the same sectors; freeing one later would corrupt the other
+                VxMainClass.LOGGER.warn("Discarding overlapping region entry {} in {} (offset {})", i, path, offset);
+                chunkOffsets[i] = 0;
+                chunkSectorCounts[i] = 0;
+                headerDirty = true;
+                continue;
             }
+            allocator.claim(offset, chunkSectorCounts[i]);
+            usedEnd = offset + chunkSectorCounts[i];
         }
     }
 
@@ -162,61 +302,168 @@ public class VxRegionFile implements AutoCloseable {
      * @throws IOException If an I/O error occurs.
      */
     private void writeHeader() throws IOException {
-        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
-        // Fill with zeros (1024 chunks * 2 ints per chunk = 2048 ints)
-        for (int i = 0; i < 2048; i++) {
-            header.putInt(0);
-        }
-        header.flip();
-        fileChannel.write(header, 0);
+        writeFully(encodeHeader(), 0);
+        // Data is allocated after the header sectors.
+        allocator = new VxSectorAllocator(HEADER_SECTOR_COUNT);
+    }
 
-        // Mark the header sectors (0 and 1) as used so data isn't written there.
-        for (int i = 0; i < HEADER_SECTOR_COUNT; i++) {
-            usedSectors.set(i);
+    /**
+     * Encodes the file header with the current in-memory location table into the reusable header buffer.
+     */
+    private ByteBuffer encodeHeader() {
+        ByteBuffer header = headerBuffer.clear();
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.position(TABLE_OFFSET);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            header.putInt(chunkOffsets[i]);
+            header.putInt(chunkSectorCounts[i]);
         }
+        // The reserved bytes and the unused tail of the last header sector stay zero.
+        header.position(0);
+        return header;
     }
 
     /**
      * Reads a data chunk from the file.
      *
      * @param pos The chunk position (relative to the region).
-     * @return A Netty ByteBuf containing the data, or null if the chunk does not exist.
+     * @return A pooled Netty ByteBuf containing the data, or null if the chunk does not exist or is corrupt.
      * The caller is responsible for releasing the buffer.
      */
-    public synchronized ByteBuf read(ChunkPos pos) {
-        if (!isOpen()) return null;
+    public ByteBuf read(ChunkPos pos) {
+        lock.readLock().lock();
+        try {
+            if (!isOpen()) return null;
 
-        int index = getIndex(pos);
-        int sectorOffset = chunkOffsets[index];
-        int sectorCount = chunkSectorCounts[index];
+            int index = getIndex(pos);
+            int sectorOffset = chunkOffsets[index];
+            int sectorCount = chunkSectorCounts[index];
 
-        // If offset or count is 0, the chunk is empty/not present.
-        if (sectorOffset == 0 || sectorCount == 0) return null;
+            // If offset or count is 0, the chunk is empty/not present.
+            if (sectorOffset == 0 || sectorCount == 0) return null;
+
+            long start = (long) sectorOffset * SECTOR_SIZE;
+            int recordSize = sectorCount * SECTOR_SIZE;
+            MappedByteBuffer mapped = MMAP_READS ? mappingCovering(start + recordSize) : null;
+
+            ByteBuf record;
+            if (mapped != null) {
+                record = Unpooled.wrappedBuffer(mapped.slice((int) start, recordSize));
+            } else {
+                // Record header and payload are read with a single positional read
+                record = ByteBufAllocator.DEFAULT.directBuffer(recordSize, recordSize);
+                try {
+                    record.writerIndex(readFully(record.nioBuffer(0, recordSize), start));
+                } catch (IOException | RuntimeException e) {
+                    record.release();
+                    throw e;
+                }
+            }
+            return decodeRecord(pos, record, sectorCount, mapped != null);
+        } catch (IOException e) {
+            VxMainClass.LOGGER.error("Failed to read chunk {}", pos, e);
+            return null;
+        } catch (RuntimeException e) {
+            VxMainClass.LOGGER.error("Failed to read chunk {} in {}", pos, path, e);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
+    /**
+     * Validates and decodes an entry record. Always releases the record buffer.
+     *
+     * @param record The record, starting at the record header.
+     * @param shared Whether the record is a view of the mapped file, which must not escape the read lock.
+     * @return The decoded payload, or null if the record is invalid.
+     */
+    private ByteBuf decodeRecord(ChunkPos pos, ByteBuf record, int sectorCount, boolean shared) {
         try {
-            // 1. Read the length prefix (first 4 bytes of the sector)
-            ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
-            fileChannel.read(lengthBuffer, (long) sectorOffset * SECTOR_SIZE);
-            lengthBuffer.flip();
-            int length = lengthBuffer.getInt();
+            // 1. Read the record header
+            if (record.readableBytes() < RECORD_HEADER_SIZE) {
+                VxMainClass.LOGGER.warn("Truncated chunk record at {} in {}", pos, path);
+                return null;
+            }
+            int storedLength = record.getInt(0);
+            byte compression = record.getByte(4);
+            int rawLength = record.getInt(5);
+            int checksum = record.getInt(9);
 
             // 2. Validate length
             // It must be > 0 and fit within the allocated sector count.
-            if (length <= 0 || length > sectorCount * SECTOR_SIZE) {
-                VxMainClass.LOGGER.warn("Invalid chunk data length {} at {}. Sector Count: {}", length, pos, sectorCount);
+            if (storedLength <= 0 || storedLength + RECORD_HEADER_SIZE > sectorCount * SECTOR_SIZE || rawLength <= 0) {
+                VxMainClass.LOGGER.warn("Invalid chunk data length {} at {}. Sector Count: {}", storedLength, pos, sectorCount);
+                return null;
+            }
+            if (storedLength + RECORD_HEADER_SIZE > record.readableBytes()) {
+                VxMainClass.LOGGER.warn("Truncated chunk payload at {} in {}", pos, path);
                 return null;
             }
 
-            // 3. Read the payload
-            ByteBuffer data = ByteBuffer.allocate(length);
-            // Offset + 4 bytes to skip the length prefix
-            fileChannel.read(data, (long) sectorOffset * SECTOR_SIZE + 4);
-            data.flip();
+            // 3. Verify the payload
+            CRC32C crc = new CRC32C();
+            crc.update(record.nioBuffer(RECORD_HEADER_SIZE, storedLength));
+            if ((int) crc.getValue() != checksum) {
+                VxMainClass.LOGGER.warn("Checksum mismatch for chunk {} in {}, skipping corrupt entry", pos, path);
+                return null;
+            }
 
-            return Unpooled.wrappedBuffer(data);
-        } catch (IOException e) {
-            VxMainClass.LOGGER.error("Failed to read chunk {}", pos, e);
+            // 4. Decode
+            switch (compression) {
+                case COMPRESSION_NONE -> {
+                    if (shared) {
+                        ByteBuf copy = ByteBufAllocator.DEFAULT.directBuffer(storedLength, storedLength);
+                        return copy.writeBytes(record, RECORD_HEADER_SIZE, storedLength);
+                    }
+                    return record.retainedSlice(RECORD_HEADER_SIZE, storedLength);
+                }
+                case COMPRESSION_ZSTD -> {
+                    ByteBuf raw = ByteBufAllocator.DEFAULT.directBuffer(rawLength, rawLength);
+                    long size = Zstd.decompressDirectByteBuffer(
+                            raw.nioBuffer(0, rawLength), 0, rawLength,
+                            record.nioBuffer(RECORD_HEADER_SIZE, storedLength), 0, storedLength);
+                    if (Zstd.isError(size) || size != rawLength) {
+                        raw.release();
+                        VxMainClass.LOGGER.warn("Decompressed size mismatch for chunk {} in {}", pos, path);
+                        return null;
+                    }
+                    return raw.writerIndex(rawLength);
+                }
+                default -> {
+                    VxMainClass.LOGGER.warn("Unknown compression type {} for chunk {} in {}", compression, pos, path);
+                    return null;
+                }
+            }
+        } catch (RuntimeException e) {
+            VxMainClass.LOGGER.error("Failed to decode chunk {} in {}", pos, path, e);
             return null;
+        } finally {
+            record.release();
+        }
+    }
+
+    /**
+     * Returns a read-only mapping of the file that covers the given end position, remapping if the file grew.
+     *
+     * @param end The exclusive end position that must be mapped.
+     * @return The mapping, or null if the file is too large to map or does not reach the position.
+     * @throws IOException If the mapping fails.
+     */
+    private MappedByteBuffer mappingCovering(long end) throws IOException {
+        MappedByteBuffer current = mapping;
+        if (current != null && current.capacity() >= end) return current;
+
+        synchronized (mappingLock) {
+            current = mapping;
+            if (current != null && current.capacity() >= end) return current;
+
+            long size = fileChannel.size();
+            if (size < end || size > Integer.MAX_VALUE) return null;
+            current = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapping = current;
+            return current;
         }
     }
 
@@ -224,146 +471,297 @@ public class VxRegionFile implements AutoCloseable {
      * Writes a data chunk to the file.
      * <p>
      * If the provided buffer is empty (readable bytes == 0), this method acts as a delete operation.
+     * The new location becomes durable with the next {@link #sync()}.
      *
      * @param pos  The chunk position.
      * @param data The buffer containing the data to write.
      */
-    public synchronized void write(ChunkPos pos, ByteBuf data) {
+    public void write(ChunkPos pos, ByteBuf data) {
+        write(List.of(pos), List.of(data));
+    }
+
+    /**
+     * Writes several data chunks of this region in one pass.
+     * <p>
+     * All entries are compressed and checksummed before the write lock is taken, packed back to back into
+     * one sector-aligned buffer, and written to a single newly allocated extent. Empty buffers delete their
+     * chunk. The new locations become durable with the next {@link #sync()}.
+     *
+     * @param positions The chunk positions.
+     * @param data      The buffers containing the data to write, in the same order as the positions.
+     *                  They are read but not released.
+     */
+    public void write(List<ChunkPos> positions, List<ByteBuf> data) {
         if (!isOpen()) return;
 
+        int[] sectorCounts = new int[positions.size()];
+        ByteBuf records;
         try {
-            int index = getIndex(pos);
-            int oldSectorOffset = chunkOffsets[index];
-            int oldSectorCount = chunkSectorCounts[index];
+            records = encodeRecords(data, sectorCounts);
+        } catch (RuntimeException e) {
+            VxMainClass.LOGGER.error("Failed to encode chunks {} in {}", positions, path, e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!isOpen()) return;
+
+            int newSectorOffset = 0;
+            if (records != null) {
+                int totalSectors = records.readableBytes() / SECTOR_SIZE;
+                // Always allocate fresh sectors so the previous versions stay intact until the header is synced
+                newSectorOffset = allocator.allocate(totalSectors);
+                try {
+                    writeFully(records.nioBuffer(0, records.readableBytes()), (long) newSectorOffset * SECTOR_SIZE);
+                } catch (IOException e) {
+                    allocator.free(newSectorOffset, totalSectors);
+                    throw e;
+                }
+            }
+
+            boolean deleted = false;
+            for (int i = 0; i < sectorCounts.length; i++) {
+                int index = getIndex(positions.get(i));
+                int oldSectorOffset = chunkOffsets[index];
+                int sectorCount = sectorCounts[i];
 
-            int dataSize = data.readableBytes();
+                if (sectorCount == 0 && oldSectorOffset == 0) continue;
 
-            // ==========================================
-            // CASE 1: Deletion (Empty Data)
-            // ==========================================
-            if (dataSize == 0) {
                 if (oldSectorOffset != 0) {
-                    // 1. Mark previously used sectors as free
-                    for (int i = 0; i < oldSectorCount; i++) {
-                        usedSectors.clear(oldSectorOffset + i);
-                    }
+                    // Keep the old sectors reserved until the header no longer references them
+                    releaseSectorsAfterSync(oldSectorOffset, chunkSectorCounts[index]);
+                }
 
-                    // 2. Clear memory cache
+                if (sectorCount == 0) {
                     chunkOffsets[index] = 0;
                     chunkSectorCounts[index] = 0;
-
-                    // 3. Clear header entry on disk (write 0 for offset and 0 for count)
-                    ByteBuffer headerEntry = ByteBuffer.allocate(8);
-                    headerEntry.putInt(0); // Offset
-                    headerEntry.putInt(0); // Count
-                    headerEntry.flip();
-                    fileChannel.write(headerEntry, index * 8L);
-
-                    // 4. Check if the file is now completely empty
-                    checkAndPruneFile();
+                    deleted = true;
+                } else {
+                    chunkOffsets[index] = newSectorOffset;
+                    chunkSectorCounts[index] = sectorCount;
+                    newSectorOffset += sectorCount;
                 }
-                return;
+                headerDirty = true;
             }
 
-            // ==========================================
-            // CASE 2: Writing Data
-            // ==========================================
+            // Check if the file is now completely empty
+            if (deleted) {
+                checkAndPruneFile();
+            }
+        } catch (IOException e) {
+            VxMainClass.LOGGER.error("Failed to write chunks {} in {}", positions, path, e);
+        } finally {
+            lock.writeLock().unlock();
+            if (records != null) {
+                records.release();
+            }
+        }
+    }
 
-            // Calculate required sectors.
-            // Payload size + 4 bytes for length prefix.
-            int totalSize = dataSize + 4;
-            int sectorsNeeded = (totalSize + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    /**
+     * Encodes the entry records of all non-empty buffers into one pooled direct buffer.
+     * Each record is padded to whole sectors: {@code [Record Header] + [Payload] + [Padding]}.
+     *
+     * @param data         The buffers to encode.
+     * @param sectorCounts Receives the sector count of each record, or 0 for empty buffers.
+     * @return The records back to back, or null if all buffers are empty.
+     */
+    private static ByteBuf encodeRecords(List<ByteBuf> data, int[] sectorCounts) {
+        ByteBuf records = null;
+        CRC32C crc = new CRC32C();
+        try {
+            for (int i = 0; i < sectorCounts.length; i++) {
+                ByteBuf raw = data.get(i);
+                int rawLength = raw.readableBytes();
+                if (rawLength == 0) continue;
+
+                int bound = (int) Zstd.compressBound(rawLength);
+                int maxSectors = (RECORD_HEADER_SIZE + Math.max(bound, rawLength) + SECTOR_SIZE - 1) / SECTOR_SIZE;
+                if (records == null) {
+                    records = ByteBufAllocator.DEFAULT.directBuffer(maxSectors * SECTOR_SIZE);
+                }
+                records.ensureWritable(maxSectors * SECTOR_SIZE);
+
+                int start = records.writerIndex();
+                int payload = start + RECORD_HEADER_SIZE;
+
+                byte compression = COMPRESSION_NONE;
+                int storedLength = rawLength;
+                int compressed = compress(raw, records, payload, bound);
+                if (compressed > 0 && compressed < rawLength) {
+                    compression = COMPRESSION_ZSTD;
+                    storedLength = compressed;
+                } else {
+                    records.setBytes(payload, raw, raw.readerIndex(), rawLength);
+                }
 
-            int newSectorOffset;
+                crc.reset();
+                crc.update(records.nioBuffer(payload, storedLength));
 
-            // Strategy: Reuse existing sectors if the count matches exactly.
-            if (oldSectorOffset != 0 && oldSectorCount == sectorsNeeded) {
-                newSectorOffset = oldSectorOffset;
-            } else {
-                // Otherwise, free the old sectors and allocate a new block.
-                if (oldSectorOffset != 0) {
-                    for (int i = 0; i < oldSectorCount; i++) {
-                        usedSectors.clear(oldSectorOffset + i);
-                    }
-                }
-                newSectorOffset = allocateSectors(sectorsNeeded);
-            }
+                records.setInt(start, storedLength);
+                records.setByte(start + 4, compression);
+                records.setInt(start + 5, rawLength);
+                records.setInt(start + 9, (int) crc.getValue());
 
-            // Prepare the file buffer: [Length (4 bytes)] + [Data] + [Padding]
-            ByteBuffer fileBuffer = ByteBuffer.allocate(sectorsNeeded * SECTOR_SIZE);
-            fileBuffer.putInt(dataSize);
+                int sectors = (RECORD_HEADER_SIZE + storedLength + SECTOR_SIZE - 1) / SECTOR_SIZE;
+                int end = start + sectors * SECTOR_SIZE;
+                records.setZero(payload + storedLength, end - payload - storedLength);
+                records.writerIndex(end);
+                sectorCounts[i] = sectors;
+            }
+            return records;
+        } catch (RuntimeException e) {
+            if (records != null) {
+                records.release();
+            }
+            throw e;
+        }
+    }
 
-            // Transfer data from Netty ByteBuf to NIO ByteBuffer
-            int headerPos = fileBuffer.position();
-            fileBuffer.limit(headerPos + dataSize);
-            data.getBytes(data.readerIndex(), fileBuffer);
+    /**
+     * Compresses the readable bytes of the source into the destination at the given index.
+     *
+     * @return The compressed size, or -1 if compression failed.
+     */
+    private static int compress(ByteBuf source, ByteBuf destination, int index, int bound) {
+        int length = source.readableBytes();
+        // Zstd works on direct memory; copy heap buffers into a pooled direct buffer first
+        ByteBuf direct = source.isDirect() && source.nioBufferCount() == 1
+                ? source
+                : ByteBufAllocator.DEFAULT.directBuffer(length, length).writeBytes(source, source.readerIndex(), length);
+        try {
+            long size = Zstd.compressDirectByteBuffer(
+                    destination.nioBuffer(index, bound), 0, bound,
+                    direct.nioBuffer(direct.readerIndex(), length), 0, length,
+                    COMPRESSION_LEVEL);
+            return Zstd.isError(size) ? -1 : (int) size;
+        } finally {
+            if (direct != source) {
+                direct.release();
+            }
+        }
+    }
 
-            // Restore limit to write full sectors (padding included)
-            fileBuffer.limit(fileBuffer.capacity());
-            fileBuffer.position(0);
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += fileChannel.write(buffer, position);
+        }
+    }
 
-            // Write to disk
-            fileChannel.write(fileBuffer, (long) newSectorOffset * SECTOR_SIZE);
+    /**
+     * Reads until the buffer is full or the end of the file is reached.
+     *
+     * @return The number of bytes read.
+     */
+    private int readFully(ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = fileChannel.read(buffer, position + total);
+            if (read < 0) break;
+            total += read;
+        }
+        return total;
+    }
 
-            // Update Memory
-            chunkOffsets[index] = newSectorOffset;
-            chunkSectorCounts[index] = sectorsNeeded;
+    /**
+     * Makes all writes since the last sync durable.
+     * <p>
+     * Entry data is forced to disk before the location table that references it is written,
+     * and sectors replaced in the meantime are only released for reuse once the new table is durable.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void sync() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!isOpen() || !headerDirty) return;
 
-            // Update Header on disk (8 bytes)
-            ByteBuffer headerEntry = ByteBuffer.allocate(8);
-            headerEntry.putInt(newSectorOffset);
-            headerEntry.putInt(sectorsNeeded);
-            headerEntry.flip();
-            fileChannel.write(headerEntry, index * 8L);
+            fileChannel.force(false);
+            writeFully(encodeHeader(), 0);
+            fileChannel.force(false);
+            headerDirty = false;
 
-        } catch (IOException e) {
-            VxMainClass.LOGGER.error("Failed to write chunk {}", pos, e);
+            for (int i = 0; i < pendingFreeSectors.size(); i += 2) {
+                allocator.free(pendingFreeSectors.getInt(i), pendingFreeSectors.getInt(i + 1));
+            }
+            pendingFreeSectors.clear();
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
+    private void releaseSectorsAfterSync(int offset, int count) {
+        pendingFreeSectors.add(offset);
+        pendingFreeSectors.add(count);
+    }
+
     /**
-     * Scans the used sectors bitmap to find a continuous range of free sectors.
-     * Uses a "First Fit" algorithm.
+     * Converts a file in the legacy layout into the current format.
+     * <p>
+     * The legacy layout has an 8KB location table without magic or version, and stores each entry
+     * as {@code [Length (4)] [Payload]} without compression or checksum. All readable entries are
+     * rewritten into a temporary file, which then atomically replaces the original.
      *
-     * @param count The number of contiguous sectors required.
-     * @return The start sector index.
-     * @throws IOException If the file size calculation fails.
-     */
-    private int allocateSectors(int count) throws IOException {
-        int fileSectorCount = (int) (fileChannel.size() / SECTOR_SIZE);
-
-        // Start search after the header.
-        // Sectors 0 and 1 are reserved.
-        int searchStart = HEADER_SECTOR_COUNT;
-
-        // 1. Try to fill gaps within the existing file
-        for (int i = searchStart; i < fileSectorCount; i++) {
-            if (!usedSectors.get(i)) {
-                int run = 0;
-                for (int j = 0; j < count; j++) {
-                    if (i + j < fileSectorCount && !usedSectors.get(i + j)) {
-                        run++;
-                    } else {
-                        break;
-                    }
+     * @throws IOException If an I/O error occurs.
+     */
+    private void migrateLegacyFile() throws IOException {
+        VxMainClass.LOGGER.info("Migrating legacy region file {} to format version {}", path, FORMAT_VERSION);
+
+        ByteBuffer legacyHeader = ByteBuffer.allocate(LEGACY_HEADER_SIZE);
+        fileChannel.read(legacyHeader, 0);
+        legacyHeader.flip();
+
+        long fileSize = fileChannel.size();
+        Path tempPath = path.resolveSibling(path.getFileName() + ".migrating");
+        Files.deleteIfExists(tempPath);
+
+        int migrated = 0;
+        try (VxRegionFile target = new VxRegionFile(tempPath)) {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                int offset = legacyHeader.getInt();
+                int count = legacyHeader.getInt();
+                if (offset == 0 || count == 0) continue;
+
+                long start = (long) offset * SECTOR_SIZE;
+                if (offset < 2 || count < 0 || start + 4 > fileSize) {
+                    VxMainClass.LOGGER.warn("Skipping invalid legacy entry {} in {}", i, path);
+                    continue;
                 }
-                if (run == count) {
-                    for (int k = 0; k < count; k++) usedSectors.set(i + k);
-                    return i;
+
+                ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+                fileChannel.read(lengthBuffer, start);
+                lengthBuffer.flip();
+                int length = lengthBuffer.getInt();
+                if (length <= 0 || length > (long) count * SECTOR_SIZE || start + 4 + length > fileSize) {
+                    VxMainClass.LOGGER.warn("Skipping legacy entry {} in {} with invalid length {}", i, path, length);
+                    continue;
                 }
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                fileChannel.read(payload, start + 4);
+                payload.flip();
+
+                target.write(new ChunkPos(i & 31, i >> 5), Unpooled.wrappedBuffer(payload));
+                migrated++;
             }
+            target.sync();
         }
 
-        // 2. Append to end of file
-        int newOffset = fileSectorCount;
-
-        // Safety: Ensure we never overwrite the header if the file was truncated/corrupt
-        if (newOffset < HEADER_SECTOR_COUNT) {
-            newOffset = HEADER_SECTOR_COUNT;
+        fileChannel.close();
+        if (migrated == 0) {
+            // Nothing worth keeping; start with a fresh file
+            Files.deleteIfExists(tempPath);
+            Files.deleteIfExists(path);
+            this.fileChannel = openChannel(path);
+            writeHeader();
+            return;
         }
 
-        for (int k = 0; k < count; k++) usedSectors.set(newOffset + k);
-        return newOffset;
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.fileChannel = openChannel(path);
+        readHeader();
+        VxMainClass.LOGGER.info("Migrated {} chunk entries in {}", migrated, path);
     }
 
     /**
@@ -399,13 +797,20 @@ public class VxRegionFile implements AutoCloseable {
     }
 
     /**
-     * Closes the underlying file channel and forces any pending updates to disk.
+     * Syncs pending updates and closes the underlying file channel.
      */
     @Override
-    public synchronized void close() throws IOException {
-        if (fileChannel != null && fileChannel.isOpen()) {
-            fileChannel.force(true);
-            fileChannel.close();
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (fileChannel != null && fileChannel.isOpen()) {
+                sync();
+                fileChannel.force(true);
+                fileChannel.close();
+                mapping = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
-}
\ No newline at end of file
+}
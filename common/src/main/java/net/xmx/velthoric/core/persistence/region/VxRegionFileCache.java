@@ -17,33 +17,57 @@ import java.util.Map;
 /**
  * An LRU (Least Recently Used) cache for open {@link VxRegionFile} instances.
  * This prevents the application from exhausting file handles when many regions are accessed.
+ * <p>
+ * Evicting a file closes it, so a file obtained from the cache must not be used by one thread while another
+ * thread can evict it. {@link net.xmx.velthoric.core.persistence.VxChunkBasedStorage} therefore gives each
+ * I/O lane its own cache.
  *
  * @author xI-Mx-Ix
  */
 public class VxRegionFileCache {
 
-    private static final int MAX_OPEN_FILES = 64;
+    /**
+     * The default maximum number of open region files.
+     */
+    public static final int MAX_OPEN_FILES = 64;
+
     private final Path storageDirectory;
     private final String extension;
+    private final int maxOpenFiles;
 
-    private final Map<RegionPos, VxRegionFile> cache = new LinkedHashMap<>(MAX_OPEN_FILES, 0.75f, true) {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<RegionPos, VxRegionFile> eldest) {
-            if (size() > MAX_OPEN_FILES) {
-                try {
-                    eldest.getValue().close();
-                } catch (IOException e) {
-                    VxMainClass.LOGGER.error("Failed to close region file", e);
-                }
-                return true;
-            }
-            return false;
-        }
-    };
+    private final Map<RegionPos, VxRegionFile> cache;
 
     public VxRegionFileCache(Path storageDirectory, String extension) {
+        this(storageDirectory, extension, MAX_OPEN_FILES);
+    }
+
+    /**
+     * @param storageDirectory The directory containing the region files.
+     * @param extension        The file extension of the region files.
+     * @param maxOpenFiles     The maximum number of files kept open.
+     */
+    public VxRegionFileCache(Path storageDirectory, String extension, int maxOpenFiles) {
         this.storageDirectory = storageDirectory;
         this.extension = extension;
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+        this.cache = new LinkedHashMap<>(this.maxOpenFiles, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RegionPos, VxRegionFile> eldest) {
+                return evict(size(), eldest.getValue());
+            }
+        };
+    }
+
+    private boolean evict(int size, VxRegionFile eldest) {
+        if (size > maxOpenFiles) {
+            try {
+                eldest.close();
+            } catch (IOException e) {
+                VxMainClass.LOGGER.error("Failed to close region file", e);
+            }
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -86,6 +110,21 @@ public class VxRegionFileCache {
         return newFile;
     }
 
+    /**
+     * Makes all pending writes of the open region files durable.
+     *
+     * @see VxRegionFile#sync()
+     */
+    public synchronized void syncAll() {
+        for (VxRegionFile file : cache.values()) {
+            try {
+                file.sync();
+            } catch (IOException e) {
+                VxMainClass.LOGGER.error("Error syncing region file", e);
+            }
+        }
+    }
+
     public synchronized void closeAll() {
         for (VxRegionFile file : cache.values()) {
             try {
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.persistence.region;
+
+import it.unimi.dsi.fastutil.ints.Int2IntRBTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2IntSortedMap;
+import it.unimi.dsi.fastutil.longs.LongRBTreeSet;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+
+/**
+ * Tracks the free sectors of a {@link VxRegionFile} as a set of free extents.
+ * <p>
+ * Free extents are indexed by start sector, to merge neighbours when an extent is freed, and by length,
+ * to find the smallest extent that fits a request in logarithmic time. Requests that fit no free extent
+ * are appended at the end of the used area. An extent freed at the end of the used area shrinks it instead
+ * of being kept, so the file does not accumulate a free tail.
+ * <p>
+ * This class is not thread-safe; {@link VxRegionFile} guards it with its write lock.
+ *
+ * @author xI-Mx-Ix
+ */
+final class VxSectorAllocator {
+
+    /**
+     * Free extents: start sector to sector count.
+     */
+    private final Int2IntRBTreeMap freeByStart = new Int2IntRBTreeMap();
+
+    /**
+     * Free extents keyed as {@code (count << 32) | start}, ordered by size and then by position.
+     */
+    private final LongRBTreeSet freeBySize = new LongRBTreeSet();
+
+    /**
+     * The first sector after the used area.
+     */
+    private int endSector;
+
+    /**
+     * @param firstSector The first allocatable sector, directly after the file header.
+     */
+    VxSectorAllocator(int firstSector) {
+        this.endSector = firstSector;
+    }
+
+    /**
+     * Marks an existing extent as used while the location table is loaded.
+     * Extents must be claimed in ascending, non-overlapping order; the gap before each becomes free.
+     *
+     * @param offset The first sector of the extent, at or after the end of the previously claimed one.
+     * @param count  The number of sectors.
+     */
+    void claim(int offset, int count) {
+        if (offset > endSector) {
+            insert(endSector, offset - endSector);
+        }
+        endSector = offset + count;
+    }
+
+    /**
+     * Allocates a contiguous extent, preferring the smallest free extent that is large enough.
+     *
+     * @param count The number of sectors required.
+     * @return The first sector of the allocated extent.
+     */
+    int allocate(int count) {
+        LongSortedSet fits = freeBySize.tailSet((long) count << 32);
+        if (!fits.isEmpty()) {
+            long key = fits.firstLong();
+            int start = (int) key;
+            int length = (int) (key >>> 32);
+            remove(start, length);
+            if (length > count) {
+                insert(start + count, length - count);
+            }
+            return start;
+        }
+        int start = endSector;
+        endSector += count;
+        return start;
+    }
+
+    /**
+     * Returns an extent to the free set, merging it with adjacent free extents.
+     *
+     * @param offset The first sector of the extent.
+     * @param count  The number of sectors.
+     */
+    void free(int offset, int count) {
+        int start = offset;
+        int length = count;
+
+        Int2IntSortedMap before = freeByStart.headMap(start);
+        if (!before.isEmpty()) {
+            int previous = before.lastIntKey();
+            int previousLength = freeByStart.get(previous);
+            if (previous + previousLength == start) {
+                remove(previous, previousLength);
+                start = previous;
+                length += previousLength;
+            }
+        }
+
+        int next = start + length;
+        if (freeByStart.containsKey(next)) {
+            int nextLength = freeByStart.get(next);
+            remove(next, nextLength);
+            length += nextLength;
+        }
+
+        if (start + length >= endSector) {
+            endSector = start;
+        } else {
+            insert(start, length);
+        }
+    }
+
+    private void insert(int start, int length) {
+        freeByStart.put(start, length);
+        freeBySize.add(((long) length << 32) | start);
+    }
+
+    private void remove(int start, int length) {
+        freeByStart.remove(start);
+        freeBySize.remove(((long) length << 32) | start);
+    }
+}
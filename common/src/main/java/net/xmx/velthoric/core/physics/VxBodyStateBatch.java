@@ -0,0 +1,151 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.physics;
+
+import com.github.stephengold.joltjni.BatchBodyInterface;
+import com.github.stephengold.joltjni.Vec3;
+import com.github.stephengold.joltjni.enumerate.EMotionType;
+import com.github.stephengold.joltjni.readonly.ConstAaBox;
+import com.github.stephengold.joltjni.readonly.ConstBody;
+import com.github.stephengold.joltjni.readonly.ConstBodyIdArray;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Reads the simulation state of one batch of bodies from Jolt and copies it into the SoA data store.
+ * <p>
+ * {@link #fetch} issues one batched JNI call per property into the batch buffers of a
+ * {@link VxNativeBufferPool}; the copy methods then move the results of a single batch entry into a
+ * data store slot. The physics sync and its benchmark both go through this class, so changes to the
+ * batching are measured as they run in production.
+ * <p>
+ * Each pool owns one instance, obtained through {@link VxNativeBufferPool#getStateBatch()}; every
+ * {@link #fetch} overwrites the results of the previous batch. Physics thread only, like the pool buffers it uses.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxBodyStateBatch {
+
+    private static final EMotionType[] MOTION_TYPES = EMotionType.values();
+
+    private final ByteBuffer addedStates;
+    private final ByteBuffer activeStates;
+    private final DoubleBuffer positions;
+    private final FloatBuffer rotations;
+    private final FloatBuffer linearVelocities;
+    private final FloatBuffer angularVelocities;
+    private final ByteBuffer motionTypes;
+
+    /**
+     * Creates a batch reader backed by the batch buffers of the given pool.
+     *
+     * @param pool The native buffer pool of the physics world.
+     */
+    VxBodyStateBatch(VxNativeBufferPool pool) {
+        this.addedStates = pool.getBatchAddedStates();
+        this.activeStates = pool.getBatchActiveStates();
+        this.positions = pool.getBatchPositions();
+        this.rotations = pool.getBatchRotations();
+        this.linearVelocities = pool.getBatchLinearVelocities();
+        this.angularVelocities = pool.getBatchAngularVelocities();
+        this.motionTypes = pool.getBatchMotionTypes();
+    }
+
+    /**
+     * Reads the added and active states, transforms, velocities and motion types of a batch.
+     *
+     * @param bodyInterface The batch body interface of the physics system.
+     * @param ids           The body IDs of the batch, at most {@link VxNativeBufferPool#BATCH_SIZE}.
+     */
+    public void fetch(BatchBodyInterface bodyInterface, ConstBodyIdArray ids) {
+        addedStates.clear();
+        bodyInterface.areAdded(ids, addedStates);
+
+        activeStates.clear();
+        bodyInterface.areActive(ids, activeStates);
+
+        positions.clear();
+        bodyInterface.getPositions(ids, positions);
+
+        rotations.clear();
+        bodyInterface.getRotations(ids, rotations);
+
+        linearVelocities.clear();
+        bodyInterface.getLinearVelocities(ids, linearVelocities);
+
+        angularVelocities.clear();
+        bodyInterface.getAngularVelocities(ids, angularVelocities);
+
+        motionTypes.clear();
+        bodyInterface.getMotionTypes(ids, motionTypes);
+    }
+
+    /**
+     * @param b The position of the body in the fetched batch.
+     * @return True if the body is in the physics system.
+     */
+    public boolean isAdded(int b) {
+        return addedStates.get(b) != 0;
+    }
+
+    /**
+     * @param b The position of the body in the fetched batch.
+     * @return True if the body is awake.
+     */
+    public boolean isActive(int b) {
+        return activeStates.get(b) != 0;
+    }
+
+    /**
+     * Copies the transform, velocities and motion type of a fetched body into a data store slot.
+     *
+     * @param b The position of the body in the fetched batch.
+     * @param c The current data container.
+     * @param i The data store index of the body.
+     */
+    public void copyState(int b, VxServerBodyDataContainer c, int i) {
+        c.posX[i] = positions.get(b * 3);
+        c.posY[i] = positions.get(b * 3 + 1);
+        c.posZ[i] = positions.get(b * 3 + 2);
+
+        c.rotX[i] = rotations.get(b * 4);
+        c.rotY[i] = rotations.get(b * 4 + 1);
+        c.rotZ[i] = rotations.get(b * 4 + 2);
+        c.rotW[i] = rotations.get(b * 4 + 3);
+
+        c.velX[i] = linearVelocities.get(b * 3);
+        c.velY[i] = linearVelocities.get(b * 3 + 1);
+        c.velZ[i] = linearVelocities.get(b * 3 + 2);
+
+        c.angVelX[i] = angularVelocities.get(b * 3);
+        c.angVelY[i] = angularVelocities.get(b * 3 + 1);
+        c.angVelZ[i] = angularVelocities.get(b * 3 + 2);
+
+        c.motionType[i] = MOTION_TYPES[motionTypes.get(b)];
+    }
+
+    /**
+     * Copies the world-space bounds of a locked body into a data store slot.
+     *
+     * @param body The body, locked for reading.
+     * @param c    The current data container.
+     * @param i    The data store index of the body.
+     */
+    public static void copyBounds(ConstBody body, VxServerBodyDataContainer c, int i) {
+        ConstAaBox bounds = body.getWorldSpaceBounds();
+        Vec3 min = bounds.getMin();
+        Vec3 max = bounds.getMax();
+
+        c.aabbMinX[i] = min.getX();
+        c.aabbMinY[i] = min.getY();
+        c.aabbMinZ[i] = min.getZ();
+        c.aabbMaxX[i] = max.getX();
+        c.aabbMaxY[i] = max.getY();
+        c.aabbMaxZ[i] = max.getZ();
+    }
+}
@@ -23,6 +23,9 @@ import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * A singleton bridge that handles all direct interactions with the Jolt physics library.
@@ -126,32 +129,9 @@ public enum VxJoltBridge {
                 return;
             }
 
-            VxRigidBodyFactory factory = (shapeSettings, bcs) -> {
-                try (ShapeResult shapeResult = shapeSettings.create()) {
-                    if (shapeResult.hasError()) {
-                        throw new IllegalStateException("Shape creation failed: " + shapeResult.getError());
-                    }
-                    try (ShapeRefC shapeRef = shapeResult.get()) {
-                        VxServerBodyDataContainer c = dataStore.serverCurrent();
-                        int index = body.getDataStoreIndex();
-                        bcs.setShape(shapeRef);
-                        bcs.setPosition(c.posX[index], c.posY[index], c.posZ[index]);
-                        bcs.setRotation(new Quat(c.rotX[index], c.rotY[index], c.rotZ[index], c.rotW[index]));
-
-                        if (linearVelocity != null) bcs.setLinearVelocity(linearVelocity);
-                        if (angularVelocity != null) bcs.setAngularVelocity(angularVelocity);
-
-                        // Set the exact motion type requested by the body configuration
-                        bcs.setMotionType(motionType);
-
-                        // Ensure MotionProperties are created even for static bodies to allow
-                        // future state transitions and prevent native access violations.
-                        bcs.setAllowDynamicOrKinematic(true);
-
-                        return world.getPhysicsSystem().getBodyInterface().createAndAddBody(bcs, activation);
-                    }
-                }
-            };
+            BodyInterface bodyInterface = world.getPhysicsSystem().getBodyInterface();
+            VxRigidBodyFactory factory = rigidBodyFactory(body, dataStore, linearVelocity, angularVelocity, motionType,
+                    bcs -> bodyInterface.createAndAddBody(bcs, activation));
 
             int bodyId = provider.createJoltBody(body, factory);
 
@@ -171,6 +151,151 @@ public enum VxJoltBridge {
         }
     }
 
+    /**
+     * Creates rigid bodies for many wrappers and inserts them into the simulation in batches.
+     * <p>
+     * Adding bodies one at a time updates the broad phase once per body. Here the bodies are only created
+     * first, and then inserted with a single prepare/finalize pair per batch of up to
+     * {@link VxNativeBufferPool#BATCH_SIZE} bodies, which builds the broad phase nodes for the whole batch
+     * at once. Velocities and motion types are taken from the data store.
+     * A body that fails to be created is discarded without affecting the rest of the batch.
+     * Physics thread only, as the body ID arrays come from the world's {@link VxNativeBufferPool}.
+     *
+     * @param bodies     The body wrappers, already registered with the manager.
+     * @param manager    The body manager.
+     * @param activation The initial activation state of all bodies.
+     */
+    public void createAndAddJoltRigidBodies(List<VxBody> bodies, VxServerBodyManager manager, EActivation activation) {
+        if (bodies.isEmpty()) return;
+
+        VxPhysicsWorld world = manager.getPhysicsWorld();
+        VxServerBodyDataStore dataStore = manager.getDataStore();
+        BodyInterface bodyInterface = world.getPhysicsSystem().getBodyInterface();
+        VxNativeBufferPool pool = world.getNativeBuffers();
+
+        List<VxBody> batchBodies = new ArrayList<>(Math.min(bodies.size(), VxNativeBufferPool.BATCH_SIZE));
+        int[] batchIds = new int[VxNativeBufferPool.BATCH_SIZE];
+
+        for (VxBody body : bodies) {
+            int bodyId = createJoltRigidBody(body, manager, dataStore, bodyInterface);
+            if (bodyId == Jolt.cInvalidBodyId) continue;
+
+            batchIds[batchBodies.size()] = bodyId;
+            batchBodies.add(body);
+            if (batchBodies.size() == VxNativeBufferPool.BATCH_SIZE) {
+                addRigidBodyBatch(world, manager, pool, bodyInterface, batchBodies, batchIds, activation);
+                batchBodies.clear();
+            }
+        }
+
+        if (!batchBodies.isEmpty()) {
+            addRigidBodyBatch(world, manager, pool, bodyInterface, batchBodies, batchIds, activation);
+        }
+    }
+
+    /**
+     * Creates the Jolt body of one wrapper without adding it to the simulation.
+     *
+     * @return The ID of the created body, or {@link Jolt#cInvalidBodyId} if the body was discarded.
+     */
+    private int createJoltRigidBody(VxBody body, VxServerBodyManager manager, VxServerBodyDataStore dataStore, BodyInterface bodyInterface) {
+        try {
+            VxJoltRigidProvider provider = body.getType().getRigidProvider();
+            if (provider == null) {
+                VxMainClass.LOGGER.error("Body type {} has no rigid provider", body.getType().getTypeId());
+                manager.removeBody(body.getPhysicsId(), VxRemovalReason.DISCARD);
+                return Jolt.cInvalidBodyId;
+            }
+
+            VxServerBodyDataContainer c = dataStore.serverCurrent();
+            int index = body.getDataStoreIndex();
+            Vec3 linearVelocity = new Vec3(c.velX[index], c.velY[index], c.velZ[index]);
+            Vec3 angularVelocity = new Vec3(c.angVelX[index], c.angVelY[index], c.angVelZ[index]);
+
+            VxRigidBodyFactory factory = rigidBodyFactory(body, dataStore, linearVelocity, angularVelocity, c.motionType[index], bcs -> {
+                Body joltBody = bodyInterface.createBody(bcs);
+                return joltBody != null ? joltBody.getId() : Jolt.cInvalidBodyId;
+            });
+
+            int bodyId = provider.createJoltBody(body, factory);
+            if (bodyId == Jolt.cInvalidBodyId) {
+                VxMainClass.LOGGER.error("Jolt failed to create rigid body for {}", body.getPhysicsId());
+                manager.removeBody(body.getPhysicsId(), VxRemovalReason.DISCARD);
+            }
+            return bodyId;
+        } catch (Exception e) {
+            VxMainClass.LOGGER.error("Failed to create rigid body {}", body.getPhysicsId(), e);
+            manager.removeBody(body.getPhysicsId(), VxRemovalReason.DISCARD);
+            return Jolt.cInvalidBodyId;
+        }
+    }
+
+    /**
+     * Inserts one batch of created bodies into the broad phase and registers them.
+     * The prepare step reorders the ID array by layer, so the bodies are matched through their own IDs.
+     */
+    private void addRigidBodyBatch(VxPhysicsWorld world, VxServerBodyManager manager, VxNativeBufferPool pool, BodyInterface bodyInterface,
+                                   List<VxBody> batchBodies, int[] batchIds, EActivation activation) {
+        int count = batchBodies.size();
+        BodyIdArray ids = pool.getBodyIdArray(count);
+        for (int i = 0; i < count; i++) {
+            ids.set(i, batchIds[i]);
+        }
+
+        long addState = bodyInterface.addBodiesPrepare(ids, count);
+        bodyInterface.addBodiesFinalize(ids, count, addState, activation);
+
+        for (int i = 0; i < count; i++) {
+            VxBody body = batchBodies.get(i);
+            int bodyId = batchIds[i];
+            try {
+                body.setBodyId(bodyId);
+                manager.registerJoltBodyId(bodyId, body);
+                body.onBodyAdded(world);
+                world.getConstraintManager().getDataSystem().onDependencyLoaded(body.getPhysicsId());
+            } catch (Exception e) {
+                VxMainClass.LOGGER.error("Failed to register rigid body {}", body.getPhysicsId(), e);
+                manager.removeBody(body.getPhysicsId(), VxRemovalReason.DISCARD);
+            }
+        }
+    }
+
+    /**
+     * Builds the factory handed to a rigid provider. It resolves the shape and applies the stored transform,
+     * velocities and motion type before passing the settings to {@code creator}.
+     *
+     * @param creator Creates the Jolt body from the completed settings and returns its ID.
+     */
+    private VxRigidBodyFactory rigidBodyFactory(VxBody body, VxServerBodyDataStore dataStore, @Nullable Vec3 linearVelocity, @Nullable Vec3 angularVelocity,
+                                                EMotionType motionType, ToIntFunction<BodyCreationSettings> creator) {
+        return (shapeSettings, bcs) -> {
+            try (ShapeResult shapeResult = shapeSettings.create()) {
+                if (shapeResult.hasError()) {
+                    throw new IllegalStateException("Shape creation failed: " + shapeResult.getError());
+                }
+                try (ShapeRefC shapeRef = shapeResult.get()) {
+                    VxServerBodyDataContainer c = dataStore.serverCurrent();
+                    int index = body.getDataStoreIndex();
+                    bcs.setShape(shapeRef);
+                    bcs.setPosition(c.posX[index], c.posY[index], c.posZ[index]);
+                    bcs.setRotation(new Quat(c.rotX[index], c.rotY[index], c.rotZ[index], c.rotW[index]));
+
+                    if (linearVelocity != null) bcs.setLinearVelocity(linearVelocity);
+                    if (angularVelocity != null) bcs.setAngularVelocity(angularVelocity);
+
+                    // Set the exact motion type requested by the body configuration
+                    bcs.setMotionType(motionType);
+
+                    // Ensure MotionProperties are created even for static bodies to allow
+                    // future state transitions and prevent native access violations.
+                    bcs.setAllowDynamicOrKinematic(true);
+
+                    return creator.applyAsInt(bcs);
+                }
+            }
+        };
+    }
+
     /**
      * Creates and adds a soft body to the Jolt physics simulation.
      * <p>
@@ -276,17 +401,21 @@ public enum VxJoltBridge {
                 int numVertices = motionProps.getSettings().countVertices();
                 if (numVertices > 0) {
                     int bufferSize = numVertices * 3;
-                    FloatBuffer vertexBuffer = Jolt.newDirectFloatBuffer(bufferSize);
-
-                    // Retrieve vertex locations. We use the body's current center of mass position
-                    // to transform vertices into world space (assuming standard soft body behavior).
-                    RVec3 bodyPos = joltBody.getCenterOfMassPosition();
-                    motionProps.putVertexLocations(bodyPos, vertexBuffer);
-
-                    vertexBuffer.flip();
-                    float[] vertexArray = new float[bufferSize];
-                    vertexBuffer.get(vertexArray);
-                    return vertexArray;
+                    VxNativeBufferPool pool = world.getNativeBuffers();
+                    FloatBuffer vertexBuffer = pool.borrowVertexBuffer(bufferSize);
+                    try {
+                        // Retrieve vertex locations. We use the body's current center of mass position
+                        // to transform vertices into world space (assuming standard soft body behavior).
+                        RVec3 bodyPos = joltBody.getCenterOfMassPosition();
+                        motionProps.putVertexLocations(bodyPos, vertexBuffer);
+
+                        vertexBuffer.flip();
+                        float[] vertexArray = new float[bufferSize];
+                        vertexBuffer.get(vertexArray);
+                        return vertexArray;
+                    } finally {
+                        pool.returnVertexBuffer(vertexBuffer);
+                    }
                 }
             }
         }
@@ -0,0 +1,191 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.physics;
+
+import com.github.stephengold.joltjni.BodyIdArray;
+import com.github.stephengold.joltjni.Jolt;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reusable native memory for batched Jolt access, owned by a single physics world.
+ * <p>
+ * Batched JNI calls need a {@link BodyIdArray} of the exact batch length (a multi-body lock covers every
+ * entry of the array) and direct NIO buffers to receive the results. Allocating them per batch creates
+ * native memory that is only reclaimed by cleaners, so this pool keeps them for the lifetime of the world:
+ * <ul>
+ *     <li><b>Body ID arrays</b> are cached per length, from 1 to {@link #BATCH_SIZE}, and reused by every batch
+ *     of that length, including the varying tail batch.</li>
+ *     <li><b>Batch buffers</b> hold the per-body results of one batch of up to {@link #BATCH_SIZE} bodies.
+ *     The {@link VxBodyStateBatch} that fills them is kept alongside.</li>
+ *     <li><b>Vertex buffers</b> are lent out for soft body vertex extraction and grow to the largest request.</li>
+ * </ul>
+ * Everything except the vertex buffers is confined to the physics thread, and each array or buffer may only be
+ * used by one batch at a time. The vertex buffers may be borrowed from any thread.
+ * All resources are allocated lazily and the body ID arrays are freed by {@link #close()}.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxNativeBufferPool {
+
+    /**
+     * The maximum number of bodies processed in a single JNI batch operation.
+     */
+    public static final int BATCH_SIZE = 512;
+
+    private final BodyIdArray[] bodyIdArrays = new BodyIdArray[BATCH_SIZE + 1];
+
+    private DoubleBuffer positions;
+    private FloatBuffer rotations;
+    private FloatBuffer linearVelocities;
+    private FloatBuffer angularVelocities;
+    private ByteBuffer addedStates;
+    private ByteBuffer activeStates;
+    private ByteBuffer motionTypes;
+    private VxBodyStateBatch stateBatch;
+
+    /**
+     * The idle vertex buffer, or null while it is borrowed.
+     */
+    private final AtomicReference<FloatBuffer> vertexBuffer = new AtomicReference<>();
+
+    /**
+     * Returns the cached body ID array of the given length. Physics thread only.
+     *
+     * @param length The number of IDs, from 1 to {@link #BATCH_SIZE}.
+     * @return A reusable array of exactly that length. Its previous contents are undefined.
+     */
+    public BodyIdArray getBodyIdArray(int length) {
+        if (length < 1 || length > BATCH_SIZE) {
+            throw new IllegalArgumentException("Body ID array length must be between 1 and " + BATCH_SIZE + ": " + length);
+        }
+        BodyIdArray array = bodyIdArrays[length];
+        if (array == null) {
+            array = new BodyIdArray(length);
+            bodyIdArrays[length] = array;
+        }
+        return array;
+    }
+
+    /**
+     * @return A buffer for the positions (x, y, z) of one batch. Physics thread only.
+     */
+    public DoubleBuffer getBatchPositions() {
+        if (positions == null) positions = Jolt.newDirectDoubleBuffer(BATCH_SIZE * 3);
+        return positions;
+    }
+
+    /**
+     * @return A buffer for the rotations (x, y, z, w) of one batch. Physics thread only.
+     */
+    public FloatBuffer getBatchRotations() {
+        if (rotations == null) rotations = Jolt.newDirectFloatBuffer(BATCH_SIZE * 4);
+        return rotations;
+    }
+
+    /**
+     * @return A buffer for the linear velocities (x, y, z) of one batch. Physics thread only.
+     */
+    public FloatBuffer getBatchLinearVelocities() {
+        if (linearVelocities == null) linearVelocities = Jolt.newDirectFloatBuffer(BATCH_SIZE * 3);
+        return linearVelocities;
+    }
+
+    /**
+     * @return A buffer for the angular velocities (x, y, z) of one batch. Physics thread only.
+     */
+    public FloatBuffer getBatchAngularVelocities() {
+        if (angularVelocities == null) angularVelocities = Jolt.newDirectFloatBuffer(BATCH_SIZE * 3);
+        return angularVelocities;
+    }
+
+    /**
+     * @return A buffer for the added flags of one batch. Physics thread only.
+     */
+    public ByteBuffer getBatchAddedStates() {
+        if (addedStates == null) addedStates = Jolt.newDirectByteBuffer(BATCH_SIZE);
+        return addedStates;
+    }
+
+    /**
+     * @return A buffer for the active flags of one batch. Physics thread only.
+     */
+    public ByteBuffer getBatchActiveStates() {
+        if (activeStates == null) activeStates = Jolt.newDirectByteBuffer(BATCH_SIZE);
+        return activeStates;
+    }
+
+    /**
+     * @return A buffer for the motion types of one batch. Physics thread only.
+     */
+    public ByteBuffer getBatchMotionTypes() {
+        if (motionTypes == null) motionTypes = Jolt.newDirectByteBuffer(BATCH_SIZE);
+        return motionTypes;
+    }
+
+    /**
+     * @return The state reader over the batch buffers of this pool. Physics thread only.
+     */
+    public VxBodyStateBatch getStateBatch() {
+        if (stateBatch == null) stateBatch = new VxBodyStateBatch(this);
+        return stateBatch;
+    }
+
+    /**
+     * Borrows a direct float buffer for vertex extraction. Safe to call from any thread.
+     * The buffer must be handed back via {@link #returnVertexBuffer(FloatBuffer)}.
+     *
+     * @param minCapacity The number of floats required.
+     * @return A cleared buffer with at least the requested capacity and its limit set to {@code minCapacity}.
+     */
+    public FloatBuffer borrowVertexBuffer(int minCapacity) {
+        FloatBuffer buffer = vertexBuffer.getAndSet(null);
+        if (buffer == null || buffer.capacity() < minCapacity) {
+            // Contended or too small: allocate with headroom, so steady-state sizes are reused
+            buffer = Jolt.newDirectFloatBuffer(Math.max(1024, Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1));
+        }
+        buffer.clear();
+        buffer.limit(minCapacity);
+        return buffer;
+    }
+
+    /**
+     * Hands back a buffer obtained from {@link #borrowVertexBuffer(int)}.
+     *
+     * @param buffer The borrowed buffer.
+     */
+    public void returnVertexBuffer(FloatBuffer buffer) {
+        // Keep the larger of the idle and the returned buffer
+        FloatBuffer idle = vertexBuffer.get();
+        if (idle == null || idle.capacity() < buffer.capacity()) {
+            vertexBuffer.compareAndSet(idle, buffer);
+        }
+    }
+
+    /**
+     * Frees the native body ID arrays and drops the buffers. The pool allocates anew if it is used afterwards.
+     * Must be called from the physics thread, after the last batch.
+     */
+    public void close() {
+        for (int i = 0; i < bodyIdArrays.length; i++) {
+            if (bodyIdArrays[i] != null) {
+                bodyIdArrays[i].close();
+                bodyIdArrays[i] = null;
+            }
+        }
+        positions = null;
+        rotations = null;
+        linearVelocities = null;
+        angularVelocities = null;
+        addedStates = null;
+        activeStates = null;
+        motionTypes = null;
+        stateBatch = null;
+        vertexBuffer.set(null);
+    }
+}
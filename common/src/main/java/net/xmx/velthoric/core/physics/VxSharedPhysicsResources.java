@@ -0,0 +1,142 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.physics;
+
+import com.github.stephengold.joltjni.Jolt;
+import com.github.stephengold.joltjni.JobSystem;
+import com.github.stephengold.joltjni.JobSystemThreadPool;
+import com.github.stephengold.joltjni.TempAllocator;
+import com.github.stephengold.joltjni.TempAllocatorImpl;
+import net.xmx.velthoric.init.VxMainClass;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Process-wide Jolt execution resources shared by all physics worlds.
+ * <p>
+ * Without sharing, every dimension creates its own worker pool (sized to almost all cores) and its own
+ * temp allocator, so a server with several loaded dimensions oversubscribes the CPU and reserves native
+ * memory per dimension. With sharing enabled, all worlds submit their update jobs to a single
+ * {@link JobSystemThreadPool} and borrow a temp allocator from a small pool for the duration of a step.
+ * <p>
+ * <b>Scheduling:</b> At most {@code maxConcurrentUpdates} worlds step at the same time. Further worlds wait
+ * on a fair semaphore, so steps are granted in arrival order and no dimension can starve the others.
+ * Each permit is paired with exactly one temp allocator, since a Jolt temp allocator must not be used
+ * by two updates at once.
+ * <p>
+ * <b>Configuration</b> (JVM system properties):
+ * <ul>
+ *     <li>{@code velthoric.physics.sharedJobSystem} - {@code false} restores one job system and temp allocator per world.</li>
+ *     <li>{@code velthoric.physics.maxConcurrentUpdates} - the number of worlds that may step concurrently (default 2).</li>
+ * </ul>
+ * The resources are reference-counted: they are created by the first world that starts and destroyed
+ * when the last world shuts down.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxSharedPhysicsResources {
+
+    /**
+     * Whether worlds should use the shared resources instead of creating their own.
+     */
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("velthoric.physics.sharedJobSystem"));
+
+    /**
+     * The size of each temp allocator, matching the previous per-world allocator.
+     */
+    public static final int TEMP_ALLOCATOR_SIZE = 64 * 1024 * 1024; // 64MB
+
+    private static final int MAX_CONCURRENT_UPDATES = Math.max(1, Integer.getInteger("velthoric.physics.maxConcurrentUpdates", 2));
+
+    private static VxSharedPhysicsResources instance;
+    private static int referenceCount = 0;
+
+    private final JobSystemThreadPool jobSystem;
+    private final ConcurrentLinkedQueue<TempAllocator> tempAllocators = new ConcurrentLinkedQueue<>();
+    private final Semaphore updatePermits = new Semaphore(MAX_CONCURRENT_UPDATES, true);
+
+    private VxSharedPhysicsResources() {
+        int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        // Every concurrent update needs its own barrier, so reserve them per permit
+        int maxBarriers = Jolt.cMaxPhysicsBarriers * MAX_CONCURRENT_UPDATES;
+        int maxJobs = Jolt.cMaxPhysicsJobs * MAX_CONCURRENT_UPDATES;
+        this.jobSystem = new JobSystemThreadPool(maxJobs, maxBarriers, numThreads);
+        for (int i = 0; i < MAX_CONCURRENT_UPDATES; i++) {
+            this.tempAllocators.add(new TempAllocatorImpl(TEMP_ALLOCATOR_SIZE));
+        }
+        VxMainClass.LOGGER.debug("Created shared physics job system with {} threads and {} temp allocators.", numThreads, MAX_CONCURRENT_UPDATES);
+    }
+
+    /**
+     * Acquires a reference to the shared resources, creating them if necessary.
+     * Every call must be paired with a call to {@link #release()}.
+     *
+     * @return The shared resources.
+     */
+    public static synchronized VxSharedPhysicsResources acquire() {
+        if (instance == null) {
+            instance = new VxSharedPhysicsResources();
+        }
+        referenceCount++;
+        return instance;
+    }
+
+    /**
+     * Releases a reference obtained from {@link #acquire()}. The native resources are
+     * destroyed once no world holds a reference anymore.
+     */
+    public void release() {
+        synchronized (VxSharedPhysicsResources.class) {
+            if (instance != this || --referenceCount > 0) {
+                return;
+            }
+            instance = null;
+            referenceCount = 0;
+        }
+
+        jobSystem.close();
+        TempAllocator allocator;
+        while ((allocator = tempAllocators.poll()) != null) {
+            allocator.close();
+        }
+        VxMainClass.LOGGER.debug("Destroyed shared physics job system.");
+    }
+
+    /**
+     * @return The shared job system.
+     */
+    public JobSystem getJobSystem() {
+        return jobSystem;
+    }
+
+    /**
+     * Waits for an update slot and borrows a temp allocator for a single physics step.
+     * Slots are granted in arrival order.
+     *
+     * @return The borrowed temp allocator, which must be returned via {@link #endUpdate(TempAllocator)}.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public TempAllocator beginUpdate() throws InterruptedException {
+        updatePermits.acquire();
+        TempAllocator allocator = tempAllocators.poll();
+        if (allocator == null) {
+            // Cannot happen while every permit is paired with an allocator
+            updatePermits.release();
+            throw new IllegalStateException("No temp allocator available for a granted update slot.");
+        }
+        return allocator;
+    }
+
+    /**
+     * Returns a temp allocator borrowed via {@link #beginUpdate()} and frees the update slot.
+     *
+     * @param allocator The borrowed temp allocator.
+     */
+    public void endUpdate(TempAllocator allocator) {
+        tempAllocators.add(allocator);
+        updatePermits.release();
+    }
+}
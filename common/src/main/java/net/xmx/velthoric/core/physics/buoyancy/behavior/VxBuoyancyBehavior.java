@@ -102,7 +102,7 @@ public class VxBuoyancyBehavior implements VxBehavior {
         }
 
         ConstBodyLockInterface lockInterface = world.getPhysicsSystem().getBodyLockInterfaceNoLock();
-        narrowPhase.applyForces(lockInterface, VxPhysicsWorld.getFixedTimeStep(), readingBuffer);
+        narrowPhase.applyForces(lockInterface, world.getTimeStep(), readingBuffer);
     }
 
     /**
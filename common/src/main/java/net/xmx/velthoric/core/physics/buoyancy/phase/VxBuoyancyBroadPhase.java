@@ -14,6 +14,7 @@ import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 import net.minecraft.world.level.material.FlowingFluid;
+import net.xmx.velthoric.core.behavior.VxBehaviorManager;
 import net.xmx.velthoric.core.physics.buoyancy.behavior.VxBuoyancyBehavior;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
@@ -23,8 +24,6 @@ import net.xmx.velthoric.core.physics.buoyancy.VxFluidType;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import org.joml.Vector3f;
 
-import java.util.UUID;
-
 /**
  * Handles the broad-phase of buoyancy detection on the main game thread.
  * <p>
@@ -93,175 +92,175 @@ public final class VxBuoyancyBroadPhase {
      * @param dataStore The data store to be populated with fluid contacts.
      */
     public void findPotentialFluidContacts(VxBuoyancyDataStore dataStore) {
-        VxServerBodyDataStore ds = physicsWorld.getBodyManager().getDataStore();
-        VxServerBodyDataContainer c = ds.serverCurrent();
-
         // Reusable mutable position used for volume iteration.
         BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
 
-        int capacity = c.getCapacity();
-
-        for (int i = 0; i < capacity; ++i) {
+        VxServerBodyDataStore ds = physicsWorld.getBodyManager().getDataStore();
+        VxBehaviorManager.forEachWithBehavior(ds, VxBuoyancyBehavior.ID, (c, i, body) -> {
             // Static bodies or inactive slots are ignored.
-            if (c.motionType[i] == EMotionType.Static || ds.getIdForIndex(i) == null || !c.isActive[i]) {
-                continue;
-            }
-            if ((c.behaviorBits[i] & VxBuoyancyBehavior.ID.getMask()) == 0) continue;
-
-            // Retrieve world-space bounds from the data store.
-            float minX = c.aabbMinX[i];
-            float minY = c.aabbMinY[i];
-            float minZ = c.aabbMinZ[i];
-            float maxX = c.aabbMaxX[i];
-            float maxY = c.aabbMaxY[i];
-            float maxZ = c.aabbMaxZ[i];
-
-            int minBlockX, maxBlockX;
-            int minBlockY, maxBlockY;
-            int minBlockZ, maxBlockZ;
-
-            float bottomThreshold;
-
-            // Determine if the bounding box is large enough for a valid scan.
-            boolean hasValidAABB = (maxX - minX) > 1e-4f && (maxY - minY) > 1e-4f && (maxZ - minZ) > 1e-4f;
-
-            if (hasValidAABB) {
-                // Use the precise physics bounding box for block coordinate calculation.
-                minBlockX = (int) Math.floor(minX);
-                maxBlockX = (int) Math.floor(maxX);
-                minBlockY = (int) Math.floor(minY);
-                maxBlockY = (int) Math.floor(maxY);
-                minBlockZ = (int) Math.floor(minZ);
-                maxBlockZ = (int) Math.floor(maxZ);
-                bottomThreshold = minY;
-            } else {
-                // Use a default radius if the bounding box is not yet initialized.
-                double posX = c.posX[i];
-                double posY = c.posY[i];
-                double posZ = c.posZ[i];
-
-                minBlockX = (int) Math.floor(posX - SCAN_RADIUS);
-                maxBlockX = (int) Math.floor(posX + SCAN_RADIUS);
-                minBlockY = (int) Math.floor(posY - SCAN_RADIUS);
-                maxBlockY = (int) Math.floor(posY + SCAN_RADIUS);
-                minBlockZ = (int) Math.floor(posZ - SCAN_RADIUS);
-                maxBlockZ = (int) Math.floor(posZ + SCAN_RADIUS);
-                bottomThreshold = (float) posY - SCAN_RADIUS;
+            if (c.motionType[i] != EMotionType.Static && c.isActive[i]) {
+                scanBody(dataStore, c, i, body, mutablePos);
             }
+        });
+    }
+
+    /**
+     * Scans the fluid columns covered by a single body and records a contact if it is submerged.
+     *
+     * @param dataStore  The data store to be populated with fluid contacts.
+     * @param c          The current body data container.
+     * @param i          The data store index of the body.
+     * @param body       The body.
+     * @param mutablePos A reusable mutable position for volume iteration.
+     */
+    private void scanBody(VxBuoyancyDataStore dataStore, VxServerBodyDataContainer c, int i, VxBody body, BlockPos.MutableBlockPos mutablePos) {
+        // Retrieve world-space bounds from the data store.
+        float minX = c.aabbMinX[i];
+        float minY = c.aabbMinY[i];
+        float minZ = c.aabbMinZ[i];
+        float maxX = c.aabbMaxX[i];
+        float maxY = c.aabbMaxY[i];
+        float maxZ = c.aabbMaxZ[i];
+
+        int minBlockX, maxBlockX;
+        int minBlockY, maxBlockY;
+        int minBlockZ, maxBlockZ;
+
+        float bottomThreshold;
+
+        // Determine if the bounding box is large enough for a valid scan.
+        boolean hasValidAABB = (maxX - minX) > 1e-4f && (maxY - minY) > 1e-4f && (maxZ - minZ) > 1e-4f;
+
+        if (hasValidAABB) {
+            // Use the precise physics bounding box for block coordinate calculation.
+            minBlockX = (int) Math.floor(minX);
+            maxBlockX = (int) Math.floor(maxX);
+            minBlockY = (int) Math.floor(minY);
+            maxBlockY = (int) Math.floor(maxY);
+            minBlockZ = (int) Math.floor(minZ);
+            maxBlockZ = (int) Math.floor(maxZ);
+            bottomThreshold = minY;
+        } else {
+            // Use a default radius if the bounding box is not yet initialized.
+            double posX = c.posX[i];
+            double posY = c.posY[i];
+            double posZ = c.posZ[i];
+
+            minBlockX = (int) Math.floor(posX - SCAN_RADIUS);
+            maxBlockX = (int) Math.floor(posX + SCAN_RADIUS);
+            minBlockY = (int) Math.floor(posY - SCAN_RADIUS);
+            maxBlockY = (int) Math.floor(posY + SCAN_RADIUS);
+            minBlockZ = (int) Math.floor(posZ - SCAN_RADIUS);
+            maxBlockZ = (int) Math.floor(posZ + SCAN_RADIUS);
+            bottomThreshold = (float) posY - SCAN_RADIUS;
+        }
 
-            float totalSurfaceHeight = 0;
-            float sumX = 0;
-            float sumZ = 0;
-
-            int fluidColumnCount = 0;
-            int totalScannedColumns = 0;
-            VxFluidType detectedType = null;
-
-            // Iterate through every block column covered by the body.
-            for (int x = minBlockX; x <= maxBlockX; ++x) {
-                for (int z = minBlockZ; z <= maxBlockZ; ++z) {
-                    totalScannedColumns++;
-
-                    // Retrieve chunk data directly to avoid blocking or heavy queries.
-                    ChunkAccess chunk = this.level.getChunkSource().getChunkNow(x >> 4, z >> 4);
-                    if (chunk == null) continue;
-
-                    float foundHeight = -1;
-
-                    // Check the top-most point for submersion.
-                    FluidState topFluid = getFluidStateFromContainer(chunk, x, maxBlockY, z);
-
-                    if (!topFluid.isEmpty()) {
-                        // Scan upwards to find the true surface if the body is fully under fluid.
-                        foundHeight = findSurfaceUpwards(chunk, x, maxBlockY, z, mutablePos);
-                        if (detectedType == null) detectedType = getFluidTypeFromState(topFluid);
-                    } else {
-                        // Scan downwards within the volume to find the fluid surface.
-                        for (int y = maxBlockY - 1; y >= minBlockY; --y) {
-                            FluidState fluidState = getFluidStateFromContainer(chunk, x, y, z);
-                            if (!fluidState.isEmpty()) {
-                                mutablePos.set(x, y, z);
-                                foundHeight = y + fluidState.getHeight(level, mutablePos);
-                                if (detectedType == null) detectedType = getFluidTypeFromState(fluidState);
-                                break;
-                            }
+        float totalSurfaceHeight = 0;
+        float sumX = 0;
+        float sumZ = 0;
+
+        int fluidColumnCount = 0;
+        int totalScannedColumns = 0;
+        VxFluidType detectedType = null;
+
+        // Iterate through every block column covered by the body.
+        for (int x = minBlockX; x <= maxBlockX; ++x) {
+            for (int z = minBlockZ; z <= maxBlockZ; ++z) {
+                totalScannedColumns++;
+
+                // Retrieve chunk data directly to avoid blocking or heavy queries.
+                ChunkAccess chunk = this.level.getChunkSource().getChunkNow(x >> 4, z >> 4);
+                if (chunk == null) continue;
+
+                float foundHeight = -1;
+
+                // Check the top-most point for submersion.
+                FluidState topFluid = getFluidStateFromContainer(chunk, x, maxBlockY, z);
+
+                if (!topFluid.isEmpty()) {
+                    // Scan upwards to find the true surface if the body is fully under fluid.
+                    foundHeight = findSurfaceUpwards(chunk, x, maxBlockY, z, mutablePos);
+                    if (detectedType == null) detectedType = getFluidTypeFromState(topFluid);
+                } else {
+                    // Scan downwards within the volume to find the fluid surface.
+                    for (int y = maxBlockY - 1; y >= minBlockY; --y) {
+                        FluidState fluidState = getFluidStateFromContainer(chunk, x, y, z);
+                        if (!fluidState.isEmpty()) {
+                            mutablePos.set(x, y, z);
+                            foundHeight = y + fluidState.getHeight(level, mutablePos);
+                            if (detectedType == null) detectedType = getFluidTypeFromState(fluidState);
+                            break;
                         }
                     }
+                }
 
-                    if (foundHeight != -1) {
-                        totalSurfaceHeight += foundHeight;
-                        sumX += x + 0.5f;
-                        sumZ += z + 0.5f;
-                        fluidColumnCount++;
-                    }
+                if (foundHeight != -1) {
+                    totalSurfaceHeight += foundHeight;
+                    sumX += x + 0.5f;
+                    sumZ += z + 0.5f;
+                    fluidColumnCount++;
                 }
             }
+        }
 
-            if (fluidColumnCount > 0 && detectedType != null) {
-                float baseSurfaceHeight = totalSurfaceHeight / fluidColumnCount;
-
-                // Ensure the surface is high enough to affect the body.
-                if (baseSurfaceHeight > bottomThreshold) {
-                    float areaFraction = (float) fluidColumnCount / totalScannedColumns;
-                    float centerX = sumX / fluidColumnCount;
-                    float centerZ = sumZ / fluidColumnCount;
-
-                    float averageSurfaceHeight = getSmoothSurfaceHeight(centerX, centerZ, (int) Math.floor(baseSurfaceHeight));
-
-                    // Surface Normal calculation via Central Difference Gradient
-                    float eps = 0.5f;
-                    int baseY = (int) Math.floor(baseSurfaceHeight);
-                    float hL = getSmoothSurfaceHeight(centerX - eps, centerZ, baseY);
-                    float hR = getSmoothSurfaceHeight(centerX + eps, centerZ, baseY);
-                    float hD = getSmoothSurfaceHeight(centerX, centerZ - eps, baseY);
-                    float hU = getSmoothSurfaceHeight(centerX, centerZ + eps, baseY);
-
-                    float nx = hL - hR;
-                    float ny = 2.0f * eps;
-                    float nz = hD - hU;
-
-                    // Cap horizontal slope to prevent sheer waterfall edges from pushing bodies 100% sideways
-                    float horizontalSq = nx * nx + nz * nz;
-                    if (horizontalSq > ny * ny) {
-                        float scale = ny / (float) Math.sqrt(horizontalSq);
-                        nx *= scale;
-                        nz *= scale;
-                    }
-
-                    float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
-                    if (len > 0) {
-                        nx /= len;
-                        ny /= len;
-                        nz /= len;
-                    } else {
-                        nx = 0f; ny = 1f; nz = 0f;
-                    }
+        if (fluidColumnCount > 0 && detectedType != null) {
+            float baseSurfaceHeight = totalSurfaceHeight / fluidColumnCount;
+
+            // Ensure the surface is high enough to affect the body.
+            if (baseSurfaceHeight > bottomThreshold) {
+                float areaFraction = (float) fluidColumnCount / totalScannedColumns;
+                float centerX = sumX / fluidColumnCount;
+                float centerZ = sumZ / fluidColumnCount;
+
+                float averageSurfaceHeight = getSmoothSurfaceHeight(centerX, centerZ, (int) Math.floor(baseSurfaceHeight));
+
+                // Surface Normal calculation via Central Difference Gradient
+                float eps = 0.5f;
+                int baseY = (int) Math.floor(baseSurfaceHeight);
+                float hL = getSmoothSurfaceHeight(centerX - eps, centerZ, baseY);
+                float hR = getSmoothSurfaceHeight(centerX + eps, centerZ, baseY);
+                float hD = getSmoothSurfaceHeight(centerX, centerZ - eps, baseY);
+                float hU = getSmoothSurfaceHeight(centerX, centerZ + eps, baseY);
+
+                float nx = hL - hR;
+                float ny = 2.0f * eps;
+                float nz = hD - hU;
+
+                // Cap horizontal slope to prevent sheer waterfall edges from pushing bodies 100% sideways
+                float horizontalSq = nx * nx + nz * nz;
+                if (horizontalSq > ny * ny) {
+                    float scale = ny / (float) Math.sqrt(horizontalSq);
+                    nx *= scale;
+                    nz *= scale;
+                }
 
-                    // Sample the fluid flow at the calculated center of buoyancy.
-                    mutablePos.set(centerX, averageSurfaceHeight - 0.5f, centerZ);
-                    computeFlowLowAlloc(level, mutablePos, level.getFluidState(mutablePos), flowVector);
-
-                    UUID id = ds.getIdForIndex(i);
-                    if (id != null) {
-                        VxBody vxBody = physicsWorld.getBodyManager().getVxBody(id);
-                        if (vxBody != null) {
-                            dataStore.add(
-                                    vxBody.getBodyId(),
-                                    averageSurfaceHeight,
-                                    detectedType,
-                                    areaFraction,
-                                    centerX,
-                                    centerZ,
-                                    flowVector.x(),
-                                    flowVector.y(),
-                                    flowVector.z(),
-                                    nx,
-                                    ny,
-                                    nz
-                            );
-                        }
-                    }
+                float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (len > 0) {
+                    nx /= len;
+                    ny /= len;
+                    nz /= len;
+                } else {
+                    nx = 0f; ny = 1f; nz = 0f;
                 }
+
+                // Sample the fluid flow at the calculated center of buoyancy.
+                mutablePos.set(centerX, averageSurfaceHeight - 0.5f, centerZ);
+                computeFlowLowAlloc(level, mutablePos, level.getFluidState(mutablePos), flowVector);
+
+                dataStore.add(
+                        body.getBodyId(),
+                        averageSurfaceHeight,
+                        detectedType,
+                        areaFraction,
+                        centerX,
+                        centerZ,
+                        flowVector.x(),
+                        flowVector.y(),
+                        flowVector.z(),
+                        nx,
+                        ny,
+                        nz
+                );
             }
         }
     }
@@ -6,6 +6,7 @@ package net.xmx.velthoric.core.physics.buoyancy.phase;
 
 import com.github.stephengold.joltjni.*;
 import com.github.stephengold.joltjni.readonly.ConstBodyLockInterface;
+import net.xmx.velthoric.core.physics.VxNativeBufferPool;
 import net.xmx.velthoric.core.physics.buoyancy.VxBuoyancyDataStore;
 import net.xmx.velthoric.core.physics.buoyancy.VxFluidType;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
@@ -21,22 +22,11 @@ import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
  */
 public final class VxBuoyancyNarrowPhase {
 
-    /**
-     * Number of bodies processed in a single JNI batch operation.
-     */
-    private static final int BATCH_SIZE = 512;
-
     /**
      * The physics world instance containing the simulation context.
      */
     private final VxPhysicsWorld physicsWorld;
 
-    /**
-     * Reusable native array for collecting body IDs for batching.
-     * This prevents per-batch allocations and reduces garbage collector pressure.
-     */
-    private final ThreadLocal<BodyIdArray> batchBodyIds = ThreadLocal.withInitial(() -> new BodyIdArray(BATCH_SIZE));
-
     /**
      * Reusable mutable vector used to store the fluid surface position for buoyancy calculations.
      * Thread-local to ensure safety during multi-threaded physics ticks.
@@ -84,18 +74,13 @@ public final class VxBuoyancyNarrowPhase {
         final RVec3 surfacePosition = tempSurfacePos.get();
         final Vec3 surfaceNormal = tempSurfaceNormal.get();
         final Vec3 fluidVelocity = tempFluidVelocity.get();
-        final BodyIdArray localBatchIds = batchBodyIds.get();
+        final VxNativeBufferPool pool = physicsWorld.getNativeBuffers();
 
-        for (int batchStart = 0; batchStart < totalCount; batchStart += BATCH_SIZE) {
-            int currentBatchCount = Math.min(BATCH_SIZE, totalCount - batchStart);
+        for (int batchStart = 0; batchStart < totalCount; batchStart += VxNativeBufferPool.BATCH_SIZE) {
+            int currentBatchCount = Math.min(VxNativeBufferPool.BATCH_SIZE, totalCount - batchStart);
 
-            BodyIdArray currentIds;
-            if (currentBatchCount == BATCH_SIZE) {
-                currentIds = localBatchIds;
-            } else {
-                // Create a temporary array for the tail batch to ensure the lock only covers valid IDs.
-                currentIds = new BodyIdArray(currentBatchCount);
-            }
+            // The pooled array has exactly the batch length, so the lock only covers valid IDs.
+            BodyIdArray currentIds = pool.getBodyIdArray(currentBatchCount);
 
             for (int b = 0; b < currentBatchCount; b++) {
                 currentIds.set(b, dataStore.bodyIds[batchStart + b]);
@@ -11,7 +11,10 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.xmx.velthoric.core.body.server.VxServerBodyManager;
 import net.xmx.velthoric.core.constraint.manager.VxConstraintManager;
+import net.xmx.velthoric.core.persistence.VxChunkPrefetcher;
+import net.xmx.velthoric.core.physics.VxNativeBufferPool;
 import net.xmx.velthoric.core.physics.VxPhysicsBootstrap;
+import net.xmx.velthoric.core.physics.VxSharedPhysicsResources;
 import net.xmx.velthoric.core.ragdoll.VxRagdollManager;
 import net.xmx.velthoric.core.terrain.VxTerrainSystem;
 import net.xmx.velthoric.init.VxMainClass;
@@ -35,11 +38,9 @@ import java.util.concurrent.Executor;
  * @author xI-Mx-Ix
  */
 public final class VxPhysicsWorld implements Runnable, Executor {
-    private static final int SIMULATION_HZ = 60;
-    private static final float FIXED_TIME_STEP = 1.0f / SIMULATION_HZ;
-    private static final float MAX_ACCUMULATED_TIME = 5.0f * FIXED_TIME_STEP;
     private static final int MAX_COMMANDS_PER_TICK = 4096;
     private static final Map<ResourceKey<Level>, VxPhysicsWorld> worlds = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, VxSteppingPolicy> steppingPolicies = new ConcurrentHashMap<>();
 
     // Fixed Physics Configuration Constants
     private static final int maxBodies = 65536;
@@ -53,7 +54,6 @@ public final class VxPhysicsWorld implements Runnable, Executor {
     private static final float timeBeforeSleep = 1.0f;
     private static final float pointVelocitySleepThreshold = 0.005f;
     private static final float gravityY = -9.81f;
-    private static final int tempAllocatorSize = 64 * 1024 * 1024; // 64MB
 
     private final ServerLevel level;
     private final ResourceKey<Level> dimensionKey;
@@ -61,26 +61,36 @@ public final class VxPhysicsWorld implements Runnable, Executor {
     private final VxConstraintManager constraintManager;
     private final VxTerrainSystem terrainSystem;
     private final VxRagdollManager ragdollManager;
+    private final VxChunkPrefetcher chunkPrefetcher;
 
     private final VxFrameTimer physicsFrameTimer = new VxFrameTimer();
+    private final VxSteppingMonitor steppingMonitor;
+    private final VxNativeBufferPool nativeBuffers = new VxNativeBufferPool();
 
     private PhysicsSystem physicsSystem;
-    private JobSystemThreadPool jobSystem;
+    private JobSystem jobSystem;
+    // Only set if this world owns its job system and temp allocator
     private TempAllocator tempAllocator;
+    @Nullable
+    private VxSharedPhysicsResources sharedResources;
 
     private final Queue<Runnable> commandQueue = new ConcurrentLinkedQueue<>();
     private volatile Thread physicsThreadExecutor;
     private volatile boolean isRunning = false;
+    private volatile VxSteppingPolicy steppingPolicy;
     private float timeAccumulator = 0.0f;
     private long lastTimeNanos = 0L;
 
     private VxPhysicsWorld(ServerLevel level) {
         this.level = level;
         this.dimensionKey = level.dimension();
+        this.steppingPolicy = steppingPolicies.getOrDefault(this.dimensionKey, VxSteppingPolicy.DEFAULT);
+        this.steppingMonitor = new VxSteppingMonitor(this.dimensionKey.location().toString());
         this.bodyManager = new VxServerBodyManager(this);
         this.constraintManager = new VxConstraintManager(this.bodyManager);
         this.terrainSystem = new VxTerrainSystem(this, this.level);
         this.ragdollManager = new VxRagdollManager(this);
+        this.chunkPrefetcher = new VxChunkPrefetcher(this);
     }
 
     public static VxPhysicsWorld getOrCreate(ServerLevel level) {
@@ -168,22 +178,31 @@ public final class VxPhysicsWorld implements Runnable, Executor {
         }
     }
 
-    private void updatePhysicsLoop(float deltaTime) {
+    private void updatePhysicsLoop(float deltaTime) throws InterruptedException {
         if (VxPauseUtil.isPaused() || !this.isRunning || this.physicsSystem == null) {
             return;
         }
 
+        // Read once, so a policy change from another thread applies to whole iterations only
+        VxSteppingPolicy policy = this.steppingPolicy;
+        float timeStep = policy.timeStep();
+
+        // Backlog beyond the catch-up limit is dropped and reported instead of silently discarded
         this.timeAccumulator += deltaTime;
-        if (this.timeAccumulator > MAX_ACCUMULATED_TIME) {
-            this.timeAccumulator = MAX_ACCUMULATED_TIME;
+        float droppedTime = 0.0f;
+        float maxAccumulatedTime = policy.maxAccumulatedTime();
+        if (this.timeAccumulator > maxAccumulatedTime) {
+            droppedTime = this.timeAccumulator - maxAccumulatedTime;
+            this.timeAccumulator = maxAccumulatedTime;
         }
 
-        if (this.timeAccumulator >= FIXED_TIME_STEP) {
+        int steps = 0;
+        while (this.timeAccumulator >= timeStep && steps < policy.maxCatchUpSteps()) {
             long startTime = System.nanoTime();
 
             this.onPrePhysicsTick();
 
-            int error = this.physicsSystem.update(FIXED_TIME_STEP, 1, this.tempAllocator, this.jobSystem);
+            int error = this.updatePhysicsSystem(timeStep, policy.collisionSteps());
             if (error != EPhysicsUpdateError.None) {
                 VxMainClass.LOGGER.error("Jolt physics update failed with error code: {}. Shutting down world.", error);
                 this.isRunning = false;
@@ -193,7 +212,26 @@ public final class VxPhysicsWorld implements Runnable, Executor {
             this.onPhysicsTick();
 
             this.physicsFrameTimer.logFrameDuration(System.nanoTime() - startTime);
-            this.timeAccumulator -= FIXED_TIME_STEP;
+            this.timeAccumulator -= timeStep;
+            steps++;
+        }
+
+        this.steppingMonitor.record(deltaTime, steps, timeStep, droppedTime);
+    }
+
+    /**
+     * Performs a single Jolt update, either with this world's own temp allocator or
+     * with one borrowed from the shared resources for the duration of the update.
+     */
+    private int updatePhysicsSystem(float timeStep, int collisionSteps) throws InterruptedException {
+        if (this.sharedResources == null) {
+            return this.physicsSystem.update(timeStep, collisionSteps, this.tempAllocator, this.jobSystem);
+        }
+        TempAllocator allocator = this.sharedResources.beginUpdate();
+        try {
+            return this.physicsSystem.update(timeStep, collisionSteps, allocator, this.jobSystem);
+        } finally {
+            this.sharedResources.endUpdate(allocator);
         }
     }
 
@@ -208,6 +246,7 @@ public final class VxPhysicsWorld implements Runnable, Executor {
 
     public void onGameTick(ServerLevel level) {
         this.bodyManager.onGameTick(level);
+        this.chunkPrefetcher.onGameTick(level);
     }
 
     private void processCommandQueue() {
@@ -225,9 +264,14 @@ public final class VxPhysicsWorld implements Runnable, Executor {
     }
 
     public void initializePhysicsSystem() {
-        this.tempAllocator = new TempAllocatorImpl(tempAllocatorSize);
-        int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
-        this.jobSystem = new JobSystemThreadPool(Jolt.cMaxPhysicsJobs, Jolt.cMaxPhysicsBarriers, numThreads);
+        if (VxSharedPhysicsResources.ENABLED) {
+            this.sharedResources = VxSharedPhysicsResources.acquire();
+            this.jobSystem = this.sharedResources.getJobSystem();
+        } else {
+            this.tempAllocator = new TempAllocatorImpl(VxSharedPhysicsResources.TEMP_ALLOCATOR_SIZE);
+            int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+            this.jobSystem = new JobSystemThreadPool(Jolt.cMaxPhysicsJobs, Jolt.cMaxPhysicsBarriers, numThreads);
+        }
 
         this.physicsSystem = new PhysicsSystem();
         BroadPhaseLayerInterface bpli = VxPhysicsBootstrap.getBroadPhaseLayerInterface();
@@ -269,14 +313,19 @@ public final class VxPhysicsWorld implements Runnable, Executor {
             this.physicsSystem.close();
             this.physicsSystem = null;
         }
-        if (this.jobSystem != null) {
+        if (this.sharedResources != null) {
+            // The shared job system is owned by the resources and destroyed with the last reference
+            this.sharedResources.release();
+            this.sharedResources = null;
+        } else if (this.jobSystem != null) {
             this.jobSystem.close();
-            this.jobSystem = null;
         }
+        this.jobSystem = null;
         if (this.tempAllocator != null) {
             this.tempAllocator.close();
             this.tempAllocator = null;
         }
+        this.nativeBuffers.close();
         this.commandQueue.clear();
     }
 
@@ -315,8 +364,43 @@ public final class VxPhysicsWorld implements Runnable, Executor {
         return this.dimensionKey;
     }
 
-    public static float getFixedTimeStep() {
-        return FIXED_TIME_STEP;
+    /**
+     * @return The duration of a single simulation step of this world in seconds.
+     */
+    public float getTimeStep() {
+        return this.steppingPolicy.timeStep();
+    }
+
+    public VxSteppingPolicy getSteppingPolicy() {
+        return this.steppingPolicy;
+    }
+
+    /**
+     * Sets the stepping policy of a dimension. The policy is remembered for the dimension and
+     * applied to its running world, if any, from the next physics loop iteration on.
+     *
+     * @param dimensionKey The dimension.
+     * @param policy       The new stepping policy.
+     */
+    public static void setSteppingPolicy(ResourceKey<Level> dimensionKey, VxSteppingPolicy policy) {
+        steppingPolicies.put(dimensionKey, policy);
+        VxPhysicsWorld world = get(dimensionKey);
+        if (world != null) {
+            world.steppingPolicy = policy;
+            // The measured dilation of the old policy is meaningless for the new one
+            world.execute(world.steppingMonitor::resetWindow);
+        }
+    }
+
+    public VxSteppingMonitor getSteppingMonitor() {
+        return this.steppingMonitor;
+    }
+
+    /**
+     * @return The reusable native buffers for batched Jolt access of this world.
+     */
+    public VxNativeBufferPool getNativeBuffers() {
+        return this.nativeBuffers;
     }
 
     public boolean isRunning() {
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.physics.world;
+
+import net.xmx.velthoric.init.VxMainClass;
+
+/**
+ * Tracks how closely a physics world keeps up with real time.
+ * <p>
+ * The physics thread reports every loop iteration. Over rolling windows of a few seconds,
+ * the monitor derives the <b>time dilation</b> (simulated time divided by real time, where
+ * {@code 1.0} means the simulation keeps pace) and accumulates the real time that had to be
+ * dropped because the backlog exceeded the stepping policy's catch-up limit.
+ * Dropped time is logged, rate-limited, so a falling-behind dimension does not go unnoticed.
+ * <p>
+ * Recording is confined to the physics thread; the published values may be read from any thread.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxSteppingMonitor {
+
+    /**
+     * The length of a measurement window in seconds of real time.
+     */
+    private static final double WINDOW_SECONDS = 5.0;
+
+    /**
+     * The minimum interval between two dropped-time warnings.
+     */
+    private static final long WARNING_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final String worldName;
+
+    // Window accumulators, physics thread only
+    private double windowRealSeconds = 0.0;
+    private double windowSimulatedSeconds = 0.0;
+    private double windowDroppedSeconds = 0.0;
+    private long lastWarningNanos = 0L;
+    private boolean hasWarned = false;
+
+    // Published results
+    private volatile float timeDilation = 1.0f;
+    private volatile double totalDroppedSeconds = 0.0;
+    private volatile long totalSteps = 0L;
+
+    /**
+     * @param worldName A human-readable name of the world, used in log messages.
+     */
+    public VxSteppingMonitor(String worldName) {
+        this.worldName = worldName;
+    }
+
+    /**
+     * Records one iteration of the physics loop.
+     *
+     * @param realSeconds    The real time that elapsed since the previous iteration.
+     * @param steps          The number of simulation steps executed in this iteration.
+     * @param timeStep       The duration of one step in seconds.
+     * @param droppedSeconds The real time discarded because the backlog exceeded the catch-up limit.
+     */
+    public void record(float realSeconds, int steps, float timeStep, float droppedSeconds) {
+        windowRealSeconds += realSeconds;
+        windowSimulatedSeconds += steps * (double) timeStep;
+        windowDroppedSeconds += droppedSeconds;
+        if (steps > 0) {
+            totalSteps += steps;
+        }
+        if (droppedSeconds > 0.0f) {
+            totalDroppedSeconds += droppedSeconds;
+        }
+
+        if (windowRealSeconds >= WINDOW_SECONDS) {
+            closeWindow();
+        }
+    }
+
+    private void closeWindow() {
+        float dilation = (float) (windowSimulatedSeconds / windowRealSeconds);
+        timeDilation = dilation;
+
+        if (windowDroppedSeconds > 0.0) {
+            long now = System.nanoTime();
+            if (!hasWarned || now - lastWarningNanos >= WARNING_INTERVAL_NANOS) {
+                VxMainClass.LOGGER.warn("Physics in {} is falling behind: dropped {} ms of simulation time in the last {} s (time dilation {}). " +
+                                "Consider lowering the tick rate or collision steps of this dimension.",
+                        worldName,
+                        String.format("%.1f", windowDroppedSeconds * 1000.0),
+                        String.format("%.1f", windowRealSeconds),
+                        String.format("%.2f", dilation));
+                lastWarningNanos = now;
+                hasWarned = true;
+            }
+        }
+
+        windowRealSeconds = 0.0;
+        windowSimulatedSeconds = 0.0;
+        windowDroppedSeconds = 0.0;
+    }
+
+    /**
+     * Discards the current window, e.g. after a pause or a policy change.
+     */
+    public void resetWindow() {
+        windowRealSeconds = 0.0;
+        windowSimulatedSeconds = 0.0;
+        windowDroppedSeconds = 0.0;
+    }
+
+    /**
+     * @return Simulated time divided by real time over the last completed window.
+     */
+    public float getTimeDilation() {
+        return timeDilation;
+    }
+
+    /**
+     * @return The total real time in seconds that was dropped since the world started.
+     */
+    public double getTotalDroppedSeconds() {
+        return totalDroppedSeconds;
+    }
+
+    /**
+     * @return The total number of simulation steps executed since the world started.
+     */
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.physics.world;
+
+/**
+ * Describes how a {@link VxPhysicsWorld} advances its simulation in real time.
+ * <p>
+ * The physics thread accumulates elapsed real time and consumes it in fixed steps of
+ * {@code 1 / tickRate} seconds. If the simulation falls behind, up to {@code maxCatchUpSteps}
+ * steps are executed back-to-back in a single loop iteration. Any backlog beyond that is dropped
+ * (and reported), so the simulation slows down relative to real time instead of spiraling.
+ *
+ * @param tickRate        The number of simulation steps per second of simulated time.
+ * @param collisionSteps  The number of collision steps Jolt performs within each step.
+ * @param maxCatchUpSteps The maximum number of steps executed per loop iteration, which also bounds the backlog.
+ * @author xI-Mx-Ix
+ */
+public record VxSteppingPolicy(int tickRate, int collisionSteps, int maxCatchUpSteps) {
+
+    public static final int MIN_TICK_RATE = 10;
+    public static final int MAX_TICK_RATE = 240;
+    public static final int MAX_COLLISION_STEPS = 8;
+    public static final int MAX_CATCH_UP_STEPS = 32;
+
+    /**
+     * 60 Hz with a single collision step and a backlog of at most five steps.
+     */
+    public static final VxSteppingPolicy DEFAULT = new VxSteppingPolicy(60, 1, 5);
+
+    public VxSteppingPolicy {
+        if (tickRate < MIN_TICK_RATE || tickRate > MAX_TICK_RATE) {
+            throw new IllegalArgumentException("Tick rate must be between " + MIN_TICK_RATE + " and " + MAX_TICK_RATE + ": " + tickRate);
+        }
+        if (collisionSteps < 1 || collisionSteps > MAX_COLLISION_STEPS) {
+            throw new IllegalArgumentException("Collision steps must be between 1 and " + MAX_COLLISION_STEPS + ": " + collisionSteps);
+        }
+        if (maxCatchUpSteps < 1 || maxCatchUpSteps > MAX_CATCH_UP_STEPS) {
+            throw new IllegalArgumentException("Catch-up steps must be between 1 and " + MAX_CATCH_UP_STEPS + ": " + maxCatchUpSteps);
+        }
+    }
+
+    /**
+     * @return The duration of a single simulation step in seconds.
+     */
+    public float timeStep() {
+        return 1.0f / tickRate;
+    }
+
+    /**
+     * @return The largest backlog of real time that is kept, in seconds. Anything beyond is dropped.
+     */
+    public float maxAccumulatedTime() {
+        return maxCatchUpSteps * timeStep();
+    }
+}
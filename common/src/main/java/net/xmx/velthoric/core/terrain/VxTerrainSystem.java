@@ -11,6 +11,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
 import net.xmx.velthoric.core.terrain.cache.VxTerrainShapeCache;
 import net.xmx.velthoric.core.terrain.generation.VxTerrainGenerator;
@@ -60,7 +61,7 @@ public final class VxTerrainSystem implements Runnable {
         this.server = level.getServer();
 
         this.jobSystem = new VxTerrainJobSystem();
-        this.shapeCache = new VxTerrainShapeCache(2048); // A reasonable capacity
+        this.shapeCache = new VxTerrainShapeCache(VxTerrainShapeCache.DEFAULT_MAX_BYTES);
         this.chunkDataStore = new VxChunkDataStore();
         this.terrainGenerator = new VxTerrainGenerator(shapeCache);
         this.terrainManager = new VxTerrainManager(physicsWorld, level, terrainGenerator, chunkDataStore, jobSystem);
@@ -179,8 +180,20 @@ public final class VxTerrainSystem implements Runnable {
         });
     }
 
+    /**
+     * Reports that a physics body may require different terrain, e.g. because it was added or removed,
+     * crossed a chunk border, or woke up or fell asleep. Safe to call from any thread.
+     *
+     * @param body The body to re-evaluate on the next tracker update.
+     */
+    public void onBodyChanged(VxBody body) {
+        terrainTracker.markBodyDirty(body);
+    }
+
     /**
      * Processes the queue of chunks waiting to be rebuilt, scheduling them for regeneration.
+     * Chunks that are still generating from an older snapshot stay queued for the next pass,
+     * so repeated updates to a busy chunk collapse into a single follow-up rebuild.
      */
     private void processRebuildQueue() {
         LongSet batch;
@@ -190,8 +203,18 @@ public final class VxTerrainSystem implements Runnable {
             chunksToRebuild.clear();
         }
 
+        LongSet retry = null;
         for (long packedPos : batch) {
-            terrainManager.rebuildChunk(packedPos);
+            if (!terrainManager.rebuildChunk(packedPos)) {
+                if (retry == null) retry = new LongOpenHashSet();
+                retry.add(packedPos);
+            }
+        }
+
+        if (retry != null) {
+            synchronized (chunksToRebuild) {
+                chunksToRebuild.addAll(retry);
+            }
         }
     }
 
@@ -230,17 +253,13 @@ public final class VxTerrainSystem implements Runnable {
 
     /**
      * Determines if a given physics body ID belongs to a terrain chunk.
+     * This is a single array lookup by the Jolt body index, safe to call from contact and query callbacks.
      *
      * @param bodyId The ID of the physics body.
      * @return True if the body is a terrain body, false otherwise.
      */
     public boolean isTerrainBody(int bodyId) {
-        if (bodyId <= 0) return false;
-        // Uses a thread-safe copy of the body ID array for safe iteration.
-        for (int id : chunkDataStore.getBodyIds()) {
-            if (id == bodyId) return true;
-        }
-        return false;
+        return chunkDataStore.isTerrainBody(bodyId);
     }
 
     /**
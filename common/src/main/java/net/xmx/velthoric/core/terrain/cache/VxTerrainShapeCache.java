@@ -5,99 +5,172 @@
 package net.xmx.velthoric.core.terrain.cache;
 
 import com.github.stephengold.joltjni.ShapeRefC;
-import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 
 /**
- * An in-memory, fixed-size LRU (Least Recently Used) cache for terrain physics shapes.
+ * An in-memory, memory-bounded LRU (Least Recently Used) cache for terrain physics shapes.
  * <p>
- * It stores compiled Jolt physics shapes, keyed by a content hash of the chunk data,
- * to avoid regenerating them repeatedly. When the cache is full, the least recently
- * used shape is evicted and its native resources are released.
+ * It stores compiled Jolt physics shapes, keyed by the 128-bit content digest of the chunk
+ * section ({@link VxTerrainShapeKey}), to avoid regenerating them repeatedly. A hit requires
+ * the full key to match, including the snapshot contents, so a digest collision is a miss
+ * rather than a wrong collision shape.
  * </p>
  * <p>
- * This implementation utilizes {@link Int2ObjectLinkedOpenHashMap} to prevent
- * auto-boxing of integer keys, thereby reducing garbage collection pressure
- * in the hot path.
+ * <b>Concurrency:</b> The cache is split into {@link #SEGMENT_COUNT} independently locked
+ * segments selected by the upper digest bits, so terrain job threads working on different
+ * sections rarely contend. Each segment is an LRU of its own.
+ * </p>
+ * <p>
+ * <b>Eviction:</b> Every entry is charged the estimated native size of its shape plus the
+ * retained snapshot. Each segment owns an equal share of the byte budget and evicts its least
+ * recently used shapes, releasing their native resources, once the share is exceeded.
  * </p>
  *
  * @author xI-Mx-Ix
  */
 public final class VxTerrainShapeCache {
 
-    private final Int2ObjectLinkedOpenHashMap<ShapeRefC> cache;
-    private final int capacity;
+    /**
+     * The default byte budget, configurable via {@code velthoric.terrain.shapeCacheMegabytes}.
+     */
+    public static final long DEFAULT_MAX_BYTES = Math.max(1, Integer.getInteger("velthoric.terrain.shapeCacheMegabytes", 64)) * 1024L * 1024L;
+
+    /**
+     * The number of lock segments. Must be a power of two.
+     */
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * Estimated native size of a compound shape without sub-shapes (shape object, sub-shape vector, tree root).
+     */
+    private static final long SHAPE_BASE_BYTES = 256;
+
+    /**
+     * Estimated native size per sub-shape: the sub-shape record plus its share of the bounding volume tree.
+     * Box shapes themselves are shared through the generator's settings cache and not charged.
+     */
+    private static final long SUB_SHAPE_BYTES = 64;
+
+    /**
+     * Estimated heap size per retained snapshot block: a packed short position and a state reference.
+     */
+    private static final long SNAPSHOT_BLOCK_BYTES = 6;
+
+    /**
+     * Estimated heap size of an entry, its key, the snapshot record and its array headers.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
 
     /**
-     * Constructs a new terrain shape cache with the specified capacity.
+     * Constructs a new terrain shape cache with the specified byte budget.
      *
-     * @param capacity The maximum number of shapes to store before evicting old ones.
+     * @param maxBytes The estimated memory the cached shapes may occupy before old ones are evicted.
      */
-    public VxTerrainShapeCache(int capacity) {
-        this.capacity = capacity;
-        // We use a fastutil LinkedOpenHashMap.
-        // It maintains insertion order, which we will manipulate to emulate LRU behavior.
-        this.cache = new Int2ObjectLinkedOpenHashMap<>(capacity, 0.75f);
+    public VxTerrainShapeCache(long maxBytes) {
+        long segmentBudget = Math.max(1, maxBytes / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentBudget);
+        }
     }
 
     /**
      * Retrieves a shape from the cache. Returns a new reference to the shape.
      * <p>
-     * This operation marks the retrieved entry as the most recently used, moving it
-     * to the end of the iteration order.
+     * This operation marks the retrieved entry as the most recently used.
      * </p>
      *
-     * @param key The content hash of the shape.
+     * @param key The content key of the section.
      * @return A new ShapeRefC, or null if not found.
      */
-    public synchronized ShapeRefC get(int key) {
-        // getAndMoveToLast retrieves the value and moves the entry to the last position,
-        // maintaining the LRU order (last = most recently used).
-        ShapeRefC masterRef = cache.getAndMoveToLast(key);
-        if (masterRef != null && masterRef.getPtr() != null) {
-            return masterRef.getPtr().toRefC();
+    public ShapeRefC get(VxTerrainShapeKey key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.entries.getAndMoveToLast(key.low());
+            if (entry != null && entry.key.equals(key) && entry.shape.getPtr() != null) {
+                return entry.shape.getPtr().toRefC();
+            }
+            return null;
         }
-        return null;
     }
 
     /**
      * Adds a shape to the cache. The cache takes ownership of the provided ShapeRefC.
      * <p>
-     * If a shape with the same key already exists, the old one is closed and replaced.
-     * If the cache exceeds its defined capacity after insertion, the least recently
-     * used (oldest) entry is evicted and closed.
+     * An existing entry with the same digest is closed and replaced. If the segment exceeds
+     * its share of the byte budget after insertion, its least recently used entries are
+     * evicted and closed.
      * </p>
      *
-     * @param key   The content hash of the shape.
-     * @param shape The shape reference to store.
+     * @param key           The content key of the section.
+     * @param shape         The shape reference to store.
+     * @param subShapeCount The number of sub-shapes in the shape, used to estimate its native size.
      */
-    public synchronized void put(int key, ShapeRefC shape) {
+    public void put(VxTerrainShapeKey key, ShapeRefC shape, int subShapeCount) {
         if (shape == null) return;
 
-        // putAndMoveToLast inserts or updates the value and moves it to the end (most recent).
-        ShapeRefC oldShape = cache.putAndMoveToLast(key, shape);
+        Entry entry = new Entry(key, shape, estimateBytes(key, subShapeCount));
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry old = segment.entries.putAndMoveToLast(key.low(), entry);
+            segment.bytes += entry.bytes;
+            if (old != null) {
+                segment.bytes -= old.bytes;
+                if (old.shape != shape) {
+                    old.shape.close();
+                }
+            }
 
-        // If we replaced an existing shape, we must close the old one to free native memory.
-        if (oldShape != null && oldShape != shape) {
-            oldShape.close();
+            // Keep at least the new entry, even if it alone exceeds the share
+            while (segment.bytes > segment.maxBytes && segment.entries.size() > 1) {
+                Entry evicted = segment.entries.removeFirst();
+                segment.bytes -= evicted.bytes;
+                evicted.shape.close();
+            }
         }
+    }
 
-        // Enforce capacity: if size exceeds limit, remove the first entry (LRU).
-        if (cache.size() > capacity) {
-            int firstKey = cache.firstIntKey();
-            ShapeRefC removed = cache.removeFirst();
-            if (removed != null) {
-                removed.close();
+    /**
+     * Clears the cache, closing all stored shapes to release native Jolt resources.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (Entry entry : segment.entries.values()) {
+                    entry.shape.close();
+                }
+                segment.entries.clear();
+                segment.bytes = 0;
             }
         }
     }
 
+    private Segment segmentFor(VxTerrainShapeKey key) {
+        return segments[(int) (key.high() >>> 32) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static long estimateBytes(VxTerrainShapeKey key, int subShapeCount) {
+        return SHAPE_BASE_BYTES + subShapeCount * SUB_SHAPE_BYTES
+                + ENTRY_OVERHEAD_BYTES + key.snapshot().count() * SNAPSHOT_BLOCK_BYTES;
+    }
+
     /**
-     * Clears the cache, closing all stored shapes to release native Jolt resources.
+     * An independently locked LRU segment, keyed by the lower digest bits. A segment is its own lock.
      */
-    public synchronized void clear() {
-        for (ShapeRefC shapeRef : cache.values()) {
-            if (shapeRef != null) shapeRef.close();
+    private static final class Segment {
+        private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+        private final long maxBytes;
+        private long bytes;
+
+        private Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
         }
-        cache.clear();
     }
-}
\ No newline at end of file
+
+    /**
+     * A cached shape with its full key and charged size.
+     */
+    private record Entry(VxTerrainShapeKey key, ShapeRefC shape, long bytes) {
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.core.terrain.cache;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.xmx.velthoric.core.terrain.generation.VxChunkSnapshot;
+
+/**
+ * The content address of a terrain shape: a 128-bit digest of a chunk section snapshot,
+ * together with the snapshot itself for full-key verification.
+ * <p>
+ * The digest covers the section position, the block count and every (packed position, block state id)
+ * pair of the snapshot, mixed with the MurmurHash3 x64 128-bit function. Two keys are only equal if
+ * both digest halves match <i>and</i> the snapshots are equal, so a digest collision can never hand
+ * out the shape of a different section.
+ *
+ * @param high     The upper 64 bits of the digest.
+ * @param low      The lower 64 bits of the digest.
+ * @param snapshot The snapshot the digest was computed from.
+ * @author xI-Mx-Ix
+ */
+public record VxTerrainShapeKey(long high, long low, VxChunkSnapshot snapshot) {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * Computes the key of a snapshot.
+     *
+     * @param snapshot The snapshot to digest.
+     * @return The content key of the snapshot.
+     */
+    public static VxTerrainShapeKey of(VxChunkSnapshot snapshot) {
+        short[] positions = snapshot.packedPositions();
+        BlockState[] states = snapshot.states();
+        int count = snapshot.count();
+
+        long h1 = 0x9e3779b97f4a7c15L;
+        long h2 = 0xc2b2ae3d27d4eb4fL;
+
+        // Header block: the section position and the block count
+        long k1 = snapshot.packedSectionPos();
+        long k2 = count;
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27) + h2;
+        h1 = h1 * 5 + 0x52dce729;
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31) + h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        // Body: two blocks per 128-bit round
+        int i = 0;
+        for (; i + 1 < count; i += 2) {
+            k1 = entry(positions[i], states[i]);
+            k2 = entry(positions[i + 1], states[i + 1]);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // Tail: an odd trailing block
+        if (i < count) {
+            h1 ^= mixK1(entry(positions[i], states[i]));
+        }
+
+        // Finalization over the total input length in bytes
+        long length = (count + 2L) * Long.BYTES;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        return new VxTerrainShapeKey(h1, h2, snapshot);
+    }
+
+    private static long entry(short packedPosition, BlockState state) {
+        return ((long) (packedPosition & 0xFFFF) << 32) | (Block.getId(state) & 0xFFFFFFFFL);
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Checks the digest first and only compares the snapshots if both halves match.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VxTerrainShapeKey that)) return false;
+        return high == that.high && low == that.low && snapshot.equals(that.snapshot);
+    }
+
+    /**
+     * Derived from the digest alone, so hashing a key never walks the snapshot.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low);
+    }
+}
@@ -8,18 +8,24 @@ import com.github.stephengold.joltjni.*;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.shapes.VoxelShape;
 import net.xmx.velthoric.core.terrain.cache.VxTerrainShapeCache;
+import net.xmx.velthoric.core.terrain.cache.VxTerrainShapeKey;
 import net.xmx.velthoric.init.VxMainClass;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Generates physics shapes for terrain chunks using a StaticCompoundShape.
  * This generator iterates through all blocks in a chunk snapshot and adds their
- * collision bounding boxes as individual box shapes to a single compound shape.
+ * collision bounding boxes as box shapes to a single compound shape.
+ * Full cubes are first merged into maximal boxes by a greedy meshing pass, so large
+ * uniform areas (e.g. a flat stone layer) become a handful of sub-shapes instead of hundreds.
+ * Blocks with partial collision shapes keep one box per AABB.
  * This approach is significantly faster than triangle-based mesh generation and uses
  * caching for both final shapes and individual box settings to improve performance.
  *
@@ -28,10 +34,28 @@ import java.util.Map;
 public final class VxTerrainGenerator implements AutoCloseable {
 
     private final VxTerrainShapeCache shapeCache;
-    private final Map<Vec3, BoxShapeSettings> boxSettingsCache;
-    private static final int BOX_SETTINGS_CACHE_CAPACITY = 256;
+    /**
+     * Counted references to shared box settings, keyed by half extents. Guarded by itself.
+     */
+    private final Map<Vec3, ShapeSettingsRef> boxSettingsCache;
+
+    /**
+     * Room for every merged full-cube box of a section (half extents of 0.5 to 8 on each axis,
+     * 16^3 combinations) plus the common partial block shapes.
+     */
+    private static final int BOX_SETTINGS_CACHE_CAPACITY = 8192;
     private static final ThreadLocal<Vec3> tempVec3Key = ThreadLocal.withInitial(Vec3::new);
 
+    /**
+     * Number of cells in a 16x16x16 chunk section.
+     */
+    private static final int SECTION_VOLUME = 4096;
+
+    /**
+     * Per-thread occupancy grid of full cubes, indexed like the snapshot's packed positions: (x << 8) | (y << 4) | z.
+     */
+    private static final ThreadLocal<boolean[]> tempFullCubes = ThreadLocal.withInitial(() -> new boolean[SECTION_VOLUME]);
+
     /**
      * Constructs a new terrain generator with caching capabilities.
      *
@@ -41,9 +65,10 @@ public final class VxTerrainGenerator implements AutoCloseable {
         this.shapeCache = shapeCache;
         this.boxSettingsCache = new LinkedHashMap<>(BOX_SETTINGS_CACHE_CAPACITY, 0.75f, true) {
             @Override
-            protected boolean removeEldestEntry(Map.Entry<Vec3, BoxShapeSettings> eldest) {
+            protected boolean removeEldestEntry(Map.Entry<Vec3, ShapeSettingsRef> eldest) {
                 boolean shouldRemove = size() > BOX_SETTINGS_CACHE_CAPACITY;
                 if (shouldRemove && eldest.getValue() != null) {
+                    // Only drops the cache's reference; compounds that use the settings hold their own
                     eldest.getValue().close();
                 }
                 return shouldRemove;
@@ -56,7 +81,8 @@ public final class VxTerrainGenerator implements AutoCloseable {
      * <p>
      * This method first checks an in-memory cache for a pre-existing shape matching the chunk's content.
      * If not found, it creates a {@link StaticCompoundShape} composed of multiple {@link BoxShape}s,
-     * where each box represents a block's collision AABB. It also uses a cache for {@link BoxShapeSettings}
+     * where each box represents either a merged run of full cubes or a single collision AABB of a
+     * partial block. It also uses a cache for {@link BoxShapeSettings}
      * to avoid re-creating them for common block dimensions.
      * </p>
      * <p>
@@ -69,8 +95,8 @@ public final class VxTerrainGenerator implements AutoCloseable {
      * The caller is responsible for closing the returned shape reference.
      */
     public ShapeRefC generateShape(ServerLevel level, VxChunkSnapshot snapshot) {
-        int contentHash = snapshot.hashCode();
-        ShapeRefC cachedShape = shapeCache.get(contentHash);
+        VxTerrainShapeKey key = VxTerrainShapeKey.of(snapshot);
+        ShapeRefC cachedShape = shapeCache.get(key);
         if (cachedShape != null) {
             return cachedShape;
         }
@@ -79,9 +105,10 @@ public final class VxTerrainGenerator implements AutoCloseable {
             return null;
         }
 
+        boolean[] fullCubes = tempFullCubes.get();
         try (StaticCompoundShapeSettings compoundSettings = new StaticCompoundShapeSettings()) {
-            boolean hasShapes = false;
-            Vec3 halfExtentsKey = tempVec3Key.get();
+            int subShapeCount = 0;
+            boolean hasFullCubes = false;
             BlockPos.MutableBlockPos worldPos = new BlockPos.MutableBlockPos();
 
             // Extract the origin of the section from the bit-packed long coordinate.
@@ -103,6 +130,14 @@ public final class VxTerrainGenerator implements AutoCloseable {
 
                 if (voxelShape.isEmpty()) continue;
 
+                // Full cubes are deferred to the greedy merging pass below
+                if (Block.isShapeFullBlock(voxelShape)) {
+                    fullCubes[packed & 0xFFF] = true;
+                    hasFullCubes = true;
+                    continue;
+                }
+
+                // Fallback for partial shapes: one box per collision AABB
                 for (AABB aabb : voxelShape.toAabbs()) {
                     float hx = (float) (aabb.getXsize() / 2.0);
                     float hy = (float) (aabb.getYsize() / 2.0);
@@ -112,35 +147,28 @@ public final class VxTerrainGenerator implements AutoCloseable {
                         continue;
                     }
 
-                    halfExtentsKey.set(hx, hy, hz);
-                    BoxShapeSettings boxSettings;
-                    synchronized (boxSettingsCache) {
-                        boxSettings = boxSettingsCache.get(halfExtentsKey);
-                        if (boxSettings == null) {
-                            Vec3 newKey = new Vec3(hx, hy, hz);
-                            boxSettings = new BoxShapeSettings(newKey, 0.0f);
-                            boxSettingsCache.put(newKey, boxSettings);
-                        }
-                    }
-
                     // Calculate local position relative to section origin for the compound shape
                     float cx = (float) (x + aabb.minX + hx);
                     float cy = (float) (y + aabb.minY + hy);
                     float cz = (float) (z + aabb.minZ + hz);
 
-                    compoundSettings.addShape(cx, cy, cz, boxSettings);
-                    hasShapes = true;
+                    addBox(compoundSettings, cx, cy, cz, hx, hy, hz);
+                    subShapeCount++;
                 }
             }
 
-            if (!hasShapes) {
+            if (hasFullCubes) {
+                subShapeCount += addMergedFullCubes(compoundSettings, fullCubes);
+            }
+
+            if (subShapeCount == 0) {
                 return null;
             }
 
             try (ShapeResult result = compoundSettings.create()) {
                 if (result.isValid()) {
                     ShapeRefC newShape = result.get();
-                    shapeCache.put(contentHash, newShape);
+                    shapeCache.put(key, newShape, subShapeCount);
                     return newShape.getPtr().toRefC();
                 } else {
                     VxMainClass.LOGGER.error("Failed to create StaticCompoundShape for {}:{}:{}: {}",
@@ -148,6 +176,105 @@ public final class VxTerrainGenerator implements AutoCloseable {
                     return null;
                 }
             }
+        } finally {
+            // The merging pass consumes the grid, but an exception may leave cells set
+            Arrays.fill(fullCubes, false);
+        }
+    }
+
+    /**
+     * Merges the full cubes of a section into maximal axis-aligned boxes and adds them to the compound.
+     * <p>
+     * Greedy meshing: starting at the first unconsumed cell, a run is grown along X, the row is then
+     * grown along Z while every cell of the next row is occupied, and the resulting rectangle is grown
+     * along Y while every cell of the next layer is occupied. All covered cells are consumed.
+     *
+     * @param compoundSettings The compound to add the merged boxes to.
+     * @param fullCubes        The occupancy grid, indexed by (x << 8) | (y << 4) | z. Cleared by this method.
+     * @return The number of boxes added.
+     */
+    private int addMergedFullCubes(StaticCompoundShapeSettings compoundSettings, boolean[] fullCubes) {
+        int added = 0;
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (!fullCubes[cellIndex(x, y, z)]) continue;
+
+                    // 1. Grow along X
+                    int width = 1;
+                    while (x + width < 16 && fullCubes[cellIndex(x + width, y, z)]) {
+                        width++;
+                    }
+
+                    // 2. Grow along Z while the whole row is occupied
+                    int depth = 1;
+                    while (z + depth < 16 && isRowFull(fullCubes, x, width, y, z + depth)) {
+                        depth++;
+                    }
+
+                    // 3. Grow along Y while the whole rectangle is occupied
+                    int height = 1;
+                    while (y + height < 16 && isLayerFull(fullCubes, x, width, y + height, z, depth)) {
+                        height++;
+                    }
+
+                    // Consume the covered cells
+                    for (int dy = 0; dy < height; dy++) {
+                        for (int dz = 0; dz < depth; dz++) {
+                            for (int dx = 0; dx < width; dx++) {
+                                fullCubes[cellIndex(x + dx, y + dy, z + dz)] = false;
+                            }
+                        }
+                    }
+
+                    float hx = width * 0.5f;
+                    float hy = height * 0.5f;
+                    float hz = depth * 0.5f;
+                    addBox(compoundSettings, x + hx, y + hy, z + hz, hx, hy, hz);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    private static boolean isRowFull(boolean[] cells, int x, int width, int y, int z) {
+        for (int dx = 0; dx < width; dx++) {
+            if (!cells[cellIndex(x + dx, y, z)]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isLayerFull(boolean[] cells, int x, int width, int y, int z, int depth) {
+        for (int dz = 0; dz < depth; dz++) {
+            if (!isRowFull(cells, x, width, y, z + dz)) return false;
+        }
+        return true;
+    }
+
+    private static int cellIndex(int x, int y, int z) {
+        return (x << 8) | (y << 4) | z;
+    }
+
+    /**
+     * Adds a box with the given center and half extents to a compound, using shared box settings
+     * that are created and cached if necessary.
+     * <p>
+     * The shape is added while the cache lock is held: the compound takes its own reference to the
+     * settings, so a later eviction cannot release them while they are still in use.
+     */
+    private void addBox(StaticCompoundShapeSettings compoundSettings, float cx, float cy, float cz, float hx, float hy, float hz) {
+        Vec3 halfExtentsKey = tempVec3Key.get();
+        halfExtentsKey.set(hx, hy, hz);
+        synchronized (boxSettingsCache) {
+            ShapeSettingsRef boxSettings = boxSettingsCache.get(halfExtentsKey);
+            if (boxSettings == null) {
+                Vec3 newKey = new Vec3(hx, hy, hz);
+                boxSettings = new BoxShapeSettings(newKey, 0.0f).toRef();
+                boxSettingsCache.put(newKey, boxSettings);
+            }
+            compoundSettings.addShape(cx, cy, cz, boxSettings.getPtr());
         }
     }
 
@@ -157,7 +284,7 @@ public final class VxTerrainGenerator implements AutoCloseable {
     @Override
     public void close() {
         synchronized (boxSettingsCache) {
-            for (BoxShapeSettings settings : boxSettingsCache.values()) {
+            for (ShapeSettingsRef settings : boxSettingsCache.values()) {
                 settings.close();
             }
             boxSettingsCache.clear();
@@ -4,40 +4,130 @@
  */
 package net.xmx.velthoric.core.terrain.job;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
 import net.xmx.velthoric.init.VxMainClass;
 
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages a dedicated thread pool for handling asynchronous terrain generation tasks.
  * This isolates the expensive meshing process from the main server thread to prevent lag.
+ * <p>
+ * Jobs are keyed by their section and ordered by priority instead of submission order, so the
+ * section directly under a falling body is generated before a burst of rebuilds further away.
+ * Lower values run first; jobs of equal priority run in submission order.
+ * <ul>
+ *     <li><b>Deduplication:</b> A section has at most one pending job. Submitting another job for the
+ *     same section replaces the pending one.</li>
+ *     <li><b>Cancellation:</b> {@link #cancel(long)} drops the pending job of a section that is no longer tracked.</li>
+ *     <li><b>Promotion:</b> {@link #promote(long, int)} moves a pending job forward when its section becomes more urgent.</li>
+ * </ul>
+ * Replaced and cancelled jobs stay in the queue as no-ops until a worker polls them.
  *
  * @author xI-Mx-Ix
  */
 public final class VxTerrainJobSystem {
 
-    private final ExecutorService executorService;
+    /**
+     * The priority of sections that are not near any tracked body.
+     */
+    public static final int LOWEST_PRIORITY = Integer.MAX_VALUE;
+
+    private final ThreadPoolExecutor executorService;
+
+    /**
+     * The pending (queued, not yet started) job of each section. Guarded by itself.
+     */
+    private final Long2ObjectMap<Job> pendingJobs = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Submission counter, breaking ties between jobs of equal priority.
+     */
+    private final AtomicLong sequence = new AtomicLong();
 
     public VxTerrainJobSystem() {
         int threadCount = Math.max(3, Math.min(8, Runtime.getRuntime().availableProcessors() - 1));
         this.executorService = new ThreadPoolExecutor(
                 threadCount, threadCount,
                 0L, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(),
+                new PriorityBlockingQueue<>(),
                 new JobThreadFactory()
         );
     }
 
     /**
-     * Submits a task to be executed by the job system's thread pool.
+     * Submits a task for a section to be executed by the job system's thread pool.
+     * A pending task for the same section is replaced.
      *
-     * @param task The task to execute.
-     * @return A CompletableFuture that completes when the task is done.
+     * @param packedPos The bit-packed section coordinate the task works on.
+     * @param priority  The priority of the task. Lower values run first.
+     * @param task      The task to execute.
      */
-    public CompletableFuture<Void> submit(Runnable task) {
-        if (isShutdown()) return CompletableFuture.completedFuture(null);
-        return CompletableFuture.runAsync(task, executorService);
+    public void submit(long packedPos, int priority, Runnable task) {
+        if (isShutdown()) return;
+        enqueue(new Job(packedPos, priority, sequence.getAndIncrement(), task));
+    }
+
+    /**
+     * Moves the pending job of a section forward if the given priority is more urgent than its current one.
+     *
+     * @param packedPos The bit-packed section coordinate.
+     * @param priority  The new priority.
+     */
+    public void promote(long packedPos, int priority) {
+        Job promoted;
+        synchronized (pendingJobs) {
+            // A job that a worker has already taken is no longer in the map, so it is never promoted twice
+            Job job = pendingJobs.get(packedPos);
+            if (job == null || job.priority <= priority) return;
+            // Keep the original sequence, so the job stays ahead of later jobs of the same priority
+            promoted = new Job(packedPos, priority, job.sequence, job.task);
+            pendingJobs.put(packedPos, promoted);
+            job.cancelled = true;
+        }
+        execute(promoted);
+    }
+
+    /**
+     * Cancels the pending job of a section, if any. A job that is already running is not interrupted.
+     *
+     * @param packedPos The bit-packed section coordinate.
+     */
+    public void cancel(long packedPos) {
+        synchronized (pendingJobs) {
+            Job job = pendingJobs.remove(packedPos);
+            if (job != null) {
+                job.cancelled = true;
+            }
+        }
+    }
+
+    private void enqueue(Job job) {
+        synchronized (pendingJobs) {
+            Job replaced = pendingJobs.put(job.packedPos, job);
+            if (replaced != null) {
+                replaced.cancelled = true;
+            }
+        }
+        execute(job);
+    }
+
+    /**
+     * Hands a job that is already registered as pending to the pool.
+     */
+    private void execute(Job job) {
+        try {
+            executorService.execute(job);
+        } catch (RejectedExecutionException e) {
+            // The pool was shut down concurrently
+            synchronized (pendingJobs) {
+                pendingJobs.remove(job.packedPos, job);
+            }
+        }
     }
 
     /**
@@ -56,6 +146,9 @@ public final class VxTerrainJobSystem {
             executorService.shutdownNow();
             Thread.currentThread().interrupt();
         }
+        synchronized (pendingJobs) {
+            pendingJobs.clear();
+        }
     }
 
     /**
@@ -67,6 +160,48 @@ public final class VxTerrainJobSystem {
         return executorService.isShutdown() || executorService.isTerminated();
     }
 
+    /**
+     * A queued task for a single section.
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+        private final long packedPos;
+        private final int priority;
+        private final long sequence;
+        private final Runnable task;
+
+        /**
+         * Set under the pending map lock once the job has been replaced or cancelled.
+         */
+        private boolean cancelled;
+
+        private Job(long packedPos, int priority, long sequence, Runnable task) {
+            this.packedPos = packedPos;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            synchronized (pendingJobs) {
+                if (cancelled) return;
+                pendingJobs.remove(packedPos, this);
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                VxMainClass.LOGGER.error("Exception in terrain job for section {}:{}:{}",
+                        SectionPos.x(packedPos), SectionPos.y(packedPos), SectionPos.z(packedPos), e);
+            }
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
     /**
      * A custom thread factory to give worker threads descriptive names.
      */
@@ -82,4 +217,4 @@ public final class VxTerrainJobSystem {
             return t;
         }
     }
-}
\ No newline at end of file
+}
@@ -55,9 +55,11 @@ public final class VxTerrainManager {
      * If this is the first request, it schedules the chunk for shape generation.
      *
      * @param packedPos The bit-packed section coordinate.
+     * @param priority  The generation priority of the chunk. Lower values are generated first.
      */
-    public void requestChunk(long packedPos) {
+    public void requestChunk(long packedPos, int priority) {
         int index = chunkDataStore.addChunk(packedPos);
+        chunkDataStore.setPriority(index, priority);
         if (chunkDataStore.incrementAndGetRefCount(index) == 1) {
             scheduleShapeGeneration(packedPos, index, true);
         }
@@ -78,13 +80,31 @@ public final class VxTerrainManager {
 
     /**
      * Schedules a chunk for a rebuild, for example after a block update.
+     * A rebuild that is already scheduled but has not taken its snapshot yet covers the update.
      *
      * @param packedPos The bit-packed section coordinate to rebuild.
+     * @return False if the chunk is currently generating from an older snapshot and the rebuild must be retried later.
      */
-    public void rebuildChunk(long packedPos) {
+    public boolean rebuildChunk(long packedPos) {
         int index = chunkDataStore.getIndexForPackedPos(packedPos);
-        if (index != -1) {
-            scheduleShapeGeneration(packedPos, index, false);
+        if (index == -1) {
+            return true;
+        }
+        scheduleShapeGeneration(packedPos, index, false);
+        return chunkDataStore.getState(index) != STATE_GENERATING_SHAPE;
+    }
+
+    /**
+     * Updates the generation priority of a chunk and moves its pending job forward if it became more urgent.
+     *
+     * @param packedPos The bit-packed section coordinate.
+     * @param priority  The new generation priority. Lower values are generated first.
+     */
+    public void updatePriority(long packedPos, int priority) {
+        int index = chunkDataStore.getIndexForPackedPos(packedPos);
+        if (index != -1 && chunkDataStore.getPriority(index) != priority) {
+            chunkDataStore.setPriority(index, priority);
+            jobSystem.promote(packedPos, priority);
         }
     }
 
@@ -188,7 +208,8 @@ public final class VxTerrainManager {
             if (chunkDataStore.getState(index) == STATE_LOADING_SCHEDULED) {
                 // If we successfully transition to the next state, we "own" the generation process.
                 chunkDataStore.setState(index, STATE_GENERATING_SHAPE);
-                jobSystem.submit(() -> processShapeGenerationOnWorker(packedPos, index, version, snapshot, isInitialBuild));
+                jobSystem.submit(packedPos, chunkDataStore.getPriority(index),
+                        () -> processShapeGenerationOnWorker(packedPos, index, version, snapshot, isInitialBuild));
             }
         });
     }
@@ -226,8 +247,6 @@ public final class VxTerrainManager {
             return;
         }
 
-        boolean wasActive = chunkDataStore.getState(index) == STATE_READY_ACTIVE;
-
         BodyInterface bodyInterface = physicsWorld.getPhysicsSystem().getBodyInterface();
         if (bodyInterface == null) {
             if (shape != null) shape.close();
@@ -235,7 +254,12 @@ public final class VxTerrainManager {
             return;
         }
 
+        // A rebuild passes through the generation states, so an existing body that is still
+        // in the simulation also counts as active
         int bodyId = chunkDataStore.getBodyId(index);
+        boolean wasActive = chunkDataStore.getState(index) == STATE_READY_ACTIVE
+                || (bodyId != VxChunkDataStore.UNUSED_BODY_ID && bodyInterface.isAdded(bodyId));
+
         if (bodyId != VxChunkDataStore.UNUSED_BODY_ID) {
             if (shape != null) {
                 bodyInterface.setShape(bodyId, shape, true, EActivation.DontActivate);
@@ -278,6 +302,8 @@ public final class VxTerrainManager {
         if (index == -1) return;
 
         chunkDataStore.setState(index, STATE_REMOVING);
+        // A queued generation job would only produce a shape that is discarded on arrival
+        jobSystem.cancel(packedPos);
 
         physicsWorld.execute(() -> {
             removeBodyAndShape(index, physicsWorld.getPhysicsSystem().getBodyInterface());
@@ -329,6 +355,18 @@ public final class VxTerrainManager {
         return state == STATE_READY_ACTIVE || state == STATE_READY_INACTIVE || state == STATE_AIR_CHUNK;
     }
 
+    /**
+     * Checks if a chunk is active in the simulation with its final shape.
+     * Empty chunks never become active, as a later block update may give them a body.
+     *
+     * @param packedPos The bit-packed section coordinate.
+     * @return True if the chunk needs no further activation work.
+     */
+    public boolean isFullyActive(long packedPos) {
+        int index = chunkDataStore.getIndexForPackedPos(packedPos);
+        return index != -1 && chunkDataStore.getState(index) == STATE_READY_ACTIVE && !chunkDataStore.isPlaceholder(index);
+    }
+
     public boolean isPlaceholder(long packedPos) {
         int index = chunkDataStore.getIndexForPackedPos(packedPos);
         if (index == -1) return true;
@@ -4,29 +4,43 @@
  */
 package net.xmx.velthoric.core.terrain.management;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.core.SectionPos;
 import net.minecraft.server.level.ServerLevel;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
 import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
 import net.xmx.velthoric.core.body.VxBody;
 import net.xmx.velthoric.core.physics.world.VxPhysicsWorld;
+import net.xmx.velthoric.core.terrain.job.VxTerrainJobSystem;
 import net.xmx.velthoric.core.terrain.storage.VxChunkDataStore;
 import net.xmx.velthoric.init.VxMainClass;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 /**
- * Tracks physics bodies using a high-performance, grid-based dynamic clustering approach.
+ * Tracks physics bodies incrementally and maintains the terrain chunks they require.
  * <p>
- * This system groups nearby bodies into clusters to minimize the overhead of terrain
- * calculations. It calculates the union of chunks required for collision based on
- * body positions, bounding boxes, and predicted velocities.
+ * Every body owns a footprint of two section boxes: a <b>preload</b> box around its bounds,
+ * extended by its predicted motion, and an <b>active</b> box around its bounds while it is moving.
+ * Each section holds a reference count per box kind. A chunk is requested while its preload
+ * count is positive and activated while its active count is positive.
+ * <p>
+ * Footprints are only re-evaluated for bodies that can have moved: bodies reported through
+ * {@link #markBodyDirty(VxBody)} (added, removed, crossed a chunk border, woke up or fell asleep)
+ * and bodies that are awake. A footprint that did not cross a section border produces no work,
+ * so the steady-state cost is proportional to movement rather than to the body population.
+ * <p>
+ * Every section entering a footprint is also given a generation priority: its distance, in sections,
+ * to the body bounds. Sections of an active box are measured against the current bounds, preload
+ * sections against the predicted bounds and ranked one step behind, so the terrain directly under
+ * a falling body is generated first.
  * <p>
  * It includes safety mechanisms to prevent excessive chunk loading caused by
  * extreme velocities or floating-point errors.
@@ -41,29 +55,24 @@ public final class VxTerrainTracker {
     private final ServerLevel level;
     private final VxServerBodyDataStore bodyDataStore;
 
-    /**
-     * Stores the set of required chunks from the previous tick to calculate differences.
-     * Uses primitive long keys (bit-packed coordinates) to avoid object allocation.
-     */
-    private LongSet previouslyRequiredChunks = new LongOpenHashSet();
-
     // --- Configuration Constants ---
 
-    /**
-     * Defines the size of the coarse grid cells used for clustering, in chunks.
-     */
-    private final int GRID_CELL_SIZE_IN_CHUNKS = 4;
-
     /**
      * The radius, in chunks, around a moving body's bounding box to keep active.
      */
     private final int ACTIVATION_RADIUS_CHUNKS = 1;
 
     /**
-     * The radius, in chunks, to preload around a cluster's bounding box.
+     * The radius, in chunks, to preload around a body's bounding box.
      */
     private final int PRELOAD_RADIUS_CHUNKS = 3;
 
+    /**
+     * The priority offset of chunks that are only required for preloading, ranking them behind
+     * chunks at the same distance from a moving body.
+     */
+    private final int PRELOAD_PRIORITY_OFFSET = 1;
+
     /**
      * The time, in seconds, to predict a body's future position for preloading terrain.
      */
@@ -76,10 +85,10 @@ public final class VxTerrainTracker {
     private final float MAX_PREDICTION_DISTANCE = 64.0f;
 
     /**
-     * The maximum number of chunks a single cluster can request in one update tick.
+     * The maximum number of chunks a single body footprint can cover.
      * This acts as a safety brake against physics glitches or infinite bounding boxes.
      */
-    private final int MAX_CHUNKS_PER_CLUSTER_ITERATION = 20000;
+    private final int MAX_CHUNKS_PER_FOOTPRINT = 20000;
 
     /**
      * The maximum Y-level at which terrain generation is tracked.
@@ -93,17 +102,82 @@ public final class VxTerrainTracker {
      */
     private final int MIN_GENERATION_HEIGHT = -250;
 
+    // --- Event Input ---
+
+    /**
+     * Bodies reported since the last update. Guarded by the tracker's monitor, written from any thread.
+     */
+    private ReferenceOpenHashSet<VxBody> dirtyBodies = new ReferenceOpenHashSet<>();
+
+    /**
+     * The set swapped in for {@link #dirtyBodies} on each update, so draining does not allocate.
+     */
+    private ReferenceOpenHashSet<VxBody> drainedBodies = new ReferenceOpenHashSet<>();
+
+    /**
+     * Whether every body must be re-evaluated, e.g. for bodies that were added before the tracker existed.
+     */
+    private volatile boolean fullScanRequested = true;
+
+    // --- Tracker State (tracker thread only) ---
+
+    /**
+     * The current footprint of every body that requires terrain.
+     */
+    private final Reference2ObjectOpenHashMap<VxBody, Footprint> footprints = new Reference2ObjectOpenHashMap<>();
+
+    /**
+     * Bodies that were awake at their last evaluation and are re-evaluated on every update.
+     */
+    private final ReferenceOpenHashSet<VxBody> awakeBodies = new ReferenceOpenHashSet<>();
+
+    /**
+     * Bodies reported during the previous update. They are evaluated once more even if they were found
+     * asleep, so a report that raced ahead of the reporter's state writes is corrected on the next update.
+     */
+    private final ReferenceOpenHashSet<VxBody> settlingBodies = new ReferenceOpenHashSet<>();
+
+    /**
+     * Number of preload boxes covering each section. Sections without coverage are absent.
+     */
+    private final Long2IntOpenHashMap preloadRefCounts = new Long2IntOpenHashMap();
+
     /**
-     * Reusable map that groups bodies into grid-based clusters to avoid allocations.
-     * Using fastutil Long2ObjectMap to avoid boxing cell keys.
+     * Number of active boxes covering each section. Sections without coverage are absent.
      */
-    private final Long2ObjectMap<ObjectArrayList<VxBody>> cachedBodyClusters = new Long2ObjectOpenHashMap<>();
+    private final Long2IntOpenHashMap activeRefCounts = new Long2IntOpenHashMap();
 
     /**
-     * Reusable cache for chunk sections required during the current update tick.
-     * Uses bit-packed long coordinates to ensure zero allocation during scan loops.
+     * The chunks currently requested from the terrain manager.
      */
-    private final LongSet requiredChunksCache = new LongOpenHashSet();
+    private final LongSet requestedChunks = new LongOpenHashSet();
+
+    /**
+     * The chunks currently required to be active.
+     */
+    private final LongSet activeChunks = new LongOpenHashSet();
+
+    /**
+     * Active chunks that are not yet active with their final shape, retried on every update.
+     * Empty chunks stay pending, so they are activated as soon as a block update gives them a body.
+     */
+    private final LongSet pendingActivation = new LongOpenHashSet();
+
+    /**
+     * Preload sections whose reference count changed during this update, mapped to the most urgent
+     * priority they entered a footprint with ({@link VxTerrainJobSystem#LOWEST_PRIORITY} if they only left one).
+     */
+    private final Long2IntOpenHashMap touchedPreload = new Long2IntOpenHashMap();
+
+    /**
+     * Active sections whose reference count changed during this update, like {@link #touchedPreload}.
+     */
+    private final Long2IntOpenHashMap touchedActive = new Long2IntOpenHashMap();
+
+    // Reusable boxes for evaluating a footprint without allocation
+    private final SectionBox newPreload = new SectionBox();
+    private final SectionBox newActive = new SectionBox();
+    private final SectionBox innerBox = new SectionBox();
 
     /**
      * Constructs a new VxTerrainTracker.
@@ -119,310 +193,426 @@ public final class VxTerrainTracker {
         this.chunkDataStore = chunkDataStore;
         this.level = level;
         this.bodyDataStore = physicsWorld.getBodyManager().getDataStore();
+        this.touchedPreload.defaultReturnValue(VxTerrainJobSystem.LOWEST_PRIORITY);
+        this.touchedActive.defaultReturnValue(VxTerrainJobSystem.LOWEST_PRIORITY);
     }
 
     /**
-     * Performs a single update tick. It dynamically clusters all bodies, calculates the
-     * required terrain for each cluster, and manages chunk loading and activation based on
-     * the current and previous state.
+     * Reports that a body may have changed its terrain requirements: it was added or removed,
+     * crossed a chunk border, or woke up or fell asleep. Safe to call from any thread.
+     * <p>
+     * The monitor publishes every write the caller made before the call to the next update,
+     * so callers report a body only after its position, bounds and activation state are written.
+     *
+     * @param body The body to re-evaluate on the next update.
      */
-    public void update() {
-        List<VxBody> currentBodies = new ArrayList<>(physicsWorld.getBodyManager().getAllBodies());
-
-        if (currentBodies.isEmpty()) {
-            releaseAllChunks();
-            deactivateAllChunks();
-            return;
-        }
-
-        // 1. Calculate the total set of required chunks based on dynamic clustering.
-        LongSet currentlyRequiredChunks = calculateRequiredPreloadSet(currentBodies);
-
-        // 2. Request new chunks using packed long coordinates.
-        for (long packedPos : currentlyRequiredChunks) {
-            if (!previouslyRequiredChunks.contains(packedPos)) {
-                terrainManager.requestChunk(packedPos);
-            }
-        }
-
-        // 3. Release old chunks using packed long coordinates.
-        for (long packedPos : previouslyRequiredChunks) {
-            if (!currentlyRequiredChunks.contains(packedPos)) {
-                terrainManager.releaseChunk(packedPos);
-            }
+    public void markBodyDirty(VxBody body) {
+        synchronized (this) {
+            dirtyBodies.add(body);
         }
-
-        // 4. Update the state for the next tick using a primitive-based copy.
-        this.previouslyRequiredChunks = new LongOpenHashSet(currentlyRequiredChunks);
-
-        // 5. Handle fine-grained activation for bodies that are actually moving.
-        updateChunkActivation(currentBodies);
     }
 
     /**
-     * Groups all physics bodies into grid-based clusters and calculates the union of
-     * chunks required by each cluster.
-     * <p>
-     * This implementation reuses the {@code cachedBodyClusters} map and its internal lists to
-     * ensure zero allocation during steady-state execution. It clears the collections
-     * instead of re-instantiating them.
-     *
-     * @param allBodies A list of all physics bodies currently in the world.
-     * @return A set of bit-packed long coordinates representing all chunks that should be loaded.
+     * Performs a single update tick. It re-evaluates the footprints of reported and awake bodies,
+     * requests and releases the chunks whose coverage changed, and retries pending activations.
      */
-    private LongSet calculateRequiredPreloadSet(List<VxBody> allBodies) {
-        // Clear previous data without discarding the internal arrays/buckets to preserve memory capacity
-        for (ObjectArrayList<VxBody> list : cachedBodyClusters.values()) {
-            list.clear();
-        }
-        cachedBodyClusters.clear();
-        requiredChunksCache.clear();
-
-        // Iterate via index to avoid Iterator allocation
-        VxServerBodyDataContainer c = bodyDataStore.serverCurrent();
-        for (int b = 0, size = allBodies.size(); b < size; b++) {
-            VxBody body = allBodies.get(b);
-            int i = body.getDataStoreIndex();
-            if (i == -1) continue;
-
-            // Access raw primitive arrays from the DataStore
-            float px = (float) c.posX[i];
-            float py = (float) c.posY[i];
-            float pz = (float) c.posZ[i];
-
-            // Safety check for NaN values which could crash the spatial hashing
-            if (!Float.isFinite(px) || !Float.isFinite(py) || !Float.isFinite(pz)) {
-                continue;
+    public void update() {
+        // 1. Collect the bodies to evaluate: everything reported since the last update, plus the awake bodies.
+        ReferenceOpenHashSet<VxBody> drained;
+        synchronized (this) {
+            drained = dirtyBodies;
+            dirtyBodies = drainedBodies;
+        }
+        drainedBodies = drained;
+        if (fullScanRequested) {
+            fullScanRequested = false;
+            drained.addAll(physicsWorld.getBodyManager().getAllBodies());
+        }
+        awakeBodies.addAll(settlingBodies);
+        settlingBodies.clear();
+        awakeBodies.addAll(drained);
+        settlingBodies.addAll(drained);
+        drained.clear();
+
+        // 2. Re-evaluate the footprints, dropping bodies that are asleep or gone from the awake set.
+        // Bodies are read through their slot index, so compaction must not move them meanwhile
+        Lock slotAccess = bodyDataStore.getSlotAccessLock();
+        slotAccess.lock();
+        try {
+            VxServerBodyDataContainer c = bodyDataStore.serverCurrent();
+            ObjectIterator<VxBody> it = awakeBodies.iterator();
+            while (it.hasNext()) {
+                if (!evaluate(it.next(), c)) {
+                    it.remove();
+                }
             }
+        } finally {
+            slotAccess.unlock();
+        }
 
-            // Height filtering to avoid processing bodies far outside valid terrain range
-            if (py > MAX_GENERATION_HEIGHT || py < MIN_GENERATION_HEIGHT) {
-                continue;
+        // 3. Request new chunks and re-rank retained ones. Releases are applied only now, so a chunk
+        // that is handed from one footprint to another within the same update is never unloaded.
+        if (!touchedPreload.isEmpty()) {
+            for (Long2IntMap.Entry entry : touchedPreload.long2IntEntrySet()) {
+                long packedPos = entry.getLongKey();
+                boolean required = preloadRefCounts.containsKey(packedPos);
+                if (required && requestedChunks.add(packedPos)) {
+                    terrainManager.requestChunk(packedPos, entry.getIntValue());
+                } else if (required) {
+                    promote(packedPos, entry.getIntValue());
+                } else if (requestedChunks.remove(packedPos)) {
+                    terrainManager.releaseChunk(packedPos);
+                }
             }
+            touchedPreload.clear();
+        }
 
-            // Inline coordinate calculation to avoid creating SectionPos objects
-            int cellX = SectionPos.blockToSectionCoord(px) / GRID_CELL_SIZE_IN_CHUNKS;
-            int cellY = SectionPos.blockToSectionCoord(py) / GRID_CELL_SIZE_IN_CHUNKS;
-            int cellZ = SectionPos.blockToSectionCoord(pz) / GRID_CELL_SIZE_IN_CHUNKS;
-
-            long cellKey = SectionPos.asLong(cellX, cellY, cellZ);
-
-            // Populate the reusable structure
-            cachedBodyClusters.computeIfAbsent(cellKey, k -> new ObjectArrayList<>()).add(body);
-        }
-
-        // Process the formed clusters
-        for (ObjectArrayList<VxBody> cluster : cachedBodyClusters.values()) {
-            if (cluster.isEmpty()) continue;
-
-            float minX = Float.POSITIVE_INFINITY;
-            float minY = Float.POSITIVE_INFINITY;
-            float minZ = Float.POSITIVE_INFINITY;
-            float maxX = Float.NEGATIVE_INFINITY;
-            float maxY = Float.NEGATIVE_INFINITY;
-            float maxZ = Float.NEGATIVE_INFINITY;
-            boolean clusterHasValidBodies = false;
-
-            for (int k = 0; k < cluster.size(); k++) {
-                VxBody body = cluster.get(k);
-                int i = body.getDataStoreIndex();
-                if (i == -1) continue;
-
-                float bMinX = c.aabbMinX[i];
-                float bMinY = c.aabbMinY[i];
-                float bMinZ = c.aabbMinZ[i];
-                float bMaxX = c.aabbMaxX[i];
-                float bMaxY = c.aabbMaxY[i];
-                float bMaxZ = c.aabbMaxZ[i];
-
-                if (!Float.isFinite(bMinX) || !Float.isFinite(bMaxX)) continue;
-
-                clusterHasValidBodies = true;
-
-                // Expand cluster AABB by body bounds
-                minX = Math.min(minX, bMinX);
-                minY = Math.min(minY, bMinY);
-                minZ = Math.min(minZ, bMinZ);
-                maxX = Math.max(maxX, bMaxX);
-                maxY = Math.max(maxY, bMaxY);
-                maxZ = Math.max(maxZ, bMaxZ);
-
-                // Velocity Prediction: Expand AABB based on where the body is projected to be.
-                // This allows terrain to load ahead of moving objects.
-                float velX = c.velX[i];
-                float velY = c.velY[i];
-                float velZ = c.velZ[i];
-
-                if (Math.abs(velX) > 0.01f || Math.abs(velY) > 0.01f || Math.abs(velZ) > 0.01f) {
-                    float predictedOffsetX = velX * PREDICTION_SECONDS;
-                    float predictedOffsetY = velY * PREDICTION_SECONDS;
-                    float predictedOffsetZ = velZ * PREDICTION_SECONDS;
-
-                    // Clamp the prediction vector to the configured maximum distance.
-                    // This prevents extreme velocities (e.g., from physics overlaps) from requesting
-                    // massive amounts of terrain, which would trigger the safety brake.
-                    predictedOffsetX = Math.max(-MAX_PREDICTION_DISTANCE, Math.min(MAX_PREDICTION_DISTANCE, predictedOffsetX));
-                    predictedOffsetY = Math.max(-MAX_PREDICTION_DISTANCE, Math.min(MAX_PREDICTION_DISTANCE, predictedOffsetY));
-                    predictedOffsetZ = Math.max(-MAX_PREDICTION_DISTANCE, Math.min(MAX_PREDICTION_DISTANCE, predictedOffsetZ));
-
-                    minX = Math.min(minX, bMinX + predictedOffsetX);
-                    minY = Math.min(minY, bMinY + predictedOffsetY);
-                    minZ = Math.min(minZ, bMinZ + predictedOffsetZ);
-                    maxX = Math.max(maxX, bMaxX + predictedOffsetX);
-                    maxY = Math.max(maxY, bMaxY + predictedOffsetY);
-                    maxZ = Math.max(maxZ, bMaxZ + predictedOffsetZ);
+        // 4. Update the active set for bodies that are actually moving.
+        if (!touchedActive.isEmpty()) {
+            for (Long2IntMap.Entry entry : touchedActive.long2IntEntrySet()) {
+                long packedPos = entry.getLongKey();
+                if (activeRefCounts.containsKey(packedPos)) {
+                    if (activeChunks.add(packedPos)) {
+                        pendingActivation.add(packedPos);
+                    }
+                    promote(packedPos, entry.getIntValue());
+                } else if (activeChunks.remove(packedPos)) {
+                    pendingActivation.remove(packedPos);
+                    terrainManager.deactivateChunk(packedPos);
                 }
             }
+            touchedActive.clear();
+        }
 
-            if (clusterHasValidBodies) {
-                forEachSectionInBox(minX, minY, minZ, maxX, maxY, maxZ, PRELOAD_RADIUS_CHUNKS, requiredChunksCache);
+        // 5. Drive pending activations until the chunk is active and no longer a placeholder.
+        LongIterator pending = pendingActivation.iterator();
+        while (pending.hasNext()) {
+            long packedPos = pending.nextLong();
+            terrainManager.prioritizeChunk(packedPos);
+            terrainManager.activateChunk(packedPos);
+            if (terrainManager.isFullyActive(packedPos)) {
+                pending.remove();
             }
         }
-
-        // Return the primitive set; the caller compares it with previous state.
-        return requiredChunksCache;
     }
 
     /**
-     * Updates the set of active terrain chunks for the current physics tick.
-     * This logic activates chunks only around bodies that are currently in motion.
+     * Recomputes the footprint of a body and applies the difference to the reference counts.
      *
-     * @param allBodies The list of all physics bodies in the world.
+     * @param body The body to evaluate.
+     * @param c    The current data container.
+     * @return True if the body is awake and must be evaluated again on the next update.
      */
-    private void updateChunkActivation(List<VxBody> allBodies) {
-        LongSet requiredActiveSet = new LongOpenHashSet();
-        VxServerBodyDataContainer c = bodyDataStore.serverCurrent();
-
-        for (VxBody body : allBodies) {
-            int i = body.getDataStoreIndex();
-
-            // Check active status
-            if (i != -1 && c.isActive[i]) {
-                float py = (float) c.posY[i];
-
-                // Check height limits
-                if (py > MAX_GENERATION_HEIGHT || py < MIN_GENERATION_HEIGHT) {
-                    continue;
-                }
-
-                float minX = c.aabbMinX[i];
-                float minY = c.aabbMinY[i];
-                float minZ = c.aabbMinZ[i];
-                float maxX = c.aabbMaxX[i];
-                float maxY = c.aabbMaxY[i];
-                float maxZ = c.aabbMaxZ[i];
-
-                // Ensure bounds are valid before iterating
-                if (Float.isFinite(minX) && Float.isFinite(maxX) &&
-                        Float.isFinite(minY) && Float.isFinite(maxY) &&
-                        Float.isFinite(minZ) && Float.isFinite(maxZ)) {
-                    forEachSectionInBox(minX, minY, minZ, maxX, maxY, maxZ, ACTIVATION_RADIUS_CHUNKS, requiredActiveSet);
-                }
-            }
+    private boolean evaluate(VxBody body, VxServerBodyDataContainer c) {
+        newPreload.clear();
+        newActive.clear();
+        boolean awake = false;
+
+        int i = body.getDataStoreIndex();
+        if (i != -1) {
+            awake = c.isActive[i];
+            computeFootprint(c, i, awake);
         }
 
-        // Convert packed coordinates back to prioritized building tasks
-        for (long packed : requiredActiveSet) {
-            terrainManager.prioritizeChunk(packed);
+        Footprint footprint = footprints.get(body);
+        if (footprint == null) {
+            if (newPreload.isEmpty() && newActive.isEmpty()) return awake;
+            footprint = new Footprint();
+            footprints.put(body, footprint);
         }
 
-        LongSet currentlyActive = new LongOpenHashSet();
-        for (int index : chunkDataStore.getActiveIndices()) {
-            if (chunkDataStore.getState(index) == VxTerrainManager.STATE_READY_ACTIVE) {
-                currentlyActive.add(chunkDataStore.getPackedPosForIndex(index));
-            }
+        if (!footprint.preload.coversSameSections(newPreload)) {
+            applyDifference(footprint.preload, newPreload, preloadRefCounts, touchedPreload, PRELOAD_PRIORITY_OFFSET);
+            footprint.preload.set(newPreload);
         }
-
-        for (long packed : currentlyActive) {
-            if (!requiredActiveSet.contains(packed)) {
-                terrainManager.deactivateChunk(packed);
-            }
+        if (!footprint.active.coversSameSections(newActive)) {
+            applyDifference(footprint.active, newActive, activeRefCounts, touchedActive, 0);
+            footprint.active.set(newActive);
         }
 
-        for (long packed : requiredActiveSet) {
-            if (!currentlyActive.contains(packed)) {
-                terrainManager.activateChunk(packed);
-            }
+        if (footprint.preload.isEmpty() && footprint.active.isEmpty()) {
+            footprints.remove(body);
         }
+        return awake;
     }
 
     /**
-     * Helper method to iterate over all chunk sections that overlap a given AABB, expanded by a radius.
-     * Includes a safety brake to prevent processing excessively large areas due to physics glitches.
-     *
-     * @param minX           The minimum X coordinate of the bounding box.
-     * @param minY           The minimum Y coordinate of the bounding box.
-     * @param minZ           The minimum Z coordinate of the bounding box.
-     * @param maxX           The maximum X coordinate of the bounding box.
-     * @param maxY           The maximum Y coordinate of the bounding box.
-     * @param maxZ           The maximum Z coordinate of the bounding box.
-     * @param radiusInChunks The radius in chunks to expand the box by.
-     * @param outChunks      The set to which the overlapping bit-packed chunk positions will be added.
+     * Computes the preload and active boxes of the body at the given index into {@link #newPreload} and {@link #newActive}.
      */
-    private void forEachSectionInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, int radiusInChunks, LongSet outChunks) {
-        if (Double.isNaN(minX) || Double.isNaN(maxX) || Double.isNaN(minZ) || Double.isNaN(maxZ)) return;
+    private void computeFootprint(VxServerBodyDataContainer c, int i, boolean awake) {
+        double px = c.posX[i];
+        double py = c.posY[i];
+        double pz = c.posZ[i];
+
+        // Safety check for NaN values which could crash the spatial hashing
+        if (!Double.isFinite(px) || !Double.isFinite(py) || !Double.isFinite(pz)) {
+            return;
+        }
 
-        int minSectionX = SectionPos.blockToSectionCoord(minX) - radiusInChunks;
-        int minSectionY = SectionPos.blockToSectionCoord(minY) - radiusInChunks;
-        int minSectionZ = SectionPos.blockToSectionCoord(minZ) - radiusInChunks;
-        int maxSectionX = SectionPos.blockToSectionCoord(maxX) + radiusInChunks;
-        int maxSectionY = SectionPos.blockToSectionCoord(maxY) + radiusInChunks;
-        int maxSectionZ = SectionPos.blockToSectionCoord(maxZ) + radiusInChunks;
+        // Height filtering to avoid processing bodies far outside valid terrain range
+        if (py > MAX_GENERATION_HEIGHT || py < MIN_GENERATION_HEIGHT) {
+            return;
+        }
+
+        float minX = c.aabbMinX[i];
+        float minY = c.aabbMinY[i];
+        float minZ = c.aabbMinZ[i];
+        float maxX = c.aabbMaxX[i];
+        float maxY = c.aabbMaxY[i];
+        float maxZ = c.aabbMaxZ[i];
+
+        // Ensure bounds are valid before iterating
+        if (!Float.isFinite(minX) || !Float.isFinite(maxX) ||
+                !Float.isFinite(minY) || !Float.isFinite(maxY) ||
+                !Float.isFinite(minZ) || !Float.isFinite(maxZ)) {
+            return;
+        }
 
         final int worldMinY = level.getMinBuildHeight() >> 4;
         final int worldMaxY = level.getMaxBuildHeight() >> 4;
 
-        // Calculate the volume of the requested area
-        long width = (long) maxSectionX - minSectionX + 1;
-        long height = (long) maxSectionY - minSectionY + 1;
-        long depth = (long) maxSectionZ - minSectionZ + 1;
+        if (awake) {
+            newActive.setAround(minX, minY, minZ, maxX, maxY, maxZ, ACTIVATION_RADIUS_CHUNKS, MAX_CHUNKS_PER_FOOTPRINT, worldMinY, worldMaxY);
+        }
 
-        if (width <= 0 || height <= 0 || depth <= 0) return;
+        // Velocity Prediction: Expand the bounds based on where the body is projected to be.
+        // This allows terrain to load ahead of moving objects.
+        float velX = c.velX[i];
+        float velY = c.velY[i];
+        float velZ = c.velZ[i];
+
+        if (Math.abs(velX) > 0.01f || Math.abs(velY) > 0.01f || Math.abs(velZ) > 0.01f) {
+            // Clamp the prediction vector to the configured maximum distance.
+            // This prevents extreme velocities (e.g., from physics overlaps) from requesting
+            // massive amounts of terrain, which would trigger the safety brake.
+            float predictedOffsetX = Math.max(-MAX_PREDICTION_DISTANCE, Math.min(MAX_PREDICTION_DISTANCE, velX * PREDICTION_SECONDS));
+            float predictedOffsetY = Math.max(-MAX_PREDICTION_DISTANCE, Math.min(MAX_PREDICTION_DISTANCE, velY * PREDICTION_SECONDS));
+            float predictedOffsetZ = Math.max(-MAX_PREDICTION_DISTANCE, Math.min(MAX_PREDICTION_DISTANCE, velZ * PREDICTION_SECONDS));
+
+            minX = Math.min(minX, minX + predictedOffsetX);
+            minY = Math.min(minY, minY + predictedOffsetY);
+            minZ = Math.min(minZ, minZ + predictedOffsetZ);
+            maxX = Math.max(maxX, maxX + predictedOffsetX);
+            maxY = Math.max(maxY, maxY + predictedOffsetY);
+            maxZ = Math.max(maxZ, maxZ + predictedOffsetZ);
+        }
 
-        long totalVolume = width * height * depth;
+        newPreload.setAround(minX, minY, minZ, maxX, maxY, maxZ, PRELOAD_RADIUS_CHUNKS, MAX_CHUNKS_PER_FOOTPRINT, worldMinY, worldMaxY);
+    }
 
-        // Safety brake: Abort if the requested volume is unreasonably large (likely a glitch)
-        if (totalVolume > MAX_CHUNKS_PER_CLUSTER_ITERATION) {
-            VxMainClass.LOGGER.warn("Terrain Tracker Safety Brake triggered! Ignored request for {} chunks in one cluster. (Bounds: {},{} to {},{})",
-                    totalVolume, minSectionX, minSectionZ, maxSectionX, maxSectionZ);
-            return;
+    /**
+     * Moves the reference counts of a footprint box from its old to its new extent.
+     * Sections entering the box are ranked by their Chebyshev distance, in sections, to the
+     * unexpanded bounds plus the base priority.
+     *
+     * @param from         The old box.
+     * @param to           The new box.
+     * @param refCounts    The reference counts of the box kind.
+     * @param touched      The sections touched during this update, with their most urgent priority.
+     * @param basePriority The priority of sections overlapping the unexpanded bounds.
+     */
+    private void applyDifference(SectionBox from, SectionBox to, Long2IntOpenHashMap refCounts, Long2IntOpenHashMap touched, int basePriority) {
+        if (!to.isEmpty()) {
+            SectionBox inner = innerBox.setInner(to);
+            for (int y = to.minY; y <= to.maxY; ++y) {
+                int dy = inner.distanceY(y);
+                for (int z = to.minZ; z <= to.maxZ; ++z) {
+                    int dz = inner.distanceZ(z);
+                    for (int x = to.minX; x <= to.maxX; ++x) {
+                        if (from.contains(x, y, z)) continue;
+                        // Pack x, y, z into a single long coordinate to eliminate Garbage Collection pressure.
+                        long packed = SectionPos.asLong(x, y, z);
+                        refCounts.addTo(packed, 1);
+
+                        int priority = basePriority + Math.max(inner.distanceX(x), Math.max(dy, dz));
+                        if (priority < touched.get(packed)) {
+                            touched.put(packed, priority);
+                        }
+                    }
+                }
+            }
         }
 
-        for (int y = minSectionY; y <= maxSectionY; ++y) {
-            if (y < worldMinY || y >= worldMaxY) continue;
-            for (int z = minSectionZ; z <= maxSectionZ; ++z) {
-                for (int x = minSectionX; x <= maxSectionX; ++x) {
-                    // Pack x, y, z into a single long coordinate to eliminate Garbage Collection pressure.
-                    outChunks.add(SectionPos.asLong(x, y, z));
+        if (!from.isEmpty()) {
+            for (int y = from.minY; y <= from.maxY; ++y) {
+                for (int z = from.minZ; z <= from.maxZ; ++z) {
+                    for (int x = from.minX; x <= from.maxX; ++x) {
+                        if (to.contains(x, y, z)) continue;
+                        long packed = SectionPos.asLong(x, y, z);
+                        if (refCounts.addTo(packed, -1) <= 1) {
+                            refCounts.remove(packed);
+                        }
+                        if (!touched.containsKey(packed)) {
+                            touched.put(packed, VxTerrainJobSystem.LOWEST_PRIORITY);
+                        }
+                    }
                 }
             }
         }
     }
 
     /**
-     * Releases all chunks currently held by the tracker.
+     * Moves the generation of a chunk forward if the given priority is more urgent than its current one.
      */
-    private void releaseAllChunks() {
-        if (previouslyRequiredChunks.isEmpty()) return;
-        for (long packed : previouslyRequiredChunks) {
-            terrainManager.releaseChunk(packed);
+    private void promote(long packedPos, int priority) {
+        int index = chunkDataStore.getIndexForPackedPos(packedPos);
+        if (index != -1 && priority < chunkDataStore.getPriority(index)) {
+            terrainManager.updatePriority(packedPos, priority);
         }
-        previouslyRequiredChunks.clear();
     }
 
     /**
-     * Deactivates all currently managed terrain chunks.
+     * Clears all tracking data and releases all held chunks.
      */
-    private void deactivateAllChunks() {
-        for (int index : chunkDataStore.getActiveIndices()) {
-            terrainManager.deactivateChunk(chunkDataStore.getPackedPosForIndex(index));
+    public void clear() {
+        for (long packedPos : activeChunks) {
+            terrainManager.deactivateChunk(packedPos);
+        }
+        for (long packedPos : requestedChunks) {
+            terrainManager.releaseChunk(packedPos);
         }
+        activeChunks.clear();
+        pendingActivation.clear();
+        requestedChunks.clear();
+        preloadRefCounts.clear();
+        activeRefCounts.clear();
+        touchedPreload.clear();
+        touchedActive.clear();
+        footprints.clear();
+        awakeBodies.clear();
+        settlingBodies.clear();
+        synchronized (this) {
+            dirtyBodies.clear();
+        }
+        fullScanRequested = true;
     }
 
     /**
-     * Clears all tracking data and releases all held chunks.
+     * The section boxes a body currently covers, with their unexpanded bounds.
      */
-    public void clear() {
-        releaseAllChunks();
+    private static final class Footprint {
+        private final SectionBox preload = new SectionBox();
+        private final SectionBox active = new SectionBox();
+    }
+
+    /**
+     * An inclusive box of section coordinates, clamped to the build height of the level. Empty boxes cover nothing.
+     */
+    private static final class SectionBox {
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private int radius;
+        private boolean empty = true;
+
+        /**
+         * The vertical extent of the unexpanded bounds, before clamping to the build height.
+         */
+        private int innerMinY, innerMaxY;
+
+        private void clear() {
+            empty = true;
+        }
+
+        private boolean isEmpty() {
+            return empty;
+        }
+
+        /**
+         * Sets this box to the sections overlapping the given block bounds, expanded by a radius.
+         * Includes a safety brake to prevent covering excessively large areas due to physics glitches.
+         */
+        private void setAround(float bMinX, float bMinY, float bMinZ, float bMaxX, float bMaxY, float bMaxZ, int radiusInChunks,
+                               int maxVolume, int worldMinY, int worldMaxY) {
+            empty = true;
+            radius = radiusInChunks;
+
+            int sMinX = SectionPos.blockToSectionCoord(bMinX) - radiusInChunks;
+            int sMinY = SectionPos.blockToSectionCoord(bMinY) - radiusInChunks;
+            int sMinZ = SectionPos.blockToSectionCoord(bMinZ) - radiusInChunks;
+            int sMaxX = SectionPos.blockToSectionCoord(bMaxX) + radiusInChunks;
+            int sMaxY = SectionPos.blockToSectionCoord(bMaxY) + radiusInChunks;
+            int sMaxZ = SectionPos.blockToSectionCoord(bMaxZ) + radiusInChunks;
+
+            // Calculate the volume of the requested area
+            long width = (long) sMaxX - sMinX + 1;
+            long height = (long) sMaxY - sMinY + 1;
+            long depth = (long) sMaxZ - sMinZ + 1;
+
+            if (width <= 0 || height <= 0 || depth <= 0) return;
+
+            // Safety brake: Abort if the requested volume is unreasonably large (likely a glitch)
+            long totalVolume = width * height * depth;
+            if (totalVolume > maxVolume) {
+                VxMainClass.LOGGER.warn("Terrain Tracker Safety Brake triggered! Ignored request for {} chunks for one body. (Bounds: {},{} to {},{})",
+                        totalVolume, sMinX, sMinZ, sMaxX, sMaxZ);
+                return;
+            }
+
+            minX = sMinX;
+            minZ = sMinZ;
+            maxX = sMaxX;
+            maxZ = sMaxZ;
+            innerMinY = sMinY + radiusInChunks;
+            innerMaxY = sMaxY - radiusInChunks;
+            minY = Math.max(sMinY, worldMinY);
+            maxY = Math.min(sMaxY, worldMaxY - 1);
+            empty = minY > maxY;
+        }
+
+        /**
+         * Sets this box to the unexpanded bounds of the given box.
+         *
+         * @return This box.
+         */
+        private SectionBox setInner(SectionBox box) {
+            minX = box.minX + box.radius;
+            minZ = box.minZ + box.radius;
+            maxX = box.maxX - box.radius;
+            maxZ = box.maxZ - box.radius;
+            minY = box.innerMinY;
+            maxY = box.innerMaxY;
+            innerMinY = box.innerMinY;
+            innerMaxY = box.innerMaxY;
+            radius = 0;
+            empty = box.empty;
+            return this;
+        }
+
+        private void set(SectionBox other) {
+            minX = other.minX;
+            minY = other.minY;
+            minZ = other.minZ;
+            maxX = other.maxX;
+            maxY = other.maxY;
+            maxZ = other.maxZ;
+            innerMinY = other.innerMinY;
+            innerMaxY = other.innerMaxY;
+            radius = other.radius;
+            empty = other.empty;
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return !empty && x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private int distanceX(int x) {
+            return Math.max(0, Math.max(minX - x, x - maxX));
+        }
+
+        private int distanceY(int y) {
+            return Math.max(0, Math.max(minY - y, y - maxY));
+        }
+
+        private int distanceZ(int z) {
+            return Math.max(0, Math.max(minZ - z, z - maxZ));
+        }
+
+        /**
+         * Compares the covered sections only.
+         */
+        private boolean coversSameSections(SectionBox other) {
+            if (empty || other.empty) return empty == other.empty;
+            return minX == other.minX && minY == other.minY && minZ == other.minZ
+                    && maxX == other.maxX && maxY == other.maxY && maxZ == other.maxZ;
+        }
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import it.unimi.dsi.fastutil.longs.Long2IntMap;
 import it.unimi.dsi.fastutil.longs.Long2IntMaps;
 import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import net.xmx.velthoric.core.AbstractDataStore;
+import net.xmx.velthoric.core.terrain.job.VxTerrainJobSystem;
 import net.xmx.velthoric.core.terrain.management.VxTerrainManager;
 import org.jetbrains.annotations.Nullable;
 
@@ -55,6 +56,18 @@ public final class VxChunkDataStore extends AbstractDataStore {
     private AtomicIntegerArray isPlaceholder; // Using 1 for true, 0 for false
     private AtomicIntegerArray rebuildVersions;
     private AtomicIntegerArray referenceCounts;
+    private AtomicIntegerArray priorities; // Generation priority, lower is more urgent
+
+    /**
+     * Mask extracting the body index from a Jolt body ID. The bits above it hold the sequence number.
+     */
+    private static final int BODY_INDEX_MASK = 0x7FFFFF;
+
+    /**
+     * Terrain body IDs indexed by their Jolt body index, for constant-time membership checks.
+     * Holding the full ID rejects stale IDs of a recycled body slot. Grown and written under the allocation lock.
+     */
+    private volatile AtomicIntegerArray terrainBodyIdsByIndex = new AtomicIntegerArray(INITIAL_CAPACITY);
 
     public VxChunkDataStore() {
         packedPosToIndex.defaultReturnValue(-1);
@@ -69,6 +82,7 @@ public final class VxChunkDataStore extends AbstractDataStore {
         isPlaceholder = growAtomic(isPlaceholder, newCapacity, 1); // Default to placeholder=true
         rebuildVersions = growAtomic(rebuildVersions, newCapacity);
         referenceCounts = growAtomic(referenceCounts, newCapacity);
+        priorities = growAtomic(priorities, newCapacity, VxTerrainJobSystem.LOWEST_PRIORITY);
 
         // A volatile write ensures visibility of the new arrays to other threads before capacity is updated.
         indexToPackedPos = growAtomicLong(indexToPackedPos, newCapacity);
@@ -151,6 +165,7 @@ public final class VxChunkDataStore extends AbstractDataStore {
             freeIndices.clear();
             count = 0;
             allocate(INITIAL_CAPACITY);
+            terrainBodyIdsByIndex = new AtomicIntegerArray(INITIAL_CAPACITY);
         }
     }
 
@@ -177,11 +192,58 @@ public final class VxChunkDataStore extends AbstractDataStore {
         return bodyIds.get(index);
     }
 
+    /**
+     * Sets the terrain body of a chunk and keeps the terrain body membership in sync.
+     *
+     * @param index  The data store index.
+     * @param bodyId The Jolt body ID, or {@link #UNUSED_BODY_ID} once the body is destroyed.
+     */
     public void setBodyId(int index, int bodyId) {
         if (index < 0 || index >= capacity) {
             return;
         }
-        this.bodyIds.set(index, bodyId);
+        int oldBodyId = this.bodyIds.getAndSet(index, bodyId);
+        if (oldBodyId != bodyId) {
+            synchronized (allocationLock) {
+                unregisterTerrainBody(oldBodyId);
+                registerTerrainBody(bodyId);
+            }
+        }
+    }
+
+    /**
+     * Checks in constant time whether a Jolt body is the body of a terrain chunk in this store.
+     *
+     * @param bodyId The Jolt body ID.
+     * @return True if the body is a terrain body.
+     */
+    public boolean isTerrainBody(int bodyId) {
+        if (bodyId == UNUSED_BODY_ID) return false;
+        int bodyIndex = bodyId & BODY_INDEX_MASK;
+        AtomicIntegerArray ids = terrainBodyIdsByIndex;
+        return bodyIndex < ids.length() && ids.get(bodyIndex) == bodyId;
+    }
+
+    private void registerTerrainBody(int bodyId) {
+        // Called under the allocation lock
+        if (bodyId == UNUSED_BODY_ID) return;
+        int bodyIndex = bodyId & BODY_INDEX_MASK;
+        AtomicIntegerArray ids = terrainBodyIdsByIndex;
+        if (bodyIndex >= ids.length()) {
+            ids = growAtomic(ids, Math.max(bodyIndex + 1, ids.length() * 2));
+            terrainBodyIdsByIndex = ids;
+        }
+        ids.set(bodyIndex, bodyId);
+    }
+
+    private void unregisterTerrainBody(int bodyId) {
+        // Called under the allocation lock
+        if (bodyId == UNUSED_BODY_ID) return;
+        int bodyIndex = bodyId & BODY_INDEX_MASK;
+        AtomicIntegerArray ids = terrainBodyIdsByIndex;
+        if (bodyIndex < ids.length()) {
+            ids.compareAndSet(bodyIndex, bodyId, UNUSED_BODY_ID);
+        }
     }
 
     public boolean isPlaceholder(int index) {
@@ -212,6 +274,20 @@ public final class VxChunkDataStore extends AbstractDataStore {
         return this.referenceCounts.decrementAndGet(index);
     }
 
+    public int getPriority(int index) {
+        if (index < 0 || index >= capacity) {
+            return VxTerrainJobSystem.LOWEST_PRIORITY;
+        }
+        return priorities.get(index);
+    }
+
+    public void setPriority(int index, int priority) {
+        if (index < 0 || index >= capacity) {
+            return;
+        }
+        this.priorities.set(index, priority);
+    }
+
     public boolean isVersionStale(int index, int version) {
         if (index < 0 || index >= capacity) {
             return true;
@@ -325,11 +401,12 @@ public final class VxChunkDataStore extends AbstractDataStore {
 
     private void resetIndex(int index) {
         states.set(index, VxTerrainManager.STATE_UNLOADED);
-        bodyIds.set(index, UNUSED_BODY_ID);
+        unregisterTerrainBody(bodyIds.getAndSet(index, UNUSED_BODY_ID));
         shapeRefs.set(index, null);
         isPlaceholder.set(index, 1); // true
         rebuildVersions.set(index, 0);
         referenceCounts.set(index, 0);
+        priorities.set(index, VxTerrainJobSystem.LOWEST_PRIORITY);
     }
 
     // --- Helper methods for growing atomic arrays ---
@@ -414,7 +414,7 @@ public abstract class VxWheeledVehicle extends VxVehicle {
         // Only run logic if the physics body is valid and active
         if (joltBody != null && joltBody.isActive() && constraint.getController() instanceof WheeledVehicleController controller) {
 
-            float dt = 1.0f / 60.0f; // Fixed timestep approximation
+            float dt = world.getTimeStep();
 
             // 1. Process and Smooth Driver Inputs
             float targetThrottle = currentInput.getForwardAmount();
@@ -22,6 +22,7 @@ public class CommandRegistry {
         VxTestCommand.register(dispatcher);
         VxSummonCommand.register(dispatcher);
         VxKillCommand.register(dispatcher);
+        VxPhysicsCommand.register(dispatcher);
     }
 
     public static void registerClient(CommandDispatcher<CommandSourceStack> dispatcher) {
@@ -51,6 +51,8 @@ public class MixinChunkMap_Persistence {
      *     <li>If {@code chunk.isUnsaved()} is <b>false</b>: Minecraft would skip this chunk.
      *     We must manually force a physics save to capture body movements.</li>
      * </ul>
+     * The physics saves themselves skip chunks whose bodies and constraints have not changed
+     * since they were last saved, so visiting every loaded chunk here stays cheap.
      */
     @Inject(method = "saveAllChunks", at = @At("HEAD"))
     private void onSaveAllChunks(boolean flush, CallbackInfo ci) {
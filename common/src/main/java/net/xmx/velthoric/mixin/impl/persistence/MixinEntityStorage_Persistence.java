@@ -37,16 +37,17 @@ public class MixinEntityStorage_Persistence {
     /**
      * Injects into the start of the entity loading process.
      * Triggers the asynchronous loading of physics bodies and constraints for the specified chunk.
+     * <p>
+     * Reading and decoding run on the storage I/O threads, or were already done by the chunk prefetcher.
+     * The physics thread only registers the decoded bodies of the chunk and inserts them into Jolt.
      */
     @Inject(method = "loadEntities", at = @At("HEAD"))
     private void onLoadEntities(ChunkPos pos, CallbackInfoReturnable<CompletableFuture<ChunkEntities<Entity>>> cir) {
         VxPhysicsWorld world = VxPhysicsWorld.get(this.level.dimension());
         if (world != null) {
             world.getBodyManager().getBodyStorage().loadChunk(pos).thenAccept(dataList -> {
-                // Schedule instantiation on main thread/physics thread
-                world.execute(() -> {
-                    for (var data : dataList) world.getBodyManager().addSerializedBody(data);
-                });
+                // Schedule instantiation on the physics thread
+                world.execute(() -> world.getBodyManager().addSerializedBodies(dataList));
             });
 
             world.getConstraintManager().getConstraintStorage().loadChunk(pos).thenAccept(constraints -> {
@@ -42,12 +42,21 @@ public class NativeManager {
      * Initializes and loads all registered native libraries.
      */
     public static synchronized void initialize() {
+        initialize(Platform.getGameFolder().resolve("velthoric").resolve("natives"));
+    }
+
+    /**
+     * Initializes and loads all registered native libraries into a specific extraction directory.
+     * Used directly by headless environments (e.g. the benchmark module) that have no game folder.
+     *
+     * @param extractionPath The directory to extract the libraries into.
+     */
+    public static synchronized void initialize(Path extractionPath) {
         if (areNativesInitialized) {
             return;
         }
 
         LOGGER.info("Initializing Velthoric native libraries...");
-        Path extractionPath = Platform.getGameFolder().resolve("velthoric").resolve("natives");
 
         OS os = OS.detect();
         Arch arch = Arch.detect();
@@ -9,7 +9,8 @@ import dev.architectury.platform.Platform;
 import dev.architectury.utils.Env;
 import dev.architectury.utils.GameInstance;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import it.unimi.dsi.fastutil.bytes.Byte2ObjectMap;
 import it.unimi.dsi.fastutil.bytes.Byte2ObjectOpenHashMap;
 import net.fabricmc.api.EnvType;
@@ -18,6 +19,7 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.Level;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -37,11 +39,21 @@ import java.util.function.Function;
  *     <li>The ID is resolved based on the receiving side (Env.SERVER = C2S, Env.CLIENT = S2C).</li>
  *     <li>The payload is wrapped in a {@link VxByteBuf} for convenient reading of custom types.</li>
  * </ul>
+ * <p>
+ * <b>Buffers:</b> Outgoing packets are encoded into pooled, reference-counted buffers. Broadcasts
+ * ({@link #sendToPlayers}) encode a packet exactly once and hand each connection a retained duplicate,
+ * so the cost of encoding does not grow with the number of recipients.
+ * </p>
  *
  * @author xI-Mx-Ix
  */
 public class VxNetworking {
 
+    /**
+     * The allocator for outgoing packet buffers. Every buffer is released once the send completes.
+     */
+    private static final ByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
     /**
      * Maps a byte ID to a specific packet decoder function for packets received by the Server (C2S).
      */
@@ -164,7 +176,7 @@ public class VxNetworking {
      * Internal helper to create a ByteBuf containing the packet ID and encoded data.
      *
      * @param packet The packet to serialize.
-     * @return A new Netty ByteBuf containing [ID][Data].
+     * @return A new pooled Netty ByteBuf containing [ID][Data]. The caller must release it.
      * @throws IllegalStateException if the packet class is not registered.
      */
     private static ByteBuf createBuffer(IVxNetPacket packet) {
@@ -173,15 +185,20 @@ public class VxNetworking {
             throw new IllegalStateException("Attempted to send unregistered packet: " + packet.getClass().getName());
         }
 
-        // Allocate a buffer. Unpooled is fine here; Netty/MC handles the rest.
-        ByteBuf buffer = Unpooled.buffer();
-
-        // Write ID
-        buffer.writeByte(id);
+        // Allocate a pooled buffer; it is returned to the pool once all sends have completed.
+        ByteBuf buffer = ALLOCATOR.buffer();
 
-        // Wrap and Encode
-        VxByteBuf vxBuf = new VxByteBuf(buffer);
-        packet.encode(vxBuf);
+        try {
+            // Write ID
+            buffer.writeByte(id);
+
+            // Wrap and Encode
+            VxByteBuf vxBuf = new VxByteBuf(buffer);
+            packet.encode(vxBuf);
+        } catch (RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
 
         return buffer;
     }
@@ -225,6 +242,45 @@ public class VxNetworking {
         }
     }
 
+    /**
+     * Sends a packet from the Server to a group of players, encoding it only once.
+     * <p>
+     * The packet is encoded lazily when the first player that can receive it is found.
+     * Each connection then receives a retained duplicate of the same pooled buffer, which
+     * shares the encoded bytes but has its own reader index and reference.
+     * This method is safe to call from the network thread.
+     *
+     * @param players The target players.
+     * @param packet  The packet to send.
+     */
+    public static void sendToPlayers(Collection<ServerPlayer> players, IVxNetPacket packet) {
+        if (players.isEmpty()) return;
+
+        ByteBuf buf = null;
+        try {
+            for (ServerPlayer player : players) {
+                if (!NetworkManager.canPlayerReceive(player, VxRawPayload.TYPE_S2C)) {
+                    continue;
+                }
+                if (buf == null) {
+                    buf = createBuffer(packet);
+                }
+
+                ByteBuf duplicate = buf.retainedDuplicate();
+                try {
+                    NetworkManager.sendToPlayer(player, new VxRawPayload(duplicate, VxRawPayload.TYPE_S2C));
+                } finally {
+                    // Release this recipient's reference once the payload has been written
+                    duplicate.release();
+                }
+            }
+        } finally {
+            if (buf != null) {
+                buf.release();
+            }
+        }
+    }
+
     /**
      * Sends a packet from the Server to all connected players.
      *
@@ -233,15 +289,7 @@ public class VxNetworking {
     public static void sendToAll(IVxNetPacket packet) {
         if (GameInstance.getServer() == null) return;
 
-        ByteBuf buf = createBuffer(packet);
-        try {
-            NetworkManager.sendToPlayers(
-                    GameInstance.getServer().getPlayerList().getPlayers(),
-                    new VxRawPayload(buf, VxRawPayload.TYPE_S2C)
-            );
-        } finally {
-            buf.release();
-        }
+        sendToPlayers(GameInstance.getServer().getPlayerList().getPlayers(), packet);
     }
 
     /**
@@ -255,12 +303,7 @@ public class VxNetworking {
 
         ServerLevel level = GameInstance.getServer().getLevel(dimension);
         if (level != null) {
-            ByteBuf buf = createBuffer(packet);
-            try {
-                NetworkManager.sendToPlayers(level.players(), new VxRawPayload(buf, VxRawPayload.TYPE_S2C));
-            } finally {
-                buf.release();
-            }
+            sendToPlayers(level.players(), packet);
         }
     }
 }
\ No newline at end of file
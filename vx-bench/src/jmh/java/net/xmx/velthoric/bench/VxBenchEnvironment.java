@@ -0,0 +1,76 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.VxBodyType;
+import net.xmx.velthoric.core.physics.VxPhysicsBootstrap;
+import net.xmx.velthoric.natives.impl.NativeJolt;
+import net.xmx.velthoric.natives.impl.NativeVelthoric;
+import net.xmx.velthoric.natives.impl.NativeZstd;
+import net.xmx.velthoric.natives.systems.NativeManager;
+
+import java.nio.file.Path;
+
+/**
+ * Headless bootstrap shared by all benchmarks.
+ * <p>
+ * Benchmarks run outside of a Minecraft instance, so there is no game folder and no mod loader.
+ * This class performs the minimal subset of {@code VxMainClass.onInit()} that the measured code paths need:
+ * <ul>
+ *     <li>{@link #natives()} extracts and loads Zstd, Jolt and the core library into the system temp directory
+ *     and initializes the Jolt factory and physics layers. Requires a platform with bundled natives.</li>
+ *     <li>{@link #minecraft()} bootstraps the vanilla registries, which is required for block states.</li>
+ * </ul>
+ * Both methods are idempotent and safe to call from every {@code @Setup} method.
+ *
+ * @author xI-Mx-Ix
+ */
+public final class VxBenchEnvironment {
+
+    /**
+     * A body type without physics providers, used wherever a benchmark needs {@link VxBody} handles.
+     */
+    public static final VxBodyType BENCH_BODY_TYPE = VxBodyType.Builder.create(VxBody::new)
+            .noSummon()
+            .setPersistent(false)
+            .build(ResourceLocation.fromNamespaceAndPath("velthoric", "bench_body"));
+
+    private static boolean nativesLoaded = false;
+    private static boolean minecraftBootstrapped = false;
+
+    private VxBenchEnvironment() {
+    }
+
+    /**
+     * Loads all native libraries and initializes the Jolt engine.
+     */
+    public static synchronized void natives() {
+        if (nativesLoaded) {
+            return;
+        }
+        NativeManager.register(new NativeZstd());
+        NativeManager.register(new NativeJolt());
+        NativeManager.register(new NativeVelthoric());
+        NativeManager.initialize(Path.of(System.getProperty("java.io.tmpdir"), "velthoric-bench", "natives"));
+        VxPhysicsBootstrap.initialize();
+        nativesLoaded = true;
+    }
+
+    /**
+     * Bootstraps the vanilla registries (blocks, block states, shapes).
+     */
+    public static synchronized void minecraft() {
+        if (minecraftBootstrapped) {
+            return;
+        }
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        minecraftBootstrapped = true;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.body;
+
+import com.github.stephengold.joltjni.enumerate.EBodyType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lifecycle operations of the server-side SoA data store.
+ * <ul>
+ *     <li>{@code churn}: removes and re-adds a slice of bodies in a store of steady size (free-list reuse).</li>
+ *     <li>{@code fillFromEmpty}: fills an empty store, including every capacity doubling.</li>
+ *     <li>{@code compactAfterMassRemoval}: removes most bodies and compacts the store back down.</li>
+ *     <li>{@code markAndDrainDirty}: marks every 4th body dirty, as a physics tick does, and drains the set, as the network thread does.</li>
+ * </ul>
+ * Pure Java, no natives required.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxServerBodyDataStoreBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int bodyCount;
+
+    /**
+     * The number of bodies removed and re-added per {@code churn} invocation.
+     */
+    private static final int CHURN_SLICE = 256;
+
+    private VxBody[] bodies;
+    private VxServerBodyDataStore steadyStore;
+    private int churnCursor;
+    private final IntArrayList drained = new IntArrayList();
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        bodies = new VxBody[bodyCount];
+        for (int i = 0; i < bodyCount; i++) {
+            bodies[i] = new VxBody(VxBenchEnvironment.BENCH_BODY_TYPE, null, UUID.randomUUID());
+        }
+
+        steadyStore = new VxServerBodyDataStore();
+        for (VxBody body : bodies) {
+            add(steadyStore, body);
+        }
+        churnCursor = 0;
+    }
+
+    @Benchmark
+    public void churn() {
+        int start = churnCursor;
+        for (int k = 0; k < CHURN_SLICE; k++) {
+            steadyStore.removeBody(bodies[(start + k) % bodyCount].getPhysicsId());
+        }
+        for (int k = 0; k < CHURN_SLICE; k++) {
+            add(steadyStore, bodies[(start + k) % bodyCount]);
+        }
+        churnCursor = (start + CHURN_SLICE) % bodyCount;
+    }
+
+    @Benchmark
+    public void fillFromEmpty(Blackhole bh) {
+        VxServerBodyDataStore store = new VxServerBodyDataStore();
+        for (VxBody body : bodies) {
+            add(store, body);
+        }
+        bh.consume(store.getCapacity());
+    }
+
+    @Benchmark
+    public void compactAfterMassRemoval(Blackhole bh) {
+        VxServerBodyDataStore store = new VxServerBodyDataStore();
+        for (VxBody body : bodies) {
+            add(store, body);
+        }
+        // Keep every 8th body so the survivors are scattered over the whole store
+        for (int i = 0; i < bodyCount; i++) {
+            if ((i & 7) != 0) {
+                store.removeBody(bodies[i].getPhysicsId());
+            }
+        }
+        // An unbounded budget compacts and shrinks the store in a single step
+        bh.consume(store.compact(Integer.MAX_VALUE));
+        bh.consume(store.getCapacity());
+    }
+
+    @Benchmark
+    public void markAndDrainDirty(Blackhole bh) {
+        VxServerBodyDataContainer c = steadyStore.serverCurrent();
+        for (int i = 0; i < bodyCount; i += 4) {
+            c.isTransformDirty[i] = true;
+            c.dirtyIndices.mark(i);
+        }
+        drained.clear();
+        bh.consume(c.dirtyIndices.drainTo(drained));
+    }
+
+    private static void add(VxServerBodyDataStore store, VxBody body) {
+        int index = store.addBody(body, EBodyType.RigidBody);
+        body.setDataStoreIndex(store, index);
+    }
+}
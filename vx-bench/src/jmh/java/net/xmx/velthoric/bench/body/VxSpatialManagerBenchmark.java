@@ -0,0 +1,75 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.body;
+
+import net.minecraft.world.level.ChunkPos;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.tracking.VxSpatialManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the chunk index of physics bodies with crowded chunks.
+ * <ul>
+ *     <li>{@code moveBetweenCrowdedChunks}: moves a slice of bodies across a chunk border and back,
+ *     as bodies do when they slide along a border.</li>
+ *     <li>{@code forEachInCrowdedChunk}: visits every body of a chunk, as tracking and saving do.</li>
+ * </ul>
+ * Pure Java, no natives required.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxSpatialManagerBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int bodiesPerChunk;
+
+    /**
+     * The number of bodies moved per {@code moveBetweenCrowdedChunks} invocation.
+     */
+    private static final int MOVE_SLICE = 64;
+
+    private static final long CHUNK_A = ChunkPos.asLong(0, 0);
+    private static final long CHUNK_B = ChunkPos.asLong(1, 0);
+
+    private VxSpatialManager spatialManager;
+    private VxBody[] bodies;
+    private int moveCursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spatialManager = new VxSpatialManager();
+        bodies = new VxBody[bodiesPerChunk * 2];
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = new VxBody(VxBenchEnvironment.BENCH_BODY_TYPE, null, UUID.randomUUID());
+            spatialManager.add(i < bodiesPerChunk ? CHUNK_A : CHUNK_B, bodies[i]);
+        }
+        moveCursor = 0;
+    }
+
+    @Benchmark
+    public void moveBetweenCrowdedChunks() {
+        int start = moveCursor;
+        for (int k = 0; k < MOVE_SLICE; k++) {
+            // Bodies from the middle of chunk A, so a linear search would scan half the chunk
+            VxBody body = bodies[(start + k) % bodiesPerChunk];
+            spatialManager.move(body, CHUNK_A, CHUNK_B);
+            spatialManager.move(body, CHUNK_B, CHUNK_A);
+        }
+        moveCursor = (start + MOVE_SLICE) % bodiesPerChunk;
+    }
+
+    @Benchmark
+    public void forEachInCrowdedChunk(Blackhole bh) {
+        spatialManager.forEachInChunk(CHUNK_A, bh::consume);
+    }
+}
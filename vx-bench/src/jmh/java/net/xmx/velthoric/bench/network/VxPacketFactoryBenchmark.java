@@ -0,0 +1,120 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.network;
+
+import com.github.stephengold.joltjni.enumerate.EBodyType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.level.ChunkPos;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
+import net.xmx.velthoric.core.network.internal.VxPacketFactory;
+import net.xmx.velthoric.core.network.internal.packet.S2CUpdateBodyStateBatchPacket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-chunk state packet encoding: quantization, delta encoding against the
+ * network baseline, and Zstd compression into a pooled direct buffer.
+ * <p>
+ * Every invocation moves all bodies by a small random step, as the physics sync would.
+ * In {@code KEYFRAME} mode every body additionally requests a keyframe, which is the
+ * cost paid when a player starts tracking a crowded chunk.
+ * <p>
+ * Requires the Zstd native library.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxPacketFactoryBenchmark {
+
+    public enum UpdateKind {
+        DELTA,
+        KEYFRAME
+    }
+
+    @Param({"64", "512", "4096"})
+    public int bodiesPerChunk;
+
+    @Param({"DELTA", "KEYFRAME"})
+    public UpdateKind updateKind;
+
+    private static final int MIN_BUILD_HEIGHT = -64;
+
+    private final ChunkPos chunkPos = new ChunkPos(12, -7);
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    private VxServerBodyDataStore dataStore;
+    private VxPacketFactory packetFactory;
+    private IntArrayList indices;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        VxBenchEnvironment.natives();
+
+        dataStore = new VxServerBodyDataStore();
+        packetFactory = new VxPacketFactory(dataStore);
+        indices = new IntArrayList(bodiesPerChunk);
+
+        for (int i = 0; i < bodiesPerChunk; i++) {
+            VxBody body = new VxBody(VxBenchEnvironment.BENCH_BODY_TYPE, null, UUID.randomUUID());
+            int index = dataStore.addBody(body, EBodyType.RigidBody);
+            body.setDataStoreIndex(dataStore, index);
+            indices.add(index);
+        }
+
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        for (int k = 0; k < indices.size(); k++) {
+            int i = indices.getInt(k);
+            c.networkId[i] = k + 1;
+            c.chunkKey[i] = chunkPos.toLong();
+            c.posX[i] = chunkPos.getMinBlockX() + random.nextDouble() * 16.0;
+            c.posY[i] = 64.0 + random.nextDouble() * 32.0;
+            c.posZ[i] = chunkPos.getMinBlockZ() + random.nextDouble() * 16.0;
+            c.rotW[i] = 1.0f;
+            c.isActive[i] = true;
+        }
+
+        // Establish the baseline so the first measured invocation is a regular delta
+        release(packetFactory.createStatePacket(chunkPos.toLong(), indices, MIN_BUILD_HEIGHT));
+    }
+
+    @Setup(Level.Invocation)
+    public void step() {
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        for (int k = 0; k < indices.size(); k++) {
+            int i = indices.getInt(k);
+            c.posX[i] += random.nextDouble(-0.05, 0.05);
+            c.posY[i] += random.nextDouble(-0.05, 0.05);
+            c.posZ[i] += random.nextDouble(-0.05, 0.05);
+            c.velX[i] = (float) random.nextDouble(-3.0, 3.0);
+            c.velY[i] = (float) random.nextDouble(-3.0, 3.0);
+            c.velZ[i] = (float) random.nextDouble(-3.0, 3.0);
+            if (updateKind == UpdateKind.KEYFRAME) {
+                dataStore.requestKeyframe(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void createStatePacket(Blackhole bh) {
+        S2CUpdateBodyStateBatchPacket packet = packetFactory.createStatePacket(chunkPos.toLong(), indices, MIN_BUILD_HEIGHT);
+        bh.consume(packet);
+        release(packet);
+    }
+
+    private static void release(S2CUpdateBodyStateBatchPacket packet) {
+        if (packet != null) {
+            packet.release();
+        }
+    }
+}
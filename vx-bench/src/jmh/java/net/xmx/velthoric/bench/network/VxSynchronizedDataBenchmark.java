@@ -0,0 +1,95 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.xmx.velthoric.core.network.synchronization.VxDataSerializers;
+import net.xmx.velthoric.core.network.synchronization.VxSynchronizedData;
+import net.xmx.velthoric.core.network.synchronization.accessor.VxServerAccessor;
+import net.xmx.velthoric.network.VxByteBuf;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding of custom synchronized body data.
+ * <ul>
+ *     <li>{@code writeDirtyEntries}: the per-tick path, where a few fields of every body changed.</li>
+ *     <li>{@code writeAllEntries}: the spawn path, where all fields of every body are written.</li>
+ * </ul>
+ * Only serializers without native dependencies are used, so no natives are required.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxSynchronizedDataBenchmark {
+
+    private static final VxServerAccessor<Float> DATA_RADIUS = VxServerAccessor.create(VxSynchronizedDataBenchmark.class, VxDataSerializers.FLOAT);
+    private static final VxServerAccessor<Integer> DATA_COLOR = VxServerAccessor.create(VxSynchronizedDataBenchmark.class, VxDataSerializers.INTEGER);
+    private static final VxServerAccessor<Boolean> DATA_GLOWING = VxServerAccessor.create(VxSynchronizedDataBenchmark.class, VxDataSerializers.BOOLEAN);
+    private static final VxServerAccessor<String> DATA_LABEL = VxServerAccessor.create(VxSynchronizedDataBenchmark.class, VxDataSerializers.STRING);
+    private static final VxServerAccessor<UUID> DATA_OWNER = VxServerAccessor.create(VxSynchronizedDataBenchmark.class, VxDataSerializers.UUID);
+
+    @Param({"100", "1000", "10000"})
+    public int bodyCount;
+
+    private VxSynchronizedData[] data;
+    private ByteBuf buffer;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = new VxSynchronizedData[bodyCount];
+        for (int i = 0; i < bodyCount; i++) {
+            data[i] = new VxSynchronizedData.Builder()
+                    .define(DATA_RADIUS, 0.5f)
+                    .define(DATA_COLOR, 0xFFFFFF)
+                    .define(DATA_GLOWING, false)
+                    .define(DATA_LABEL, "body-" + i)
+                    .define(DATA_OWNER, UUID.randomUUID())
+                    .build();
+        }
+        buffer = PooledByteBufAllocator.DEFAULT.directBuffer(bodyCount * 64);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public void writeDirtyEntries(Blackhole bh) {
+        buffer.clear();
+        VxByteBuf buf = new VxByteBuf(buffer);
+        int t = ++tick;
+        for (VxSynchronizedData d : data) {
+            d.set(DATA_RADIUS, 0.5f + (t & 15) * 0.01f);
+            d.set(DATA_COLOR, t);
+
+            List<VxSynchronizedData.Entry<?>> dirty = d.getDirtyEntries();
+            if (dirty != null) {
+                VxSynchronizedData.writeEntries(buf, dirty);
+                d.clearDirty();
+            }
+        }
+        bh.consume(buffer.writerIndex());
+    }
+
+    @Benchmark
+    public void writeAllEntries(Blackhole bh) {
+        buffer.clear();
+        VxByteBuf buf = new VxByteBuf(buffer);
+        for (VxSynchronizedData d : data) {
+            VxSynchronizedData.writeEntries(buf, d.getAllEntries());
+        }
+        bh.consume(buffer.writerIndex());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.persistence;
+
+import com.github.stephengold.joltjni.enumerate.EBodyType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
+import net.xmx.velthoric.core.persistence.impl.body.VxBodyCodec;
+import net.xmx.velthoric.core.persistence.impl.body.VxSerializedBodyData;
+import net.xmx.velthoric.network.VxByteBuf;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the persistence codec on the granularity it is used with: all bodies of one chunk.
+ * <ul>
+ *     <li>{@code serializeChunk}: encodes every body into a single chunk buffer, as the chunk storage does on save.</li>
+ *     <li>{@code deserializeChunk}: splits a chunk buffer back into per-body records, as done on load.</li>
+ * </ul>
+ * Both run with the full-precision and the compact kinematics encoding.
+ * The bodies live in a standalone data store without a physics world. Pure Java, no natives required.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxBodyCodecBenchmark {
+
+    @Param({"16", "256", "2048"})
+    public int bodiesPerChunk;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private List<VxBody> bodies;
+    private final List<VxSerializedBodyData> records = new ArrayList<>();
+    private ByteBuf writeBuffer;
+    private ByteBuf encodedChunk;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(7L);
+        VxServerBodyDataStore dataStore = new VxServerBodyDataStore();
+        VxBody[] created = new VxBody[bodiesPerChunk];
+
+        for (int i = 0; i < bodiesPerChunk; i++) {
+            VxBody body = new VxBody(VxBenchEnvironment.BENCH_BODY_TYPE, null, UUID.randomUUID());
+            int index = dataStore.addBody(body, EBodyType.RigidBody);
+            body.setDataStoreIndex(dataStore, index);
+            created[i] = body;
+        }
+        bodies = Arrays.asList(created);
+
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+        for (VxBody body : bodies) {
+            int i = body.getDataStoreIndex();
+            c.posX[i] = random.nextDouble(0.0, 16.0);
+            c.posY[i] = random.nextDouble(-64.0, 320.0);
+            c.posZ[i] = random.nextDouble(0.0, 16.0);
+            c.rotW[i] = 1.0f;
+            c.velY[i] = (float) random.nextDouble(-10.0, 0.0);
+        }
+
+        writeBuffer = PooledByteBufAllocator.DEFAULT.heapBuffer(bodiesPerChunk * 128);
+        encodedChunk = PooledByteBufAllocator.DEFAULT.heapBuffer(bodiesPerChunk * 128);
+        VxBodyCodec.serializeChunk(bodies, new VxByteBuf(encodedChunk), compact);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writeBuffer.release();
+        encodedChunk.release();
+    }
+
+    @Benchmark
+    public void serializeChunk(Blackhole bh) {
+        writeBuffer.clear();
+        VxBodyCodec.serializeChunk(bodies, new VxByteBuf(writeBuffer), compact);
+        bh.consume(writeBuffer.writerIndex());
+    }
+
+    @Benchmark
+    public void deserializeChunk(Blackhole bh) {
+        records.clear();
+        VxBodyCodec.deserializeChunk(new VxByteBuf(encodedChunk.duplicate()), records);
+        for (VxSerializedBodyData data : records) {
+            bh.consume(data.id());
+            data.bodyData().release();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.persistence;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.world.level.ChunkPos;
+import net.xmx.velthoric.core.persistence.region.VxRegionFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures a region file on the save-all path: flushing the dirty chunks of one region and reading them back.
+ * <ul>
+ *     <li>{@code flushRegion}: writes all chunks in one batch and syncs the location table.</li>
+ *     <li>{@code readRegion}: reads every chunk of the region.</li>
+ * </ul>
+ * Chunk payloads are semi-random so that Zstd compresses them partially, like encoded body data.
+ * Run with {@code -Dvelthoric.persistence.mmapRegions=true} to measure the mapped read path.
+ * Uses the Zstd natives bundled with zstd-jni.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VxRegionFileBenchmark {
+
+    @Param({"16", "256", "1024"})
+    public int chunksPerFlush;
+
+    @Param({"4096", "32768"})
+    public int bytesPerChunk;
+
+    private Path directory;
+    private VxRegionFile regionFile;
+    private final List<ChunkPos> positions = new ArrayList<>();
+    private final List<ByteBuf> payloads = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("vx-region-bench");
+        regionFile = new VxRegionFile(directory.resolve("r.0.0.vxb"));
+
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int i = 0; i < chunksPerFlush; i++) {
+            positions.add(new ChunkPos(i & 31, i >> 5));
+
+            ByteBuf payload = PooledByteBufAllocator.DEFAULT.directBuffer(bytesPerChunk);
+            for (int j = 0; j < bytesPerChunk; j += 8) {
+                // Half the bytes of each long are random, the rest repeats
+                payload.writeLong(random.nextInt() & 0xFFFF_FFFFL);
+            }
+            payloads.add(payload);
+        }
+
+        regionFile.write(positions, payloads);
+        regionFile.sync();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        regionFile.close();
+        payloads.forEach(ByteBuf::release);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void flushRegion() throws IOException {
+        regionFile.write(positions, payloads);
+        regionFile.sync();
+    }
+
+    @Benchmark
+    public void readRegion(Blackhole bh) {
+        for (ChunkPos pos : positions) {
+            ByteBuf data = regionFile.read(pos);
+            bh.consume(data.readableBytes());
+            data.release();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.physics;
+
+import com.github.stephengold.joltjni.*;
+import com.github.stephengold.joltjni.enumerate.EActivation;
+import com.github.stephengold.joltjni.enumerate.EBodyType;
+import com.github.stephengold.joltjni.enumerate.EMotionType;
+import com.github.stephengold.joltjni.readonly.ConstBody;
+import com.github.stephengold.joltjni.readonly.ConstBodyLockInterfaceNoLock;
+import com.github.stephengold.joltjni.readonly.QuatArg;
+import com.github.stephengold.joltjni.readonly.RVec3Arg;
+import com.github.stephengold.joltjni.readonly.Vec3Arg;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.body.VxBody;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataContainer;
+import net.xmx.velthoric.core.body.server.VxServerBodyDataStore;
+import net.xmx.velthoric.core.physics.VxBodyStateBatch;
+import net.xmx.velthoric.core.physics.VxNativeBufferPool;
+import net.xmx.velthoric.core.physics.VxPhysicsBootstrap;
+import net.xmx.velthoric.core.physics.VxPhysicsLayers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extraction of simulation results from a headless Jolt physics system into the SoA data store.
+ * <p>
+ * {@code batched} runs the production batch path of {@code VxPhysicsSyncBehavior#processUpdateBatch}:
+ * {@link VxBodyStateBatch#fetch} (one batch call per property), then a multi-body lock for the bounds and the
+ * {@link VxBodyStateBatch} copies into a {@link VxServerBodyDataStore}. {@code perBody} reads the same
+ * properties with one JNI call per body and property. The behavior's manager callbacks need a live
+ * {@code VxPhysicsWorld} and are not part of the measurement.
+ * <p>
+ * Requires the Jolt native library.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxPhysicsSyncBatchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int bodyCount;
+
+    @Param({"64", "512"})
+    public int batchSize;
+
+    private TempAllocatorImpl tempAllocator;
+    private JobSystemThreadPool jobSystem;
+    private PhysicsSystem physicsSystem;
+
+    private int[] bodyIds;
+    private BodyIdArray[] batches;
+
+    private VxNativeBufferPool pool;
+    private VxBodyStateBatch stateBatch;
+    private VxServerBodyDataStore dataStore;
+    private int[] dataIndices;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        VxBenchEnvironment.natives();
+
+        tempAllocator = new TempAllocatorImpl(16 * 1024 * 1024);
+        jobSystem = new JobSystemThreadPool(Jolt.cMaxPhysicsJobs, Jolt.cMaxPhysicsBarriers,
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+        physicsSystem = new PhysicsSystem();
+        physicsSystem.init(bodyCount + 16, 0, bodyCount * 2, bodyCount * 2,
+                VxPhysicsBootstrap.getBroadPhaseLayerInterface(),
+                VxPhysicsBootstrap.getObjectVsBroadPhaseLayerFilter(),
+                VxPhysicsBootstrap.getObjectLayerPairFilter());
+        physicsSystem.setGravity(0f, -9.81f, 0f);
+
+        bodyIds = new int[bodyCount];
+        BodyInterface bodyInterface = physicsSystem.getBodyInterface();
+        try (SphereShapeSettings shapeSettings = new SphereShapeSettings(0.5f);
+             ShapeResult shapeResult = shapeSettings.create();
+             ShapeRefC shape = shapeResult.get();
+             BodyCreationSettings bcs = new BodyCreationSettings()) {
+            bcs.setShape(shape);
+            bcs.setMotionType(EMotionType.Dynamic);
+            bcs.setObjectLayer(VxPhysicsLayers.MOVING);
+            int side = (int) Math.ceil(Math.cbrt(bodyCount));
+            for (int i = 0; i < bodyCount; i++) {
+                // A sparse grid, so the bodies fall freely and stay active
+                bcs.setPosition((i % side) * 2.0, 100.0 + ((i / side) % side) * 2.0, (i / (side * side)) * 2.0);
+                bodyIds[i] = bodyInterface.createAndAddBody(bcs, EActivation.Activate);
+            }
+        }
+        physicsSystem.optimizeBroadPhase();
+        physicsSystem.update(1f / 60f, 1, tempAllocator, jobSystem);
+
+        int batchCount = (bodyCount + batchSize - 1) / batchSize;
+        batches = new BodyIdArray[batchCount];
+        for (int b = 0; b < batchCount; b++) {
+            int start = b * batchSize;
+            int count = Math.min(batchSize, bodyCount - start);
+            batches[b] = new BodyIdArray(count);
+            for (int j = 0; j < count; j++) {
+                batches[b].set(j, bodyIds[start + j]);
+            }
+        }
+
+        pool = new VxNativeBufferPool();
+        stateBatch = pool.getStateBatch();
+
+        dataStore = new VxServerBodyDataStore();
+        dataIndices = new int[bodyCount];
+        for (int i = 0; i < bodyCount; i++) {
+            VxBody body = new VxBody(VxBenchEnvironment.BENCH_BODY_TYPE, null, UUID.randomUUID());
+            dataIndices[i] = dataStore.addBody(body, EBodyType.RigidBody);
+            body.setDataStoreIndex(dataStore, dataIndices[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BodyInterface bodyInterface = physicsSystem.getBodyInterface();
+        for (int bodyId : bodyIds) {
+            bodyInterface.removeBody(bodyId);
+            bodyInterface.destroyBody(bodyId);
+        }
+        for (BodyIdArray batch : batches) {
+            batch.close();
+        }
+        pool.close();
+        physicsSystem.close();
+        jobSystem.close();
+        tempAllocator.close();
+    }
+
+    @Benchmark
+    public void batched(Blackhole bh) {
+        BatchBodyInterface bodyInterface = physicsSystem.getBodyInterfaceNoLock();
+        ConstBodyLockInterfaceNoLock lockInterface = physicsSystem.getBodyLockInterfaceNoLock();
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+
+        for (int b = 0; b < batches.length; b++) {
+            BodyIdArray ids = batches[b];
+            int base = b * batchSize;
+            int count = Math.min(batchSize, bodyCount - base);
+
+            stateBatch.fetch(bodyInterface, ids);
+
+            try (BodyLockMultiRead multiLock = new BodyLockMultiRead(lockInterface, ids)) {
+                ConstBody[] lockedBodies = multiLock.getBodies();
+                for (int j = 0; j < count; j++) {
+                    if (!stateBatch.isAdded(j)) continue;
+                    int i = dataIndices[base + j];
+
+                    stateBatch.copyState(j, c, i);
+                    c.isActive[i] = stateBatch.isActive(j);
+
+                    ConstBody body = lockedBodies[j];
+                    if (body != null) {
+                        VxBodyStateBatch.copyBounds(body, c, i);
+                    }
+                }
+            }
+        }
+        bh.consume(c.posY);
+    }
+
+    @Benchmark
+    public void perBody(Blackhole bh) {
+        BodyInterface bodyInterface = physicsSystem.getBodyInterfaceNoLock();
+        ConstBodyLockInterfaceNoLock lockInterface = physicsSystem.getBodyLockInterfaceNoLock();
+        VxServerBodyDataContainer c = dataStore.serverCurrent();
+
+        for (int k = 0; k < bodyCount; k++) {
+            int bodyId = bodyIds[k];
+            if (!bodyInterface.isAdded(bodyId)) continue;
+            int i = dataIndices[k];
+
+            RVec3Arg pos = bodyInterface.getPosition(bodyId);
+            QuatArg rot = bodyInterface.getRotation(bodyId);
+            Vec3Arg vel = bodyInterface.getLinearVelocity(bodyId);
+            Vec3Arg angVel = bodyInterface.getAngularVelocity(bodyId);
+
+            c.posX[i] = pos.xx();
+            c.posY[i] = pos.yy();
+            c.posZ[i] = pos.zz();
+            c.rotX[i] = rot.getX();
+            c.rotY[i] = rot.getY();
+            c.rotZ[i] = rot.getZ();
+            c.rotW[i] = rot.getW();
+            c.velX[i] = vel.getX();
+            c.velY[i] = vel.getY();
+            c.velZ[i] = vel.getZ();
+            c.angVelX[i] = angVel.getX();
+            c.angVelY[i] = angVel.getY();
+            c.angVelZ[i] = angVel.getZ();
+            c.motionType[i] = bodyInterface.getMotionType(bodyId);
+            c.isActive[i] = bodyInterface.isActive(bodyId);
+
+            try (BodyLockRead lock = new BodyLockRead(lockInterface, bodyId)) {
+                if (lock.succeededAndIsInBroadPhase()) {
+                    VxBodyStateBatch.copyBounds(lock.getBody(), c, i);
+                }
+            }
+        }
+        bh.consume(c.posY);
+    }
+}
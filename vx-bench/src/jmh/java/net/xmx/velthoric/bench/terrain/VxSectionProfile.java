@@ -0,0 +1,81 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.terrain;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.xmx.velthoric.core.terrain.generation.VxChunkSnapshot;
+
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic chunk section contents for the terrain benchmarks.
+ * Requires the vanilla registries to be bootstrapped.
+ *
+ * @author xI-Mx-Ix
+ */
+public enum VxSectionProfile {
+
+    /**
+     * The lower half of the section is solid stone, as in flat or surface terrain.
+     */
+    SOLID_FLOOR,
+
+    /**
+     * Randomly carved stone with about 60% fill, as in cave-heavy underground sections.
+     */
+    CAVES,
+
+    /**
+     * A stone floor scattered with slabs and stairs, which exercises the partial-shape fallback.
+     */
+    BUILT;
+
+    /**
+     * Creates a snapshot of a section with this profile.
+     *
+     * @param sectionX The section X coordinate.
+     * @param sectionY The section Y coordinate.
+     * @param sectionZ The section Z coordinate.
+     * @param seed     The random seed for the block layout.
+     * @return A new snapshot containing only non-air blocks.
+     */
+    public VxChunkSnapshot create(int sectionX, int sectionY, int sectionZ, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        short[] positions = new short[4096];
+        BlockState[] states = new BlockState[4096];
+        int count = 0;
+
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    BlockState state = pick(x, y, z, random);
+                    if (state == null) continue;
+                    positions[count] = (short) ((x << 8) | (y << 4) | z);
+                    states[count] = state;
+                    count++;
+                }
+            }
+        }
+        return new VxChunkSnapshot(positions, states, count, SectionPos.asLong(sectionX, sectionY, sectionZ));
+    }
+
+    private BlockState pick(int x, int y, int z, SplittableRandom random) {
+        return switch (this) {
+            case SOLID_FLOOR -> y < 8 ? Blocks.STONE.defaultBlockState() : null;
+            case CAVES -> random.nextInt(10) < 6 ? Blocks.STONE.defaultBlockState() : null;
+            case BUILT -> {
+                if (y < 6) yield Blocks.STONE.defaultBlockState();
+                if (y == 6) {
+                    int roll = random.nextInt(8);
+                    if (roll == 0) yield Blocks.STONE_SLAB.defaultBlockState();
+                    if (roll == 1) yield Blocks.STONE_STAIRS.defaultBlockState();
+                }
+                yield null;
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.terrain;
+
+import com.github.stephengold.joltjni.ShapeRefC;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.terrain.cache.VxTerrainShapeCache;
+import net.xmx.velthoric.core.terrain.generation.VxChunkSnapshot;
+import net.xmx.velthoric.core.terrain.generation.VxTerrainGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generation of a terrain compound shape for a single chunk section,
+ * including the greedy merging of full cubes and the native compound creation.
+ * <p>
+ * The shape cache is cleared before every invocation, so each call performs a full generation.
+ * Block collision shapes are resolved without a level, which is exact for the blocks used by
+ * {@link VxSectionProfile}. Requires the Jolt native library.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VxTerrainGeneratorBenchmark {
+
+    @Param({"SOLID_FLOOR", "CAVES", "BUILT"})
+    public VxSectionProfile profile;
+
+    private VxTerrainShapeCache shapeCache;
+    private VxTerrainGenerator generator;
+    private VxChunkSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        VxBenchEnvironment.natives();
+        VxBenchEnvironment.minecraft();
+
+        shapeCache = new VxTerrainShapeCache(1024 * 1024);
+        generator = new VxTerrainGenerator(shapeCache);
+        snapshot = profile.create(3, 4, -2, 1234L);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        shapeCache.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shapeCache.clear();
+        generator.close();
+    }
+
+    @Benchmark
+    public void generateShape(Blackhole bh) {
+        ShapeRefC shape = generator.generateShape(null, snapshot);
+        bh.consume(shape);
+        if (shape != null) {
+            shape.close();
+        }
+    }
+}
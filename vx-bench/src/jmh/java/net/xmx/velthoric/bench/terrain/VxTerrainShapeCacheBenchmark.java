@@ -0,0 +1,96 @@
+/*
+ * This file is part of Velthoric.
+ * Licensed under LGPL 3.0.
+ */
+package net.xmx.velthoric.bench.terrain;
+
+import com.github.stephengold.joltjni.BoxShapeSettings;
+import com.github.stephengold.joltjni.ShapeRefC;
+import com.github.stephengold.joltjni.ShapeResult;
+import com.github.stephengold.joltjni.Vec3;
+import net.xmx.velthoric.bench.VxBenchEnvironment;
+import net.xmx.velthoric.core.terrain.cache.VxTerrainShapeCache;
+import net.xmx.velthoric.core.terrain.cache.VxTerrainShapeKey;
+import net.xmx.velthoric.core.terrain.generation.VxChunkSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures terrain shape cache lookups as performed by the generator for every section job:
+ * digesting the section snapshot and probing the cache, including full-key verification on a hit.
+ * <ul>
+ *     <li>{@code lookupHit}: the snapshot is cached, a new native reference is handed out and closed.</li>
+ *     <li>{@code lookupMiss}: the snapshot is not cached.</li>
+ * </ul>
+ * Requires the Jolt native library.
+ *
+ * @author xI-Mx-Ix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VxTerrainShapeCacheBenchmark {
+
+    @Param({"256", "2048"})
+    public int cachedSections;
+
+    @Param({"SOLID_FLOOR", "CAVES"})
+    public VxSectionProfile profile;
+
+    private VxTerrainShapeCache shapeCache;
+    private VxChunkSnapshot[] cachedSnapshots;
+    private VxChunkSnapshot[] missingSnapshots;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        VxBenchEnvironment.natives();
+        VxBenchEnvironment.minecraft();
+
+        // An unbounded budget, so every section stays cached
+        shapeCache = new VxTerrainShapeCache(Long.MAX_VALUE);
+        cachedSnapshots = new VxChunkSnapshot[cachedSections];
+        missingSnapshots = new VxChunkSnapshot[cachedSections];
+
+        try (BoxShapeSettings settings = new BoxShapeSettings(new Vec3(8f, 8f, 8f));
+             ShapeResult result = settings.create()) {
+            ShapeRefC master = result.get();
+            for (int i = 0; i < cachedSections; i++) {
+                cachedSnapshots[i] = profile.create(i, 0, 0, i);
+                missingSnapshots[i] = profile.create(i, 1, 0, i);
+                // The cache takes ownership of each reference
+                shapeCache.put(VxTerrainShapeKey.of(cachedSnapshots[i]), master.getPtr().toRefC(), 1);
+            }
+            master.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shapeCache.clear();
+    }
+
+    @Benchmark
+    public void lookupHit(Blackhole bh) {
+        VxChunkSnapshot snapshot = cachedSnapshots[next()];
+        ShapeRefC shape = shapeCache.get(VxTerrainShapeKey.of(snapshot));
+        bh.consume(shape);
+        if (shape != null) {
+            shape.close();
+        }
+    }
+
+    @Benchmark
+    public void lookupMiss(Blackhole bh) {
+        VxChunkSnapshot snapshot = missingSnapshots[next()];
+        bh.consume(shapeCache.get(VxTerrainShapeKey.of(snapshot)));
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) % cachedSections;
+        return i;
+    }
+}